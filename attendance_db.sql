@@ -35,9 +35,27 @@ CREATE TABLE subjects (
     semester INT NOT NULL CHECK (semester BETWEEN 1 AND 8),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_subject_code (subject_code),
-    INDEX idx_semester (semester)
+    INDEX idx_subject_semester (semester)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ========================================
+-- TABLE: attendance_statuses
+-- Codes stored in attendance.status, matching the AttendanceStatus enum.
+-- A new status is a new row here; codes are never reused.
+-- ========================================
+CREATE TABLE attendance_statuses (
+    status_code TINYINT PRIMARY KEY,
+    label VARCHAR(20) UNIQUE NOT NULL,
+    counts_present BOOLEAN NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO attendance_statuses (status_code, label, counts_present) VALUES
+(1, 'Present', TRUE),
+(2, 'Absent', FALSE),
+(3, 'Late', TRUE),
+(4, 'Excused', FALSE),
+(5, 'On Duty', TRUE);
+
 -- ========================================
 -- TABLE: attendance
 -- ========================================
@@ -46,14 +64,71 @@ CREATE TABLE attendance (
     student_id INT NOT NULL,
     subject_id INT NOT NULL,
     date DATE NOT NULL,
-    status ENUM('Present', 'Absent') NOT NULL,
+    status TINYINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE,
     FOREIGN KEY (subject_id) REFERENCES subjects(subject_id) ON DELETE CASCADE,
+    FOREIGN KEY (status) REFERENCES attendance_statuses(status_code),
     UNIQUE KEY unique_attendance (student_id, subject_id, date),
     INDEX idx_date (date),
     INDEX idx_student_subject (student_id, subject_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_subject_date (subject_id, date),
+    INDEX idx_updated (updated_at, attendance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ========================================
+-- TABLE: attendance_versions
+-- One row per marked class (subject and date). The version is bumped by every
+-- save, so a save based on an older version is detected and merged or rejected.
+-- ========================================
+CREATE TABLE attendance_versions (
+    subject_id INT NOT NULL,
+    date DATE NOT NULL,
+    version INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (subject_id, date),
+    FOREIGN KEY (subject_id) REFERENCES subjects(subject_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ========================================
+-- TABLE: terms
+-- Academic terms. Closing (archiving) a term moves its attendance rows to
+-- attendance_archive, so the attendance table only holds open terms.
+-- ========================================
+CREATE TABLE terms (
+    term_id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) UNIQUE NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    archived_at TIMESTAMP NULL,
+    archived_rows INT NOT NULL DEFAULT 0,
+    CHECK (end_date >= start_date),
+    INDEX idx_term_dates (start_date, end_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ========================================
+-- TABLE: attendance_archive
+-- Attendance of archived terms, same columns as attendance plus the term.
+-- No foreign keys and the date in the primary key, so on MySQL it can be
+-- range-partitioned by term, e.g.
+--   ALTER TABLE attendance_archive PARTITION BY RANGE COLUMNS(date) (
+--       PARTITION p2024_odd VALUES LESS THAN ('2025-01-01'),
+--       PARTITION p2025_even VALUES LESS THAN ('2025-07-01'),
+--       PARTITION p_future VALUES LESS THAN (MAXVALUE));
+-- ========================================
+CREATE TABLE attendance_archive (
+    attendance_id INT NOT NULL,
+    student_id INT NOT NULL,
+    subject_id INT NOT NULL,
+    date DATE NOT NULL,
+    status TINYINT NOT NULL,
+    created_at TIMESTAMP NULL,
+    term_id INT NOT NULL,
+    PRIMARY KEY (attendance_id, date),
+    INDEX idx_archive_date (date),
+    INDEX idx_archive_student_subject (student_id, subject_id),
+    INDEX idx_archive_subject_date (subject_id, date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ========================================
@@ -177,50 +252,58 @@ INSERT INTO subjects (subject_code, subject_name, semester) VALUES
 
 -- ========================================
 -- SAMPLE DATA: Attendance Records
+-- Status codes: 1 = Present, 2 = Absent (see attendance_statuses)
 -- ========================================
 -- Attendance for CS501 (Data Structures)
 INSERT INTO attendance (student_id, subject_id, date, status) VALUES
-(1, 1, '2025-10-01', 'Present'),
-(2, 1, '2025-10-01', 'Present'),
-(3, 1, '2025-10-01', 'Absent'),
-(4, 1, '2025-10-01', 'Present'),
-(5, 1, '2025-10-01', 'Present'),
+(1, 1, '2025-10-01', 1),
+(2, 1, '2025-10-01', 1),
+(3, 1, '2025-10-01', 2),
+(4, 1, '2025-10-01', 1),
+(5, 1, '2025-10-01', 1),
 
-(1, 1, '2025-10-03', 'Present'),
-(2, 1, '2025-10-03', 'Absent'),
-(3, 1, '2025-10-03', 'Present'),
-(4, 1, '2025-10-03', 'Present'),
-(5, 1, '2025-10-03', 'Present'),
+(1, 1, '2025-10-03', 1),
+(2, 1, '2025-10-03', 2),
+(3, 1, '2025-10-03', 1),
+(4, 1, '2025-10-03', 1),
+(5, 1, '2025-10-03', 1),
 
-(1, 1, '2025-10-05', 'Present'),
-(2, 1, '2025-10-05', 'Present'),
-(3, 1, '2025-10-05', 'Present'),
-(4, 1, '2025-10-05', 'Absent'),
-(5, 1, '2025-10-05', 'Present');
+(1, 1, '2025-10-05', 1),
+(2, 1, '2025-10-05', 1),
+(3, 1, '2025-10-05', 1),
+(4, 1, '2025-10-05', 2),
+(5, 1, '2025-10-05', 1);
 
 -- Attendance for CS502 (DBMS)
 INSERT INTO attendance (student_id, subject_id, date, status) VALUES
-(1, 2, '2025-10-02', 'Present'),
-(2, 2, '2025-10-02', 'Present'),
-(3, 2, '2025-10-02', 'Present'),
-(4, 2, '2025-10-02', 'Present'),
-(5, 2, '2025-10-02', 'Absent'),
+(1, 2, '2025-10-02', 1),
+(2, 2, '2025-10-02', 1),
+(3, 2, '2025-10-02', 1),
+(4, 2, '2025-10-02', 1),
+(5, 2, '2025-10-02', 2),
 
-(1, 2, '2025-10-04', 'Present'),
-(2, 2, '2025-10-04', 'Present'),
-(3, 2, '2025-10-04', 'Absent'),
-(4, 2, '2025-10-04', 'Present'),
-(5, 2, '2025-10-04', 'Present');
+(1, 2, '2025-10-04', 1),
+(2, 2, '2025-10-04', 1),
+(3, 2, '2025-10-04', 2),
+(4, 2, '2025-10-04', 1),
+(5, 2, '2025-10-04', 1);
 
 -- Attendance for EC301 (Digital Electronics)
 INSERT INTO attendance (student_id, subject_id, date, status) VALUES
-(6, 7, '2025-10-01', 'Present'),
-(7, 7, '2025-10-01', 'Present'),
-(8, 7, '2025-10-01', 'Present'),
+(6, 7, '2025-10-01', 1),
+(7, 7, '2025-10-01', 1),
+(8, 7, '2025-10-01', 1),
 
-(6, 7, '2025-10-03', 'Absent'),
-(7, 7, '2025-10-03', 'Present'),
-(8, 7, '2025-10-03', 'Present');
+(6, 7, '2025-10-03', 2),
+(7, 7, '2025-10-03', 1),
+(8, 7, '2025-10-03', 1);
+
+-- ========================================
+-- SAMPLE DATA: Terms
+-- ========================================
+INSERT INTO terms (name, start_date, end_date) VALUES
+('2025 Odd Semester', '2025-07-01', '2025-12-31'),
+('2026 Even Semester', '2026-01-01', '2026-06-30');
 
 -- ========================================
 -- SAMPLE DATA: Users
@@ -242,11 +325,12 @@ SELECT
     s.name,
     s.roll_no,
     COUNT(*) as total_classes,
-    SUM(CASE WHEN a.status = 'Present' THEN 1 ELSE 0 END) as present_count,
-    SUM(CASE WHEN a.status = 'Absent' THEN 1 ELSE 0 END) as absent_count,
-    ROUND((SUM(CASE WHEN a.status = 'Present' THEN 1 ELSE 0 END) * 100.0 / COUNT(*)), 2) as percentage
+    SUM(CASE WHEN st.counts_present THEN 1 ELSE 0 END) as present_count,
+    SUM(CASE WHEN NOT st.counts_present THEN 1 ELSE 0 END) as absent_count,
+    ROUND((SUM(CASE WHEN st.counts_present THEN 1 ELSE 0 END) * 100.0 / COUNT(*)), 2) as percentage
 FROM students s
 LEFT JOIN attendance a ON s.student_id = a.student_id
+LEFT JOIN attendance_statuses st ON a.status = st.status_code
 WHERE s.student_id = 1
 GROUP BY s.student_id, s.name, s.roll_no;
 */
@@ -258,11 +342,12 @@ SELECT
     s.roll_no,
     sub.subject_name,
     COUNT(*) as total_classes,
-    SUM(CASE WHEN a.status = 'Present' THEN 1 ELSE 0 END) as present_count,
-    ROUND((SUM(CASE WHEN a.status = 'Present' THEN 1 ELSE 0 END) * 100.0 / COUNT(*)), 2) as percentage
+    SUM(CASE WHEN st.counts_present THEN 1 ELSE 0 END) as present_count,
+    ROUND((SUM(CASE WHEN st.counts_present THEN 1 ELSE 0 END) * 100.0 / COUNT(*)), 2) as percentage
 FROM attendance a
 JOIN students s ON a.student_id = s.student_id
 JOIN subjects sub ON a.subject_id = sub.subject_id
+JOIN attendance_statuses st ON a.status = st.status_code
 WHERE a.subject_id = 1
 GROUP BY s.name, s.roll_no, sub.subject_name
 ORDER BY s.name;
@@ -275,10 +360,11 @@ SELECT
     s.name,
     sub.subject_code,
     sub.subject_name,
-    a.status
+    st.label AS status
 FROM attendance a
 JOIN students s ON a.student_id = s.student_id
 JOIN subjects sub ON a.subject_id = sub.subject_id
+JOIN attendance_statuses st ON a.status = st.status_code
 WHERE a.date = '2025-10-01'
 ORDER BY sub.subject_name, s.name;
 */
@@ -0,0 +1,121 @@
+package com.attendance.bench;
+
+import com.attendance.analytics.AttendanceAnalytics;
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.dao.AttendanceRowHandler;
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttendanceAnalytics queries over a synthetic register of students x subjects x days,
+ * loaded through an in-memory DAO so only the bitmap work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AnalyticsBenchmark {
+
+    @Param({"1200", "5000"})
+    public int students;
+
+    @Param({"24"})
+    public int subjects;
+
+    @Param({"90"})
+    public int days;
+
+    private AttendanceAnalytics analytics;
+    private List<Integer> someSubjects;
+    private LocalDate lastDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        analytics = new AttendanceAnalytics(new GeneratedAttendanceDAO(students, subjects, days));
+        analytics.reload();
+        someSubjects = new ArrayList<>();
+        for (int i = 1; i <= Math.min(3, subjects); i++) {
+            someSubjects.add(i);
+        }
+        lastDay = BenchmarkDataset.FIRST_DAY.plusDays(days - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        analytics.detach();
+    }
+
+    @Benchmark
+    public double institutionPercentage() {
+        return analytics.getInstitutionPercentage();
+    }
+
+    @Benchmark
+    public void studentPercentages(Blackhole bh) {
+        bh.consume(analytics.getStudentPercentages());
+    }
+
+    @Benchmark
+    public int absentInAll() {
+        return analytics.getAbsentInAll(someSubjects, BenchmarkDataset.FIRST_DAY, lastDay.minusDays(days / 2)).cardinality();
+    }
+
+    /**
+     * Streams a deterministic register with a 12% absence rate, every student in every class
+     */
+    static final class GeneratedAttendanceDAO extends AttendanceDAO {
+        private final int students;
+        private final int subjects;
+        private final int days;
+
+        GeneratedAttendanceDAO(int students, int subjects, int days) {
+            this.students = students;
+            this.subjects = subjects;
+            this.days = days;
+        }
+
+        @Override
+        public long streamAllAttendance(AttendanceRowHandler handler) throws IOException {
+            SplittableRandom random = new SplittableRandom(BenchmarkDataset.DEFAULT_SEED);
+            AttendanceRecord record = new AttendanceRecord();
+            long rows = 0;
+            for (int sub = 1; sub <= subjects; sub++) {
+                for (int d = 0; d < days; d++) {
+                    LocalDate date = BenchmarkDataset.FIRST_DAY.plusDays(d);
+                    for (int s = 1; s <= students; s++) {
+                        record.setAttendanceId((int) ++rows);
+                        record.setStudentId(s);
+                        record.setSubjectId(sub);
+                        record.setDate(date);
+                        record.setStatus(random.nextDouble() < 0.12 ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT);
+                        handler.handle(record);
+                    }
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.attendance.bench;
+
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceStatus;
+import com.attendance.model.Student;
+import com.attendance.model.Subject;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic roster, subject list and attendance register shared by the benchmarks.
+ * The same (students, subjects, days, seed) always yields the same data, so results
+ * from different runs and machines are comparable.
+ */
+public final class BenchmarkDataset {
+    public static final long DEFAULT_SEED = 20240601L;
+    public static final LocalDate FIRST_DAY = LocalDate.of(2024, 7, 1);
+
+    private static final String[] DEPARTMENTS = {
+            "Computer Science", "Electronics", "Mechanical", "Civil", "Electrical"
+    };
+    private static final double ABSENCE_RATE = 0.12;
+
+    private final List<Student> students;
+    private final List<Subject> subjects;
+    private final LocalDate[] days;
+    // present[student][subject] out of days.length recorded classes
+    private final int[][] present;
+    // absent[student * days + day] for the first subject, used for record-level benchmarks
+    private final boolean[] firstSubjectAbsent;
+
+    public BenchmarkDataset(int studentCount, int subjectCount, int dayCount) {
+        this(studentCount, subjectCount, dayCount, DEFAULT_SEED);
+    }
+
+    public BenchmarkDataset(int studentCount, int subjectCount, int dayCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        students = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            String department = DEPARTMENTS[i % DEPARTMENTS.length];
+            Student student = new Student("Student " + (i + 1), String.format("R%05d", i + 1),
+                    department, 1 + (i % 8), "Class " + (char) ('A' + (i % 4)));
+            student.setStudentId(i + 1);
+            students.add(student);
+        }
+
+        subjects = new ArrayList<>(subjectCount);
+        for (int i = 0; i < subjectCount; i++) {
+            Subject subject = new Subject(String.format("SUB%03d", i + 1), "Subject " + (i + 1), 1 + (i % 8));
+            subject.setSubjectId(i + 1);
+            subjects.add(subject);
+        }
+
+        days = new LocalDate[dayCount];
+        for (int i = 0; i < dayCount; i++) {
+            days[i] = FIRST_DAY.plusDays(i);
+        }
+
+        present = new int[studentCount][subjectCount];
+        firstSubjectAbsent = new boolean[studentCount * dayCount];
+        for (int s = 0; s < studentCount; s++) {
+            for (int sub = 0; sub < subjectCount; sub++) {
+                int count = 0;
+                for (int d = 0; d < dayCount; d++) {
+                    boolean absent = random.nextDouble() < ABSENCE_RATE;
+                    if (!absent) {
+                        count++;
+                    }
+                    if (sub == 0) {
+                        firstSubjectAbsent[s * dayCount + d] = absent;
+                    }
+                }
+                present[s][sub] = count;
+            }
+        }
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<Subject> getSubjects() {
+        return subjects;
+    }
+
+    public int getDayCount() {
+        return days.length;
+    }
+
+    /**
+     * Classes attended by the student (1-based id) in the subject (1-based id)
+     */
+    public int getPresent(int studentId, int subjectId) {
+        return present[studentId - 1][subjectId - 1];
+    }
+
+    /**
+     * Number of records in the first subject's register (students x days)
+     */
+    public int getRecordCount() {
+        return firstSubjectAbsent.length;
+    }
+
+    /**
+     * Attendance records of the first subject, ordered by date then roll number,
+     * with the joined name columns filled in like the date range export query
+     */
+    public List<AttendanceRecord> getRecords() {
+        Subject subject = subjects.get(0);
+        List<AttendanceRecord> records = new ArrayList<>(getRecordCount());
+        int id = 1;
+        for (int d = 0; d < days.length; d++) {
+            for (int s = 0; s < students.size(); s++) {
+                Student student = students.get(s);
+                AttendanceRecord record = new AttendanceRecord(student.getStudentId(), subject.getSubjectId(),
+                        days[d], firstSubjectAbsent[s * days.length + d] ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT);
+                record.setAttendanceId(id++);
+                record.setStudentName(student.getName());
+                record.setRollNo(student.getRollNo());
+                record.setSubjectCode(subject.getSubjectCode());
+                record.setSubjectName(subject.getSubjectName());
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,125 @@
+package com.attendance.bench;
+
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.SubjectReportRow;
+import com.attendance.model.Student;
+import com.attendance.util.CsvExporter;
+import com.attendance.util.CsvWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CsvExporter throughput: formatting only (into a discarding channel) and
+ * end to end into a real file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CsvExportBenchmark {
+
+    @Param({"60", "1200"})
+    public int students;
+
+    @Param({"8"})
+    public int subjects;
+
+    @Param({"90"})
+    public int days;
+
+    private List<AttendanceRecord> records;
+    private List<SubjectReportRow> subjectRows;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkDataset dataset = new BenchmarkDataset(students, subjects, days);
+        records = dataset.getRecords();
+        subjectRows = new ArrayList<>(students);
+        for (Student s : dataset.getStudents()) {
+            int present = dataset.getPresent(s.getStudentId(), 1);
+            subjectRows.add(new SubjectReportRow(s.getStudentId(), s.getRollNo(), s.getName(), s.getDepartment(),
+                    days, present, days - present));
+        }
+        outputFile = Files.createTempFile("attendance-bench", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    /**
+     * Date range rows (students x days) rendered into a channel that discards the bytes
+     */
+    @Benchmark
+    public long formatDateRangeRows() throws IOException {
+        CsvWriter writer = new CsvWriter(new DiscardingChannel());
+        CsvExporter.writeDateRangeHeader(writer, BenchmarkDataset.FIRST_DAY, BenchmarkDataset.FIRST_DAY.plusDays(days - 1));
+        for (AttendanceRecord record : records) {
+            CsvExporter.writeDateRangeRow(writer, record);
+        }
+        writer.close();
+        return writer.getBytesWritten();
+    }
+
+    /**
+     * Date range export written to a temporary file
+     */
+    @Benchmark
+    public boolean exportDateRangeToFile() {
+        return CsvExporter.exportAttendanceByDateRange(outputFile.toString(), BenchmarkDataset.FIRST_DAY,
+                BenchmarkDataset.FIRST_DAY.plusDays(days - 1), records);
+    }
+
+    /**
+     * Subject report (one row per student) written to a temporary file
+     */
+    @Benchmark
+    public boolean exportSubjectReportToFile() {
+        return CsvExporter.exportSubjectReport(outputFile.toString(), "SUB001", "Subject 1", subjectRows);
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+        private boolean open = true;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
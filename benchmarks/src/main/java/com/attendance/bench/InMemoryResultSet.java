@@ -0,0 +1,101 @@
+package com.attendance.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Forward-only, read-only ResultSet over an in-memory table, so DAO row mapping
+ * can be measured without a database or network in the way.
+ * Only the accessors the DAOs use are implemented; anything else throws
+ * UnsupportedOperationException. Unknown column labels throw SQLException,
+ * like a real driver does.
+ */
+public final class InMemoryResultSet implements InvocationHandler {
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final Object[][] rows;
+    private int cursor = -1;
+    private boolean wasNull;
+    private boolean closed;
+
+    private InMemoryResultSet(String[] columns, Object[][] rows) {
+        for (int i = 0; i < columns.length; i++) {
+            columnIndex.put(columns[i], i);
+        }
+        this.rows = rows;
+    }
+
+    /**
+     * Create a ResultSet over the given rows; each row holds one value per column
+     */
+    public static ResultSet of(String[] columns, Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, new InMemoryResultSet(columns, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "next":
+                return ++cursor < rows.length;
+            case "beforeFirst":
+                cursor = -1;
+                return null;
+            case "getInt": {
+                Object value = value(args[0]);
+                return value == null ? 0 : ((Number) value).intValue();
+            }
+            case "getLong": {
+                Object value = value(args[0]);
+                return value == null ? 0L : ((Number) value).longValue();
+            }
+            case "getString": {
+                Object value = value(args[0]);
+                return value == null ? null : value.toString();
+            }
+            case "getDate":
+                return (Date) value(args[0]);
+            case "getObject":
+                return value(args[0]);
+            case "wasNull":
+                return wasNull;
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryResultSet[" + rows.length + " rows]";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Object value(Object column) throws SQLException {
+        if (cursor < 0 || cursor >= rows.length) {
+            throw new SQLException("No current row");
+        }
+        int index;
+        if (column instanceof Integer) {
+            index = (Integer) column - 1;
+        } else {
+            Integer found = columnIndex.get(column);
+            if (found == null) {
+                throw new SQLException("Column '" + column + "' not found.", "S0022");
+            }
+            index = found;
+        }
+        Object value = rows[cursor][index];
+        wasNull = value == null;
+        return value;
+    }
+}
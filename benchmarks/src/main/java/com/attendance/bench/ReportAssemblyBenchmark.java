@@ -0,0 +1,134 @@
+package com.attendance.bench;
+
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.dao.StudentDAO;
+import com.attendance.dao.SubjectDAO;
+import com.attendance.model.Student;
+import com.attendance.model.StudentReportRow;
+import com.attendance.model.Subject;
+import com.attendance.model.SubjectReportRow;
+import com.attendance.service.AttendanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttendanceService report assembly over in-memory DAOs, isolating the service's
+ * own work (row construction and snapshot wrapping) from database latency.
+ * The in-memory DAO builds its rows the way the grouped report queries return them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ReportAssemblyBenchmark {
+
+    @Param({"60", "1200"})
+    public int students;
+
+    @Param({"8", "24"})
+    public int subjects;
+
+    @Param({"90"})
+    public int days;
+
+    private AttendanceService service;
+    private Student student;
+    private Subject subject;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDataset dataset = new BenchmarkDataset(students, subjects, days);
+        service = new AttendanceService(new InMemoryAttendanceDAO(dataset),
+                new InMemoryStudentDAO(dataset), new InMemorySubjectDAO(dataset));
+        student = dataset.getStudents().get(0);
+        subject = dataset.getSubjects().get(0);
+    }
+
+    @Benchmark
+    public void studentReport(Blackhole bh) {
+        bh.consume(service.generateStudentReport(student));
+    }
+
+    @Benchmark
+    public void subjectReport(Blackhole bh) {
+        bh.consume(service.generateSubjectReport(subject));
+    }
+
+    /**
+     * Serves the grouped per-student and per-subject report rows from the dataset
+     */
+    static final class InMemoryAttendanceDAO extends AttendanceDAO {
+        private final BenchmarkDataset dataset;
+
+        InMemoryAttendanceDAO(BenchmarkDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        @Override
+        public List<StudentReportRow> getStudentReportRows(int studentId) {
+            int total = dataset.getDayCount();
+            List<StudentReportRow> rows = new ArrayList<>();
+            for (Subject subject : dataset.getSubjects()) {
+                int present = dataset.getPresent(studentId, subject.getSubjectId());
+                rows.add(new StudentReportRow(subject.getSubjectId(), subject.getSubjectCode(),
+                        subject.getSubjectName(), total, present, total - present));
+            }
+            return rows;
+        }
+
+        @Override
+        public List<SubjectReportRow> getSubjectReportRows(int subjectId) {
+            int total = dataset.getDayCount();
+            List<SubjectReportRow> rows = new ArrayList<>();
+            for (Student student : dataset.getStudents()) {
+                int present = dataset.getPresent(student.getStudentId(), subjectId);
+                rows.add(new SubjectReportRow(student.getStudentId(), student.getRollNo(), student.getName(),
+                        student.getDepartment(), total, present, total - present));
+            }
+            return rows;
+        }
+    }
+
+    static final class InMemoryStudentDAO extends StudentDAO {
+        private final BenchmarkDataset dataset;
+
+        InMemoryStudentDAO(BenchmarkDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        @Override
+        public List<Student> getAllStudents() {
+            return List.copyOf(dataset.getStudents());
+        }
+    }
+
+    static final class InMemorySubjectDAO extends SubjectDAO {
+        private final BenchmarkDataset dataset;
+
+        InMemorySubjectDAO(BenchmarkDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        @Override
+        public List<Subject> getAllSubjects() {
+            return List.copyOf(dataset.getSubjects());
+        }
+    }
+}
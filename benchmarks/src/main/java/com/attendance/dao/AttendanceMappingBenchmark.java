@@ -0,0 +1,97 @@
+package com.attendance.dao;
+
+import com.attendance.bench.BenchmarkDataset;
+import com.attendance.bench.InMemoryResultSet;
+import com.attendance.model.AttendanceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping cost of AttendanceDAO.extractAttendanceFromResultSet over one subject's
+ * register (students x days rows). Lives in the dao package to reach the
+ * package-private mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AttendanceMappingBenchmark {
+    private static final String[] BASE_COLUMNS = {
+            "attendance_id", "student_id", "subject_id", "date", "status"
+    };
+    private static final String[] JOINED_COLUMNS = {
+            "attendance_id", "student_id", "subject_id", "date", "status",
+            "student_name", "roll_no", "subject_code", "subject_name"
+    };
+
+    @Param({"60", "1200"})
+    public int students;
+
+    @Param({"8"})
+    public int subjects;
+
+    @Param({"90"})
+    public int days;
+
+    private AttendanceDAO dao;
+    private ResultSet joinedRows;
+    private ResultSet baseRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<AttendanceRecord> records = new BenchmarkDataset(students, subjects, days).getRecords();
+        Object[][] joined = new Object[records.size()][];
+        Object[][] base = new Object[records.size()][];
+        for (int i = 0; i < records.size(); i++) {
+            AttendanceRecord r = records.get(i);
+            Date date = Date.valueOf(r.getDate());
+            joined[i] = new Object[] {r.getAttendanceId(), r.getStudentId(), r.getSubjectId(), date, r.getStatus().getCode(),
+                    r.getStudentName(), r.getRollNo(), r.getSubjectCode(), r.getSubjectName()};
+            base[i] = new Object[] {r.getAttendanceId(), r.getStudentId(), r.getSubjectId(), date, r.getStatus().getCode()};
+        }
+        dao = new AttendanceDAO();
+        joinedRows = InMemoryResultSet.of(JOINED_COLUMNS, joined);
+        baseRows = InMemoryResultSet.of(BASE_COLUMNS, base);
+    }
+
+    /**
+     * Rows from the JOIN queries, where all optional name columns are present
+     */
+    @Benchmark
+    public void mapJoinedRows(Blackhole bh) throws SQLException {
+        joinedRows.beforeFirst();
+        while (joinedRows.next()) {
+            bh.consume(dao.extractAttendanceFromResultSet(joinedRows));
+        }
+    }
+
+    /**
+     * Rows from plain attendance queries, where the optional columns are missing
+     */
+    @Benchmark
+    public void mapBaseRows(Blackhole bh) throws SQLException {
+        baseRows.beforeFirst();
+        while (baseRows.next()) {
+            bh.consume(dao.extractAttendanceFromResultSet(baseRows));
+        }
+    }
+}
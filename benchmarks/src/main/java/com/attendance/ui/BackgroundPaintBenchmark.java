@@ -0,0 +1,66 @@
+package com.attendance.ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of CustomBackgroundPanel.paintComponent rendered into an offscreen
+ * image. The animation timer is stopped so only painting is measured; lives in
+ * the ui package to reach the protected paint method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BackgroundPaintBenchmark {
+
+    @Param({"1280"})
+    public int width;
+
+    @Param({"720"})
+    public int height;
+
+    private CustomBackgroundPanel panel;
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        panel = new CustomBackgroundPanel();
+        panel.stopAnimation();
+        panel.setSize(width, height);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        panel.stopAnimation();
+    }
+
+    @Benchmark
+    public BufferedImage paintFrame() {
+        Graphics2D g = image.createGraphics();
+        try {
+            panel.paintComponent(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,16 @@
+-- ========================================
+-- Migration 001: per-class attendance versions
+-- Adds attendance_versions for optimistic concurrency when saving attendance,
+-- and an index for loading one class (subject and date).
+-- MySQL: mysql -u root -p attendance_db < migrations/001_attendance_versions.sql
+-- ========================================
+
+CREATE TABLE attendance_versions (
+    subject_id INT NOT NULL,
+    date DATE NOT NULL,
+    version INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (subject_id, date),
+    FOREIGN KEY (subject_id) REFERENCES subjects(subject_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_subject_date ON attendance (subject_id, date);
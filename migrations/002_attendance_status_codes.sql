@@ -0,0 +1,29 @@
+-- ========================================
+-- Migration 002: attendance status codes
+-- Stores attendance.status as a TINYINT code of the AttendanceStatus enum instead
+-- of ENUM('Present', 'Absent'), with the codes described in attendance_statuses.
+-- Existing rows keep their status: Present becomes 1 and Absent becomes 2.
+-- MySQL: mysql -u root -p attendance_db < migrations/002_attendance_status_codes.sql
+-- ========================================
+
+CREATE TABLE attendance_statuses (
+    status_code TINYINT PRIMARY KEY,
+    label VARCHAR(20) UNIQUE NOT NULL,
+    counts_present BOOLEAN NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO attendance_statuses (status_code, label, counts_present) VALUES
+(1, 'Present', TRUE),
+(2, 'Absent', FALSE),
+(3, 'Late', TRUE),
+(4, 'Excused', FALSE),
+(5, 'On Duty', TRUE);
+
+-- Through a character column, so the labels can be replaced by their codes in place
+ALTER TABLE attendance MODIFY status VARCHAR(20) NOT NULL;
+
+UPDATE attendance SET status = CASE status WHEN 'Present' THEN '1' WHEN 'Absent' THEN '2' END;
+
+ALTER TABLE attendance MODIFY status TINYINT NOT NULL;
+
+ALTER TABLE attendance ADD FOREIGN KEY (status) REFERENCES attendance_statuses(status_code);
@@ -0,0 +1,31 @@
+-- ========================================
+-- Migration 003: academic terms and the attendance archive
+-- Adds terms and attendance_archive. Archiving a term moves its attendance
+-- rows out of attendance, so current-term queries stop scanning old terms.
+-- MySQL: mysql -u root -p attendance_db < migrations/003_terms_and_archive.sql
+-- ========================================
+
+CREATE TABLE terms (
+    term_id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) UNIQUE NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    archived_at TIMESTAMP NULL,
+    archived_rows INT NOT NULL DEFAULT 0,
+    CHECK (end_date >= start_date),
+    INDEX idx_term_dates (start_date, end_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE attendance_archive (
+    attendance_id INT NOT NULL,
+    student_id INT NOT NULL,
+    subject_id INT NOT NULL,
+    date DATE NOT NULL,
+    status TINYINT NOT NULL,
+    created_at TIMESTAMP NULL,
+    term_id INT NOT NULL,
+    PRIMARY KEY (attendance_id, date),
+    INDEX idx_archive_date (date),
+    INDEX idx_archive_student_subject (student_id, subject_id),
+    INDEX idx_archive_subject_date (subject_id, date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
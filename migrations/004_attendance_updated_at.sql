@@ -0,0 +1,14 @@
+-- ========================================
+-- Migration 004: attendance change tracking
+-- Adds attendance.updated_at, set on insert and on every change of a row, and
+-- an index on it, so incremental exports read only the rows changed since their
+-- last run instead of the whole table.
+-- Existing rows take their created_at as their last change.
+-- MySQL: mysql -u root -p attendance_db < migrations/004_attendance_updated_at.sql
+-- ========================================
+
+ALTER TABLE attendance ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+
+UPDATE attendance SET updated_at = created_at WHERE created_at IS NOT NULL;
+
+CREATE INDEX idx_updated ON attendance (updated_at, attendance_id);
@@ -1,9 +1,18 @@
 package com.attendance;
 
+import com.attendance.db.DatabaseConnection;
+import com.attendance.diagnostics.Diagnostics;
+import com.attendance.diagnostics.EdtWatchdog;
+import com.attendance.server.ApiServer;
+import com.attendance.tools.AttendanceImporter;
+import com.attendance.tools.BatchReportRunner;
+import com.attendance.tools.DeltaExporter;
+import com.attendance.tools.TermArchiver;
 import com.attendance.ui.LoginDialog;
 import com.attendance.ui.MainFrame;
 
 import javax.swing.*;
+import java.util.Arrays;
 
 /**
  * Main entry point for the Attendance Management System
@@ -11,6 +20,39 @@ import javax.swing.*;
 public class Main {
     
     public static void main(String[] args) {
+        // Query metrics and the EDT watchdog as set in config.properties, before any database access
+        Diagnostics.configure(DatabaseConnection.getInstance());
+
+        // Headless bulk report run: Main --batch [options]
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchReportRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Bulk attendance import from CSV: Main --import-attendance --file FILE [options]
+        if (args.length > 0 && args[0].equals("--import-attendance")) {
+            AttendanceImporter.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Incremental export of changed attendance: Main --export-changes --dir DIR [options]
+        if (args.length > 0 && args[0].equals("--export-changes")) {
+            DeltaExporter.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Academic terms and archiving: Main --terms --list|--add|--archive ...
+        if (args.length > 0 && args[0].equals("--terms")) {
+            TermArchiver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // JSON HTTP API for thin clients: Main --server [--port N]
+        if (args.length > 0 && args[0].equals("--server")) {
+            ApiServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Set system look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -18,6 +60,11 @@ public class Main {
             e.printStackTrace();
         }
 
+        // Watch the EDT if asked to
+        if (EdtWatchdog.getInstance().isEnabled()) {
+            EdtWatchdog.getInstance().install();
+        }
+
         // Run application on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             // Show login dialog
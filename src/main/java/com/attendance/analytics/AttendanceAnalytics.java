@@ -0,0 +1,462 @@
+package com.attendance.analytics;
+
+import com.attendance.dao.AttendanceChangeListener;
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.model.AttendanceStatus;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory attendance matrix for institution-wide analytics.
+ *
+ * Every class (subject and date) holds two AttendanceBitmaps of student ids: the
+ * students marked at all and the students marked present. A class of 60 students
+ * takes a few hundred bytes instead of 60 AttendanceRecords, and counts, percentages
+ * and set queries become bitmap cardinalities and intersections.
+ *
+ * Loaded once from AttendanceDAO and then kept current through its change listener,
+ * so writes made through the DAOs in this process show up immediately. Wholesale
+ * changes (archiving, imports, cascading deletes of students and subjects) rebuild
+ * the matrix in the background, and a matrix older than MAX_AGE_MINUTES is rebuilt
+ * the same way on the next query, so writes made by other processes show up within
+ * that time. Queries answer from the previous matrix until a rebuild takes over.
+ */
+public class AttendanceAnalytics implements AttendanceChangeListener {
+    private static final long MAX_AGE_MINUTES = 5;
+
+    private static AttendanceAnalytics instance;
+
+    private final AttendanceDAO attendanceDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, NavigableMap<LocalDate, ClassBitmaps>> subjects = new HashMap<>();
+    private final List<AttendanceChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final BackgroundReload backgroundReload = new BackgroundReload("attendance analytics");
+    private boolean attached;
+    private long generation;
+    private long loadedRows = -1;
+    private long loadMillis;
+    // System.nanoTime() when the last reload finished
+    private long reloadedAt;
+
+    public AttendanceAnalytics() {
+        this(new AttendanceDAO());
+    }
+
+    public AttendanceAnalytics(AttendanceDAO attendanceDAO) {
+        this.attendanceDAO = attendanceDAO;
+    }
+
+    /**
+     * Shared matrix of this process, attached and loaded on first use
+     */
+    public static synchronized AttendanceAnalytics getInstance() {
+        if (instance == null) {
+            instance = new AttendanceAnalytics();
+            instance.attach();
+        }
+        return instance;
+    }
+
+    /**
+     * Follow the changes applied to the matrix. Listeners are called with the matrix
+     * write-locked, after the change is visible, so they see the matrix and the event
+     * in step; they must not call back into the write methods.
+     */
+    public void addListener(AttendanceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(AttendanceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start following DAO writes and load all attendance
+     * @return number of attendance rows loaded, or -1 if the load failed
+     */
+    public long attach() {
+        lock.writeLock().lock();
+        try {
+            if (!attached) {
+                AttendanceDAO.addChangeListener(this);
+                attached = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return reload();
+    }
+
+    /**
+     * Stop following DAO writes
+     */
+    public void detach() {
+        lock.writeLock().lock();
+        try {
+            AttendanceDAO.removeChangeListener(this);
+            attached = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the matrix from the database. Writes are held back while loading.
+     * @return number of attendance rows loaded, or -1 if the load failed
+     */
+    public long reload() {
+        lock.writeLock().lock();
+        try {
+            long start = System.nanoTime();
+            subjects.clear();
+            generation++;
+            loadedRows = attendanceDAO.streamAllAttendance(record -> {
+                apply(record.getStudentId(), record.getSubjectId(), record.getDate(), record.getStatus());
+                return true;
+            });
+            reloadedAt = System.nanoTime();
+            loadMillis = (reloadedAt - start) / 1_000_000;
+            return loadedRows;
+        } catch (IOException e) {
+            // The handler does no I/O
+            throw new IllegalStateException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void attendanceChanged(int studentId, int subjectId, LocalDate date, AttendanceStatus oldStatus, AttendanceStatus newStatus) {
+        lock.writeLock().lock();
+        try {
+            apply(studentId, subjectId, date, newStatus);
+            for (AttendanceChangeListener listener : listeners) {
+                try {
+                    listener.attendanceChanged(studentId, subjectId, date, oldStatus, newStatus);
+                } catch (RuntimeException e) {
+                    System.err.println("Attendance analytics listener failed: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the matrix on the background thread, so the writer that fired the event
+     * does not wait for a full load
+     */
+    @Override
+    public void attendanceReplaced() {
+        backgroundReload.request(this::reload);
+    }
+
+    /**
+     * Rows read by the last reload, or -1 if it failed
+     */
+    public long getLoadedRows() {
+        return loadedRows;
+    }
+
+    /**
+     * Duration of the last reload
+     */
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    private void apply(int studentId, int subjectId, LocalDate date, AttendanceStatus status) {
+        NavigableMap<LocalDate, ClassBitmaps> classes = subjects.get(subjectId);
+        if (status == null) {
+            ClassBitmaps bitmaps = classes == null ? null : classes.get(date);
+            if (bitmaps != null) {
+                bitmaps.marked.remove(studentId);
+                bitmaps.present.remove(studentId);
+                if (bitmaps.marked.isEmpty()) {
+                    classes.remove(date);
+                }
+            }
+            return;
+        }
+        if (classes == null) {
+            classes = new TreeMap<>();
+            subjects.put(subjectId, classes);
+        }
+        ClassBitmaps bitmaps = classes.computeIfAbsent(date, d -> new ClassBitmaps());
+        bitmaps.marked.add(studentId);
+        if (AttendanceStatus.isPresent(status)) {
+            bitmaps.present.add(studentId);
+        } else {
+            bitmaps.present.remove(studentId);
+        }
+    }
+
+    /**
+     * Number of classes (subject and date) with attendance
+     */
+    public int getClassCount() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            int count = 0;
+            for (NavigableMap<LocalDate, ClassBitmaps> classes : subjects.values()) {
+                count += classes.size();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Institution-wide totals as {marked, present}
+     */
+    public long[] getTotals() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            long marked = 0;
+            long present = 0;
+            for (NavigableMap<LocalDate, ClassBitmaps> classes : subjects.values()) {
+                for (ClassBitmaps bitmaps : classes.values()) {
+                    marked += bitmaps.marked.cardinality();
+                    present += bitmaps.present.cardinality();
+                }
+            }
+            return new long[] {marked, present};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Institution-wide attendance percentage
+     */
+    public double getInstitutionPercentage() {
+        long[] totals = getTotals();
+        return totals[0] > 0 ? totals[1] * 100.0 / totals[0] : 0.0;
+    }
+
+    /**
+     * Attendance percentage of one subject, 0 if it has no attendance
+     */
+    public double getSubjectPercentage(int subjectId) {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            long marked = 0;
+            long present = 0;
+            for (ClassBitmaps bitmaps : subjects.getOrDefault(subjectId, Collections.emptyNavigableMap()).values()) {
+                marked += bitmaps.marked.cardinality();
+                present += bitmaps.present.cardinality();
+            }
+            return marked > 0 ? present * 100.0 / marked : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Overall attendance percentage of every student with attendance, by student id
+     */
+    public Map<Integer, Double> getStudentPercentages() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            // Counters indexed by student id, grown on demand
+            int[][] counts = {new int[1024], new int[1024]};
+            for (NavigableMap<LocalDate, ClassBitmaps> classes : subjects.values()) {
+                for (ClassBitmaps bitmaps : classes.values()) {
+                    bitmaps.marked.forEach(id -> count(counts, 0, id));
+                    bitmaps.present.forEach(id -> count(counts, 1, id));
+                }
+            }
+            Map<Integer, Double> percentages = new HashMap<>();
+            for (int id = 0; id < counts[0].length; id++) {
+                if (counts[0][id] > 0) {
+                    percentages.put(id, counts[1][id] * 100.0 / counts[0][id]);
+                }
+            }
+            return percentages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void count(int[][] counts, int which, int id) {
+        if (id >= counts[which].length) {
+            int size = Math.max(id + 1, counts[which].length * 2);
+            counts[0] = Arrays.copyOf(counts[0], size);
+            counts[1] = Arrays.copyOf(counts[1], size);
+        }
+        counts[which][id]++;
+    }
+
+    /**
+     * Students present in a class (empty if it has no attendance)
+     */
+    public AttendanceBitmap getPresent(int subjectId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            ClassBitmaps bitmaps = find(subjectId, date);
+            return bitmaps == null ? new AttendanceBitmap() : bitmaps.present.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Students absent in a class (empty if it has no attendance)
+     */
+    public AttendanceBitmap getAbsent(int subjectId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            ClassBitmaps bitmaps = find(subjectId, date);
+            return bitmaps == null ? new AttendanceBitmap() : bitmaps.marked.andNot(bitmaps.present);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Students marked absent in every class of the given subjects between the dates (inclusive).
+     * Empty when no such classes exist.
+     */
+    public AttendanceBitmap getAbsentInAll(Collection<Integer> subjectIds, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            AttendanceBitmap result = null;
+            for (int subjectId : subjectIds) {
+                NavigableMap<LocalDate, ClassBitmaps> classes = subjects.get(subjectId);
+                if (classes == null) {
+                    continue;
+                }
+                for (ClassBitmaps bitmaps : classes.subMap(from, true, to, true).values()) {
+                    AttendanceBitmap absent = bitmaps.marked.andNot(bitmaps.present);
+                    result = result == null ? absent : result.and(absent);
+                    if (result.isEmpty()) {
+                        return result;
+                    }
+                }
+            }
+            return result == null ? new AttendanceBitmap() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint of the bitmaps in bytes
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            long bytes = 0;
+            for (NavigableMap<LocalDate, ClassBitmaps> classes : subjects.values()) {
+                for (ClassBitmaps bitmaps : classes.values()) {
+                    bytes += bitmaps.marked.sizeInBytes() + bitmaps.present.sizeInBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queue a background reload once the matrix is older than MAX_AGE_MINUTES;
+     * the caller holds the lock
+     */
+    void requestReloadIfOld() {
+        if (attached && reloadedAt != 0
+                && System.nanoTime() - reloadedAt > TimeUnit.MINUTES.toNanos(MAX_AGE_MINUTES)) {
+            backgroundReload.request(this::reload);
+        }
+    }
+
+    // ---- Access for StreakEngine, which holds the read lock while it scans ----
+
+    Lock readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Incremented by every reload, so followers can tell their state is stale
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    Collection<Integer> subjectIds() {
+        return subjects.keySet();
+    }
+
+    /**
+     * Visit the classes of one subject in date order
+     */
+    void forEachClass(int subjectId, ClassVisitor visitor) {
+        NavigableMap<LocalDate, ClassBitmaps> classes = subjects.get(subjectId);
+        if (classes != null) {
+            for (Map.Entry<LocalDate, ClassBitmaps> entry : classes.entrySet()) {
+                visitor.visit(entry.getKey(), entry.getValue().marked, entry.getValue().present);
+            }
+        }
+    }
+
+    /**
+     * Visit the classes of all subjects in date order
+     */
+    void forEachClass(ClassVisitor visitor) {
+        NavigableMap<LocalDate, List<ClassBitmaps>> byDate = new TreeMap<>();
+        for (NavigableMap<LocalDate, ClassBitmaps> classes : subjects.values()) {
+            for (Map.Entry<LocalDate, ClassBitmaps> entry : classes.entrySet()) {
+                byDate.computeIfAbsent(entry.getKey(), d -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+        for (Map.Entry<LocalDate, List<ClassBitmaps>> entry : byDate.entrySet()) {
+            for (ClassBitmaps bitmaps : entry.getValue()) {
+                visitor.visit(entry.getKey(), bitmaps.marked, bitmaps.present);
+            }
+        }
+    }
+
+    /**
+     * Receives one class: the students marked and the students present
+     */
+    interface ClassVisitor {
+        void visit(LocalDate date, AttendanceBitmap marked, AttendanceBitmap present);
+    }
+
+    private ClassBitmaps find(int subjectId, LocalDate date) {
+        NavigableMap<LocalDate, ClassBitmaps> classes = subjects.get(subjectId);
+        return classes == null ? null : classes.get(date);
+    }
+
+    /**
+     * Students marked and students present in one class
+     */
+    private static final class ClassBitmaps {
+        final AttendanceBitmap marked = new AttendanceBitmap();
+        final AttendanceBitmap present = new AttendanceBitmap();
+    }
+}
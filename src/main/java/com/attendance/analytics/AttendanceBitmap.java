@@ -0,0 +1,595 @@
+package com.attendance.analytics;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints (student ids), organised like a Roaring bitmap.
+ *
+ * Values are split into chunks by their upper 16 bits. Each chunk stores its lower
+ * 16 bits either as a sorted char array (up to 4096 values, 2 bytes per value) or as
+ * a 65536-bit bitmap (8 KB, for dense chunks), whichever is smaller. Intersections,
+ * unions and differences work chunk by chunk, word by word where chunks are dense.
+ *
+ * Not thread-safe; AttendanceAnalytics guards its bitmaps with a lock.
+ */
+public final class AttendanceBitmap {
+    /** Above this many values a chunk is stored as a bitmap */
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int chunks;
+
+    public AttendanceBitmap() {
+        keys = new char[1];
+        containers = new Container[1];
+    }
+
+    /**
+     * Bitmap holding the given values
+     */
+    public static AttendanceBitmap of(int... values) {
+        AttendanceBitmap bitmap = new AttendanceBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        char high = high(value);
+        int i = find(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add(low(value));
+        } else {
+            insertChunk(-i - 1, high, new ArrayContainer().add(low(value)));
+        }
+    }
+
+    public void remove(int value) {
+        int i = find(high(value));
+        if (i >= 0) {
+            Container c = containers[i].remove(low(value));
+            if (c.cardinality() == 0) {
+                removeChunk(i);
+            } else {
+                containers[i] = c;
+            }
+        }
+    }
+
+    public boolean contains(int value) {
+        int i = find(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return chunks == 0;
+    }
+
+    /**
+     * Values in both bitmaps
+     */
+    public AttendanceBitmap and(AttendanceBitmap other) {
+        AttendanceBitmap result = new AttendanceBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values in either bitmap
+     */
+    public AttendanceBitmap or(AttendanceBitmap other) {
+        AttendanceBitmap result = new AttendanceBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || (i < chunks && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], containers[i].copy());
+                i++;
+            } else if (i == chunks || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values in this bitmap but not in the other
+     */
+    public AttendanceBitmap andNot(AttendanceBitmap other) {
+        AttendanceBitmap result = new AttendanceBitmap();
+        int j = 0;
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                result.appendChunk(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.appendChunk(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of values in both bitmaps, without building the intersection
+     */
+    public int andCardinality(AttendanceBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Call the action for every value in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunks; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] n = new int[1];
+        forEach(v -> values[n[0]++] = v);
+        return values;
+    }
+
+    public AttendanceBitmap copy() {
+        AttendanceBitmap copy = new AttendanceBitmap();
+        for (int i = 0; i < chunks; i++) {
+            copy.appendChunk(keys[i], containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Approximate heap footprint in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + 16 + keys.length * 2L + 16 + containers.length * 4L;
+        for (int i = 0; i < chunks; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Number of chunks stored as bitmaps rather than sorted arrays
+     */
+    int bitmapChunks() {
+        int count = 0;
+        for (int i = 0; i < chunks; i++) {
+            if (containers[i] instanceof BitmapContainer) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AttendanceBitmap && Arrays.equals(toArray(), ((AttendanceBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, chunks, high);
+    }
+
+    private void insertChunk(int index, char high, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunks - index);
+        System.arraycopy(containers, index, containers, index + 1, chunks - index);
+        keys[index] = high;
+        containers[index] = container;
+        chunks++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+        containers[--chunks] = null;
+    }
+
+    /**
+     * Append a chunk with a key above all existing ones, skipping empty results
+     */
+    private void appendChunk(char high, Container container) {
+        if (container.cardinality() > 0) {
+            insertChunk(chunks, high, container);
+        }
+    }
+
+    /**
+     * Lower 16 bits of the values of one chunk
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract long sizeInBytes();
+
+        /** The values as 1024 words of a bitmap (a fresh array for array containers) */
+        abstract long[] words();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer) {
+                return ((ArrayContainer) this).intersect((ArrayContainer) other);
+            }
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter((BitmapContainer) other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter((BitmapContainer) this, true);
+            }
+            long[] a = words();
+            long[] b = other.words();
+            long[] result = new long[BITMAP_WORDS];
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                result[k] = a[k] & b[k];
+            }
+            return BitmapContainer.of(result);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer) {
+                return ((ArrayContainer) this).union((ArrayContainer) other);
+            }
+            long[] result = words().clone();
+            long[] b = other.words();
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                result[k] |= b[k];
+            }
+            return BitmapContainer.of(result);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer) {
+                return ((ArrayContainer) this).subtract((ArrayContainer) other);
+            }
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter((BitmapContainer) other, false);
+            }
+            long[] result = words().clone();
+            long[] b = other.words();
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                result[k] &= ~b[k];
+            }
+            return BitmapContainer.of(result);
+        }
+
+        int andCardinality(Container other) {
+            if (this instanceof BitmapContainer && other instanceof BitmapContainer) {
+                long[] a = ((BitmapContainer) this).words;
+                long[] b = ((BitmapContainer) other).words;
+                int total = 0;
+                for (int k = 0; k < BITMAP_WORDS; k++) {
+                    total += Long.bitCount(a[k] & b[k]);
+                }
+                return total;
+            }
+            return and(other).cardinality();
+        }
+    }
+
+    /**
+     * Sparse chunk: sorted values
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            values = new char[4];
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + values.length * 2L;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        BitmapContainer toBitmap() {
+            return new BitmapContainer(words(), size);
+        }
+
+        ArrayContainer intersect(ArrayContainer other) {
+            char[] result = new char[Math.min(size, other.size)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    result[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        Container union(ArrayContainer other) {
+            char[] result = new char[size + other.size];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && values[i] < other.values[j])) {
+                    result[n++] = values[i++];
+                } else if (i == size || values[i] > other.values[j]) {
+                    result[n++] = other.values[j++];
+                } else {
+                    result[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer union = new ArrayContainer(result, n);
+            return n > ARRAY_MAX ? union.toBitmap() : union;
+        }
+
+        ArrayContainer subtract(ArrayContainer other) {
+            char[] result = new char[Math.max(size, 1)];
+            int n = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                while (j < other.size && other.values[j] < values[i]) {
+                    j++;
+                }
+                if (j == other.size || other.values[j] != values[i]) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        /**
+         * Values that are (keep = true) or are not (keep = false) in the bitmap
+         */
+        ArrayContainer filter(BitmapContainer bitmap, boolean keep) {
+            char[] result = new char[Math.max(size, 1)];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (bitmap.contains(values[i]) == keep) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+    }
+
+    /**
+     * Dense chunk: one bit per possible value
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Container for the given words, as an array if that is smaller
+         */
+        static Container of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[Math.max(cardinality, 1)];
+            int n = 0;
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                long word = words[k];
+                while (word != 0) {
+                    values[n++] = (char) ((k << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return of(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                long word = words[k];
+                while (word != 0) {
+                    action.accept(base | ((k << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+    }
+}
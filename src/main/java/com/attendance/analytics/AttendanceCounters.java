@@ -0,0 +1,296 @@
+package com.attendance.analytics;
+
+import com.attendance.dao.AttendanceChangeListener;
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.model.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Total and present counts per (student, subject), per student and per subject, so
+ * attendance percentages are answered from memory in constant time.
+ *
+ * Seeded with one grouped scan and then kept current by the deltas of every
+ * AttendanceDAO write in this process. Wholesale changes (archiving, imports,
+ * cascading deletes of students and subjects) mark the counters stale and rebuild
+ * them in the background, and counters older than MAX_AGE_MINUTES are rebuilt the
+ * same way on the next read, so writes made by other processes show up within
+ * that time.
+ */
+public class AttendanceCounters implements AttendanceChangeListener {
+    private static final int SEED_ATTEMPTS = 3;
+    private static final long MAX_AGE_MINUTES = 5;
+
+    private static AttendanceCounters instance;
+
+    private final AttendanceDAO attendanceDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reloadLock = new Object();
+    private final BackgroundReload backgroundReload = new BackgroundReload("attendance counters");
+    private CounterMap pairs = new CounterMap(0);
+    private CounterMap students = new CounterMap(0);
+    private CounterMap subjects = new CounterMap(0);
+    private long total;
+    private long present;
+    private boolean attached;
+    private long loadedPairs = -1;
+    // System.nanoTime() when the last seed scan finished
+    private long reloadedAt;
+    // Set by attendanceReplaced until a seed scan started after it has finished
+    private boolean stale;
+    private boolean replacedWhileSeeding;
+    // Set while a seed scan runs; changes arriving meanwhile may or may not be in the scan
+    private boolean seeding;
+    private int changesWhileSeeding;
+
+    public AttendanceCounters() {
+        this(new AttendanceDAO());
+    }
+
+    public AttendanceCounters(AttendanceDAO attendanceDAO) {
+        this.attendanceDAO = attendanceDAO;
+    }
+
+    /**
+     * Shared counters of this process, attached and seeded on first use
+     */
+    public static synchronized AttendanceCounters getInstance() {
+        if (instance == null) {
+            instance = new AttendanceCounters();
+            instance.attach();
+        }
+        return instance;
+    }
+
+    /**
+     * Start following DAO writes and seed the counters
+     * @return number of (student, subject) pairs loaded, or -1 if the scan failed
+     */
+    public long attach() {
+        lock.writeLock().lock();
+        try {
+            if (!attached) {
+                AttendanceDAO.addChangeListener(this);
+                attached = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return reload();
+    }
+
+    /**
+     * Stop following DAO writes
+     */
+    public void detach() {
+        lock.writeLock().lock();
+        try {
+            AttendanceDAO.removeChangeListener(this);
+            attached = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the counters from the database. The scan runs without blocking writers;
+     * if any change arrives while it runs the scan is repeated, since the change may or
+     * may not be part of it.
+     * @return number of (student, subject) pairs loaded, or -1 if the scan failed
+     */
+    public long reload() {
+        synchronized (reloadLock) {
+            for (int attempt = 1; ; attempt++) {
+                lock.writeLock().lock();
+                try {
+                    seeding = true;
+                    changesWhileSeeding = 0;
+                    replacedWhileSeeding = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                CounterMap seededPairs = new CounterMap(Math.max(pairs.size(), 1024));
+                CounterMap seededStudents = new CounterMap(students.size());
+                CounterMap seededSubjects = new CounterMap(subjects.size());
+                long[] sums = new long[2];
+                long scanned = attendanceDAO.streamAttendanceCounts((studentId, subjectId, pairTotal, pairPresent) -> {
+                    seededPairs.add(CounterMap.key(studentId, subjectId), pairTotal, pairPresent);
+                    seededStudents.add(studentId, pairTotal, pairPresent);
+                    seededSubjects.add(subjectId, pairTotal, pairPresent);
+                    sums[0] += pairTotal;
+                    sums[1] += pairPresent;
+                });
+
+                lock.writeLock().lock();
+                try {
+                    if (scanned < 0) {
+                        seeding = false;
+                        loadedPairs = -1;
+                        reloadedAt = System.nanoTime();
+                        return -1;
+                    }
+                    if (changesWhileSeeding == 0 || attempt == SEED_ATTEMPTS) {
+                        if (changesWhileSeeding > 0) {
+                            System.err.println("Attendance counters seeded while " + changesWhileSeeding
+                                    + " changes were being written; counts may be off until the next reload");
+                        }
+                        pairs = seededPairs;
+                        students = seededStudents;
+                        subjects = seededSubjects;
+                        total = sums[0];
+                        present = sums[1];
+                        seeding = false;
+                        // A replacement during the scan has queued another reload
+                        stale = replacedWhileSeeding;
+                        loadedPairs = scanned;
+                        reloadedAt = System.nanoTime();
+                        return scanned;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void attendanceChanged(int studentId, int subjectId, LocalDate date, AttendanceStatus oldStatus, AttendanceStatus newStatus) {
+        int totalDelta = (newStatus != null ? 1 : 0) - (oldStatus != null ? 1 : 0);
+        int presentDelta = (AttendanceStatus.isPresent(newStatus) ? 1 : 0)
+                - (AttendanceStatus.isPresent(oldStatus) ? 1 : 0);
+        if (totalDelta == 0 && presentDelta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (seeding) {
+                changesWhileSeeding++;
+            }
+            pairs.add(CounterMap.key(studentId, subjectId), totalDelta, presentDelta);
+            students.add(studentId, totalDelta, presentDelta);
+            subjects.add(subjectId, totalDelta, presentDelta);
+            total += totalDelta;
+            present += presentDelta;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mark the counters stale and rebuild them on the background thread, so the
+     * writer that fired the event does not wait for a full scan
+     */
+    @Override
+    public void attendanceReplaced() {
+        lock.writeLock().lock();
+        try {
+            stale = true;
+            if (seeding) {
+                replacedWhileSeeding = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        backgroundReload.request(this::reload);
+    }
+
+    /**
+     * Whether the counters are seeded and current. False after a failed seed scan and
+     * while a rebuild after attendanceReplaced is pending; callers then ask the database.
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            return loadedPairs >= 0 && !stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {total, present} of a student in a subject
+     */
+    public int[] getCounts(int studentId, int subjectId) {
+        long key = CounterMap.key(studentId, subjectId);
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            return new int[] {pairs.total(key), pairs.present(key)};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Attendance percentage of a student in a subject, 0 without attendance
+     */
+    public double getPercentage(int studentId, int subjectId) {
+        return percentage(pairs, CounterMap.key(studentId, subjectId));
+    }
+
+    /**
+     * Attendance percentage of a student across all subjects, 0 without attendance
+     */
+    public double getStudentPercentage(int studentId) {
+        return percentage(students, studentId);
+    }
+
+    /**
+     * Attendance percentage of a subject across all students, 0 without attendance
+     */
+    public double getSubjectPercentage(int subjectId) {
+        return percentage(subjects, subjectId);
+    }
+
+    /**
+     * Institution-wide attendance percentage
+     */
+    public double getInstitutionPercentage() {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            return total > 0 ? present * 100.0 / total : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint of the counter tables in bytes
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return pairs.sizeInBytes() + students.sizeInBytes() + subjects.sizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double percentage(CounterMap map, long key) {
+        lock.readLock().lock();
+        try {
+            requestReloadIfOld();
+            int pairTotal = map.total(key);
+            return pairTotal > 0 ? map.present(key) * 100.0 / pairTotal : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queue a background reload once the counters are older than MAX_AGE_MINUTES;
+     * the caller holds the lock. Reads meanwhile answer from the current counters.
+     */
+    private void requestReloadIfOld() {
+        if (attached && !seeding && reloadedAt != 0
+                && System.nanoTime() - reloadedAt > TimeUnit.MINUTES.toNanos(MAX_AGE_MINUTES)) {
+            backgroundReload.request(this::reload);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.attendance.analytics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the full reload of an in-memory structure on a shared daemon thread instead of
+ * the thread that asked for it, e.g. a DAO write firing attendanceReplaced.
+ *
+ * Requests made while a reload is queued are merged into it. A request made while the
+ * reload is already running queues one more, since the running scan may have missed
+ * the change behind it.
+ */
+final class BackgroundReload {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    BackgroundReload(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Queue the reload unless one is already waiting to run. Callers pass the same
+     * reload every time.
+     */
+    void request(Runnable reload) {
+        if (queued.compareAndSet(false, true)) {
+            EXECUTOR.execute(() -> run(reload));
+        }
+    }
+
+    private void run(Runnable reload) {
+        queued.set(false);
+        try {
+            reload.run();
+        } catch (RuntimeException e) {
+            System.err.println("Error reloading " + name + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.attendance.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a non-negative long key to a pair of int counters
+ * (total and present), stored in parallel primitive arrays with linear probing.
+ * No boxing and no per-entry objects; entries are never removed, a key whose
+ * counts drop to zero simply stays with zeros.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+final class CounterMap {
+    private static final long EMPTY = -1L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] totals;
+    private int[] presents;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    CounterMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Key of a (student, subject) pair
+     */
+    static long key(int studentId, int subjectId) {
+        return ((long) studentId << 32) | (subjectId & 0xFFFFFFFFL);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long key, int total, int present) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size > resizeAt) {
+                totals[slot] = total;
+                presents[slot] = present;
+                grow();
+                return;
+            }
+        }
+        totals[slot] += total;
+        presents[slot] += present;
+    }
+
+    int total(long key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? 0 : totals[slot];
+    }
+
+    int present(long key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? 0 : presents[slot];
+    }
+
+    /**
+     * Sum of both counters over all keys, as {total, present}
+     */
+    long[] sum() {
+        long total = 0;
+        long present = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                total += totals[i];
+                present += presents[i];
+            }
+        }
+        return new long[] {total, present};
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(totals, 0);
+        Arrays.fill(presents, 0);
+        size = 0;
+    }
+
+    /**
+     * Approximate heap footprint of the arrays in bytes
+     */
+    long sizeInBytes() {
+        return keys.length * (8L + 4 + 4);
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it belongs
+     */
+    private int slot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        totals = new int[capacity];
+        presents = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldTotals = totals;
+        int[] oldPresents = presents;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                totals[slot] = oldTotals[i];
+                presents[slot] = oldPresents[i];
+            }
+        }
+    }
+}
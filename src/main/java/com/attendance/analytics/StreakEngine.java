@@ -0,0 +1,287 @@
+package com.attendance.analytics;
+
+import com.attendance.dao.AttendanceChangeListener;
+import com.attendance.model.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consecutive-absence streaks of every student, per subject and per day across all subjects.
+ *
+ * Keeps run-length state per student: the day of the student's latest class, the marks and
+ * present marks on that day, and the run of absences before it. Built with one date-ordered
+ * pass per subject over the AttendanceAnalytics matrix and then updated from the matrix's
+ * change events, so marks for the latest class extend or break a streak in constant time.
+ * Edits to earlier classes and deletions cannot be applied that way; they mark the subject
+ * (or the day streaks) stale and it is rescanned on the next query. When the matrix is
+ * reloaded (archiving, imports, deleted students and subjects) everything is rebuilt.
+ *
+ * A day counts as absent when the student was marked in at least one class that day and
+ * was present in none. Present and absent follow AttendanceStatus.isPresent, so an
+ * Excused class is missed here just as it is in the attendance percentages.
+ */
+public class StreakEngine implements AttendanceChangeListener {
+    /**
+     * Subject id used for streaks counted in days across all subjects
+     */
+    public static final int ALL_SUBJECTS = 0;
+
+    private static StreakEngine instance;
+
+    private final AttendanceAnalytics analytics;
+    private final Map<Integer, RunLengths> subjects = new HashMap<>();
+    private final RunLengths days = new RunLengths();
+    private final Set<Integer> staleSubjects = new HashSet<>();
+    private boolean daysStale;
+    // Matrix generation the state was built from, -1 before the first build
+    private long generation = -1;
+
+    private StreakEngine(AttendanceAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * Engine following the changes of the given matrix
+     */
+    public static StreakEngine create(AttendanceAnalytics analytics) {
+        StreakEngine engine = new StreakEngine(analytics);
+        analytics.addListener(engine);
+        return engine;
+    }
+
+    /**
+     * Shared engine over the shared AttendanceAnalytics matrix
+     */
+    public static synchronized StreakEngine getInstance() {
+        if (instance == null) {
+            instance = create(AttendanceAnalytics.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Called by the matrix with its write lock held
+     */
+    @Override
+    public synchronized void attendanceChanged(int studentId, int subjectId, LocalDate date,
+                                               AttendanceStatus oldStatus, AttendanceStatus newStatus) {
+        if (generation < 0) {
+            return;
+        }
+        RunLengths subject = subjects.computeIfAbsent(subjectId, id -> new RunLengths());
+        if (!subject.apply(studentId, date, oldStatus, newStatus)) {
+            staleSubjects.add(subjectId);
+        }
+        if (!days.apply(studentId, date, oldStatus, newStatus)) {
+            daysStale = true;
+        }
+    }
+
+    /**
+     * Current streak of one student in one subject, or in days with {@link #ALL_SUBJECTS}
+     */
+    public int getStreak(int studentId, int subjectId) {
+        analytics.readLock().lock();
+        try {
+            synchronized (this) {
+                refresh();
+                RunLengths runs = subjectId == ALL_SUBJECTS ? days : subjects.get(subjectId);
+                return runs == null ? 0 : runs.current(studentId);
+            }
+        } finally {
+            analytics.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every current streak of at least minLength absences, longest first.
+     * Day streaks are reported with subject id {@link #ALL_SUBJECTS}.
+     */
+    public List<Streak> getStreaks(int minLength) {
+        analytics.readLock().lock();
+        try {
+            synchronized (this) {
+                refresh();
+                List<Streak> streaks = new ArrayList<>();
+                days.collect(ALL_SUBJECTS, minLength, streaks);
+                for (Map.Entry<Integer, RunLengths> entry : subjects.entrySet()) {
+                    entry.getValue().collect(entry.getKey(), minLength, streaks);
+                }
+                streaks.sort((a, b) -> a.length != b.length ? Integer.compare(b.length, a.length)
+                        : a.studentId != b.studentId ? Integer.compare(a.studentId, b.studentId)
+                        : Integer.compare(a.subjectId, b.subjectId));
+                return streaks;
+            }
+        } finally {
+            analytics.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild whatever is stale; the caller holds the matrix read lock
+     */
+    private void refresh() {
+        analytics.requestReloadIfOld();
+        if (generation != analytics.getGeneration()) {
+            generation = analytics.getGeneration();
+            subjects.clear();
+            staleSubjects.addAll(analytics.subjectIds());
+            daysStale = true;
+        }
+        for (int subjectId : staleSubjects) {
+            RunLengths runs = new RunLengths();
+            analytics.forEachClass(subjectId, (date, marked, present) -> runs.addClass(date, marked, present));
+            subjects.put(subjectId, runs);
+        }
+        staleSubjects.clear();
+        if (daysStale) {
+            days.clear();
+            analytics.forEachClass((date, marked, present) -> days.addClass(date, marked, present));
+            daysStale = false;
+        }
+    }
+
+    /**
+     * A run of consecutive absences that is still going on
+     */
+    public static final class Streak {
+        private final int studentId;
+        private final int subjectId;
+        private final int length;
+        private final LocalDate lastDate;
+
+        Streak(int studentId, int subjectId, int length, LocalDate lastDate) {
+            this.studentId = studentId;
+            this.subjectId = subjectId;
+            this.length = length;
+            this.lastDate = lastDate;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        /**
+         * Subject of the streak, or {@link #ALL_SUBJECTS} for a streak of days
+         */
+        public int getSubjectId() {
+            return subjectId;
+        }
+
+        /**
+         * Consecutive classes (or days) missed
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Date of the latest class missed
+         */
+        public LocalDate getLastDate() {
+            return lastDate;
+        }
+
+        @Override
+        public String toString() {
+            return "Streak{studentId=" + studentId + ", subjectId=" + subjectId
+                    + ", length=" + length + ", lastDate=" + lastDate + '}';
+        }
+    }
+
+    /**
+     * Run-length state per student id, in arrays grown on demand.
+     * A slot counts the student's marks and present marks on their latest day and
+     * the absences in a row before that day.
+     */
+    private static final class RunLengths {
+        // Epoch day + 1 of the latest day, 0 if the student has no marks
+        private int[] lastDay = new int[0];
+        private int[] marks = new int[0];
+        private int[] presents = new int[0];
+        private int[] runBefore = new int[0];
+
+        void clear() {
+            lastDay = new int[0];
+            marks = new int[0];
+            presents = new int[0];
+            runBefore = new int[0];
+        }
+
+        int current(int studentId) {
+            if (studentId >= lastDay.length || marks[studentId] == 0) {
+                return 0;
+            }
+            return presents[studentId] == 0 ? runBefore[studentId] + 1 : 0;
+        }
+
+        void addClass(LocalDate date, AttendanceBitmap marked, AttendanceBitmap present) {
+            int day = (int) date.toEpochDay() + 1;
+            marked.forEach(id -> add(id, day, present.contains(id)));
+        }
+
+        private void add(int studentId, int day, boolean present) {
+            ensureCapacity(studentId);
+            if (day > lastDay[studentId]) {
+                runBefore[studentId] = current(studentId);
+                lastDay[studentId] = day;
+                marks[studentId] = 0;
+                presents[studentId] = 0;
+            }
+            marks[studentId]++;
+            if (present) {
+                presents[studentId]++;
+            }
+        }
+
+        /**
+         * Apply one change in place
+         * @return false if the change is not on the student's latest day and needs a rescan
+         */
+        boolean apply(int studentId, LocalDate date, AttendanceStatus oldStatus, AttendanceStatus newStatus) {
+            int day = (int) date.toEpochDay() + 1;
+            ensureCapacity(studentId);
+            if (day > lastDay[studentId]) {
+                if (oldStatus != null || newStatus == null) {
+                    return false;
+                }
+                add(studentId, day, AttendanceStatus.isPresent(newStatus));
+                return true;
+            }
+            if (day < lastDay[studentId]) {
+                return false;
+            }
+            marks[studentId] += (newStatus != null ? 1 : 0) - (oldStatus != null ? 1 : 0);
+            presents[studentId] += (AttendanceStatus.isPresent(newStatus) ? 1 : 0)
+                    - (AttendanceStatus.isPresent(oldStatus) ? 1 : 0);
+            // With the latest day's marks gone, the run before it has to be rebuilt
+            return marks[studentId] > 0;
+        }
+
+        void collect(int subjectId, int minLength, List<Streak> streaks) {
+            for (int id = 0; id < lastDay.length; id++) {
+                int length = current(id);
+                if (length > 0 && length >= minLength) {
+                    streaks.add(new Streak(id, subjectId, length, LocalDate.ofEpochDay(lastDay[id] - 1L)));
+                }
+            }
+        }
+
+        private void ensureCapacity(int studentId) {
+            if (studentId >= lastDay.length) {
+                int size = Math.max(studentId + 1, lastDay.length * 2);
+                lastDay = Arrays.copyOf(lastDay, size);
+                marks = Arrays.copyOf(marks, size);
+                presents = Arrays.copyOf(presents, size);
+                runBefore = Arrays.copyOf(runBefore, size);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.attendance.dao;
+
+import com.attendance.model.AttendanceStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Notified by AttendanceDAO after attendance changes have been committed,
+ * e.g. to keep in-memory analytics in step with the database.
+ * Listeners run on the writing thread and must be quick and thread-safe. Events of
+ * one class arrive in commit order; no DAO lock is held while a listener runs.
+ */
+public interface AttendanceChangeListener {
+
+    /**
+     * One student's attendance for a class changed
+     * @param oldStatus status before the change, null if the row is new
+     * @param newStatus status after the change, null if the row was deleted
+     */
+    void attendanceChanged(int studentId, int subjectId, LocalDate date, AttendanceStatus oldStatus, AttendanceStatus newStatus);
+
+    /**
+     * Too many rows changed at once to report them one by one (e.g. a term was archived,
+     * or a student or subject was deleted with their attendance); anything derived from
+     * the attendance table has to be rebuilt. Listeners should schedule the rebuild
+     * rather than run it on the writing thread.
+     */
+    default void attendanceReplaced() {
+    }
+}
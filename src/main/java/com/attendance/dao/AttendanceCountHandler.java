@@ -0,0 +1,13 @@
+package com.attendance.dao;
+
+/**
+ * Callback for the per-student, per-subject attendance counts of a grouped scan
+ */
+@FunctionalInterface
+public interface AttendanceCountHandler {
+
+    /**
+     * Handle the counts of one student in one subject
+     */
+    void handle(int studentId, int subjectId, int total, int present);
+}
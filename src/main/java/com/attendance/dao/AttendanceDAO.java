@@ -2,24 +2,82 @@ package com.attendance.dao;
 
 import com.attendance.db.DatabaseConnection;
 import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceSheet;
+import com.attendance.model.AttendanceSheet.SaveResult;
+import com.attendance.model.AttendanceStats;
+import com.attendance.model.AttendanceStatus;
+import com.attendance.model.ExportWatermark;
+import com.attendance.model.OverallSummaryRow;
+import com.attendance.model.StudentReportRow;
+import com.attendance.model.SubjectReportRow;
+import com.attendance.model.Term;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Data Access Object for Attendance operations
  */
 public class AttendanceDAO {
+    // Status conditions for the aggregates, generated from AttendanceStatus so they follow new statuses
+    private static final String PRESENT = AttendanceStatus.presentCondition("status");
+    private static final String ABSENT = AttendanceStatus.absentCondition("status");
+    private static final String A_PRESENT = AttendanceStatus.presentCondition("a.status");
+    private static final String A_ABSENT = AttendanceStatus.absentCondition("a.status");
+
+    private static final String DATE_RANGE_EXPORT_SQL = dateRangeExportSql("attendance");
+    /** The same rows from the attendance of archived terms */
+    private static final String ARCHIVE_DATE_RANGE_EXPORT_SQL = dateRangeExportSql("attendance_archive");
+
+    /** Attempts of a save before giving up on deadlocks and lock timeouts */
+    static final int SAVE_ATTEMPTS = 4;
+
+    /** Notified after committed changes; see addChangeListener */
+    private static final List<AttendanceChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delivery order of class save events. Saves of one class commit in turn on its
+     * attendance_versions row; each takes a ticket as it commits and delivers its events
+     * when its ticket comes up, so listeners see them in commit order and keep the newer
+     * statuses. Striped by class; a collision only delays delivery.
+     */
+    private static final EventOrder[] CLASS_EVENT_ORDERS = new EventOrder[64];
+
+    static {
+        for (int i = 0; i < CLASS_EVENT_ORDERS.length; i++) {
+            CLASS_EVENT_ORDERS[i] = new EventOrder();
+        }
+    }
+
     private final DatabaseConnection dbConnection;
 
     public AttendanceDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
 
+    /**
+     * Register a listener for committed attendance changes made through any AttendanceDAO
+     */
+    public static void addChangeListener(AttendanceChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeChangeListener(AttendanceChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
     /**
      * Add a new attendance record
      */
@@ -32,16 +90,18 @@ public class AttendanceDAO {
             pstmt.setInt(1, record.getStudentId());
             pstmt.setInt(2, record.getSubjectId());
             pstmt.setDate(3, Date.valueOf(record.getDate()));
-            pstmt.setString(4, record.getStatus());
+            pstmt.setByte(4, record.getStatus().getCode());
             
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                dbConnection.markDataChanged();
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         record.setAttendanceId(generatedKeys.getInt(1));
                     }
                 }
+                fireChanged(record.getStudentId(), record.getSubjectId(), record.getDate(), null, record.getStatus());
                 return true;
             }
             return false;
@@ -67,13 +127,17 @@ public class AttendanceDAO {
                 pstmt.setInt(1, record.getStudentId());
                 pstmt.setInt(2, record.getSubjectId());
                 pstmt.setDate(3, Date.valueOf(record.getDate()));
-                pstmt.setString(4, record.getStatus());
+                pstmt.setByte(4, record.getStatus().getCode());
                 pstmt.addBatch();
             }
             
             pstmt.executeBatch();
             conn.commit();
             conn.setAutoCommit(true);
+            dbConnection.markDataChanged();
+            for (AttendanceRecord record : records) {
+                fireChanged(record.getStudentId(), record.getSubjectId(), record.getDate(), null, record.getStatus());
+            }
             return true;
         } catch (SQLException e) {
             System.err.println("Error adding attendance batch: " + e.getMessage());
@@ -91,10 +155,19 @@ public class AttendanceDAO {
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, record.getStatus());
+            pstmt.setByte(1, record.getStatus().getCode());
             pstmt.setInt(2, record.getAttendanceId());
             
-            return pstmt.executeUpdate() > 0;
+            AttendanceRecord before = LISTENERS.isEmpty() ? null : findRowForEvent(conn, record.getAttendanceId());
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                if (before != null) {
+                    fireChanged(before.getStudentId(), before.getSubjectId(), before.getDate(),
+                            before.getStatus(), record.getStatus());
+                }
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating attendance: " + e.getMessage());
             e.printStackTrace();
@@ -105,18 +178,26 @@ public class AttendanceDAO {
     /**
      * Update attendance by student, subject, and date
      */
-    public boolean updateAttendanceByKey(int studentId, int subjectId, LocalDate date, String status) {
+    public boolean updateAttendanceByKey(int studentId, int subjectId, LocalDate date, AttendanceStatus status) {
         String sql = "UPDATE attendance SET status = ? WHERE student_id = ? AND subject_id = ? AND date = ?";
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, status);
+            pstmt.setByte(1, status.getCode());
             pstmt.setInt(2, studentId);
             pstmt.setInt(3, subjectId);
             pstmt.setDate(4, Date.valueOf(date));
             
-            return pstmt.executeUpdate() > 0;
+            Map<Integer, AttendanceStatus> before = LISTENERS.isEmpty() ? null : findStatusesForEvent(conn, subjectId, date);
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                if (before != null) {
+                    fireChanged(studentId, subjectId, date, before.get(studentId), status);
+                }
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating attendance by key: " + e.getMessage());
             e.printStackTrace();
@@ -134,7 +215,16 @@ public class AttendanceDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, attendanceId);
-            return pstmt.executeUpdate() > 0;
+            AttendanceRecord before = LISTENERS.isEmpty() ? null : findRowForEvent(conn, attendanceId);
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                if (before != null) {
+                    fireChanged(before.getStudentId(), before.getSubjectId(), before.getDate(),
+                            before.getStatus(), null);
+                }
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting attendance: " + e.getMessage());
             e.printStackTrace();
@@ -307,6 +397,253 @@ public class AttendanceDAO {
         return records;
     }
 
+    /**
+     * Get the stored statuses of a class in student id order, without the joined name columns
+     */
+    public AttendanceRoster getAttendanceRoster(int subjectId, LocalDate date) {
+        try (Connection conn = dbConnection.getConnection()) {
+            return readRoster(conn, subjectId, Date.valueOf(date));
+        } catch (SQLException e) {
+            System.err.println("Error getting attendance roster: " + e.getMessage());
+            e.printStackTrace();
+            return new AttendanceRoster();
+        }
+    }
+
+    /**
+     * Get the saved version of a class (subject and date), 0 if it was never saved
+     */
+    public long getAttendanceVersion(int subjectId, LocalDate date) {
+        String sql = "SELECT version FROM attendance_versions WHERE subject_id = ? AND date = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, subjectId);
+            pstmt.setDate(2, Date.valueOf(date));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting attendance version: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Save the attendance of one class in a single transaction.
+     *
+     * The class's version row is bumped first, which locks it until commit and so
+     * serializes concurrent saves of the same class without blocking other classes.
+     * Unless overwriting, only students whose mark differs from the sheet's baseline are
+     * written; if any of them was changed by someone else since the sheet was loaded,
+     * nothing is written and CONFLICT is returned. Rows already holding the wanted status
+     * are left alone. Deadlocks, lock timeouts and duplicate keys from a concurrent first
+     * save roll back and retry. Every successful save gets a version of its own; the sheet
+     * then holds that version and the statuses as saved. Change events of one class reach
+     * listeners in commit order. Marks listing a student twice fail without a retry.
+     */
+    public SaveResult saveAttendanceSheet(AttendanceSheet sheet, AttendanceRoster marks, boolean overwrite) {
+        // A duplicate student would fail the insert on every attempt, so it is never retried
+        if (marks.hasDuplicateStudents()) {
+            System.err.println("Error saving attendance: a student is listed more than once");
+            return SaveResult.FAILED;
+        }
+        EventOrder eventOrder = CLASS_EVENT_ORDERS[Math.floorMod(
+                Objects.hash(sheet.getSubjectId(), sheet.getDate()), CLASS_EVENT_ORDERS.length)];
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = dbConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    // Rows written, with their statuses before and after, reported after commit
+                    AttendanceRoster before = new AttendanceRoster(marks.size());
+                    AttendanceRoster after = new AttendanceRoster(marks.size());
+                    SaveResult result = saveSheetInTransaction(conn, sheet, marks, overwrite, before, after);
+                    if (result == SaveResult.SAVED) {
+                        long ticket = eventOrder.commit(conn);
+                        dbConnection.markDataChanged();
+                        eventOrder.deliver(ticket, () -> {
+                            for (int i = 0; i < after.size(); i++) {
+                                fireChanged(after.getStudentId(i), sheet.getSubjectId(), sheet.getDate(),
+                                        AttendanceRoster.status(before.getStatus(i)),
+                                        AttendanceRoster.status(after.getStatus(i)));
+                            }
+                        });
+                    } else {
+                        conn.rollback();
+                    }
+                    return result;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (attempt < SAVE_ATTEMPTS && (isRetryable(e) || isDuplicateKey(e))) {
+                    if (!backOff(attempt)) {
+                        return SaveResult.FAILED;
+                    }
+                    continue;
+                }
+                System.err.println("Error saving attendance: " + e.getMessage());
+                e.printStackTrace();
+                return SaveResult.FAILED;
+            }
+        }
+    }
+
+    private SaveResult saveSheetInTransaction(Connection conn, AttendanceSheet sheet, AttendanceRoster marks,
+                                              boolean overwrite, AttendanceRoster before, AttendanceRoster after)
+            throws SQLException {
+        int subjectId = sheet.getSubjectId();
+        Date date = Date.valueOf(sheet.getDate());
+
+        // Claim the class in one statement, creating its row on the first save;
+        // the row lock is held until commit or rollback
+        try (PreparedStatement bump = conn.prepareStatement(
+                "INSERT INTO attendance_versions (subject_id, date, version) VALUES (?, ?, 1) "
+                + "ON DUPLICATE KEY UPDATE version = version + 1")) {
+            bump.setInt(1, subjectId);
+            bump.setDate(2, date);
+            bump.executeUpdate();
+        }
+        long version;
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT version FROM attendance_versions WHERE subject_id = ? AND date = ?")) {
+            select.setInt(1, subjectId);
+            select.setDate(2, date);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                version = rs.getLong(1);
+            }
+        }
+
+        AttendanceRoster current = readRoster(conn, subjectId, date);
+
+        // Three-way merge against the baseline the sheet was loaded with
+        RosterMerge merge = RosterMerge.of(marks, sheet.getStatuses(), current, overwrite);
+        if (merge.conflict) {
+            return SaveResult.CONFLICT;
+        }
+        int[] updates = merge.updates;
+        int[] inserts = merge.inserts;
+        int updateCount = merge.updateCount;
+        int insertCount = merge.insertCount;
+
+        if (updateCount > 0) {
+            try (PreparedStatement update = conn.prepareStatement(
+                    "UPDATE attendance SET status = ? WHERE student_id = ? AND subject_id = ? AND date = ?")) {
+                for (int u = 0; u < updateCount; u++) {
+                    int i = updates[u];
+                    update.setByte(1, marks.getStatus(i));
+                    update.setInt(2, marks.getStudentId(i));
+                    update.setInt(3, subjectId);
+                    update.setDate(4, date);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+        if (insertCount > 0) {
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO attendance (student_id, subject_id, date, status) VALUES (?, ?, ?, ?)")) {
+                for (int n = 0; n < insertCount; n++) {
+                    int i = inserts[n];
+                    insert.setInt(1, marks.getStudentId(i));
+                    insert.setInt(2, subjectId);
+                    insert.setDate(3, date);
+                    insert.setByte(4, marks.getStatus(i));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        for (int u = 0; u < updateCount; u++) {
+            int i = updates[u];
+            int index = current.indexOf(marks.getStudentId(i));
+            before.add(marks.getStudentId(i), current.getStatus(index));
+            after.add(marks.getStudentId(i), marks.getStatus(i));
+            current.setStatus(index, marks.getStatus(i));
+        }
+        for (int n = 0; n < insertCount; n++) {
+            int i = inserts[n];
+            before.add(marks.getStudentId(i), AttendanceRoster.UNMARKED);
+            after.add(marks.getStudentId(i), marks.getStatus(i));
+            current.add(marks.getStudentId(i), marks.getStatus(i));
+        }
+        current.sortByStudentId();
+        sheet.setVersion(version);
+        sheet.setStatuses(current);
+        return SaveResult.SAVED;
+    }
+
+    /**
+     * Stored statuses of a class in student id order
+     */
+    private static AttendanceRoster readRoster(Connection conn, int subjectId, Date date) throws SQLException {
+        AttendanceRoster roster = new AttendanceRoster();
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT student_id, status FROM attendance WHERE subject_id = ? AND date = ? ORDER BY student_id")) {
+            select.setInt(1, subjectId);
+            select.setDate(2, date);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    roster.add(rs.getInt(1), rs.getByte(2));
+                }
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Deadlocks and lock timeouts go away on retry
+     */
+    static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                String state = sql.getSQLState();
+                int code = sql.getErrorCode();
+                if ("40001".equals(state) || "40P01".equals(state) || "HYT00".equals(state)
+                        || code == 1205 || code == 1213) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A duplicate key, which a class save retries because it can come from a concurrent
+     * first save of the same class; its own input is checked for duplicates beforehand
+     */
+    private static boolean isDuplicateKey(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                if ("23505".equals(sql.getSQLState()) || sql.getErrorCode() == 1062) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Short randomized pause before a retry, so colliding saves do not collide again
+     */
+    static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     /**
      * Get attendance records by date range
      */
@@ -337,14 +674,267 @@ public class AttendanceDAO {
     }
 
     /**
-     * Get attendance statistics for a student in a subject
+     * Count attendance records in a date range
+     */
+    public long countAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
+        return countAttendanceByDateRange(startDate, endDate, false);
+    }
+
+    /**
+     * Count attendance records in a date range, in the archive of closed terms if archived is set
+     */
+    public long countAttendanceByDateRange(LocalDate startDate, LocalDate endDate, boolean archived) {
+        String sql = "SELECT COUNT(*) FROM " + (archived ? "attendance_archive" : "attendance") +
+                     " WHERE date BETWEEN ? AND ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting attendance by date range: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Stream attendance records in a date range, ordered by date, subject and roll number.
+     * Rows are read through a forward-only cursor on a dedicated connection and handed to
+     * the handler one at a time, so memory use does not grow with the size of the range.
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public long streamAttendanceByDateRange(LocalDate startDate, LocalDate endDate,
+                                            AttendanceRowHandler handler) throws IOException {
+        return streamAttendanceByDateRange(startDate, endDate, false, handler);
+    }
+
+    /**
+     * Stream attendance records in a date range like streamAttendanceByDateRange, reading
+     * the archive of closed terms if archived is set
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public long streamAttendanceByDateRange(LocalDate startDate, LocalDate endDate, boolean archived,
+                                            AttendanceRowHandler handler) throws IOException {
+        String sql = archived ? ARCHIVE_DATE_RANGE_EXPORT_SQL : DATE_RANGE_EXPORT_SQL;
+
+        try (Connection conn = dbConnection.openDedicatedConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Stream rows instead of buffering the whole result (Connector/J needs Integer.MIN_VALUE)
+            pstmt.setFetchSize(dbConnection.getDialect().getStreamingFetchSize());
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+
+            long rows = 0;
+            AttendanceRecord record = new AttendanceRecord();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    readDateRangeExportRow(rs, record);
+                    rows++;
+                    if (!handler.handle(record)) {
+                        // Closing a streaming result drains the remaining rows, so abort the query first
+                        pstmt.cancel();
+                        break;
+                    }
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            System.err.println("Error streaming attendance by date range: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Stream every attendance row, in no particular order, without the joined name columns.
+     * Only the id, student, subject, date and status of the reused record are filled in.
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public long streamAllAttendance(AttendanceRowHandler handler) throws IOException {
+        String sql = "SELECT attendance_id, student_id, subject_id, date, status FROM attendance";
+
+        try (Connection conn = dbConnection.openDedicatedConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(dbConnection.getDialect().getStreamingFetchSize());
+            long rows = 0;
+            AttendanceRecord record = new AttendanceRecord();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    record.setAttendanceId(rs.getInt(1));
+                    record.setStudentId(rs.getInt(2));
+                    record.setSubjectId(rs.getInt(3));
+                    record.setDate(rs.getDate(4).toLocalDate());
+                    record.setStatus(AttendanceStatus.fromCode(rs.getInt(5)));
+                    rows++;
+                    if (!handler.handle(record)) {
+                        pstmt.cancel();
+                        break;
+                    }
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            System.err.println("Error streaming all attendance: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Stream the attendance rows changed after a watermark and before a cutoff, with the
+     * columns of the date range export and their change time, in (updated_at, attendance_id)
+     * order so the last row streamed is the next watermark. Reads idx_updated.
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public long streamAttendanceChangedSince(ExportWatermark after, LocalDateTime before,
+                                             AttendanceRowHandler handler) throws IOException {
+        String sql = "SELECT a.attendance_id, a.student_id, a.subject_id, a.date, a.status, " +
+                     "s.name AS student_name, s.roll_no, sub.subject_code, sub.subject_name, a.updated_at " +
+                     "FROM attendance a " +
+                     "JOIN students s ON a.student_id = s.student_id " +
+                     "JOIN subjects sub ON a.subject_id = sub.subject_id " +
+                     "WHERE (a.updated_at > ? OR (a.updated_at = ? AND a.attendance_id > ?)) " +
+                     // Implied by the condition above, but lets the index range start at the watermark
+                     "AND a.updated_at >= ? AND a.updated_at < ? " +
+                     "ORDER BY a.updated_at, a.attendance_id";
+
+        try (Connection conn = dbConnection.openDedicatedConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(dbConnection.getDialect().getStreamingFetchSize());
+            Timestamp afterTime = Timestamp.valueOf(after.getUpdatedAt());
+            pstmt.setTimestamp(1, afterTime);
+            pstmt.setTimestamp(2, afterTime);
+            pstmt.setInt(3, after.getAttendanceId());
+            pstmt.setTimestamp(4, afterTime);
+            pstmt.setTimestamp(5, Timestamp.valueOf(before));
+
+            long rows = 0;
+            AttendanceRecord record = new AttendanceRecord();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    readDateRangeExportRow(rs, record);
+                    record.setUpdatedAt(rs.getTimestamp(10).toLocalDateTime());
+                    rows++;
+                    if (!handler.handle(record)) {
+                        pstmt.cancel();
+                        break;
+                    }
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            System.err.println("Error streaming changed attendance: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * The database's current time, the clock updated_at is set from
+     * @return the time, or null if the query failed
+     */
+    public LocalDateTime getDatabaseTime() {
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT LOCALTIMESTAMP")) {
+            return rs.next() ? rs.getTimestamp(1).toLocalDateTime() : null;
+        } catch (SQLException e) {
+            System.err.println("Error reading database time: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Stream the total and present counts of every (student, subject) pair with attendance,
+     * grouped in the database
+     * @return number of pairs handed to the handler, or -1 if the query failed
+     */
+    public long streamAttendanceCounts(AttendanceCountHandler handler) {
+        String sql = "SELECT student_id, subject_id, COUNT(*) AS total, " +
+                     "SUM(CASE WHEN " + PRESENT + " THEN 1 ELSE 0 END) AS present " +
+                     "FROM attendance GROUP BY student_id, subject_id";
+
+        try (Connection conn = dbConnection.openDedicatedConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(dbConnection.getDialect().getStreamingFetchSize());
+            long pairs = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+                    pairs++;
+                }
+            }
+            return pairs;
+        } catch (SQLException e) {
+            System.err.println("Error streaming attendance counts: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Get the first {@code limit} attendance records of a date range, in export order
+     */
+    public List<AttendanceRecord> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate, int limit) {
+        return getAttendanceByDateRange(startDate, endDate, limit, false);
+    }
+
+    /**
+     * Get the first {@code limit} attendance records of a date range, in export order,
+     * from the archive of closed terms if archived is set
+     */
+    public List<AttendanceRecord> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate, int limit,
+                                                           boolean archived) {
+        List<AttendanceRecord> records = new ArrayList<>();
+        String sql = (archived ? ARCHIVE_DATE_RANGE_EXPORT_SQL : DATE_RANGE_EXPORT_SQL) + " LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+            pstmt.setInt(3, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    AttendanceRecord record = new AttendanceRecord();
+                    readDateRangeExportRow(rs, record);
+                    records.add(record);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting attendance by date range: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    /**
+     * Get attendance statistics for a student in a subject, all zero if the query failed
      */
-    public Map<String, Integer> getAttendanceStats(int studentId, int subjectId) {
-        Map<String, Integer> stats = new HashMap<>();
+    public AttendanceStats getAttendanceStats(int studentId, int subjectId) {
+        AttendanceStats stats = AttendanceStats.EMPTY;
         String sql = "SELECT " +
                      "COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Present' THEN 1 ELSE 0 END) AS present, " +
-                     "SUM(CASE WHEN status = 'Absent' THEN 1 ELSE 0 END) AS absent " +
+                     "SUM(CASE WHEN " + PRESENT + " THEN 1 ELSE 0 END) AS present, " +
+                     "SUM(CASE WHEN " + ABSENT + " THEN 1 ELSE 0 END) AS absent " +
                      "FROM attendance " +
                      "WHERE student_id = ? AND subject_id = ?";
         
@@ -356,9 +946,7 @@ public class AttendanceDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    stats.put("total", rs.getInt("total"));
-                    stats.put("present", rs.getInt("present"));
-                    stats.put("absent", rs.getInt("absent"));
+                    stats = new AttendanceStats(rs.getInt("total"), rs.getInt("present"), rs.getInt("absent"));
                 }
             }
         } catch (SQLException e) {
@@ -369,14 +957,14 @@ public class AttendanceDAO {
     }
 
     /**
-     * Get overall attendance statistics for a student
+     * Get overall attendance statistics for a student, all zero if the query failed
      */
-    public Map<String, Integer> getOverallAttendanceStats(int studentId) {
-        Map<String, Integer> stats = new HashMap<>();
+    public AttendanceStats getOverallAttendanceStats(int studentId) {
+        AttendanceStats stats = AttendanceStats.EMPTY;
         String sql = "SELECT " +
                      "COUNT(*) AS total, " +
-                     "SUM(CASE WHEN status = 'Present' THEN 1 ELSE 0 END) AS present, " +
-                     "SUM(CASE WHEN status = 'Absent' THEN 1 ELSE 0 END) AS absent " +
+                     "SUM(CASE WHEN " + PRESENT + " THEN 1 ELSE 0 END) AS present, " +
+                     "SUM(CASE WHEN " + ABSENT + " THEN 1 ELSE 0 END) AS absent " +
                      "FROM attendance " +
                      "WHERE student_id = ?";
         
@@ -387,9 +975,7 @@ public class AttendanceDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    stats.put("total", rs.getInt("total"));
-                    stats.put("present", rs.getInt("present"));
-                    stats.put("absent", rs.getInt("absent"));
+                    stats = new AttendanceStats(rs.getInt("total"), rs.getInt("present"), rs.getInt("absent"));
                 }
             }
         } catch (SQLException e) {
@@ -399,6 +985,123 @@ public class AttendanceDAO {
         return stats;
     }
 
+    /**
+     * Get a student's attendance counts for every subject in a single grouped query,
+     * in subject list order. Subjects without attendance get zero counts.
+     */
+    public List<StudentReportRow> getStudentReportRows(int studentId) {
+        List<StudentReportRow> rows = new ArrayList<>();
+        String sql = "SELECT sub.subject_id, sub.subject_code, sub.subject_name, " +
+                     "COUNT(a.attendance_id) AS total, " +
+                     "COALESCE(SUM(CASE WHEN " + A_PRESENT + " THEN 1 ELSE 0 END), 0) AS present, " +
+                     "COALESCE(SUM(CASE WHEN " + A_ABSENT + " THEN 1 ELSE 0 END), 0) AS absent " +
+                     "FROM subjects sub " +
+                     "LEFT JOIN attendance a ON a.subject_id = sub.subject_id AND a.student_id = ? " +
+                     "GROUP BY sub.subject_id, sub.subject_code, sub.subject_name, sub.semester " +
+                     "ORDER BY sub.semester ASC, sub.subject_id ASC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, studentId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new StudentReportRow(
+                        rs.getInt("subject_id"),
+                        rs.getString("subject_code"),
+                        rs.getString("subject_name"),
+                        rs.getInt("total"),
+                        rs.getInt("present"),
+                        rs.getInt("absent")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting student report rows: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    /**
+     * Get every student's attendance counts in a subject in a single grouped query,
+     * in student list order. Students without attendance get zero counts.
+     */
+    public List<SubjectReportRow> getSubjectReportRows(int subjectId) {
+        List<SubjectReportRow> rows = new ArrayList<>();
+        String sql = "SELECT s.student_id, s.roll_no, s.name, s.department, " +
+                     "COUNT(a.attendance_id) AS total, " +
+                     "COALESCE(SUM(CASE WHEN " + A_PRESENT + " THEN 1 ELSE 0 END), 0) AS present, " +
+                     "COALESCE(SUM(CASE WHEN " + A_ABSENT + " THEN 1 ELSE 0 END), 0) AS absent " +
+                     "FROM students s " +
+                     "LEFT JOIN attendance a ON a.student_id = s.student_id AND a.subject_id = ? " +
+                     "GROUP BY s.student_id, s.roll_no, s.name, s.department, s.class_name " +
+                     "ORDER BY s.class_name, s.roll_no";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, subjectId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new SubjectReportRow(
+                        rs.getInt("student_id"),
+                        rs.getString("roll_no"),
+                        rs.getString("name"),
+                        rs.getString("department"),
+                        rs.getInt("total"),
+                        rs.getInt("present"),
+                        rs.getInt("absent")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting subject report rows: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    /**
+     * Get attendance totals across all subjects for every student in a single grouped query,
+     * ordered by class and roll number. Students without attendance get zero totals.
+     */
+    public List<OverallSummaryRow> getOverallAttendanceSummary() {
+        List<OverallSummaryRow> summary = new ArrayList<>();
+        String sql = "SELECT s.student_id, s.roll_no, s.name, s.department, s.semester, " +
+                     "COUNT(a.attendance_id) AS total, " +
+                     "COALESCE(SUM(CASE WHEN " + A_PRESENT + " THEN 1 ELSE 0 END), 0) AS present, " +
+                     "COALESCE(SUM(CASE WHEN " + A_ABSENT + " THEN 1 ELSE 0 END), 0) AS absent " +
+                     "FROM students s " +
+                     "LEFT JOIN attendance a ON a.student_id = s.student_id " +
+                     "GROUP BY s.student_id, s.roll_no, s.name, s.department, s.semester, s.class_name " +
+                     "ORDER BY s.class_name, s.roll_no";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                summary.add(new OverallSummaryRow(
+                    rs.getInt("student_id"),
+                    rs.getString("roll_no"),
+                    rs.getString("name"),
+                    rs.getString("department"),
+                    rs.getInt("semester"),
+                    rs.getInt("total"),
+                    rs.getInt("present"),
+                    rs.getInt("absent")
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting overall attendance summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return summary;
+    }
+
     /**
      * Delete all attendance records for a subject and date
      */
@@ -410,7 +1113,15 @@ public class AttendanceDAO {
             
             pstmt.setInt(1, subjectId);
             pstmt.setDate(2, Date.valueOf(date));
-            return pstmt.executeUpdate() > 0;
+            Map<Integer, AttendanceStatus> before = LISTENERS.isEmpty() ? null : findStatusesForEvent(conn, subjectId, date);
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                if (before != null) {
+                    before.forEach((studentId, status) -> fireChanged(studentId, subjectId, date, status, null));
+                }
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting attendance by subject and date: " + e.getMessage());
             e.printStackTrace();
@@ -418,10 +1129,180 @@ public class AttendanceDAO {
         }
     }
 
+    /**
+     * Close a term: move its attendance to attendance_archive, drop its class versions and
+     * mark it archived, all in one transaction. Current-term queries then no longer scan the
+     * term's rows; they stay readable through the archived variants of the date range queries.
+     * Listeners are asked to reload instead of getting an event per row.
+     * @return number of rows moved, or -1 if the term was already archived or the move failed
+     */
+    public long archiveTerm(Term term) {
+        Date start = Date.valueOf(term.getStartDate());
+        Date end = Date.valueOf(term.getEndDate());
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Claim the term first, so a second archiver finds it taken
+                try (PreparedStatement claim = conn.prepareStatement(
+                        "UPDATE terms SET archived_at = CURRENT_TIMESTAMP WHERE term_id = ? AND archived_at IS NULL")) {
+                    claim.setInt(1, term.getTermId());
+                    if (claim.executeUpdate() == 0) {
+                        conn.rollback();
+                        return -1;
+                    }
+                }
+
+                int copied;
+                try (PreparedStatement copy = conn.prepareStatement(
+                        "INSERT INTO attendance_archive " +
+                        "(attendance_id, student_id, subject_id, date, status, created_at, term_id) " +
+                        "SELECT attendance_id, student_id, subject_id, date, status, created_at, ? " +
+                        "FROM attendance WHERE date BETWEEN ? AND ?")) {
+                    copy.setInt(1, term.getTermId());
+                    copy.setDate(2, start);
+                    copy.setDate(3, end);
+                    copied = copy.executeUpdate();
+                }
+
+                int deleted;
+                try (PreparedStatement delete = conn.prepareStatement(
+                        "DELETE FROM attendance WHERE date BETWEEN ? AND ?")) {
+                    delete.setDate(1, start);
+                    delete.setDate(2, end);
+                    deleted = delete.executeUpdate();
+                }
+                if (deleted != copied) {
+                    // Attendance was written to the term meanwhile; do not drop rows that were not copied
+                    conn.rollback();
+                    System.err.println("Error archiving term " + term.getName()
+                            + ": attendance changed while archiving, try again");
+                    return -1;
+                }
+
+                try (PreparedStatement versions = conn.prepareStatement(
+                        "DELETE FROM attendance_versions WHERE date BETWEEN ? AND ?")) {
+                    versions.setDate(1, start);
+                    versions.setDate(2, end);
+                    versions.executeUpdate();
+                }
+                try (PreparedStatement record = conn.prepareStatement(
+                        "UPDATE terms SET archived_rows = ? WHERE term_id = ?")) {
+                    record.setLong(1, copied);
+                    record.setInt(2, term.getTermId());
+                    record.executeUpdate();
+                }
+                conn.commit();
+                term.setArchivedAt(LocalDateTime.now());
+                term.setArchivedRows(copied);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            dbConnection.markDataChanged();
+            fireReplaced();
+            return term.getArchivedRows();
+        } catch (SQLException e) {
+            System.err.println("Error archiving term: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Key and status of a row about to change, for the change event
+     */
+    private AttendanceRecord findRowForEvent(Connection conn, int attendanceId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT attendance_id, student_id, subject_id, date, status FROM attendance WHERE attendance_id = ?")) {
+            pstmt.setInt(1, attendanceId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? extractAttendanceFromResultSet(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Statuses of a class about to change, for the change events
+     */
+    private Map<Integer, AttendanceStatus> findStatusesForEvent(Connection conn, int subjectId, LocalDate date)
+            throws SQLException {
+        Map<Integer, AttendanceStatus> statuses = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT student_id, status FROM attendance WHERE subject_id = ? AND date = ?")) {
+            pstmt.setInt(1, subjectId);
+            pstmt.setDate(2, Date.valueOf(date));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    statuses.put(rs.getInt(1), AttendanceStatus.fromCode(rs.getInt(2)));
+                }
+            }
+        }
+        return statuses;
+    }
+
+    private static void fireChanged(int studentId, int subjectId, LocalDate date,
+                                    AttendanceStatus oldStatus, AttendanceStatus newStatus) {
+        for (AttendanceChangeListener listener : LISTENERS) {
+            try {
+                listener.attendanceChanged(studentId, subjectId, date, oldStatus, newStatus);
+            } catch (RuntimeException e) {
+                System.err.println("Error in attendance change listener: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Tell listeners that attendance changed wholesale, e.g. after archiving or a bulk import
+     */
+    static void fireReplaced() {
+        for (AttendanceChangeListener listener : LISTENERS) {
+            try {
+                listener.attendanceReplaced();
+            } catch (RuntimeException e) {
+                System.err.println("Error in attendance change listener: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Date range export query over the attendance table or its archive
+     */
+    private static String dateRangeExportSql(String table) {
+        return "SELECT a.attendance_id, a.student_id, a.subject_id, a.date, a.status, " +
+               "s.name AS student_name, s.roll_no, sub.subject_code, sub.subject_name " +
+               "FROM " + table + " a " +
+               "JOIN students s ON a.student_id = s.student_id " +
+               "JOIN subjects sub ON a.subject_id = sub.subject_id " +
+               "WHERE a.date BETWEEN ? AND ? ORDER BY a.date, sub.subject_code, s.roll_no";
+    }
+
+    /**
+     * Fill a record from a row of DATE_RANGE_EXPORT_SQL
+     */
+    private void readDateRangeExportRow(ResultSet rs, AttendanceRecord record) throws SQLException {
+        record.setAttendanceId(rs.getInt(1));
+        record.setStudentId(rs.getInt(2));
+        record.setSubjectId(rs.getInt(3));
+        Date date = rs.getDate(4);
+        record.setDate(date != null ? date.toLocalDate() : null);
+        record.setStatus(AttendanceStatus.fromCode(rs.getInt(5)));
+        record.setStudentName(rs.getString(6));
+        record.setRollNo(rs.getString(7));
+        record.setSubjectCode(rs.getString(8));
+        record.setSubjectName(rs.getString(9));
+    }
+
     /**
      * Extract AttendanceRecord object from ResultSet
+     * (package-private so the benchmark suite can exercise the mapping directly)
      */
-    private AttendanceRecord extractAttendanceFromResultSet(ResultSet rs) throws SQLException {
+    AttendanceRecord extractAttendanceFromResultSet(ResultSet rs) throws SQLException {
         AttendanceRecord record = new AttendanceRecord();
         record.setAttendanceId(rs.getInt("attendance_id"));
         record.setStudentId(rs.getInt("student_id"));
@@ -432,7 +1313,7 @@ public class AttendanceDAO {
             record.setDate(date.toLocalDate());
         }
         
-        record.setStatus(rs.getString("status"));
+        record.setStatus(AttendanceStatus.fromCode(rs.getInt("status")));
         
         // Optional fields from JOIN
         try {
@@ -445,4 +1326,53 @@ public class AttendanceDAO {
         
         return record;
     }
+
+    /**
+     * Tickets handed out at commit and delivered in the same order. The lock is held
+     * only while committing and taking a ticket, never while listeners run.
+     */
+    private static final class EventOrder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition turn = lock.newCondition();
+        private long issued;
+        private long delivered;
+
+        /**
+         * Commit the transaction and take the next ticket
+         */
+        long commit(Connection conn) throws SQLException {
+            lock.lock();
+            try {
+                conn.commit();
+                return issued++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wait until every earlier ticket has delivered its events, then deliver these
+         */
+        void deliver(long ticket, Runnable events) {
+            lock.lock();
+            try {
+                while (delivered != ticket) {
+                    turn.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+            try {
+                events.run();
+            } finally {
+                lock.lock();
+                try {
+                    delivered++;
+                    turn.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package com.attendance.dao;
+
+import com.attendance.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Writes imported attendance in batches on its own database connection. Each batch
+ * is one transaction of multi-row upserts: a row for a student, subject and date
+ * that already exists gets the imported status, any other row is inserted. The
+ * version of every class a batch touches is bumped, so Mark Attendance screens
+ * opened before the import notice the change.
+ *
+ * Rows come in as parallel primitive arrays and are bound straight from them.
+ * Not thread-safe; one writer thread owns an instance.
+ */
+public class AttendanceImportWriter implements AutoCloseable {
+    /** Rows per multi-row upsert (4 parameters each) */
+    private static final int ROWS_PER_UPSERT = 1000;
+
+    private final DatabaseConnection dbConnection;
+    private final Connection conn;
+    private final PreparedStatement upsert;
+    private final PreparedStatement bumpVersion;
+    private long rowsWritten;
+    private long cachedDay = Long.MIN_VALUE;
+    private Date cachedDate;
+
+    public AttendanceImportWriter() throws SQLException {
+        dbConnection = DatabaseConnection.getInstance();
+        conn = dbConnection.openDedicatedConnection();
+        try {
+            conn.setAutoCommit(false);
+            upsert = conn.prepareStatement(multiRowUpsert(ROWS_PER_UPSERT));
+            bumpVersion = conn.prepareStatement(
+                    "INSERT INTO attendance_versions (subject_id, date, version) VALUES (?, ?, 1) "
+                    + "ON DUPLICATE KEY UPDATE version = version + 1");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Upsert rows [0, count) of the arrays in one transaction, retrying it on
+     * deadlocks and lock timeouts
+     */
+    public void write(int[] studentIds, int[] subjectIds, long[] epochDays, byte[] statuses, int count)
+            throws SQLException {
+        if (count == 0) {
+            return;
+        }
+        long[] classes = classesOf(subjectIds, epochDays, count);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Classes first, in key order, the same lock order for every writer
+                for (long key : classes) {
+                    bumpVersion.setInt(1, (int) (key >>> 32));
+                    bumpVersion.setDate(2, sqlDate((int) key));
+                    bumpVersion.addBatch();
+                }
+                bumpVersion.executeBatch();
+
+                int full = count / ROWS_PER_UPSERT;
+                for (int chunk = 0; chunk < full; chunk++) {
+                    bind(upsert, studentIds, subjectIds, epochDays, statuses, chunk * ROWS_PER_UPSERT, ROWS_PER_UPSERT);
+                    upsert.executeUpdate();
+                }
+                int tail = count - full * ROWS_PER_UPSERT;
+                if (tail > 0) {
+                    try (PreparedStatement last = conn.prepareStatement(multiRowUpsert(tail))) {
+                        bind(last, studentIds, subjectIds, epochDays, statuses, full * ROWS_PER_UPSERT, tail);
+                        last.executeUpdate();
+                    }
+                }
+                conn.commit();
+                rowsWritten += count;
+                return;
+            } catch (SQLException e) {
+                conn.rollback();
+                bumpVersion.clearBatch();
+                if (attempt < AttendanceDAO.SAVE_ATTEMPTS && AttendanceDAO.isRetryable(e)
+                        && AttendanceDAO.backOff(attempt)) {
+                    continue;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rows committed so far
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    private void bind(PreparedStatement statement, int[] studentIds, int[] subjectIds, long[] epochDays,
+                      byte[] statuses, int from, int rows) throws SQLException {
+        int p = 1;
+        for (int i = from; i < from + rows; i++) {
+            statement.setInt(p++, studentIds[i]);
+            statement.setInt(p++, subjectIds[i]);
+            statement.setDate(p++, sqlDate(epochDays[i]));
+            statement.setByte(p++, statuses[i]);
+        }
+    }
+
+    /**
+     * Distinct (subject, date) keys of the rows, sorted
+     */
+    private static long[] classesOf(int[] subjectIds, long[] epochDays, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) subjectIds[i] << 32) | (epochDays[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    /**
+     * Imports are usually sorted by date, so consecutive rows share one Date
+     */
+    private Date sqlDate(long epochDay) {
+        if (epochDay != cachedDay) {
+            cachedDay = epochDay;
+            cachedDate = Date.valueOf(LocalDate.ofEpochDay(epochDay));
+        }
+        return cachedDate;
+    }
+
+    private static String multiRowUpsert(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO attendance (student_id, subject_id, date, status) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        return sql.append(" ON DUPLICATE KEY UPDATE status = VALUES(status)").toString();
+    }
+
+    /**
+     * Close the connection; if anything was written, cached reports and in-memory
+     * counters are refreshed
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            upsert.close();
+            bumpVersion.close();
+        } finally {
+            conn.close();
+        }
+        if (rowsWritten > 0) {
+            dbConnection.markDataChanged();
+            AttendanceDAO.fireReplaced();
+        }
+    }
+}
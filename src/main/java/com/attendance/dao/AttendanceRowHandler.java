@@ -0,0 +1,20 @@
+package com.attendance.dao;
+
+import com.attendance.model.AttendanceRecord;
+
+import java.io.IOException;
+
+/**
+ * Callback for attendance rows streamed from a database cursor.
+ * The same AttendanceRecord instance is reused for every row, so handlers
+ * must copy any values they want to keep after returning.
+ */
+@FunctionalInterface
+public interface AttendanceRowHandler {
+
+    /**
+     * Handle one row
+     * @return true to keep reading, false to stop the cursor early
+     */
+    boolean handle(AttendanceRecord record) throws IOException;
+}
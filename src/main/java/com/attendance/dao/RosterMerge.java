@@ -0,0 +1,55 @@
+package com.attendance.dao;
+
+import com.attendance.model.AttendanceRoster;
+
+/**
+ * Three-way merge of a class save: which marks to write, given the statuses the
+ * sheet was loaded with (the baseline) and the rows stored now.
+ *
+ * Unless overwriting, a mark equal to the baseline is left alone, so only the
+ * students changed on the sheet are written; if any of them was changed by someone
+ * else since loading, the save conflicts. Marks already stored are never written
+ * again. The rows to write are kept as indexes into the marks.
+ */
+final class RosterMerge {
+    final int[] updates;
+    final int[] inserts;
+    int updateCount;
+    int insertCount;
+    boolean conflict;
+
+    private RosterMerge(int size) {
+        updates = new int[size];
+        inserts = new int[size];
+    }
+
+    static RosterMerge of(AttendanceRoster marks, AttendanceRoster baseline, AttendanceRoster current,
+                          boolean overwrite) {
+        RosterMerge merge = new RosterMerge(marks.size());
+        for (int i = 0; i < marks.size(); i++) {
+            int studentId = marks.getStudentId(i);
+            byte wanted = marks.getStatus(i);
+            if (wanted == AttendanceRoster.UNMARKED) {
+                continue;
+            }
+            byte stored = current.statusOf(studentId);
+            byte loaded = baseline.statusOf(studentId);
+            if (!overwrite && wanted == loaded) {
+                continue;
+            }
+            if (wanted == stored) {
+                continue;
+            }
+            if (!overwrite && stored != loaded) {
+                merge.conflict = true;
+                return merge;
+            }
+            if (stored == AttendanceRoster.UNMARKED) {
+                merge.inserts[merge.insertCount++] = i;
+            } else {
+                merge.updates[merge.updateCount++] = i;
+            }
+        }
+        return merge;
+    }
+}
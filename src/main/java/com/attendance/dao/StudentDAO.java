@@ -7,7 +7,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.attendance.db.DatabaseConnection;
 import com.attendance.model.Student;
@@ -16,6 +18,9 @@ import com.attendance.model.Student;
  * Data Access Object for Student operations
  */
 public class StudentDAO {
+    // Students per multi-row INSERT in addStudents (5 parameters each)
+    private static final int ROWS_PER_INSERT = 500;
+
     private final DatabaseConnection dbConnection;
 
     public StudentDAO() {
@@ -40,6 +45,7 @@ public class StudentDAO {
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                dbConnection.markDataChanged();
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         student.setStudentId(generatedKeys.getInt(1));
@@ -71,7 +77,11 @@ public class StudentDAO {
             pstmt.setString(5, student.getClassName());
             pstmt.setInt(6, student.getStudentId());
             
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating student: " + e.getMessage());
             e.printStackTrace();
@@ -80,7 +90,8 @@ public class StudentDAO {
     }
 
     /**
-     * Delete a student by ID
+     * Delete a student by ID. Their attendance goes with them (ON DELETE CASCADE), which
+     * attendance listeners are told about as a wholesale change.
      */
     public boolean deleteStudent(int studentId) {
         String sql = "DELETE FROM students WHERE student_id = ?";
@@ -89,7 +100,12 @@ public class StudentDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, studentId);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                AttendanceDAO.fireReplaced();
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting student: " + e.getMessage());
             e.printStackTrace();
@@ -335,6 +351,96 @@ public class StudentDAO {
         return false;
     }
 
+    /**
+     * Get the roll numbers of all students, for validating many new students with one query
+     */
+    public Set<String> getAllRollNumbers() {
+        Set<String> rollNumbers = new HashSet<>();
+        String sql = "SELECT roll_no FROM students";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                rollNumbers.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting roll numbers: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+        return rollNumbers;
+    }
+
+    /**
+     * Add many students in one transaction, with multi-row INSERTs of up to
+     * ROWS_PER_INSERT students each. Either all of them are added or none.
+     * @return number of students added, or -1 on error
+     */
+    public int addStudents(List<Student> students) {
+        if (students.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int full = students.size() / ROWS_PER_INSERT;
+                if (full > 0) {
+                    try (PreparedStatement insert = conn.prepareStatement(multiRowStudentInsert(ROWS_PER_INSERT))) {
+                        for (int chunk = 0; chunk < full; chunk++) {
+                            bindStudents(insert, students, chunk * ROWS_PER_INSERT, ROWS_PER_INSERT);
+                            insert.executeUpdate();
+                        }
+                    }
+                }
+                int tail = students.size() - full * ROWS_PER_INSERT;
+                if (tail > 0) {
+                    try (PreparedStatement insert = conn.prepareStatement(multiRowStudentInsert(tail))) {
+                        bindStudents(insert, students, full * ROWS_PER_INSERT, tail);
+                        insert.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            dbConnection.markDataChanged();
+            return students.size();
+        } catch (SQLException e) {
+            System.err.println("Error adding students: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private static void bindStudents(PreparedStatement insert, List<Student> students, int from, int count)
+            throws SQLException {
+        int p = 1;
+        for (int i = from; i < from + count; i++) {
+            Student student = students.get(i);
+            insert.setString(p++, student.getName());
+            insert.setString(p++, student.getRollNo());
+            insert.setString(p++, student.getDepartment());
+            insert.setInt(p++, student.getSemester());
+            insert.setString(p++, student.getClassName());
+        }
+    }
+
+    private static String multiRowStudentInsert(int rows) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO students (name, roll_no, department, semester, class_name) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
     /**
      * Extract Student object from ResultSet
      */
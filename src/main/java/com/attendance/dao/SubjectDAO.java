@@ -38,6 +38,7 @@ public class SubjectDAO {
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                dbConnection.markDataChanged();
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         subject.setSubjectId(generatedKeys.getInt(1));
@@ -67,7 +68,11 @@ public class SubjectDAO {
             pstmt.setInt(3, subject.getSemester());
             pstmt.setInt(4, subject.getSubjectId());
             
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error updating subject: " + e.getMessage());
             e.printStackTrace();
@@ -76,7 +81,8 @@ public class SubjectDAO {
     }
 
     /**
-     * Delete a subject by ID
+     * Delete a subject by ID. Its attendance goes with it (ON DELETE CASCADE), which
+     * attendance listeners are told about as a wholesale change.
      */
     public boolean deleteSubject(int subjectId) {
         String sql = "DELETE FROM subjects WHERE subject_id = ?";
@@ -85,7 +91,12 @@ public class SubjectDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, subjectId);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                dbConnection.markDataChanged();
+                AttendanceDAO.fireReplaced();
+            }
+            return changed;
         } catch (SQLException e) {
             System.err.println("Error deleting subject: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,171 @@
+package com.attendance.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.Term;
+
+/**
+ * Data Access Object for academic terms. Archiving a term's attendance is done by
+ * AttendanceDAO.archiveTerm, since it moves attendance rows.
+ */
+public class TermDAO {
+    private final DatabaseConnection dbConnection;
+
+    public TermDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Add a new term to the database
+     */
+    public boolean addTerm(Term term) {
+        String sql = "INSERT INTO terms (name, start_date, end_date) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setString(1, term.getName());
+            pstmt.setDate(2, Date.valueOf(term.getStartDate()));
+            pstmt.setDate(3, Date.valueOf(term.getEndDate()));
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                dbConnection.markDataChanged();
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        term.setTermId(generatedKeys.getInt(1));
+                    }
+                }
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            System.err.println("Error adding term: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Get a term by name
+     */
+    public Term getTermByName(String name) {
+        String sql = "SELECT * FROM terms WHERE name = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, name);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractTermFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting term by name: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Get the term a date falls in, or null if it is in no term
+     */
+    public Term getTermContaining(LocalDate date) {
+        String sql = "SELECT * FROM terms WHERE start_date <= ? AND end_date >= ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.setDate(2, Date.valueOf(date));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractTermFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting term by date: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Get all terms, oldest first
+     */
+    public List<Term> getAllTerms() {
+        List<Term> terms = new ArrayList<>();
+        String sql = "SELECT * FROM terms ORDER BY start_date ASC";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                terms.add(extractTermFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting all terms: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return terms;
+    }
+
+    /**
+     * Check whether a term other than the given one overlaps the date range
+     */
+    public boolean overlapsOtherTerm(LocalDate startDate, LocalDate endDate, int excludeTermId) {
+        String sql = "SELECT COUNT(*) FROM terms WHERE start_date <= ? AND end_date >= ? AND term_id <> ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(endDate));
+            pstmt.setDate(2, Date.valueOf(startDate));
+            pstmt.setInt(3, excludeTermId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking term overlap: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Helper method to extract Term from ResultSet
+     */
+    private Term extractTermFromResultSet(ResultSet rs) throws SQLException {
+        Term term = new Term();
+        term.setTermId(rs.getInt("term_id"));
+        term.setName(rs.getString("name"));
+        term.setStartDate(rs.getDate("start_date").toLocalDate());
+        term.setEndDate(rs.getDate("end_date").toLocalDate());
+        term.setArchivedRows(rs.getLong("archived_rows"));
+
+        Timestamp timestamp = rs.getTimestamp("archived_at");
+        if (timestamp != null) {
+            term.setArchivedAt(timestamp.toLocalDateTime());
+        }
+
+        return term;
+    }
+}
@@ -0,0 +1,212 @@
+package com.attendance.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size pool of physical connections.
+ * Connections are handed out as proxies whose close() returns the physical connection
+ * to the pool, so the DAOs' try-with-resources blocks work unchanged and concurrent
+ * callers (batch workers, background exports) each get a connection of their own.
+ * A connection is reset to auto-commit on return; one that fails the reset or was
+ * closed underneath is discarded and replaced on the next borrow.
+ */
+class ConnectionPool {
+    /** Idle connections older than this are validated before being handed out */
+    private static final long VALIDATE_AFTER_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens a new physical connection
+     */
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Take an idle connection or open a new one, waiting while all are in use
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for one of "
+                        + maxSize + " pooled connections", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+
+        try {
+            Connection physical = takeIdle();
+            if (physical == null) {
+                physical = factory.open();
+            }
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new PooledConnectionHandler(physical));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close every idle connection; connections still borrowed are closed when returned
+     */
+    void close() {
+        closed = true;
+        synchronized (idle) {
+            for (IdleConnection c : idle) {
+                closeQuietly(c.connection);
+            }
+            idle.clear();
+        }
+    }
+
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isUsable(candidate)) {
+                return candidate.connection;
+            }
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    private static boolean isUsable(IdleConnection candidate) {
+        try {
+            if (candidate.connection.isClosed()) {
+                return false;
+            }
+            return System.nanoTime() - candidate.idleSince < VALIDATE_AFTER_NANOS
+                    || candidate.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reset a returned connection and put it back, most recently used first
+     */
+    private void giveBack(Connection physical) {
+        try {
+            boolean reusable = !closed && !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                physical.clearWarnings();
+                synchronized (idle) {
+                    idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+                }
+            } else {
+                closeQuietly(physical);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection connection;
+        final long idleSince;
+
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Connection handed to a caller; close() returns it and makes this handle unusable
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private Connection physical;
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close": {
+                    Connection returned;
+                    synchronized (this) {
+                        returned = physical;
+                        physical = null;
+                    }
+                    if (returned != null) {
+                        giveBack(returned);
+                    }
+                    return null;
+                }
+                case "isClosed":
+                    return physical == null || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    Connection target = physical;
+                    if (target == null) {
+                        throw new SQLException("Connection has been returned to the pool", "08003");
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
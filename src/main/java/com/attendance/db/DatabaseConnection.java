@@ -7,23 +7,39 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 /**
- * Singleton class for managing database connections
+ * Singleton class for managing database connections.
+ * Hands out connections from a small pool (db.pool.size, default 10); closing a
+ * connection returns it to the pool.
  */
 public class DatabaseConnection {
-    private static DatabaseConnection instance;
-    private Connection connection;
+    /** Default embedded database: a file under ./data, kept open for the life of the JVM */
+    static final String DEFAULT_H2_URL =
+            "jdbc:h2:./data/attendance_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_POOL_TIMEOUT_MILLIS = 30_000;
+
+    private static volatile DatabaseConnection instance;
+    private volatile ConnectionPool pool;
+    private SqlDialect dialect = SqlDialect.MYSQL;
     private String url;
     private String username;
     private String password;
+    private volatile boolean schemaReady;
+    private Properties configuration = new Properties();
+    private volatile UnaryOperator<Connection> connectionDecorator = UnaryOperator.identity();
+    private final AtomicLong dataVersion = new AtomicLong();
 
     private DatabaseConnection() {
         try {
             loadProperties();
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(dialect.getDriverClass());
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found.");
+            System.err.println(dialect + " JDBC Driver not found.");
             e.printStackTrace();
         } catch (IOException e) {
             System.err.println("Failed to load database properties.");
@@ -50,9 +66,26 @@ public class DatabaseConnection {
             }
         }
         
-        this.url = props.getProperty("db.url");
-        this.username = props.getProperty("db.username");
-        this.password = props.getProperty("db.password");
+        this.dialect = SqlDialect.fromBackend(props.getProperty("db.backend"));
+        if (dialect.isEmbedded()) {
+            this.url = props.getProperty("db.h2.url", DEFAULT_H2_URL);
+            this.username = props.getProperty("db.h2.username", "sa");
+            this.password = props.getProperty("db.h2.password", "");
+        } else {
+            this.url = props.getProperty("db.url");
+            this.username = props.getProperty("db.username");
+            this.password = props.getProperty("db.password");
+        }
+
+        int poolSize = DEFAULT_POOL_SIZE;
+        try {
+            poolSize = Math.max(1, Integer.parseInt(props.getProperty("db.pool.size", String.valueOf(DEFAULT_POOL_SIZE)).trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid db.pool.size, using " + DEFAULT_POOL_SIZE);
+        }
+        this.pool = new ConnectionPool(this::connect, poolSize, DEFAULT_POOL_TIMEOUT_MILLIS);
+
+        this.configuration = props;
     }
 
     /**
@@ -70,13 +103,87 @@ public class DatabaseConnection {
     }
 
     /**
-     * Get a database connection
+     * Get a pooled database connection; close it to return it to the pool.
+     * Waits while every pooled connection is in use.
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(url, username, password);
+        if (pool == null) {
+            // config.properties could not be read; fall back to the defaults
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ConnectionPool(this::connect, DEFAULT_POOL_SIZE, DEFAULT_POOL_TIMEOUT_MILLIS);
+                }
+            }
         }
-        return connection;
+        return pool.borrow();
+    }
+
+    /**
+     * Maximum number of pooled connections, i.e. how many DAO calls can run at once
+     */
+    public int getPoolSize() {
+        return pool != null ? pool.getMaxSize() : DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Open a dedicated connection that is not shared with the rest of the application.
+     * Used for long-running cursors (e.g. streaming exports) so they do not block
+     * or get closed by ordinary DAO calls. The caller must close it.
+     */
+    public Connection openDedicatedConnection() throws SQLException {
+        return connect();
+    }
+
+    /**
+     * Open a physical connection; the first one to an embedded database also creates or upgrades the schema
+     */
+    private Connection connect() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, username, password);
+        if (dialect.isEmbedded() && !schemaReady) {
+            synchronized (this) {
+                if (!schemaReady) {
+                    try {
+                        if (SchemaInitializer.initializeIfEmpty(conn)) {
+                            System.out.println("Initialized embedded database schema at " + url);
+                        } else {
+                            int migrations = SchemaInitializer.applyMigrations(conn);
+                            if (migrations > 0) {
+                                System.out.println("Applied " + migrations + " schema migration(s) to " + url);
+                            }
+                        }
+                        schemaReady = true;
+                    } catch (IOException | SQLException e) {
+                        conn.close();
+                        throw new SQLException("Failed to initialize embedded database schema: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return connectionDecorator.apply(conn);
+    }
+
+    /**
+     * Settings read from config.properties, empty if it could not be read
+     */
+    public Properties getConfiguration() {
+        Properties copy = new Properties();
+        copy.putAll(configuration);
+        return copy;
+    }
+
+    /**
+     * Wrap every physical connection opened from now on, e.g. to instrument it.
+     * Set before the first connection is opened, since pooled ones are reused as they are.
+     */
+    public void setConnectionDecorator(UnaryOperator<Connection> connectionDecorator) {
+        this.connectionDecorator = connectionDecorator;
+    }
+
+    /**
+     * SQL dialect of the configured backend
+     */
+    public SqlDialect getDialect() {
+        return dialect;
     }
 
     /**
@@ -92,18 +199,30 @@ public class DatabaseConnection {
     }
 
     /**
-     * Close the database connection
+     * Close the pooled database connections
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
+        if (pool != null) {
+            pool.close();
         }
     }
 
+    /**
+     * Version of the data written through this application.
+     * Incremented by the DAOs after every successful insert, update or delete,
+     * so derived results can tell whether they are still current.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Record that data was modified
+     */
+    public void markDataChanged() {
+        dataVersion.incrementAndGet();
+    }
+
     /**
      * Get database URL
      */
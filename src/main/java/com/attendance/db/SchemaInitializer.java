@@ -0,0 +1,197 @@
+package com.attendance.db;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates the schema of an embedded database from attendance_db.sql.
+ * Database-level statements (DROP/CREATE DATABASE, USE) are skipped because
+ * the embedded database is already selected by its JDBC URL.
+ *
+ * Embedded databases created by an older version are brought up to date with the
+ * scripts in migrations/, which MySQL installations run by hand. Applied scripts are
+ * recorded in schema_migrations; a freshly created schema already contains every
+ * migration, so they are all recorded as applied.
+ */
+public class SchemaInitializer {
+    static final String SCRIPT_NAME = "attendance_db.sql";
+
+    /** Upgrade scripts in the order they must run */
+    static final String[] MIGRATIONS = {
+        "migrations/001_attendance_versions.sql",
+        "migrations/002_attendance_status_codes.sql",
+        "migrations/003_terms_and_archive.sql",
+        "migrations/004_attendance_updated_at.sql"
+    };
+
+    private SchemaInitializer() {
+    }
+
+    /**
+     * Run the schema script if the students table does not exist yet
+     */
+    public static boolean initializeIfEmpty(Connection conn) throws SQLException, IOException {
+        if (tableExists(conn, "students")) {
+            return false;
+        }
+        runScript(conn, SCRIPT_NAME, MIGRATIONS);
+        return true;
+    }
+
+    /**
+     * Run the migrations not yet recorded in schema_migrations, returning how many ran
+     */
+    public static int applyMigrations(Connection conn) throws SQLException, IOException {
+        ensureMigrationTable(conn);
+        List<String> applied = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.add(rs.getString(1));
+            }
+        }
+        int count = 0;
+        for (String migration : MIGRATIONS) {
+            if (!applied.contains(migration)) {
+                runScript(conn, migration, new String[] {migration});
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run one script in a transaction and record the given migrations as applied
+     */
+    private static void runScript(Connection conn, String name, String[] migrations)
+            throws SQLException, IOException {
+        ensureMigrationTable(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Reader script = openScript(name); Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement("INSERT INTO schema_migrations (name) VALUES (?)")) {
+            for (String sql : splitStatements(script)) {
+                if (!isDatabaseLevel(sql)) {
+                    stmt.execute(sql);
+                }
+            }
+            for (String migration : migrations) {
+                record.setString(1, migration);
+                record.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException | IOException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void ensureMigrationTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                    + "name VARCHAR(200) PRIMARY KEY, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = meta.getTables(null, null, name, new String[] {"TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Open the script from the working directory, falling back to the classpath copy
+     */
+    private static Reader openScript(String name) throws IOException {
+        InputStream input;
+        try {
+            input = new FileInputStream(name);
+        } catch (IOException e) {
+            input = SchemaInitializer.class.getClassLoader().getResourceAsStream(name);
+            if (input == null) {
+                throw new IOException("Unable to find " + name);
+            }
+        }
+        return new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDatabaseLevel(String sql) {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        return upper.startsWith("DROP DATABASE") || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ");
+    }
+
+    /**
+     * Split a script into statements on ';', skipping -- and block comments
+     * and ignoring semicolons inside quoted strings
+     */
+    static List<String> splitStatements(Reader script) throws IOException {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int c = script.read();
+        while (c != -1) {
+            int next = script.read();
+            if (c == '-' && next == '-') {
+                // Line comment
+                while (next != -1 && next != '\n') {
+                    next = script.read();
+                }
+            } else if (c == '/' && next == '*') {
+                // Block comment
+                int prev = 0;
+                next = script.read();
+                while (next != -1 && !(prev == '*' && next == '/')) {
+                    prev = next;
+                    next = script.read();
+                }
+                next = script.read();
+            } else if (c == '\'' || c == '"') {
+                // Quoted literal, copied verbatim (doubled quotes simply reopen the literal)
+                current.append((char) c);
+                while (next != -1 && next != c) {
+                    current.append((char) next);
+                    next = script.read();
+                }
+                if (next != -1) {
+                    current.append((char) next);
+                    next = script.read();
+                }
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append((char) c);
+            }
+            c = next;
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String sql = current.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        current.setLength(0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.attendance.db;
+
+import java.util.Locale;
+
+/**
+ * Database backends the application can run on, with the few settings
+ * where their JDBC drivers or SQL differ
+ */
+public enum SqlDialect {
+    /**
+     * External MySQL server (the default)
+     */
+    MYSQL("com.mysql.cj.jdbc.Driver", Integer.MIN_VALUE),
+
+    /**
+     * Embedded, in-process H2 database running in MySQL compatibility mode
+     */
+    H2("org.h2.Driver", 1000);
+
+    private final String driverClass;
+    private final int streamingFetchSize;
+
+    SqlDialect(String driverClass, int streamingFetchSize) {
+        this.driverClass = driverClass;
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    /**
+     * Resolve the db.backend setting; unset means MySQL
+     */
+    public static SqlDialect fromBackend(String backend) {
+        if (backend == null || backend.isBlank()) {
+            return MYSQL;
+        }
+        switch (backend.trim().toLowerCase(Locale.ROOT)) {
+            case "mysql":
+                return MYSQL;
+            case "h2":
+            case "embedded":
+                return H2;
+            default:
+                throw new IllegalArgumentException("Unknown db.backend: " + backend);
+        }
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    /**
+     * Fetch size that makes the driver stream rows instead of buffering the whole result.
+     * MySQL Connector/J only streams with Integer.MIN_VALUE; H2 rejects negative sizes.
+     */
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    /**
+     * Whether the schema lives inside this process and must be created by the application
+     */
+    public boolean isEmbedded() {
+        return this == H2;
+    }
+}
@@ -0,0 +1,30 @@
+package com.attendance.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one frame painted by CustomBackgroundPanel on the EDT
+ */
+@Name("com.attendance.BackgroundFrame")
+@Label("Background Frame")
+@Category({"Attendance Management", "Swing"})
+@Description("One animation frame of the custom background panel")
+@StackTrace(false)
+public class BackgroundFrameEvent extends Event {
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Particles")
+    public int particles;
+
+    @Label("Ripples")
+    public int ripples;
+}
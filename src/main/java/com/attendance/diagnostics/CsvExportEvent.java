@@ -0,0 +1,62 @@
+package com.attendance.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one CSV export, from opening the file until it is closed
+ */
+@Name("com.attendance.CsvExport")
+@Label("CSV Export")
+@Category({"Attendance Management", "Export"})
+@Description("Report or attendance records written to a CSV file")
+@StackTrace(false)
+public class CsvExportEvent extends Event {
+    @Label("Export Type")
+    public String exportType;
+
+    @Label("File")
+    public String path;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * Create and begin an export event
+     */
+    public static CsvExportEvent start(String exportType, String path) {
+        CsvExportEvent event = new CsvExportEvent();
+        event.exportType = exportType;
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Record what was written; an export without output is reported as failed
+     */
+    public void setOutput(long rows, long bytes) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.succeeded = true;
+    }
+
+    /**
+     * End the event and commit it if it is enabled
+     */
+    public void complete() {
+        commit();
+    }
+}
@@ -0,0 +1,187 @@
+package com.attendance.diagnostics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of DAO query statistics.
+ * Fed by the instrumented JDBC connections handed out by DatabaseConnection;
+ * keeps a latency histogram, row and error counts per DAO method, error counts
+ * per SQLState, and a slow-query log with SQL text and bind parameters.
+ */
+public final class DaoMetrics {
+    private static final int RECENT_SLOW_QUERIES = 100;
+    private static final Path DEFAULT_SLOW_LOG = Path.of("logs", "slow-queries.log");
+    // Declared after the constants its constructor reads
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    private final Map<String, QueryStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errorsBySqlState = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> recentSlowQueries = new ArrayDeque<>();
+    private volatile boolean enabled = true;
+    private volatile long slowQueryThresholdNanos = 200_000_000L;
+    private volatile Path slowQueryLog = DEFAULT_SLOW_LOG;
+
+    private DaoMetrics() {
+    }
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdNanos / 1_000_000;
+    }
+
+    /**
+     * Statements slower than this are written to the slow-query log
+     */
+    public void setSlowQueryThresholdMillis(long millis) {
+        this.slowQueryThresholdNanos = Math.max(0, millis) * 1_000_000;
+    }
+
+    public Path getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * File the slow-query log is appended to; null disables the file and keeps only the in-memory list
+     */
+    public void setSlowQueryLog(Path slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Record one executed statement
+     */
+    public void record(String method, String sql, Object[] binds, long nanos, long rows, SQLException error) {
+        QueryStats methodStats = stats.computeIfAbsent(method, m -> new QueryStats());
+        methodStats.histogram.record(nanos);
+        methodStats.rows.add(rows);
+        if (error != null) {
+            methodStats.errors.increment();
+            String state = error.getSQLState() != null ? error.getSQLState() : "unknown";
+            errorsBySqlState.computeIfAbsent(state, s -> new LongAdder()).increment();
+        }
+        if (nanos >= slowQueryThresholdNanos) {
+            logSlowQuery(new SlowQuery(LocalDateTime.now(), method, nanos, rows, sql, formatBinds(binds),
+                    error != null ? error.getMessage() : null));
+        }
+    }
+
+    /**
+     * Statistics of every DAO method seen so far, busiest (by total time) first
+     */
+    public List<MethodStats> snapshot() {
+        List<MethodStats> result = new ArrayList<>(stats.size());
+        for (Map.Entry<String, QueryStats> entry : stats.entrySet()) {
+            QueryStats s = entry.getValue();
+            LatencyHistogram h = s.histogram;
+            result.add(new MethodStats(entry.getKey(), h.getCount(), s.rows.sum(), s.errors.sum(),
+                    h.getTotalNanos(), h.getPercentileNanos(50), h.getPercentileNanos(99), h.getMaxNanos()));
+        }
+        result.sort(Comparator.comparingLong(MethodStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Failed statements per SQLState
+     */
+    public Map<String, Long> getErrorsBySqlState() {
+        Map<String, Long> result = new TreeMap<>();
+        errorsBySqlState.forEach((state, count) -> result.put(state, count.sum()));
+        return result;
+    }
+
+    /**
+     * Most recent slow queries, newest first
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        synchronized (recentSlowQueries) {
+            return new ArrayList<>(recentSlowQueries);
+        }
+    }
+
+    /**
+     * Clear all statistics (the log file is kept)
+     */
+    public void reset() {
+        stats.clear();
+        errorsBySqlState.clear();
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+    }
+
+    private void logSlowQuery(SlowQuery query) {
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.addFirst(query);
+            if (recentSlowQueries.size() > RECENT_SLOW_QUERIES) {
+                recentSlowQueries.removeLast();
+            }
+            Path log = slowQueryLog;
+            if (log == null) {
+                return;
+            }
+            try {
+                if (log.getParent() != null) {
+                    Files.createDirectories(log.getParent());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(query.toString());
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing slow query log: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String formatBinds(Object[] binds) {
+        if (binds == null) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i < binds.length; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+            Object value = binds[i];
+            sb.append(value instanceof String ? "'" + value + "'" : String.valueOf(value));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Live accumulators of one method
+     */
+    private static final class QueryStats {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+}
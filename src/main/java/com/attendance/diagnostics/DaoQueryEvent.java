@@ -0,0 +1,43 @@
+package com.attendance.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one SQL statement executed by a DAO, from execute until its
+ * result set is closed
+ */
+@Name("com.attendance.DaoQuery")
+@Label("DAO Query")
+@Category({"Attendance Management", "Database"})
+@Description("SQL statement executed by a DAO method, including fetching its rows")
+@StackTrace(true)
+public class DaoQueryEvent extends Event {
+    @Label("DAO Method")
+    public String method;
+
+    @Label("SQL Id")
+    @Description("Stable hash of the SQL text, for grouping executions of the same statement")
+    public String sqlId;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Rows read from the result set or affected by the update")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Stable identifier of a SQL text
+     */
+    public static String sqlId(String sql) {
+        return sql == null ? "" : String.format("%08x", sql.hashCode());
+    }
+}
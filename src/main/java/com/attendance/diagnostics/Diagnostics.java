@@ -0,0 +1,52 @@
+package com.attendance.diagnostics;
+
+import com.attendance.db.DatabaseConnection;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Start-up wiring of the diagnostics: applies the diagnostics.* settings of
+ * config.properties to DaoMetrics and EdtWatchdog and has DatabaseConnection hand
+ * out instrumented connections while DaoMetrics is enabled. Called once by Main
+ * before any other database access; the database layer itself knows nothing of it.
+ */
+public final class Diagnostics {
+
+    private Diagnostics() {
+    }
+
+    /**
+     * Configure the diagnostics from the settings the database connection was loaded with
+     */
+    public static void configure(DatabaseConnection db) {
+        Properties props = db.getConfiguration();
+
+        DaoMetrics metrics = DaoMetrics.getInstance();
+        metrics.setEnabled(Boolean.parseBoolean(props.getProperty("diagnostics.enabled", "true")));
+        try {
+            metrics.setSlowQueryThresholdMillis(Long.parseLong(props.getProperty("diagnostics.slowQueryMillis", "200").trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid diagnostics.slowQueryMillis, using " + metrics.getSlowQueryThresholdMillis());
+        }
+        String slowLog = props.getProperty("diagnostics.slowQueryLog");
+        if (slowLog != null) {
+            metrics.setSlowQueryLog(slowLog.isBlank() ? null : Path.of(slowLog.trim()));
+        }
+
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        watchdog.setEnabled(Boolean.parseBoolean(props.getProperty("diagnostics.edtWatchdog", "false")));
+        try {
+            watchdog.setStallThresholdMillis(Long.parseLong(props.getProperty("diagnostics.edtStallMillis", "300").trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid diagnostics.edtStallMillis, using " + watchdog.getStallThresholdMillis());
+        }
+        String stallLog = props.getProperty("diagnostics.edtStallLog");
+        if (stallLog != null) {
+            watchdog.setStallLog(stallLog.isBlank() ? null : Path.of(stallLog.trim()));
+        }
+
+        // Per-DAO-method latency, row and error statistics (Help > Diagnostics)
+        db.setConnectionDecorator(conn -> metrics.isEnabled() ? InstrumentedJdbc.wrap(conn) : conn);
+    }
+}
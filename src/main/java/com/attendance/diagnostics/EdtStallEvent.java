@@ -0,0 +1,41 @@
+package com.attendance.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one Swing event dispatch that blocked the EDT for longer than
+ * the watchdog threshold
+ */
+@Name("com.attendance.EdtStall")
+@Label("EDT Stall")
+@Category({"Attendance Management", "Swing"})
+@Description("Event dispatch that kept the Swing event dispatch thread busy past the stall threshold")
+@StackTrace(false)
+public class EdtStallEvent extends Event {
+    @Label("UI Action")
+    @Description("The AWT event being dispatched and its source component")
+    public String action;
+
+    @Label("Call Site")
+    @Description("Innermost application frame on the EDT when the stall was detected")
+    public String callSite;
+
+    @Label("Blocked In")
+    @Description("Top frame of the EDT stack when the stall was detected")
+    public String blockedIn;
+
+    @Label("Busy Time")
+    @Description("Time the dispatch kept the EDT busy, excluding nested modal event loops")
+    @Timespan(Timespan.NANOSECONDS)
+    public long busyTime;
+
+    @Label("JDBC")
+    @Description("The EDT was inside JDBC driver code")
+    public boolean jdbc;
+}
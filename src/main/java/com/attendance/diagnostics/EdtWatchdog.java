@@ -0,0 +1,446 @@
+package com.attendance.diagnostics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.swing.AbstractButton;
+
+/**
+ * Opt-in watchdog for the Swing event dispatch thread.
+ * Pushes an EventQueue that tracks how long each event dispatch keeps the EDT busy;
+ * a daemon thread samples the EDT stack once a dispatch passes the stall threshold.
+ * Stalls are aggregated by the innermost application frame on the stack (so a DAO
+ * call made from a panel shows up as that DAO method), appended to a rolling log,
+ * and emitted as {@link EdtStallEvent}s. Time spent in a nested modal event loop
+ * (e.g. a JOptionPane opened by the dispatch) does not count as a stall.
+ */
+public final class EdtWatchdog {
+    private static final String APP_PACKAGE = "com.attendance.";
+    private static final String OWN_PACKAGE = "com.attendance.diagnostics.";
+    private static final String[] JDBC_PACKAGES = {"java.sql.", "com.mysql.", "org.h2."};
+    private static final int LOGGED_FRAMES = 40;
+    private static final long MAX_LOG_BYTES = 1024 * 1024;
+    private static final int LOG_FILES_KEPT = 3;
+    private static final Path DEFAULT_LOG = Path.of("logs", "edt-stalls.log");
+    // Declared after the constants its constructor reads
+    private static final EdtWatchdog INSTANCE = new EdtWatchdog();
+
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Stall> completed = new ConcurrentLinkedQueue<>();
+    private volatile boolean enabled;
+    private volatile long stallThresholdNanos = 300_000_000L;
+    private volatile Path stallLog = DEFAULT_LOG;
+    private volatile Thread edt;
+    private volatile Dispatch running;
+    private WatchdogEventQueue queue;
+
+    private EdtWatchdog() {
+    }
+
+    public static EdtWatchdog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether config.properties asked for the watchdog (it is only active once installed)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isInstalled() {
+        return queue != null;
+    }
+
+    public long getStallThresholdMillis() {
+        return stallThresholdNanos / 1_000_000;
+    }
+
+    /**
+     * Dispatches that keep the EDT busy longer than this are reported as stalls
+     */
+    public void setStallThresholdMillis(long millis) {
+        this.stallThresholdNanos = Math.max(1, millis) * 1_000_000;
+    }
+
+    public Path getStallLog() {
+        return stallLog;
+    }
+
+    /**
+     * File stalls are appended to; it is rolled over at 1 MB. Null keeps the statistics in memory only
+     */
+    public void setStallLog(Path stallLog) {
+        this.stallLog = stallLog;
+    }
+
+    /**
+     * Push the monitoring event queue and start the sampling thread
+     */
+    public synchronized void install() {
+        if (queue != null) {
+            return;
+        }
+        queue = new WatchdogEventQueue();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+
+        long sampleMillis = Math.min(100, Math.max(10, getStallThresholdMillis() / 5));
+        Thread sampler = new Thread(() -> sample(sampleMillis), "EDT Watchdog");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            drainCompleted();
+            writeLog(formatSummary());
+        }, "EDT Watchdog Summary"));
+    }
+
+    /**
+     * Call sites that stalled the EDT, most total stall time first
+     */
+    public List<StallSite> getStallSites() {
+        List<StallSite> result = new ArrayList<>(sites.size());
+        for (Map.Entry<String, SiteStats> entry : sites.entrySet()) {
+            SiteStats s = entry.getValue();
+            synchronized (s) {
+                result.add(new StallSite(entry.getKey(), s.stalls, s.totalNanos, s.maxNanos, s.jdbc,
+                        s.lastAction, s.lastStack));
+            }
+        }
+        result.sort(Comparator.comparingLong(StallSite::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Ranked list of stalling call sites, as written to the log at shutdown
+     */
+    public String formatSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LocalDateTime.now()).append(" EDT stall summary (threshold ")
+          .append(getStallThresholdMillis()).append(" ms), by total stall time\n");
+        int rank = 1;
+        for (StallSite site : getStallSites()) {
+            sb.append(String.format("%3d. %6d ms total, %5d stalls, max %6d ms%s  %s%n", rank++,
+                    site.getTotalNanos() / 1_000_000, site.getStalls(), site.getMaxNanos() / 1_000_000,
+                    site.isJdbc() ? " [JDBC]" : "       ", site.getCallSite()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Clear the statistics (the log file is kept)
+     */
+    public void reset() {
+        sites.clear();
+    }
+
+    /**
+     * Sampling loop: capture the EDT stack once per dispatch that passes the threshold,
+     * and hand finished stalls to the statistics and the log
+     */
+    private void sample(long sampleMillis) {
+        while (true) {
+            try {
+                Thread.sleep(sampleMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            Dispatch dispatch = running;
+            Thread thread = edt;
+            if (dispatch != null && thread != null && dispatch.stack == null
+                    && dispatch.busyNanos(System.nanoTime()) >= stallThresholdNanos) {
+                StackTraceElement[] stack = thread.getStackTrace();
+                // Discard the sample if the EDT moved on while the stack was taken
+                if (running == dispatch && dispatch.runningSince != 0) {
+                    dispatch.stack = stack;
+                }
+            }
+            drainCompleted();
+        }
+    }
+
+    private void drainCompleted() {
+        Stall stall;
+        while ((stall = completed.poll()) != null) {
+            SiteStats s = sites.computeIfAbsent(stall.callSite, k -> new SiteStats());
+            synchronized (s) {
+                s.stalls++;
+                s.totalNanos += stall.busyNanos;
+                s.maxNanos = Math.max(s.maxNanos, stall.busyNanos);
+                s.jdbc |= stall.jdbc;
+                s.lastAction = stall.action;
+                s.lastStack = stall.formatStack();
+            }
+            writeLog(stall.toString());
+        }
+    }
+
+    private synchronized void writeLog(String text) {
+        Path log = stallLog;
+        if (log == null) {
+            return;
+        }
+        try {
+            if (log.getParent() != null) {
+                Files.createDirectories(log.getParent());
+            }
+            if (Files.exists(log) && Files.size(log) >= MAX_LOG_BYTES) {
+                rollOver(log);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(text);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing EDT stall log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * edt-stalls.log becomes edt-stalls.log.1, .1 becomes .2 and so on; the oldest is dropped
+     */
+    private static void rollOver(Path log) throws IOException {
+        for (int i = LOG_FILES_KEPT - 1; i >= 1; i--) {
+            Path older = log.resolveSibling(log.getFileName() + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, log.resolveSibling(log.getFileName() + "." + (i + 1)),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(log, log.resolveSibling(log.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Called on the EDT when a dispatch returns
+     */
+    private void finished(Dispatch dispatch, EdtStallEvent event) {
+        long busy = dispatch.accumulatedNanos;
+        StackTraceElement[] stack = dispatch.stack;
+        if (busy < stallThresholdNanos || stack == null) {
+            return;
+        }
+        Stall stall = new Stall(LocalDateTime.now(), describe(dispatch.event), busy, stack);
+        completed.add(stall);
+        if (event.shouldCommit()) {
+            event.action = stall.action;
+            event.callSite = stall.callSite;
+            event.blockedIn = stack.length > 0 ? stack[0].toString() : "";
+            event.busyTime = busy;
+            event.jdbc = stall.jdbc;
+            event.commit();
+        }
+    }
+
+    /**
+     * Short description of the event being dispatched and the component it targets
+     */
+    private static String describe(AWTEvent event) {
+        String type = event.paramString();
+        int comma = type.indexOf(',');
+        StringBuilder sb = new StringBuilder(comma > 0 ? type.substring(0, comma) : type);
+        if (event instanceof ActionEvent && ((ActionEvent) event).getActionCommand() != null) {
+            sb.append(" \"").append(((ActionEvent) event).getActionCommand()).append('"');
+        }
+        Object source = event.getSource();
+        if (source != null) {
+            sb.append(" on ").append(source.getClass().getSimpleName().isEmpty()
+                    ? source.getClass().getName() : source.getClass().getSimpleName());
+            if (source instanceof AbstractButton) {
+                String text = ((AbstractButton) source).getText();
+                if (text != null && !text.isEmpty()) {
+                    sb.append(" \"").append(text).append('"');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Event queue that keeps the stack of dispatches in progress on the EDT. A dispatch
+     * is paused while a nested event loop waits for events or dispatches its own events.
+     */
+    private final class WatchdogEventQueue extends EventQueue {
+        // Only touched on the EDT
+        private final Deque<Dispatch> dispatches = new ArrayDeque<>();
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            Thread current = Thread.currentThread();
+            if (edt != current) {
+                edt = current;
+            }
+            long now = System.nanoTime();
+            Dispatch outer = dispatches.peek();
+            if (outer != null) {
+                outer.pause(now);
+            }
+            Dispatch dispatch = new Dispatch(event, now);
+            dispatches.push(dispatch);
+            running = dispatch;
+            EdtStallEvent stallEvent = new EdtStallEvent();
+            stallEvent.begin();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                dispatch.pause(end);
+                dispatches.pop();
+                if (outer != null) {
+                    outer.resume(end);
+                }
+                running = outer;
+                finished(dispatch, stallEvent);
+            }
+        }
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            // Called from a nested loop (modal dialog) while an outer dispatch is in progress
+            Dispatch waiting = dispatches.peek();
+            if (waiting != null && EventQueue.isDispatchThread()) {
+                waiting.pause(System.nanoTime());
+                running = null;
+                try {
+                    return super.getNextEvent();
+                } finally {
+                    waiting.resume(System.nanoTime());
+                    running = waiting;
+                }
+            }
+            return super.getNextEvent();
+        }
+    }
+
+    /**
+     * One event dispatch in progress on the EDT
+     */
+    private static final class Dispatch {
+        final AWTEvent event;
+        volatile long accumulatedNanos;
+        // Start of the current busy period, 0 while paused
+        volatile long runningSince;
+        // EDT stack sampled by the watchdog thread once the threshold was passed
+        volatile StackTraceElement[] stack;
+
+        Dispatch(AWTEvent event, long now) {
+            this.event = event;
+            this.runningSince = now;
+        }
+
+        long busyNanos(long now) {
+            long since = runningSince;
+            return accumulatedNanos + (since != 0 ? now - since : 0);
+        }
+
+        void pause(long now) {
+            if (runningSince != 0) {
+                accumulatedNanos += now - runningSince;
+                runningSince = 0;
+            }
+        }
+
+        void resume(long now) {
+            runningSince = now;
+        }
+    }
+
+    /**
+     * A finished dispatch that stalled the EDT
+     */
+    private static final class Stall {
+        final LocalDateTime timestamp;
+        final String action;
+        final long busyNanos;
+        final StackTraceElement[] stack;
+        final String callSite;
+        final boolean jdbc;
+
+        Stall(LocalDateTime timestamp, String action, long busyNanos, StackTraceElement[] stack) {
+            this.timestamp = timestamp;
+            this.action = action;
+            this.busyNanos = busyNanos;
+            this.stack = stack;
+            this.callSite = callSite(stack);
+            this.jdbc = inJdbc(stack);
+        }
+
+        private static String callSite(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                String className = frame.getClassName();
+                if (className.startsWith(APP_PACKAGE) && !className.startsWith(OWN_PACKAGE)) {
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                            + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+                }
+            }
+            return stack.length > 0 ? stack[0].toString() : "unknown";
+        }
+
+        private static boolean inJdbc(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                for (String prefix : JDBC_PACKAGES) {
+                    if (frame.getClassName().startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        String formatStack() {
+            StringBuilder sb = new StringBuilder();
+            int frames = Math.min(stack.length, LOGGED_FRAMES);
+            for (int i = 0; i < frames; i++) {
+                sb.append("    at ").append(stack[i]).append('\n');
+            }
+            if (stack.length > frames) {
+                sb.append("    ... ").append(stack.length - frames).append(" more\n");
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Log entry: timestamp, duration, UI action, call site and the sampled EDT stack
+         */
+        @Override
+        public String toString() {
+            return timestamp + " EDT stall " + busyNanos / 1_000_000 + " ms, " + action
+                    + "\n  call site: " + callSite + (jdbc ? " [JDBC]" : "")
+                    + "\n" + formatStack();
+        }
+    }
+
+    /**
+     * Live accumulators of one call site, guarded by its own monitor
+     */
+    private static final class SiteStats {
+        long stalls;
+        long totalNanos;
+        long maxNanos;
+        boolean jdbc;
+        String lastAction;
+        String lastStack;
+    }
+}
@@ -0,0 +1,281 @@
+package com.attendance.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * JDBC proxies that time every statement handed out by a connection and report it to
+ * {@link DaoMetrics}. A statement's time runs from execute until its result set (or the
+ * statement) is closed, so it includes fetching the rows. Each statement is attributed
+ * to the application method that executed it, normally a DAO method, found with a
+ * StackWalker, so the DAOs need no changes. Each execution is also emitted as a
+ * {@link DaoQueryEvent} when a flight recording has that event enabled.
+ */
+public final class InstrumentedJdbc {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String APP_PACKAGE = "com.attendance.";
+    private static final String OWN_PACKAGE = "com.attendance.diagnostics.";
+
+    private InstrumentedJdbc() {
+    }
+
+    /**
+     * Wrap a connection so statements created from it are measured
+     */
+    public static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * The DAO method (or other application method) currently executing SQL, e.g. "StudentDAO.getAllStudents"
+     */
+    static String callerMethod() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE) && !f.getClassName().startsWith(OWN_PACKAGE))
+                .findFirst()
+                .map(f -> {
+                    String className = f.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + f.getMethodName();
+                })
+                .orElse("unknown"));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection delegate;
+
+        ConnectionHandler(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedJdbc.invoke(delegate, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return StatementHandler.wrap((Statement) result, PreparedStatement.class, (Connection) proxy,
+                            (String) args[0]);
+                case "prepareCall":
+                    return StatementHandler.wrap((Statement) result, CallableStatement.class, (Connection) proxy,
+                            (String) args[0]);
+                case "createStatement":
+                    return StatementHandler.wrap((Statement) result, Statement.class, (Connection) proxy, null);
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement delegate;
+        private final Connection connection;
+        private final String preparedSql;
+        private Object proxy;
+        private Object[] binds = new Object[8];
+        private int bindCount;
+
+        // Execution in progress, finished when its result set or the statement is closed
+        private String method;
+        private String sql;
+        private Object[] executionBinds;
+        private long started;
+        private long rows;
+        private boolean running;
+        private DaoQueryEvent event;
+
+        private StatementHandler(Statement delegate, Connection connection, String preparedSql) {
+            this.delegate = delegate;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        static Object wrap(Statement statement, Class<?> type, Connection connection, String sql) {
+            StatementHandler handler = new StatementHandler(statement, connection, sql);
+            handler.proxy = Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+                    new Class<?>[] {type}, handler);
+            return handler.proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return InstrumentedJdbc.invoke(delegate, m, args);
+            }
+            switch (name) {
+                case "clearParameters":
+                    Arrays.fill(binds, null);
+                    bindCount = 0;
+                    return InstrumentedJdbc.invoke(delegate, m, args);
+                case "executeQuery":
+                    start(args);
+                    try {
+                        return wrapResultSet((ResultSet) InstrumentedJdbc.invoke(delegate, m, args));
+                    } catch (SQLException e) {
+                        finish(e);
+                        throw e;
+                    }
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    start(args);
+                    try {
+                        Object count = InstrumentedJdbc.invoke(delegate, m, args);
+                        rows = ((Number) count).longValue();
+                        finish(null);
+                        return count;
+                    } catch (SQLException e) {
+                        finish(e);
+                        throw e;
+                    }
+                case "executeBatch":
+                case "executeLargeBatch":
+                    start(args);
+                    try {
+                        Object counts = InstrumentedJdbc.invoke(delegate, m, args);
+                        rows = batchRows(counts);
+                        finish(null);
+                        return counts;
+                    } catch (SQLException e) {
+                        finish(e);
+                        throw e;
+                    }
+                case "execute":
+                    start(args);
+                    try {
+                        Object hasResultSet = InstrumentedJdbc.invoke(delegate, m, args);
+                        if (!(Boolean) hasResultSet) {
+                            rows = Math.max(0, delegate.getUpdateCount());
+                            finish(null);
+                        }
+                        return hasResultSet;
+                    } catch (SQLException e) {
+                        finish(e);
+                        throw e;
+                    }
+                case "getResultSet":
+                    return wrapResultSet((ResultSet) InstrumentedJdbc.invoke(delegate, m, args));
+                case "getConnection":
+                    return connection;
+                case "close":
+                    finish(null);
+                    return InstrumentedJdbc.invoke(delegate, m, args);
+                default:
+                    return InstrumentedJdbc.invoke(delegate, m, args);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+            }
+            binds[index] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private void start(Object[] args) {
+            finish(null);
+            method = callerMethod();
+            sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            executionBinds = Arrays.copyOf(binds, bindCount + 1);
+            rows = 0;
+            running = true;
+            event = new DaoQueryEvent();
+            event.begin();
+            started = System.nanoTime();
+        }
+
+        void finish(SQLException error) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            DaoMetrics.getInstance().record(method, sql, executionBinds, System.nanoTime() - started, rows, error);
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.sqlId = DaoQueryEvent.sqlId(sql);
+                event.sql = sql;
+                event.rows = rows;
+                event.failed = error != null;
+                event.commit();
+            }
+            event = null;
+        }
+
+        void rowRead() {
+            rows++;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs) {
+            if (rs == null) {
+                return null;
+            }
+            return (ResultSet) Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, new ResultSetHandler(rs, this));
+        }
+
+        private static long batchRows(Object counts) {
+            long total = 0;
+            if (counts instanceof int[]) {
+                for (int c : (int[]) counts) {
+                    total += Math.max(0, c);
+                }
+            } else if (counts instanceof long[]) {
+                for (long c : (long[]) counts) {
+                    total += Math.max(0, c);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet delegate;
+        private final StatementHandler statement;
+
+        ResultSetHandler(ResultSet delegate, StatementHandler statement) {
+            this.delegate = delegate;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    Object hasRow = InstrumentedJdbc.invoke(delegate, method, args);
+                    if ((Boolean) hasRow) {
+                        statement.rowRead();
+                    }
+                    return hasRow;
+                }
+                case "close":
+                    try {
+                        return InstrumentedJdbc.invoke(delegate, method, args);
+                    } finally {
+                        statement.finish(null);
+                    }
+                case "getStatement":
+                    return statement.proxy;
+                default:
+                    return InstrumentedJdbc.invoke(delegate, method, args);
+            }
+        }
+    }
+}
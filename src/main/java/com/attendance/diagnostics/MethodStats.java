@@ -0,0 +1,75 @@
+package com.attendance.diagnostics;
+
+/**
+ * Point-in-time statistics of one DAO method, e.g. "AttendanceDAO.getAttendanceStats"
+ */
+public final class MethodStats {
+    private final String method;
+    private final long calls;
+    private final long rows;
+    private final long errors;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    public MethodStats(String method, long calls, long rows, long errors, long totalNanos,
+                       long p50Nanos, long p99Nanos, long maxNanos) {
+        this.method = method;
+        this.calls = calls;
+        this.rows = rows;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Rows read from result sets plus rows affected by updates
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MethodStats{" +
+                "method='" + method + '\'' +
+                ", calls=" + calls +
+                ", rows=" + rows +
+                ", errors=" + errors +
+                ", p50Nanos=" + p50Nanos +
+                ", p99Nanos=" + p99Nanos +
+                ", maxNanos=" + maxNanos +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.attendance.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one report built by AttendanceService; the DAO Query events
+ * it caused are nested inside it on the same thread
+ */
+@Name("com.attendance.ReportGeneration")
+@Label("Report Generation")
+@Category({"Attendance Management", "Reports"})
+@Description("Attendance report assembled by AttendanceService")
+@StackTrace(false)
+public class ReportGenerationEvent extends Event {
+    @Label("Report Type")
+    public String reportType;
+
+    @Label("Entity Id")
+    @Description("Student or subject id; 0 for the overall summary")
+    public int entityId;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Regenerated")
+    @Description("Rebuilt because the previous snapshot was out of date")
+    public boolean regenerated;
+}
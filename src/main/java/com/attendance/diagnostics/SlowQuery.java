@@ -0,0 +1,71 @@
+package com.attendance.diagnostics;
+
+import java.time.LocalDateTime;
+
+/**
+ * One statement that took longer than the slow-query threshold
+ */
+public final class SlowQuery {
+    private final LocalDateTime timestamp;
+    private final String method;
+    private final long nanos;
+    private final long rows;
+    private final String sql;
+    private final String binds;
+    private final String error;
+
+    public SlowQuery(LocalDateTime timestamp, String method, long nanos, long rows,
+                     String sql, String binds, String error) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.nanos = nanos;
+        this.rows = rows;
+        this.sql = sql;
+        this.binds = binds;
+        this.error = error;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Bind parameters in order, e.g. "[5, 2025-10-01]"
+     */
+    public String getBinds() {
+        return binds;
+    }
+
+    /**
+     * Error message if the statement failed, otherwise null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Single log line: timestamp, method, duration, rows, SQL and binds
+     */
+    @Override
+    public String toString() {
+        return timestamp + " " + method + " " + String.format("%.1f", nanos / 1e6) + " ms, " + rows + " rows"
+                + (error != null ? ", error: " + error : "")
+                + " | " + sql.replaceAll("\\s+", " ") + " | binds " + binds;
+    }
+}
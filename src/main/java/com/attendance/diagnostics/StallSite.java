@@ -0,0 +1,76 @@
+package com.attendance.diagnostics;
+
+/**
+ * Point-in-time statistics of EDT stalls sampled at one application call site
+ */
+public final class StallSite {
+    private final String callSite;
+    private final long stalls;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final boolean jdbc;
+    private final String lastAction;
+    private final String lastStack;
+
+    public StallSite(String callSite, long stalls, long totalNanos, long maxNanos, boolean jdbc,
+                     String lastAction, String lastStack) {
+        this.callSite = callSite;
+        this.stalls = stalls;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.jdbc = jdbc;
+        this.lastAction = lastAction;
+        this.lastStack = lastStack;
+    }
+
+    /**
+     * Innermost application frame, e.g. "StudentDAO.getAllStudents(StudentDAO.java:169)"
+     */
+    public String getCallSite() {
+        return callSite;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Whether any stall at this site was caught inside JDBC driver code
+     */
+    public boolean isJdbc() {
+        return jdbc;
+    }
+
+    /**
+     * UI action of the most recent stall, e.g. "MOUSE_RELEASED on JButton \"Generate Report\""
+     */
+    public String getLastAction() {
+        return lastAction;
+    }
+
+    /**
+     * EDT stack of the most recent stall, one frame per line
+     */
+    public String getLastStack() {
+        return lastStack;
+    }
+
+    @Override
+    public String toString() {
+        return "StallSite{" +
+                "callSite='" + callSite + '\'' +
+                ", stalls=" + stalls +
+                ", totalNanos=" + totalNanos +
+                ", maxNanos=" + maxNanos +
+                ", jdbc=" + jdbc +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package com.attendance.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One ongoing run of consecutive absences in the at-risk report, either in one
+ * subject or in days across all subjects
+ */
+public final class AtRiskRow implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int studentId;
+    private final String rollNo;
+    private final String studentName;
+    private final String department;
+    private final int subjectId;
+    private final String subjectCode;
+    private final String subjectName;
+    private final int consecutiveAbsences;
+    private final LocalDate lastAbsentDate;
+
+    public AtRiskRow(int studentId, String rollNo, String studentName, String department,
+                     int subjectId, String subjectCode, String subjectName,
+                     int consecutiveAbsences, LocalDate lastAbsentDate) {
+        this.studentId = studentId;
+        this.rollNo = rollNo;
+        this.studentName = studentName;
+        this.department = department;
+        this.subjectId = subjectId;
+        this.subjectCode = subjectCode;
+        this.subjectName = subjectName;
+        this.consecutiveAbsences = consecutiveAbsences;
+        this.lastAbsentDate = lastAbsentDate;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getRollNo() {
+        return rollNo;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    /**
+     * Subject of the streak, 0 for consecutive days absent across all subjects
+     */
+    public int getSubjectId() {
+        return subjectId;
+    }
+
+    /**
+     * Subject code, null for a streak of days across all subjects
+     */
+    public String getSubjectCode() {
+        return subjectCode;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    /**
+     * Whether this streak counts days across all subjects rather than classes of one subject
+     */
+    public boolean isAllSubjects() {
+        return subjectId == 0;
+    }
+
+    public int getConsecutiveAbsences() {
+        return consecutiveAbsences;
+    }
+
+    public LocalDate getLastAbsentDate() {
+        return lastAbsentDate;
+    }
+
+    @Override
+    public String toString() {
+        return "AtRiskRow{" +
+                "rollNo='" + rollNo + '\'' +
+                ", subjectCode='" + subjectCode + '\'' +
+                ", consecutiveAbsences=" + consecutiveAbsences +
+                ", lastAbsentDate=" + lastAbsentDate +
+                '}';
+    }
+}
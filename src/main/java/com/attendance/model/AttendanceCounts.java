@@ -0,0 +1,47 @@
+package com.attendance.model;
+
+import java.io.Serializable;
+
+/**
+ * Base for report rows carrying primitive attendance counts.
+ * The percentage is derived on demand rather than stored.
+ */
+public abstract class AttendanceCounts implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int total;
+    private final int present;
+    private final int absent;
+
+    protected AttendanceCounts(int total, int present, int absent) {
+        this.total = total;
+        this.present = present;
+        this.absent = absent;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPresent() {
+        return present;
+    }
+
+    public int getAbsent() {
+        return absent;
+    }
+
+    /**
+     * Attendance percentage, 0 when no classes were recorded
+     */
+    public double getPercentage() {
+        return percentage(present, total);
+    }
+
+    /**
+     * Attendance percentage for the given counts, 0 when total is 0
+     */
+    public static double percentage(int present, int total) {
+        return total > 0 ? (present * 100.0) / total : 0.0;
+    }
+}
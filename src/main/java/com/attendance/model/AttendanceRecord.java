@@ -2,6 +2,7 @@ package com.attendance.model;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * AttendanceRecord model representing an attendance entry in the system
@@ -13,11 +14,13 @@ public class AttendanceRecord implements Serializable {
     private int studentId;
     private int subjectId;
     private LocalDate date;
-    private String status; // "Present" or "Absent"
+    private AttendanceStatus status;
+    private LocalDateTime updatedAt;
     
     // Additional fields for display purposes
     private String studentName;
     private String rollNo;
+    private String subjectCode;
     private String subjectName;
 
     // Default constructor
@@ -25,7 +28,7 @@ public class AttendanceRecord implements Serializable {
     }
 
     // Constructor without ID (for new records)
-    public AttendanceRecord(int studentId, int subjectId, LocalDate date, String status) {
+    public AttendanceRecord(int studentId, int subjectId, LocalDate date, AttendanceStatus status) {
         this.studentId = studentId;
         this.subjectId = subjectId;
         this.date = date;
@@ -33,7 +36,7 @@ public class AttendanceRecord implements Serializable {
     }
 
     // Full constructor
-    public AttendanceRecord(int attendanceId, int studentId, int subjectId, LocalDate date, String status) {
+    public AttendanceRecord(int attendanceId, int studentId, int subjectId, LocalDate date, AttendanceStatus status) {
         this.attendanceId = attendanceId;
         this.studentId = studentId;
         this.subjectId = subjectId;
@@ -74,14 +77,22 @@ public class AttendanceRecord implements Serializable {
         this.date = date;
     }
 
-    public String getStatus() {
+    public AttendanceStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(AttendanceStatus status) {
         this.status = status;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getStudentName() {
         return studentName;
     }
@@ -98,6 +109,14 @@ public class AttendanceRecord implements Serializable {
         this.rollNo = rollNo;
     }
 
+    public String getSubjectCode() {
+        return subjectCode;
+    }
+
+    public void setSubjectCode(String subjectCode) {
+        this.subjectCode = subjectCode;
+    }
+
     public String getSubjectName() {
         return subjectName;
     }
@@ -113,7 +132,7 @@ public class AttendanceRecord implements Serializable {
                 ", studentId=" + studentId +
                 ", subjectId=" + subjectId +
                 ", date=" + date +
-                ", status='" + status + '\'' +
+                ", status=" + status +
                 '}';
     }
 
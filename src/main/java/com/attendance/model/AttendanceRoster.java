@@ -0,0 +1,190 @@
+package com.attendance.model;
+
+import java.util.Arrays;
+
+/**
+ * Statuses of the students of one class, as parallel primitive arrays: student ids
+ * in an int[] and AttendanceStatus codes in a byte[]. Used along the whole marking path
+ * (table, service, DAO batch writer) so a class of any size is carried in two
+ * arrays instead of a boxed map and one record object per student.
+ *
+ * Each student appears at most once. Lookups by student id are binary searches
+ * while the ids are ascending (as loaded from the database, or after
+ * sortByStudentId), linear scans otherwise.
+ */
+public final class AttendanceRoster {
+    /** No attendance stored for the student */
+    public static final byte UNMARKED = 0;
+    public static final byte PRESENT = AttendanceStatus.PRESENT.getCode();
+    public static final byte ABSENT = AttendanceStatus.ABSENT.getCode();
+
+    private int[] studentIds;
+    private byte[] statuses;
+    private int size;
+    private boolean sorted = true;
+
+    public AttendanceRoster() {
+        this(16);
+    }
+
+    public AttendanceRoster(int capacity) {
+        studentIds = new int[Math.max(capacity, 1)];
+        statuses = new byte[studentIds.length];
+    }
+
+    /**
+     * Status code of a status name
+     * @throws IllegalArgumentException for an unknown status
+     */
+    public static byte code(String status) {
+        return AttendanceStatus.fromLabel(status).getCode();
+    }
+
+    /**
+     * Status name of a code, null for {@link #UNMARKED}
+     */
+    public static String statusName(byte code) {
+        return code == UNMARKED ? null : AttendanceStatus.fromCode(code).getLabel();
+    }
+
+    /**
+     * Status of a code, null for {@link #UNMARKED}
+     */
+    public static AttendanceStatus status(byte code) {
+        return code == UNMARKED ? null : AttendanceStatus.fromCode(code);
+    }
+
+    /**
+     * Append a student; the caller makes sure the student is not in the roster yet
+     */
+    public void add(int studentId, byte status) {
+        if (size == studentIds.length) {
+            studentIds = Arrays.copyOf(studentIds, size * 2);
+            statuses = Arrays.copyOf(statuses, size * 2);
+        }
+        if (size > 0 && studentId <= studentIds[size - 1]) {
+            sorted = false;
+        }
+        studentIds[size] = studentId;
+        statuses[size] = status;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getStudentId(int index) {
+        return studentIds[index];
+    }
+
+    public byte getStatus(int index) {
+        return statuses[index];
+    }
+
+    public void setStatus(int index, byte status) {
+        statuses[index] = status;
+    }
+
+    /**
+     * Index of a student, or -1 if the student is not in the roster
+     */
+    public int indexOf(int studentId) {
+        if (sorted) {
+            int index = Arrays.binarySearch(studentIds, 0, size, studentId);
+            return index >= 0 ? index : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (studentIds[i] == studentId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Status code of a student, {@link #UNMARKED} if the student is not in the roster
+     */
+    public byte statusOf(int studentId) {
+        int index = indexOf(studentId);
+        return index >= 0 ? statuses[index] : UNMARKED;
+    }
+
+    /**
+     * Put the students in ascending id order, so lookups become binary searches
+     */
+    public void sortByStudentId() {
+        if (sorted) {
+            return;
+        }
+        // Pack id and status into one long so a single primitive sort moves both
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((long) studentIds[i] << 8) | statuses[i];
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < size; i++) {
+            studentIds[i] = (int) (packed[i] >> 8);
+            statuses[i] = (byte) (packed[i] & 0xFF);
+        }
+        sorted = true;
+    }
+
+    /**
+     * Whether a student appears more than once, e.g. in a roster built from client input
+     */
+    public boolean hasDuplicateStudents() {
+        int[] ids = Arrays.copyOf(studentIds, size);
+        if (!sorted) {
+            Arrays.sort(ids);
+        }
+        for (int i = 1; i < size; i++) {
+            if (ids[i] == ids[i - 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of students with the given status
+     */
+    public int count(byte status) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public AttendanceRoster copy() {
+        AttendanceRoster copy = new AttendanceRoster(size);
+        System.arraycopy(studentIds, 0, copy.studentIds, 0, size);
+        System.arraycopy(statuses, 0, copy.statuses, 0, size);
+        copy.size = size;
+        copy.sorted = sorted;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        int present = 0;
+        int absent = 0;
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] != UNMARKED) {
+                if (AttendanceStatus.isPresent(AttendanceStatus.fromCode(statuses[i]))) {
+                    present++;
+                } else {
+                    absent++;
+                }
+            }
+        }
+        return "AttendanceRoster{size=" + size + ", present=" + present + ", absent=" + absent + '}';
+    }
+}
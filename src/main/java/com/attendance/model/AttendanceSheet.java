@@ -0,0 +1,69 @@
+package com.attendance.model;
+
+import java.time.LocalDate;
+
+/**
+ * Attendance of one class (subject and date) as loaded for editing.
+ * The version and statuses are the baseline a later save is compared against:
+ * the save applies only the changes made since loading, and is rejected if
+ * someone else changed the same students in the meantime.
+ */
+public class AttendanceSheet {
+    /**
+     * Outcome of saving a sheet
+     */
+    public enum SaveResult {
+        /** Saved, possibly merged with concurrent changes to other students */
+        SAVED,
+        /** Someone else changed some of the same students since the sheet was loaded */
+        CONFLICT,
+        /** Database error, even after retrying */
+        FAILED
+    }
+
+    private final int subjectId;
+    private final LocalDate date;
+    private long version;
+    private AttendanceRoster statuses;
+
+    /**
+     * Empty sheet of a class that has not been loaded
+     */
+    public AttendanceSheet(int subjectId, LocalDate date) {
+        this(subjectId, date, 0, new AttendanceRoster());
+    }
+
+    public AttendanceSheet(int subjectId, LocalDate date, long version, AttendanceRoster statuses) {
+        this.subjectId = subjectId;
+        this.date = date;
+        this.version = version;
+        this.statuses = statuses;
+    }
+
+    public int getSubjectId() {
+        return subjectId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Stored statuses in student id order; students without a row are not in the roster
+     */
+    public AttendanceRoster getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(AttendanceRoster statuses) {
+        this.statuses = statuses;
+    }
+}
@@ -0,0 +1,20 @@
+package com.attendance.model;
+
+/**
+ * Attendance counts of one student, in one subject or overall
+ */
+public final class AttendanceStats extends AttendanceCounts {
+    private static final long serialVersionUID = 1L;
+
+    /** No attendance recorded */
+    public static final AttendanceStats EMPTY = new AttendanceStats(0, 0, 0);
+
+    public AttendanceStats(int total, int present, int absent) {
+        super(total, present, absent);
+    }
+
+    @Override
+    public String toString() {
+        return "AttendanceStats{total=" + getTotal() + ", present=" + getPresent() + ", absent=" + getAbsent() + '}';
+    }
+}
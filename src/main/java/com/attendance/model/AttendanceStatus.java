@@ -0,0 +1,148 @@
+package com.attendance.model;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Attendance status of a student in one class. Stored in the attendance.status
+ * column as its one-byte code; the attendance_statuses table holds the same codes
+ * and labels for queries run outside the application.
+ *
+ * A new status only needs a constant here and a row in attendance_statuses. Codes
+ * are never reused or renumbered, since they are what the database stores.
+ */
+public enum AttendanceStatus {
+    PRESENT(1, "Present", true),
+    ABSENT(2, "Absent", false),
+    LATE(3, "Late", true),
+    EXCUSED(4, "Excused", false),
+    ON_DUTY(5, "On Duty", true);
+
+    private static final AttendanceStatus[] BY_CODE;
+
+    static {
+        int max = 0;
+        for (AttendanceStatus status : values()) {
+            max = Math.max(max, status.code);
+        }
+        BY_CODE = new AttendanceStatus[max + 1];
+        for (AttendanceStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final byte code;
+    private final String label;
+    private final boolean countsAsPresent;
+
+    AttendanceStatus(int code, String label, boolean countsAsPresent) {
+        this.code = (byte) code;
+        this.label = label;
+        this.countsAsPresent = countsAsPresent;
+    }
+
+    /**
+     * Code stored in the database and in an AttendanceRoster
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Name shown to users, in exports and in the REST API
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Whether the class counts as attended in attendance percentages
+     */
+    public boolean countsAsPresent() {
+        return countsAsPresent;
+    }
+
+    /**
+     * The one present/absent classification used everywhere: percentages, the
+     * in-memory counters and bitmaps, absence streaks and the report SQL built by
+     * presentCondition and absentCondition. A status not counted as present (Absent,
+     * Excused) counts as a missed class; no status (unmarked) is neither.
+     */
+    public static boolean isPresent(AttendanceStatus status) {
+        return status != null && status.countsAsPresent;
+    }
+
+    /**
+     * Status of a stored code
+     * @throws IllegalArgumentException for an unknown code
+     */
+    public static AttendanceStatus fromCode(int code) {
+        if (code > 0 && code < BY_CODE.length && BY_CODE[code] != null) {
+            return BY_CODE[code];
+        }
+        throw new IllegalArgumentException("Unknown attendance status code: " + code);
+    }
+
+    /**
+     * Status of a label, ignoring case, spaces and underscores
+     * ("On Duty", "OnDuty" and "ON_DUTY" are the same status)
+     * @throws IllegalArgumentException for an unknown label
+     */
+    public static AttendanceStatus fromLabel(String label) {
+        if (label != null) {
+            String wanted = normalize(label);
+            for (AttendanceStatus status : values()) {
+                if (normalize(status.label).equals(wanted)) {
+                    return status;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown attendance status: " + label);
+    }
+
+    /**
+     * Labels of all statuses, comma separated, for messages
+     */
+    public static String labels() {
+        StringJoiner labels = new StringJoiner(", ");
+        for (AttendanceStatus status : values()) {
+            labels.add("'" + status.label + "'");
+        }
+        return labels.toString();
+    }
+
+    /**
+     * SQL condition that is true when the status column holds a status counted as
+     * present, e.g. "a.status IN (1, 3, 5)". Aggregates are built from it so they
+     * follow the statuses declared here.
+     */
+    public static String presentCondition(String column) {
+        return column + " IN (" + codes(true) + ")";
+    }
+
+    /**
+     * SQL condition that is true when the status column holds a status not counted as present
+     */
+    public static String absentCondition(String column) {
+        return column + " IN (" + codes(false) + ")";
+    }
+
+    private static String codes(boolean present) {
+        StringJoiner codes = new StringJoiner(", ");
+        for (AttendanceStatus status : values()) {
+            if (isPresent(status) == present) {
+                codes.add(String.valueOf(status.code));
+            }
+        }
+        return codes.toString();
+    }
+
+    private static String normalize(String label) {
+        return label.replace(" ", "").replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,52 @@
+package com.attendance.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * How far an incremental attendance export got: the last change time and
+ * attendance id it exported. Rows are exported in (updated_at, attendance_id)
+ * order, so the next export continues after this pair.
+ */
+public class ExportWatermark implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Before any attendance change, for a first export of everything */
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0, 1);
+
+    private LocalDateTime updatedAt;
+    private int attendanceId;
+
+    // Default constructor, starting at the beginning
+    public ExportWatermark() {
+        this.updatedAt = BEGINNING;
+    }
+
+    // Full constructor
+    public ExportWatermark(LocalDateTime updatedAt, int attendanceId) {
+        this.updatedAt = updatedAt;
+        this.attendanceId = attendanceId;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public int getAttendanceId() {
+        return attendanceId;
+    }
+
+    public void setAttendanceId(int attendanceId) {
+        this.attendanceId = attendanceId;
+    }
+
+    @Override
+    public String toString() {
+        return updatedAt + " #" + attendanceId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.attendance.model;
+
+/**
+ * One student's attendance counts across all subjects in the overall summary
+ */
+public final class OverallSummaryRow extends AttendanceCounts {
+    private static final long serialVersionUID = 1L;
+
+    private final int studentId;
+    private final String rollNo;
+    private final String studentName;
+    private final String department;
+    private final int semester;
+
+    public OverallSummaryRow(int studentId, String rollNo, String studentName, String department, int semester,
+                             int total, int present, int absent) {
+        super(total, present, absent);
+        this.studentId = studentId;
+        this.rollNo = rollNo;
+        this.studentName = studentName;
+        this.department = department;
+        this.semester = semester;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getRollNo() {
+        return rollNo;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public int getSemester() {
+        return semester;
+    }
+
+    @Override
+    public String toString() {
+        return "OverallSummaryRow{" +
+                "rollNo='" + rollNo + '\'' +
+                ", semester=" + semester +
+                ", total=" + getTotal() +
+                ", present=" + getPresent() +
+                ", absent=" + getAbsent() +
+                '}';
+    }
+}
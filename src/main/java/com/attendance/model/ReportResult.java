@@ -0,0 +1,91 @@
+package com.attendance.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a generated report.
+ * Records when it was generated and the data version it was built from,
+ * so exports can reuse the rows instead of querying again while the
+ * underlying data is unchanged.
+ */
+public final class ReportResult<T> {
+
+    /**
+     * Kind of report, which also determines the row type
+     */
+    public enum Type {
+        STUDENT,
+        SUBJECT,
+        OVERALL,
+        AT_RISK
+    }
+
+    private final Type type;
+    private final int entityId;
+    private final String code;
+    private final String name;
+    private final List<T> rows;
+    private final Instant generatedAt;
+    private final long sourceVersion;
+
+    public ReportResult(Type type, int entityId, String code, String name, List<T> rows,
+                        Instant generatedAt, long sourceVersion) {
+        this.type = type;
+        this.entityId = entityId;
+        this.code = code;
+        this.name = name;
+        this.rows = List.copyOf(rows);
+        this.generatedAt = generatedAt;
+        this.sourceVersion = sourceVersion;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Student ID for student reports, subject ID for subject reports, 0 for the overall summary,
+     * the minimum streak length for the at-risk report
+     */
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Roll number for student reports, subject code for subject reports
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Student name for student reports, subject name for subject reports
+     */
+    public String getName() {
+        return name;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public long getSourceVersion() {
+        return sourceVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportResult{" +
+                "type=" + type +
+                ", entityId=" + entityId +
+                ", rows=" + rows.size() +
+                ", generatedAt=" + generatedAt +
+                ", sourceVersion=" + sourceVersion +
+                '}';
+    }
+}
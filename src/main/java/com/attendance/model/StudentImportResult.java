@@ -0,0 +1,69 @@
+package com.attendance.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk student import: how many rows were read and imported, and
+ * why each rejected row was rejected
+ */
+public class StudentImportResult {
+    private int rowsRead;
+    private int imported;
+    private boolean failed;
+    private final List<String> errors = new ArrayList<>();
+
+    // Default constructor
+    public StudentImportResult() {
+    }
+
+    /**
+     * Data rows read from the file, not counting the header
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(int rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    /**
+     * Students added to the database
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Whether the import as a whole failed (unreadable file, missing columns or a
+     * database error), in which case no student was added
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Messages of rejected rows, e.g. "Line 12: Roll number already exists", and of a failure
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public void addError(String error) {
+        errors.add(error);
+    }
+
+    public void addError(int line, String error) {
+        errors.add("Line " + line + ": " + error);
+    }
+}
@@ -0,0 +1,42 @@
+package com.attendance.model;
+
+/**
+ * One subject's attendance counts within a student report
+ */
+public final class StudentReportRow extends AttendanceCounts {
+    private static final long serialVersionUID = 1L;
+
+    private final int subjectId;
+    private final String subjectCode;
+    private final String subjectName;
+
+    public StudentReportRow(int subjectId, String subjectCode, String subjectName,
+                            int total, int present, int absent) {
+        super(total, present, absent);
+        this.subjectId = subjectId;
+        this.subjectCode = subjectCode;
+        this.subjectName = subjectName;
+    }
+
+    public int getSubjectId() {
+        return subjectId;
+    }
+
+    public String getSubjectCode() {
+        return subjectCode;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentReportRow{" +
+                "subjectCode='" + subjectCode + '\'' +
+                ", total=" + getTotal() +
+                ", present=" + getPresent() +
+                ", absent=" + getAbsent() +
+                '}';
+    }
+}
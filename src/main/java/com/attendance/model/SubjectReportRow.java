@@ -0,0 +1,48 @@
+package com.attendance.model;
+
+/**
+ * One student's attendance counts within a subject report
+ */
+public final class SubjectReportRow extends AttendanceCounts {
+    private static final long serialVersionUID = 1L;
+
+    private final int studentId;
+    private final String rollNo;
+    private final String studentName;
+    private final String department;
+
+    public SubjectReportRow(int studentId, String rollNo, String studentName, String department,
+                            int total, int present, int absent) {
+        super(total, present, absent);
+        this.studentId = studentId;
+        this.rollNo = rollNo;
+        this.studentName = studentName;
+        this.department = department;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getRollNo() {
+        return rollNo;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    @Override
+    public String toString() {
+        return "SubjectReportRow{" +
+                "rollNo='" + rollNo + '\'' +
+                ", total=" + getTotal() +
+                ", present=" + getPresent() +
+                ", absent=" + getAbsent() +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.attendance.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Academic term model. Attendance of an archived term has been moved from the
+ * attendance table to attendance_archive.
+ */
+public class Term implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int termId;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateTime archivedAt;
+    private long archivedRows;
+
+    // Default constructor
+    public Term() {
+    }
+
+    // Constructor without ID (for new terms)
+    public Term(String name, LocalDate startDate, LocalDate endDate) {
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public int getTermId() {
+        return termId;
+    }
+
+    public void setTermId(int termId) {
+        this.termId = termId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    /**
+     * Last day of the term, inclusive
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    /**
+     * When the term was archived, null while its attendance is in the attendance table
+     */
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public boolean isArchived() {
+        return archivedAt != null;
+    }
+
+    /**
+     * Attendance rows moved to the archive when the term was archived
+     */
+    public long getArchivedRows() {
+        return archivedRows;
+    }
+
+    public void setArchivedRows(long archivedRows) {
+        this.archivedRows = archivedRows;
+    }
+
+    /**
+     * Whether the date falls in the term
+     */
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + startDate + " to " + endDate + ")";
+    }
+}
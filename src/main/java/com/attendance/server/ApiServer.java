@@ -0,0 +1,759 @@
+package com.attendance.server;
+
+import com.attendance.analytics.AttendanceAnalytics;
+import com.attendance.analytics.AttendanceBitmap;
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.dao.StudentDAO;
+import com.attendance.dao.SubjectDAO;
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.AtRiskRow;
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceSheet;
+import com.attendance.model.AttendanceSheet.SaveResult;
+import com.attendance.model.OverallSummaryRow;
+import com.attendance.model.ReportResult;
+import com.attendance.model.Student;
+import com.attendance.model.StudentReportRow;
+import com.attendance.model.Subject;
+import com.attendance.model.SubjectReportRow;
+import com.attendance.service.AttendanceService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * JSON HTTP API over AttendanceService, StudentDAO and SubjectDAO, so many thin
+ * clients can share one server process, its connection pool and its report cache
+ * instead of each Swing client opening its own database connections.
+ *
+ * Runs on the JDK HttpServer with one virtual thread per request.
+ *
+ * Endpoints (all under /api):
+ *   GET    /health
+ *   GET    /students[?q=keyword]          GET/PUT/DELETE /students/{id}    POST /students
+ *   GET    /subjects[?semester=n]         GET/PUT/DELETE /subjects/{id}    POST /subjects
+ *   GET    /attendance?subjectId=n&date=yyyy-MM-dd
+ *   POST   /attendance   {"subjectId": n, "date": "yyyy-MM-dd", "records": {"studentId": "Present", ...}}
+ *                         (statuses are AttendanceStatus labels: Present, Absent, Late, Excused, On Duty)
+ *   GET    /reports/student/{id}   /reports/subject/{id}   /reports/overall   /reports/at-risk[?min=n]
+ *   GET    /analytics                     GET /analytics/absent?subjects=1,2,3&from=yyyy-MM-dd&to=yyyy-MM-dd
+ *
+ * Example:
+ *   java -jar attendance-management-system-1.0.0-jar-with-dependencies.jar --server --port 8080
+ */
+public class ApiServer {
+    private static final String PREFIX = "/api/";
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    // Same range as the Reports screen's threshold spinner
+    private static final int MAX_AT_RISK_MIN = 365;
+    private static final int MAX_CACHED_AT_RISK_MIN = 10;
+
+    private final AttendanceService service;
+    private final AttendanceDAO attendanceDAO;
+    private final StudentDAO studentDAO;
+    private final SubjectDAO subjectDAO;
+    // Generated reports, reused while no data has been written through this server
+    private final Map<String, ReportResult<?>> reportCache = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer() {
+        this.attendanceDAO = new AttendanceDAO();
+        this.studentDAO = new StudentDAO();
+        this.subjectDAO = new SubjectDAO();
+        this.service = new AttendanceService(attendanceDAO, studentDAO, subjectDAO);
+    }
+
+    public static void main(String[] args) {
+        String host = "0.0.0.0";
+        int port = 8080;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                printUsage();
+                System.exit(2);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--port":
+                    try {
+                        port = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Invalid port: " + value);
+                        System.exit(2);
+                    }
+                    break;
+                case "--bind":
+                    host = value;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i - 1]);
+                    printUsage();
+                    System.exit(2);
+            }
+        }
+
+        ApiServer apiServer = new ApiServer();
+        try {
+            apiServer.start(new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            System.err.println("Error starting API server: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop, "API Server Shutdown"));
+        System.out.println("Attendance API listening on http://" + host + ":" + apiServer.getPort() + PREFIX
+                + " (" + DatabaseConnection.getInstance().getDialect() + ", "
+                + DatabaseConnection.getInstance().getPoolSize() + " pooled connections)");
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main --server [--port N] [--bind ADDRESS]");
+    }
+
+    /**
+     * Start serving; port 0 picks a free port
+     */
+    public void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(PREFIX, this::handle);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        String body;
+        try {
+            String path = exchange.getRequestURI().getPath().substring(PREFIX.length());
+            String[] segments = path.isEmpty() ? new String[0] : path.split("/");
+            Request request = new Request(exchange.getRequestMethod(), segments,
+                    parseQuery(exchange.getRequestURI().getRawQuery()), exchange);
+            body = route(request);
+            status = request.status;
+        } catch (ApiError e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (RuntimeException | IOException | StackOverflowError e) {
+            // Last resort, so the client still gets an answer and the exchange is released
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + e);
+            e.printStackTrace();
+            status = 500;
+            body = error("Internal server error");
+        }
+
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String route(Request request) throws IOException {
+        if (request.segments.length == 0) {
+            throw new ApiError(404, "Not found");
+        }
+        switch (request.segments[0]) {
+            case "health":
+                return health(request);
+            case "students":
+                return students(request);
+            case "subjects":
+                return subjects(request);
+            case "attendance":
+                return attendance(request);
+            case "reports":
+                return reports(request);
+            case "analytics":
+                return analytics(request);
+            default:
+                throw new ApiError(404, "Not found");
+        }
+    }
+
+    private String health(Request request) {
+        request.requireMethod("GET");
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        return new JsonWriter().beginObject()
+                .field("status", "ok")
+                .field("backend", db.getDialect().name())
+                .field("poolSize", db.getPoolSize())
+                .field("dataVersion", db.getDataVersion())
+                .endObject().toString();
+    }
+
+    // ---- Students -------------------------------------------------------------------------
+
+    private String students(Request request) throws IOException {
+        if (request.segments.length == 1) {
+            switch (request.method) {
+                case "GET": {
+                    String keyword = request.query.get("q");
+                    List<Student> students = keyword == null || keyword.isBlank()
+                            ? studentDAO.getAllStudents() : studentDAO.searchStudents(keyword.trim());
+                    JsonWriter json = new JsonWriter().beginArray();
+                    for (Student student : students) {
+                        writeStudent(json, student);
+                    }
+                    return json.endArray().toString();
+                }
+                case "POST": {
+                    Student student = readStudent(request.body(), new Student());
+                    validate(service.validateStudent(student, false));
+                    if (!studentDAO.addStudent(student)) {
+                        throw new ApiError(500, "Failed to add student");
+                    }
+                    request.status = 201;
+                    return writeStudent(new JsonWriter(), student).toString();
+                }
+                default:
+                    throw new ApiError(405, "Method not allowed");
+            }
+        }
+
+        int id = request.intSegment(1);
+        Student existing = studentDAO.getStudentById(id);
+        if (existing == null) {
+            throw new ApiError(404, "Student " + id + " not found");
+        }
+        switch (request.method) {
+            case "GET":
+                return writeStudent(new JsonWriter(), existing).toString();
+            case "PUT": {
+                Student student = readStudent(request.body(), existing);
+                student.setStudentId(id);
+                validate(service.validateStudent(student, true));
+                if (!studentDAO.updateStudent(student)) {
+                    throw new ApiError(500, "Failed to update student");
+                }
+                return writeStudent(new JsonWriter(), student).toString();
+            }
+            case "DELETE":
+                if (!studentDAO.deleteStudent(id)) {
+                    throw new ApiError(500, "Failed to delete student");
+                }
+                return new JsonWriter().beginObject().field("deleted", true).endObject().toString();
+            default:
+                throw new ApiError(405, "Method not allowed");
+        }
+    }
+
+    private static JsonWriter writeStudent(JsonWriter json, Student student) {
+        return json.beginObject()
+                .field("studentId", student.getStudentId())
+                .field("name", student.getName())
+                .field("rollNo", student.getRollNo())
+                .field("department", student.getDepartment())
+                .field("semester", student.getSemester())
+                .field("className", student.getClassName())
+                .endObject();
+    }
+
+    /**
+     * Apply the members present in a JSON body to a student
+     */
+    private static Student readStudent(Map<String, Object> body, Student student) {
+        if (body.containsKey("name")) student.setName(stringMember(body, "name"));
+        if (body.containsKey("rollNo")) student.setRollNo(stringMember(body, "rollNo"));
+        if (body.containsKey("department")) student.setDepartment(stringMember(body, "department"));
+        if (body.containsKey("semester")) student.setSemester(intMember(body, "semester"));
+        if (body.containsKey("className")) student.setClassName(stringMember(body, "className"));
+        return student;
+    }
+
+    // ---- Subjects -------------------------------------------------------------------------
+
+    private String subjects(Request request) throws IOException {
+        if (request.segments.length == 1) {
+            switch (request.method) {
+                case "GET": {
+                    String semester = request.query.get("semester");
+                    List<Subject> subjects = semester == null
+                            ? subjectDAO.getAllSubjects() : subjectDAO.getSubjectsBySemester(parseInt("semester", semester));
+                    JsonWriter json = new JsonWriter().beginArray();
+                    for (Subject subject : subjects) {
+                        writeSubject(json, subject);
+                    }
+                    return json.endArray().toString();
+                }
+                case "POST": {
+                    Subject subject = readSubject(request.body(), new Subject());
+                    validate(service.validateSubject(subject, false));
+                    if (!subjectDAO.addSubject(subject)) {
+                        throw new ApiError(500, "Failed to add subject");
+                    }
+                    request.status = 201;
+                    return writeSubject(new JsonWriter(), subject).toString();
+                }
+                default:
+                    throw new ApiError(405, "Method not allowed");
+            }
+        }
+
+        int id = request.intSegment(1);
+        Subject existing = subjectDAO.getSubjectById(id);
+        if (existing == null) {
+            throw new ApiError(404, "Subject " + id + " not found");
+        }
+        switch (request.method) {
+            case "GET":
+                return writeSubject(new JsonWriter(), existing).toString();
+            case "PUT": {
+                Subject subject = readSubject(request.body(), existing);
+                subject.setSubjectId(id);
+                validate(service.validateSubject(subject, true));
+                if (!subjectDAO.updateSubject(subject)) {
+                    throw new ApiError(500, "Failed to update subject");
+                }
+                return writeSubject(new JsonWriter(), subject).toString();
+            }
+            case "DELETE":
+                if (!subjectDAO.deleteSubject(id)) {
+                    throw new ApiError(500, "Failed to delete subject");
+                }
+                return new JsonWriter().beginObject().field("deleted", true).endObject().toString();
+            default:
+                throw new ApiError(405, "Method not allowed");
+        }
+    }
+
+    private static JsonWriter writeSubject(JsonWriter json, Subject subject) {
+        return json.beginObject()
+                .field("subjectId", subject.getSubjectId())
+                .field("subjectCode", subject.getSubjectCode())
+                .field("subjectName", subject.getSubjectName())
+                .field("semester", subject.getSemester())
+                .endObject();
+    }
+
+    private static Subject readSubject(Map<String, Object> body, Subject subject) {
+        if (body.containsKey("subjectCode")) subject.setSubjectCode(stringMember(body, "subjectCode"));
+        if (body.containsKey("subjectName")) subject.setSubjectName(stringMember(body, "subjectName"));
+        if (body.containsKey("semester")) subject.setSemester(intMember(body, "semester"));
+        return subject;
+    }
+
+    // ---- Attendance -----------------------------------------------------------------------
+
+    private String attendance(Request request) throws IOException {
+        if (request.segments.length != 1) {
+            throw new ApiError(404, "Not found");
+        }
+        switch (request.method) {
+            case "GET": {
+                int subjectId = parseInt("subjectId", request.requireQuery("subjectId"));
+                LocalDate date = LocalDate.parse(request.requireQuery("date"));
+                // Version first, as in AttendanceService.loadAttendanceSheet
+                request.setETag(attendanceDAO.getAttendanceVersion(subjectId, date));
+                JsonWriter json = new JsonWriter().beginArray();
+                for (AttendanceRecord record : attendanceDAO.getAttendanceBySubjectAndDate(subjectId, date)) {
+                    json.beginObject()
+                        .field("attendanceId", record.getAttendanceId())
+                        .field("studentId", record.getStudentId())
+                        .field("rollNo", record.getRollNo())
+                        .field("studentName", record.getStudentName())
+                        .field("status", record.getStatus().getLabel())
+                        .endObject();
+                }
+                return json.endArray().toString();
+            }
+            case "POST": {
+                Map<String, Object> body = request.body();
+                int subjectId = intMember(body, "subjectId");
+                LocalDate date = LocalDate.parse(stringMember(body, "date"));
+                validate(service.validateAttendanceDate(date));
+                if (!(body.get("records") instanceof Map)) {
+                    throw new IllegalArgumentException("'records' must be an object of studentId: status");
+                }
+                Map<?, ?> members = (Map<?, ?>) body.get("records");
+                AttendanceRoster records = new AttendanceRoster(members.size());
+                Set<Integer> studentIds = new HashSet<>();
+                for (Map.Entry<?, ?> entry : members.entrySet()) {
+                    String status = String.valueOf(entry.getValue());
+                    validate(service.validateAttendanceStatus(status));
+                    int studentId = parseInt("studentId", String.valueOf(entry.getKey()));
+                    // "1" and "01" are different keys of the object but the same student
+                    if (!studentIds.add(studentId)) {
+                        throw new IllegalArgumentException("Student " + studentId + " is listed more than once");
+                    }
+                    records.add(studentId, AttendanceRoster.code(status));
+                }
+                if (records.isEmpty()) {
+                    throw new IllegalArgumentException("'records' is empty");
+                }
+                // With If-Match (the ETag of a GET) the save is rejected if the class changed since;
+                // without it the class is overwritten
+                String ifMatch = request.exchange.getRequestHeaders().getFirst("If-Match");
+                AttendanceSheet sheet;
+                SaveResult result;
+                if (ifMatch == null) {
+                    sheet = new AttendanceSheet(subjectId, date);
+                    result = service.overwriteAttendance(sheet, records);
+                } else {
+                    sheet = service.loadAttendanceSheet(subjectId, date);
+                    result = sheet.getVersion() == parseETag(ifMatch)
+                            ? service.saveAttendance(sheet, records) : SaveResult.CONFLICT;
+                }
+                if (result == SaveResult.CONFLICT) {
+                    throw new ApiError(412, "Attendance was changed by someone else; reload and try again");
+                }
+                if (result != SaveResult.SAVED) {
+                    throw new ApiError(500, "Failed to save attendance");
+                }
+                request.setETag(sheet.getVersion());
+                return new JsonWriter().beginObject()
+                        .field("saved", true)
+                        .field("records", records.size())
+                        .field("version", sheet.getVersion())
+                        .endObject().toString();
+            }
+            default:
+                throw new ApiError(405, "Method not allowed");
+        }
+    }
+
+    // ---- Reports --------------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private String reports(Request request) {
+        request.requireMethod("GET");
+        if (request.segments.length == 2 && request.segments[1].equals("overall")) {
+            ReportResult<OverallSummaryRow> report = (ReportResult<OverallSummaryRow>) cachedReport("overall",
+                    service::generateOverallSummary);
+            JsonWriter json = beginReport(report);
+            for (OverallSummaryRow row : report.getRows()) {
+                json.beginObject()
+                    .field("studentId", row.getStudentId())
+                    .field("rollNo", row.getRollNo())
+                    .field("studentName", row.getStudentName())
+                    .field("department", row.getDepartment())
+                    .field("semester", row.getSemester());
+                writeCounts(json, row.getTotal(), row.getPresent(), row.getAbsent(), row.getPercentage());
+            }
+            return json.endArray().endObject().toString();
+        }
+        if (request.segments.length == 2 && request.segments[1].equals("at-risk")) {
+            String min = request.query.get("min");
+            int minConsecutive = min == null || min.isEmpty() ? 3 : parseInt("min", min);
+            if (minConsecutive < 1 || minConsecutive > MAX_AT_RISK_MIN) {
+                throw new IllegalArgumentException("'min' must be between 1 and " + MAX_AT_RISK_MIN);
+            }
+            // Only the usual thresholds are cached, so clients cannot grow the cache one value at a time
+            ReportResult<AtRiskRow> report = (ReportResult<AtRiskRow>) (minConsecutive <= MAX_CACHED_AT_RISK_MIN
+                    ? cachedReport("at-risk/" + minConsecutive, () -> service.generateAtRiskReport(minConsecutive))
+                    : service.generateAtRiskReport(minConsecutive));
+            JsonWriter json = beginReport(report);
+            for (AtRiskRow row : report.getRows()) {
+                json.beginObject()
+                    .field("studentId", row.getStudentId())
+                    .field("rollNo", row.getRollNo())
+                    .field("studentName", row.getStudentName())
+                    .field("subjectId", row.getSubjectId())
+                    .field("subjectCode", row.getSubjectCode())
+                    .field("subjectName", row.getSubjectName())
+                    .field("consecutiveAbsences", row.getConsecutiveAbsences())
+                    .name("lastAbsentDate").value(row.getLastAbsentDate())
+                    .endObject();
+            }
+            return json.endArray().endObject().toString();
+        }
+        if (request.segments.length != 3) {
+            throw new ApiError(404, "Not found");
+        }
+        int id = request.intSegment(2);
+        switch (request.segments[1]) {
+            case "student": {
+                ReportResult<StudentReportRow> report = (ReportResult<StudentReportRow>) cachedReport("student/" + id, () -> {
+                    Student student = studentDAO.getStudentById(id);
+                    if (student == null) {
+                        throw new ApiError(404, "Student " + id + " not found");
+                    }
+                    return service.generateStudentReport(student);
+                });
+                JsonWriter json = beginReport(report);
+                for (StudentReportRow row : report.getRows()) {
+                    json.beginObject()
+                        .field("subjectId", row.getSubjectId())
+                        .field("subjectCode", row.getSubjectCode())
+                        .field("subjectName", row.getSubjectName());
+                    writeCounts(json, row.getTotal(), row.getPresent(), row.getAbsent(), row.getPercentage());
+                }
+                return json.endArray().endObject().toString();
+            }
+            case "subject": {
+                ReportResult<SubjectReportRow> report = (ReportResult<SubjectReportRow>) cachedReport("subject/" + id, () -> {
+                    Subject subject = subjectDAO.getSubjectById(id);
+                    if (subject == null) {
+                        throw new ApiError(404, "Subject " + id + " not found");
+                    }
+                    return service.generateSubjectReport(subject);
+                });
+                JsonWriter json = beginReport(report);
+                for (SubjectReportRow row : report.getRows()) {
+                    json.beginObject()
+                        .field("studentId", row.getStudentId())
+                        .field("rollNo", row.getRollNo())
+                        .field("studentName", row.getStudentName())
+                        .field("department", row.getDepartment());
+                    writeCounts(json, row.getTotal(), row.getPresent(), row.getAbsent(), row.getPercentage());
+                }
+                return json.endArray().endObject().toString();
+            }
+            default:
+                throw new ApiError(404, "Not found");
+        }
+    }
+
+    /**
+     * Reuse a cached report while it is current, otherwise generate or regenerate it
+     */
+    private ReportResult<?> cachedReport(String key, Supplier<ReportResult<?>> generator) {
+        ReportResult<?> cached = reportCache.get(key);
+        ReportResult<?> report = cached != null ? service.ensureCurrent(cached) : generator.get();
+        if (report != cached) {
+            reportCache.put(key, report);
+        }
+        return report;
+    }
+
+    private static JsonWriter beginReport(ReportResult<?> report) {
+        return new JsonWriter().beginObject()
+                .field("type", report.getType().name())
+                .field("code", report.getCode())
+                .field("name", report.getName())
+                .name("generatedAt").value(report.getGeneratedAt().toString())
+                .field("sourceVersion", report.getSourceVersion())
+                .name("rows").beginArray();
+    }
+
+    private static void writeCounts(JsonWriter json, int total, int present, int absent, double percentage) {
+        json.field("total", total)
+            .field("present", present)
+            .field("absent", absent)
+            .field("percentage", percentage)
+            .endObject();
+    }
+
+    // ---- Analytics ------------------------------------------------------------------------
+
+    private String analytics(Request request) {
+        request.requireMethod("GET");
+        AttendanceAnalytics matrix = getAnalytics();
+        if (request.segments.length == 1) {
+            long[] totals = matrix.getTotals();
+            return new JsonWriter().beginObject()
+                    .field("classes", matrix.getClassCount())
+                    .field("marked", totals[0])
+                    .field("present", totals[1])
+                    .field("percentage", totals[0] > 0 ? totals[1] * 100.0 / totals[0] : 0.0)
+                    .field("bitmapBytes", matrix.sizeInBytes())
+                    .field("loadMillis", matrix.getLoadMillis())
+                    .endObject().toString();
+        }
+        if (request.segments.length == 2 && request.segments[1].equals("absent")) {
+            List<Integer> subjectIds = new ArrayList<>();
+            for (String id : request.requireQuery("subjects").split(",")) {
+                subjectIds.add(parseInt("subjects", id.trim()));
+            }
+            LocalDate from = LocalDate.parse(request.requireQuery("from"));
+            LocalDate to = LocalDate.parse(request.requireQuery("to"));
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+            AttendanceBitmap absent = matrix.getAbsentInAll(subjectIds, from, to);
+            JsonWriter json = new JsonWriter().beginObject()
+                    .field("count", absent.cardinality())
+                    .name("studentIds").beginArray();
+            absent.forEach(json::value);
+            return json.endArray().endObject().toString();
+        }
+        throw new ApiError(404, "Not found");
+    }
+
+    private static synchronized AttendanceAnalytics getAnalytics() {
+        AttendanceAnalytics matrix = AttendanceAnalytics.getInstance();
+        if (matrix.getLoadedRows() < 0 && matrix.reload() < 0) {
+            throw new ApiError(503, "Attendance could not be loaded");
+        }
+        return matrix;
+    }
+
+    // ---- Helpers --------------------------------------------------------------------------
+
+    private static void validate(String validationError) {
+        if (validationError != null) {
+            throw new ApiError(422, validationError);
+        }
+    }
+
+    private static String error(String message) {
+        return new JsonWriter().beginObject().field("error", message).endObject().toString();
+    }
+
+    private static String stringMember(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("'" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static int intMember(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Long)) {
+            throw new IllegalArgumentException("'" + name + "' must be an integer");
+        }
+        long number = (Long) value;
+        if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("'" + name + "' is out of range");
+        }
+        return (int) number;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' must be an integer");
+        }
+    }
+
+    /**
+     * Version from an If-Match header, which may be quoted or weak
+     */
+    private static long parseETag(String value) {
+        String tag = value.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be an ETag returned by GET /attendance");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    /**
+     * One parsed request; handlers set status for non-200 successes
+     */
+    private static final class Request {
+        final String method;
+        final String[] segments;
+        final Map<String, String> query;
+        final HttpExchange exchange;
+        int status = 200;
+
+        Request(String method, String[] segments, Map<String, String> query, HttpExchange exchange) {
+            this.method = method;
+            this.segments = segments;
+            this.query = query;
+            this.exchange = exchange;
+        }
+
+        void requireMethod(String expected) {
+            if (!method.equals(expected)) {
+                throw new ApiError(405, "Method not allowed");
+            }
+        }
+
+        String requireQuery(String name) {
+            String value = query.get(name);
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException("Missing query parameter '" + name + "'");
+            }
+            return value;
+        }
+
+        void setETag(long version) {
+            exchange.getResponseHeaders().set("ETag", "\"" + version + "\"");
+        }
+
+        int intSegment(int index) {
+            if (segments.length <= index) {
+                throw new ApiError(404, "Not found");
+            }
+            try {
+                return Integer.parseInt(segments[index]);
+            } catch (NumberFormatException e) {
+                throw new ApiError(404, "Not found");
+            }
+        }
+
+        Map<String, Object> body() throws IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    throw new ApiError(413, "Request body too large");
+                }
+                return JsonReader.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Error answered with the given HTTP status and a JSON {"error": message} body
+     */
+    private static final class ApiError extends RuntimeException {
+        final int status;
+
+        ApiError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
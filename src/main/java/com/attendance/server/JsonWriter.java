@@ -0,0 +1,162 @@
+package com.attendance.server;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Minimal streaming JSON writer for API responses.
+ * Commas and escaping are handled here; callers just open, fill and close
+ * objects and arrays in order.
+ */
+public class JsonWriter {
+    private final StringBuilder out = new StringBuilder(256);
+    // One bit per nesting level: whether a value was already written at that level
+    private long written;
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter beginObject() {
+        separator();
+        out.append('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        out.append('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        out.append(']');
+        return this;
+    }
+
+    /**
+     * Write an object member name; the next call writes its value
+     */
+    public JsonWriter name(String name) {
+        separator();
+        string(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            out.append("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Write a number rounded to two decimals, e.g. a percentage
+     */
+    public JsonWriter value(double value) {
+        separator();
+        out.append(Math.round(value * 100) / 100.0);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(LocalDate value) {
+        return value(value != null ? value.toString() : null);
+    }
+
+    public JsonWriter value(LocalDateTime value) {
+        return value(value != null ? value.toString() : null);
+    }
+
+    /**
+     * Shorthand for name(name).value(value)
+     */
+    public JsonWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, double value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            long bit = 1L << (depth - 1);
+            if ((written & bit) != 0) {
+                out.append(',');
+            }
+            written |= bit;
+        }
+    }
+
+    private void push() {
+        depth++;
+        written &= ~(1L << (depth - 1));
+    }
+
+    private void pop() {
+        depth--;
+        afterName = false;
+    }
+
+    private void string(String s) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -1,63 +1,126 @@
 package com.attendance.service;
 
+import com.attendance.analytics.AttendanceCounters;
+import com.attendance.analytics.StreakEngine;
 import com.attendance.dao.AttendanceDAO;
 import com.attendance.dao.StudentDAO;
 import com.attendance.dao.SubjectDAO;
+import com.attendance.dao.TermDAO;
+import com.attendance.db.DatabaseConnection;
+import com.attendance.diagnostics.CsvExportEvent;
+import com.attendance.diagnostics.ReportGenerationEvent;
+import com.attendance.model.AtRiskRow;
 import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceSheet;
+import com.attendance.model.AttendanceSheet.SaveResult;
+import com.attendance.model.AttendanceStatus;
+import com.attendance.model.ExportWatermark;
+import com.attendance.model.OverallSummaryRow;
+import com.attendance.model.ReportResult;
 import com.attendance.model.Student;
+import com.attendance.model.StudentImportResult;
+import com.attendance.model.StudentReportRow;
 import com.attendance.model.Subject;
+import com.attendance.model.SubjectReportRow;
+import com.attendance.model.Term;
+import com.attendance.util.CsvExporter;
+import com.attendance.util.CsvReader;
+import com.attendance.util.CsvWriter;
+import com.attendance.util.ExportProgressListener;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Service layer for Attendance business logic
  */
 public class AttendanceService {
+    private static final int PROGRESS_INTERVAL = 1000;
+    // Reports are small; a full-size CsvWriter buffer per pending report would dominate memory
+    private static final int ARCHIVE_ENTRY_BUFFER_SIZE = 8 * 1024;
+
     private final AttendanceDAO attendanceDAO;
     private final StudentDAO studentDAO;
     private final SubjectDAO subjectDAO;
+    private final TermDAO termDAO = new TermDAO();
+    private final DatabaseConnection dbConnection;
 
     public AttendanceService() {
-        this.attendanceDAO = new AttendanceDAO();
-        this.studentDAO = new StudentDAO();
-        this.subjectDAO = new SubjectDAO();
+        this(new AttendanceDAO(), new StudentDAO(), new SubjectDAO());
     }
 
     /**
-     * Mark attendance for multiple students
+     * Create a service over the given DAOs, e.g. in-memory stand-ins for benchmarks
      */
-    public boolean markAttendance(int subjectId, LocalDate date, Map<Integer, String> studentAttendance) {
-        // Check if attendance already exists for this date and subject
-        List<AttendanceRecord> existingRecords = attendanceDAO.getAttendanceBySubjectAndDate(subjectId, date);
-        
-        if (!existingRecords.isEmpty()) {
-            // Update existing records
-            for (Map.Entry<Integer, String> entry : studentAttendance.entrySet()) {
-                int studentId = entry.getKey();
-                String status = entry.getValue();
-                attendanceDAO.updateAttendanceByKey(studentId, subjectId, date, status);
-            }
-            return true;
-        } else {
-            // Insert new records
-            List<AttendanceRecord> records = new ArrayList<>();
-            for (Map.Entry<Integer, String> entry : studentAttendance.entrySet()) {
-                int studentId = entry.getKey();
-                String status = entry.getValue();
-                AttendanceRecord record = new AttendanceRecord(studentId, subjectId, date, status);
-                records.add(record);
-            }
-            return attendanceDAO.addAttendanceBatch(records);
-        }
+    public AttendanceService(AttendanceDAO attendanceDAO, StudentDAO studentDAO, SubjectDAO subjectDAO) {
+        this.attendanceDAO = attendanceDAO;
+        this.studentDAO = studentDAO;
+        this.subjectDAO = subjectDAO;
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Mark attendance for multiple students, overwriting whatever is stored for the class.
+     * Runs as one transaction, so concurrent saves of the same class never interleave.
+     */
+    public boolean markAttendance(int subjectId, LocalDate date, AttendanceRoster roster) {
+        AttendanceSheet sheet = new AttendanceSheet(subjectId, date);
+        return attendanceDAO.saveAttendanceSheet(sheet, roster, true) == SaveResult.SAVED;
+    }
+
+    /**
+     * Load the attendance of a class for editing, with the version a later save is checked against
+     */
+    public AttendanceSheet loadAttendanceSheet(int subjectId, LocalDate date) {
+        // Version first: rows newer than the version only make the save merge, never lose data
+        long version = attendanceDAO.getAttendanceVersion(subjectId, date);
+        return new AttendanceSheet(subjectId, date, version, attendanceDAO.getAttendanceRoster(subjectId, date));
+    }
+
+    /**
+     * Save the changes made to a loaded sheet. Changes by others since loading are kept
+     * when they touch other students; CONFLICT is returned when they touch the same ones.
+     */
+    public SaveResult saveAttendance(AttendanceSheet sheet, AttendanceRoster roster) {
+        return attendanceDAO.saveAttendanceSheet(sheet, roster, false);
+    }
+
+    /**
+     * Save a sheet after a conflict, replacing the other changes to the same students
+     */
+    public SaveResult overwriteAttendance(AttendanceSheet sheet, AttendanceRoster roster) {
+        return attendanceDAO.saveAttendanceSheet(sheet, roster, true);
     }
 
     /**
      * Update attendance for a specific student, subject, and date
      */
-    public boolean updateAttendance(int studentId, int subjectId, LocalDate date, String status) {
+    public boolean updateAttendance(int studentId, int subjectId, LocalDate date, AttendanceStatus status) {
         if (attendanceDAO.attendanceExists(studentId, subjectId, date)) {
             return attendanceDAO.updateAttendanceByKey(studentId, subjectId, date, status);
         } else {
@@ -67,91 +130,193 @@ public class AttendanceService {
     }
 
     /**
-     * Get attendance percentage for a student in a subject
+     * Get attendance percentage for a student in a subject.
+     * Answered from the shared AttendanceCounters, or by the database if they could not be loaded.
      */
     public double getAttendancePercentage(int studentId, int subjectId) {
-        Map<String, Integer> stats = attendanceDAO.getAttendanceStats(studentId, subjectId);
-        int total = stats.getOrDefault("total", 0);
-        int present = stats.getOrDefault("present", 0);
-        
-        if (total == 0) {
-            return 0.0;
+        AttendanceCounters counters = AttendanceCounters.getInstance();
+        if (counters.isLoaded()) {
+            return counters.getPercentage(studentId, subjectId);
         }
-        
-        return (present * 100.0) / total;
+        return attendanceDAO.getAttendanceStats(studentId, subjectId).getPercentage();
     }
 
     /**
-     * Get overall attendance percentage for a student
+     * Get overall attendance percentage for a student.
+     * Answered from the shared AttendanceCounters, or by the database if they could not be loaded.
      */
     public double getOverallAttendancePercentage(int studentId) {
-        Map<String, Integer> stats = attendanceDAO.getOverallAttendanceStats(studentId);
-        int total = stats.getOrDefault("total", 0);
-        int present = stats.getOrDefault("present", 0);
-        
-        if (total == 0) {
-            return 0.0;
+        AttendanceCounters counters = AttendanceCounters.getInstance();
+        if (counters.isLoaded()) {
+            return counters.getStudentPercentage(studentId);
         }
-        
-        return (present * 100.0) / total;
+        return attendanceDAO.getOverallAttendanceStats(studentId).getPercentage();
     }
 
     /**
-     * Get attendance report for a student
+     * Get attendance percentage of a subject across all students, from the shared AttendanceCounters
      */
-    public List<Map<String, Object>> getStudentAttendanceReport(int studentId) {
-        List<Map<String, Object>> report = new ArrayList<>();
-        List<Subject> subjects = subjectDAO.getAllSubjects();
-        
-        for (Subject subject : subjects) {
-            Map<String, Integer> stats = attendanceDAO.getAttendanceStats(studentId, subject.getSubjectId());
-            int total = stats.getOrDefault("total", 0);
-            int present = stats.getOrDefault("present", 0);
-            int absent = stats.getOrDefault("absent", 0);
-            double percentage = total > 0 ? (present * 100.0) / total : 0.0;
-            
-            Map<String, Object> subjectReport = new java.util.HashMap<>();
-            subjectReport.put("subjectId", subject.getSubjectId());
-            subjectReport.put("subjectCode", subject.getSubjectCode());
-            subjectReport.put("subjectName", subject.getSubjectName());
-            subjectReport.put("total", total);
-            subjectReport.put("present", present);
-            subjectReport.put("absent", absent);
-            subjectReport.put("percentage", percentage);
-            
-            report.add(subjectReport);
+    public double getSubjectAttendancePercentage(int subjectId) {
+        return AttendanceCounters.getInstance().getSubjectPercentage(subjectId);
+    }
+
+    /**
+     * Get attendance report for a student, one row per subject (a single grouped query)
+     */
+    public List<StudentReportRow> getStudentAttendanceReport(int studentId) {
+        return attendanceDAO.getStudentReportRows(studentId);
+    }
+
+    /**
+     * Get attendance report for a subject, one row per student (a single grouped query)
+     */
+    public List<SubjectReportRow> getSubjectAttendanceReport(int subjectId) {
+        return attendanceDAO.getSubjectReportRows(subjectId);
+    }
+
+    /**
+     * All students, e.g. for bulk report runs
+     */
+    public List<Student> getAllStudents() {
+        return studentDAO.getAllStudents();
+    }
+
+    /**
+     * All subjects, e.g. for bulk report runs
+     */
+    public List<Subject> getAllSubjects() {
+        return subjectDAO.getAllSubjects();
+    }
+
+    /**
+     * Get the institution-wide attendance summary, one row per student with totals
+     * across all subjects
+     */
+    public List<OverallSummaryRow> getOverallSummaryReport() {
+        return attendanceDAO.getOverallAttendanceSummary();
+    }
+
+    /**
+     * Students with an ongoing run of at least minConsecutive absences, in a subject or in
+     * days across all subjects, longest runs first. Answered from the shared StreakEngine,
+     * which follows attendance saved in this process as it happens.
+     */
+    public List<AtRiskRow> getAtRiskReport(int minConsecutive) {
+        List<StreakEngine.Streak> streaks = StreakEngine.getInstance().getStreaks(minConsecutive);
+        Map<Integer, Student> students = new HashMap<>();
+        for (Student student : studentDAO.getAllStudents()) {
+            students.put(student.getStudentId(), student);
         }
-        
-        return report;
+        Map<Integer, Subject> subjects = new HashMap<>();
+        for (Subject subject : subjectDAO.getAllSubjects()) {
+            subjects.put(subject.getSubjectId(), subject);
+        }
+
+        List<AtRiskRow> rows = new ArrayList<>(streaks.size());
+        for (StreakEngine.Streak streak : streaks) {
+            Student student = students.get(streak.getStudentId());
+            Subject subject = subjects.get(streak.getSubjectId());
+            if (student == null || (subject == null && streak.getSubjectId() != StreakEngine.ALL_SUBJECTS)) {
+                continue;
+            }
+            rows.add(new AtRiskRow(student.getStudentId(), student.getRollNo(), student.getName(),
+                    student.getDepartment(), streak.getSubjectId(),
+                    subject != null ? subject.getSubjectCode() : null,
+                    subject != null ? subject.getSubjectName() : "All Subjects (days)",
+                    streak.getLength(), streak.getLastDate()));
+        }
+        rows.sort(Comparator.comparingInt(AtRiskRow::getConsecutiveAbsences).reversed()
+                .thenComparing(AtRiskRow::getRollNo)
+                .thenComparingInt(AtRiskRow::getSubjectId));
+        return rows;
     }
 
     /**
-     * Get attendance report for a subject
+     * Generate a student report snapshot
      */
-    public List<Map<String, Object>> getSubjectAttendanceReport(int subjectId) {
-        List<Map<String, Object>> report = new ArrayList<>();
-        List<Student> students = studentDAO.getAllStudents();
-        
-        for (Student student : students) {
-            Map<String, Integer> stats = attendanceDAO.getAttendanceStats(student.getStudentId(), subjectId);
-            int total = stats.getOrDefault("total", 0);
-            int present = stats.getOrDefault("present", 0);
-            int absent = stats.getOrDefault("absent", 0);
-            double percentage = total > 0 ? (present * 100.0) / total : 0.0;
-            
-            Map<String, Object> studentReport = new java.util.HashMap<>();
-            studentReport.put("studentId", student.getStudentId());
-            studentReport.put("studentName", student.getName());
-            studentReport.put("rollNo", student.getRollNo());
-            studentReport.put("department", student.getDepartment());
-            studentReport.put("total", total);
-            studentReport.put("present", present);
-            studentReport.put("absent", absent);
-            studentReport.put("percentage", percentage);
-            
-            report.add(studentReport);
+    public ReportResult<StudentReportRow> generateStudentReport(Student student) {
+        return buildReport(ReportResult.Type.STUDENT, student.getStudentId(), student.getRollNo(),
+                student.getName(), false, () -> getStudentAttendanceReport(student.getStudentId()));
+    }
+
+    /**
+     * Generate a subject report snapshot
+     */
+    public ReportResult<SubjectReportRow> generateSubjectReport(Subject subject) {
+        return buildReport(ReportResult.Type.SUBJECT, subject.getSubjectId(), subject.getSubjectCode(),
+                subject.getSubjectName(), false, () -> getSubjectAttendanceReport(subject.getSubjectId()));
+    }
+
+    /**
+     * Generate an overall summary snapshot
+     */
+    public ReportResult<OverallSummaryRow> generateOverallSummary() {
+        return buildReport(ReportResult.Type.OVERALL, 0, null, "Overall Summary", false,
+                this::getOverallSummaryReport);
+    }
+
+    /**
+     * Generate an at-risk students snapshot
+     */
+    public ReportResult<AtRiskRow> generateAtRiskReport(int minConsecutive) {
+        return buildReport(ReportResult.Type.AT_RISK, minConsecutive, null, "At-Risk Students", false,
+                () -> getAtRiskReport(minConsecutive));
+    }
+
+    /**
+     * Whether no data has been written since the report was generated
+     */
+    public boolean isCurrent(ReportResult<?> report) {
+        return report.getSourceVersion() == dbConnection.getDataVersion();
+    }
+
+    /**
+     * Return the report itself if it is still current, otherwise regenerate it
+     * for the same student, subject or summary
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ReportResult<T> ensureCurrent(ReportResult<T> report) {
+        if (isCurrent(report)) {
+            return report;
+        }
+
+        Supplier<List<?>> rows;
+        switch (report.getType()) {
+            case STUDENT:
+                rows = () -> getStudentAttendanceReport(report.getEntityId());
+                break;
+            case SUBJECT:
+                rows = () -> getSubjectAttendanceReport(report.getEntityId());
+                break;
+            case AT_RISK:
+                rows = () -> getAtRiskReport(report.getEntityId());
+                break;
+            default:
+                rows = this::getOverallSummaryReport;
+                break;
+        }
+        return buildReport(report.getType(), report.getEntityId(), report.getCode(), report.getName(), true,
+                () -> (List<T>) rows.get());
+    }
+
+    /**
+     * Query the rows of a report and wrap them in a snapshot tagged with the data
+     * version read beforehand, recording a ReportGeneration flight recorder event
+     */
+    private <T> ReportResult<T> buildReport(ReportResult.Type type, int entityId, String code, String name,
+                                            boolean regenerated, Supplier<List<T>> rowSupplier) {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.begin();
+        long version = dbConnection.getDataVersion();
+        List<T> rows = rowSupplier.get();
+        ReportResult<T> report = new ReportResult<>(type, entityId, code, name, rows, Instant.now(), version);
+        if (event.shouldCommit()) {
+            event.reportType = type.name();
+            event.entityId = entityId;
+            event.rows = rows.size();
+            event.regenerated = regenerated;
+            event.commit();
         }
-        
         return report;
     }
 
@@ -162,6 +327,453 @@ public class AttendanceService {
         return attendanceDAO.getAttendanceByDateRange(startDate, endDate);
     }
 
+    /**
+     * Get at most {@code limit} attendance records for a date range, in export order
+     */
+    public List<AttendanceRecord> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate, int limit) {
+        return attendanceDAO.getAttendanceByDateRange(startDate, endDate, limit);
+    }
+
+    /**
+     * Get at most {@code limit} attendance records for a date range, in export order,
+     * from the archive of closed terms if archived is set
+     */
+    public List<AttendanceRecord> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate, int limit,
+                                                           boolean archived) {
+        return attendanceDAO.getAttendanceByDateRange(startDate, endDate, limit, archived);
+    }
+
+    /**
+     * Count attendance records in a date range
+     */
+    public long countAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
+        return attendanceDAO.countAttendanceByDateRange(startDate, endDate);
+    }
+
+    /**
+     * Count attendance records in a date range, in the archive of closed terms if archived is set
+     */
+    public long countAttendanceByDateRange(LocalDate startDate, LocalDate endDate, boolean archived) {
+        return attendanceDAO.countAttendanceByDateRange(startDate, endDate, archived);
+    }
+
+    /**
+     * Stream attendance records in a date range straight from the database cursor
+     * into a CSV file. Memory use stays constant regardless of the range size.
+     * The listener is notified every PROGRESS_INTERVAL rows and may cancel the export,
+     * in which case the partial file is deleted.
+     * @return number of rows written, or -1 if the export failed or was cancelled
+     */
+    public long exportAttendanceByDateRange(String filePath, LocalDate startDate, LocalDate endDate,
+                                            ExportProgressListener listener) {
+        return exportAttendanceByDateRange(filePath, startDate, endDate, false, listener);
+    }
+
+    /**
+     * Export a date range like exportAttendanceByDateRange, from the archive of closed terms
+     * if archived is set. A file name ending in .gz is written gzip-compressed.
+     * @return number of rows written, or -1 if the export failed or was cancelled
+     */
+    public long exportAttendanceByDateRange(String filePath, LocalDate startDate, LocalDate endDate,
+                                            boolean archived, ExportProgressListener listener) {
+        boolean[] cancelled = {false};
+        long rows;
+        CsvExportEvent event = CsvExportEvent.start(archived ? "Archived Date Range" : "Date Range", filePath);
+        try (CsvWriter writer = filePath.endsWith(".gz") ? CsvWriter.openCompressed(filePath) : CsvWriter.open(filePath)) {
+            CsvExporter.writeDateRangeHeader(writer, startDate, endDate);
+            long[] written = {0};
+            rows = attendanceDAO.streamAttendanceByDateRange(startDate, endDate, archived, record -> {
+                CsvExporter.writeDateRangeRow(writer, record);
+                written[0]++;
+                if (listener != null && written[0] % PROGRESS_INTERVAL == 0 && !listener.onProgress(written[0])) {
+                    cancelled[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            if (rows >= 0 && listener != null && !cancelled[0]) {
+                listener.onProgress(rows);
+            }
+            if (rows >= 0 && !cancelled[0]) {
+                event.setOutput(rows, writer.getBytesWritten());
+            }
+        } catch (IOException e) {
+            System.err.println("Error exporting attendance records to CSV: " + e.getMessage());
+            e.printStackTrace();
+            rows = -1;
+        } finally {
+            event.complete();
+        }
+
+        if (rows < 0 || cancelled[0]) {
+            try {
+                Files.deleteIfExists(Path.of(filePath));
+            } catch (IOException e) {
+                System.err.println("Error removing partial export: " + e.getMessage());
+            }
+            return -1;
+        }
+        return rows;
+    }
+
+    /**
+     * Stream the attendance rows created or changed after a watermark and before a cutoff
+     * into a CSV file, oldest change first. On success the watermark is moved to the last
+     * row written, so passing it to the next export continues where this one stopped.
+     * The listener is notified every PROGRESS_INTERVAL rows and may cancel the export,
+     * in which case the partial file is deleted.
+     * A file name ending in .gz is written gzip-compressed.
+     * @return number of rows written, or -1 if the export failed or was cancelled, in which
+     *         case the watermark is unchanged
+     */
+    public long exportAttendanceChanges(String filePath, ExportWatermark watermark, LocalDateTime until,
+                                        ExportProgressListener listener) {
+        boolean[] cancelled = {false};
+        ExportWatermark last = new ExportWatermark(watermark.getUpdatedAt(), watermark.getAttendanceId());
+        long rows;
+        CsvExportEvent event = CsvExportEvent.start("Attendance Changes", filePath);
+        try (CsvWriter writer = filePath.endsWith(".gz") ? CsvWriter.openCompressed(filePath) : CsvWriter.open(filePath)) {
+            CsvExporter.writeChangesHeader(writer, watermark, until);
+            long[] written = {0};
+            rows = attendanceDAO.streamAttendanceChangedSince(watermark, until, record -> {
+                CsvExporter.writeChangesRow(writer, record);
+                last.setUpdatedAt(record.getUpdatedAt());
+                last.setAttendanceId(record.getAttendanceId());
+                written[0]++;
+                if (listener != null && written[0] % PROGRESS_INTERVAL == 0 && !listener.onProgress(written[0])) {
+                    cancelled[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            if (rows >= 0 && listener != null && !cancelled[0]) {
+                listener.onProgress(rows);
+            }
+            if (rows >= 0 && !cancelled[0]) {
+                event.setOutput(rows, writer.getBytesWritten());
+            }
+        } catch (IOException e) {
+            System.err.println("Error exporting attendance changes to CSV: " + e.getMessage());
+            e.printStackTrace();
+            rows = -1;
+        } finally {
+            event.complete();
+        }
+
+        if (rows < 0 || cancelled[0]) {
+            try {
+                Files.deleteIfExists(Path.of(filePath));
+            } catch (IOException e) {
+                System.err.println("Error removing partial export: " + e.getMessage());
+            }
+            return -1;
+        }
+        watermark.setUpdatedAt(last.getUpdatedAt());
+        watermark.setAttendanceId(last.getAttendanceId());
+        return rows;
+    }
+
+    /**
+     * The database's current time, the clock attendance change times come from
+     */
+    public LocalDateTime getDatabaseTime() {
+        return attendanceDAO.getDatabaseTime();
+    }
+
+    /**
+     * Write the report of every given student and subject into one ZIP file, one CSV
+     * per report named students/ROLLNO_ID.csv or subjects/CODE_ID.csv.
+     *
+     * Reports are generated in parallel on virtual threads, at most db.pool.size at
+     * once, and rendered to memory; the calling thread alone writes the ZIP. A report
+     * is only started once fewer than twice the pool size are generated but not yet
+     * written, so memory stays bounded however many reports are exported.
+     * @param listener told the number of reports written so far, and can cancel
+     * @return number of reports written, or -1 if a report failed or the export was
+     *         cancelled, in which case the partial file is removed
+     */
+    public long exportReportArchive(String zipPath, List<Student> students, List<Subject> subjects,
+                                    ExportProgressListener listener) {
+        List<String> names = new ArrayList<>();
+        List<Supplier<ReportResult<?>>> reports = new ArrayList<>();
+        for (Student student : students) {
+            names.add("students/" + CsvExporter.fileName(student.getRollNo(), student.getStudentId()));
+            reports.add(() -> generateStudentReport(student));
+        }
+        for (Subject subject : subjects) {
+            names.add("subjects/" + CsvExporter.fileName(subject.getSubjectCode(), subject.getSubjectId()));
+            reports.add(() -> generateSubjectReport(subject));
+        }
+        int total = reports.size();
+
+        int workers = dbConnection.getPoolSize();
+        Semaphore queries = new Semaphore(workers);
+        Semaphore pending = new Semaphore(workers * 2);
+        BlockingQueue<ArchiveEntry> ready = new LinkedBlockingQueue<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+
+        long written = 0;
+        boolean complete = false;
+        CsvExportEvent event = CsvExportEvent.start("Report Archive", zipPath);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread submitter = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < total; i++) {
+                    try {
+                        pending.acquire();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (stopped.get()) {
+                        return;
+                    }
+                    String name = names.get(i);
+                    Supplier<ReportResult<?>> report = reports.get(i);
+                    executor.execute(() -> ready.add(renderEntry(name, report, queries, stopped)));
+                }
+            });
+
+            try (ZipOutputStream zip = new ZipOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(Path.of(zipPath))))) {
+                while (written < total) {
+                    ArchiveEntry entry = ready.take();
+                    pending.release();
+                    if (entry.data == null) {
+                        break;
+                    }
+                    zip.putNextEntry(new ZipEntry(entry.name));
+                    zip.write(entry.data);
+                    zip.closeEntry();
+                    written++;
+                    if (listener != null && !listener.onProgress(written)) {
+                        break;
+                    }
+                }
+                complete = written == total;
+            } catch (IOException e) {
+                System.err.println("Error writing report archive: " + e.getMessage());
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // Wake the submitter if it waits for a slot; reports already started finish unwritten
+                stopped.set(true);
+                pending.release(total);
+                submitter.join();
+            }
+            if (complete) {
+                event.setOutput(written, Files.size(Path.of(zipPath)));
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing report archive: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete = false;
+        } finally {
+            event.complete();
+        }
+
+        if (!complete) {
+            try {
+                Files.deleteIfExists(Path.of(zipPath));
+            } catch (IOException e) {
+                System.err.println("Error removing partial report archive: " + e.getMessage());
+            }
+            return -1;
+        }
+        return written;
+    }
+
+    /**
+     * Generate one report while holding a query permit and render it to CSV bytes;
+     * an entry without data marks a failed report, or one skipped after the export stopped
+     */
+    private static ArchiveEntry renderEntry(String name, Supplier<ReportResult<?>> report, Semaphore queries,
+                                            AtomicBoolean stopped) {
+        try {
+            ReportResult<?> result;
+            queries.acquire();
+            try {
+                if (stopped.get()) {
+                    return new ArchiveEntry(name, null);
+                }
+                result = report.get();
+            } finally {
+                queries.release();
+            }
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            try (CsvWriter writer = new CsvWriter(Channels.newChannel(data), ARCHIVE_ENTRY_BUFFER_SIZE)) {
+                CsvExporter.writeReport(writer, result);
+            }
+            return new ArchiveEntry(name, data.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error generating report " + name + ": " + e);
+            return new ArchiveEntry(name, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArchiveEntry(name, null);
+        }
+    }
+
+    /**
+     * A rendered report waiting to be written to the archive
+     */
+    private static final class ArchiveEntry {
+        final String name;
+        final byte[] data;
+
+        ArchiveEntry(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Get all academic terms, oldest first
+     */
+    public List<Term> getAllTerms() {
+        return termDAO.getAllTerms();
+    }
+
+    /**
+     * Get a term by name, or null
+     */
+    public Term getTermByName(String name) {
+        return termDAO.getTermByName(name);
+    }
+
+    /**
+     * Add an academic term
+     */
+    public boolean addTerm(Term term) {
+        return termDAO.addTerm(term);
+    }
+
+    /**
+     * Close a term: move its attendance to the archive, then, if exportPath is given, also
+     * export the archived rows to that CSV file (gzip-compressed when it ends in .gz).
+     * The export reads the archive, so it cannot miss rows written while archiving.
+     * @return number of rows archived, or -1 if the move or the export failed
+     */
+    public long archiveTerm(Term term, String exportPath) {
+        long archived = attendanceDAO.archiveTerm(term);
+        if (archived < 0 || exportPath == null) {
+            return archived;
+        }
+        long exported = exportAttendanceByDateRange(exportPath, term.getStartDate(), term.getEndDate(), true, null);
+        return exported < 0 ? -1 : archived;
+    }
+
+    /**
+     * Add the students listed in a CSV file. The file is read one row at a time and
+     * needs a header row naming the columns name, roll_no, department and semester,
+     * and optionally class_name (class A when missing), in any order.
+     *
+     * Every row is validated like a single new student, but in memory: roll numbers
+     * are checked against one prefetched set of existing ones and against the rows
+     * before them, ignoring case as MySQL does. Valid rows are then added in one
+     * transaction with multi-row INSERTs; invalid rows are skipped and reported.
+     */
+    public StudentImportResult importStudents(String filePath) {
+        StudentImportResult result = new StudentImportResult();
+        Set<String> existing = studentDAO.getAllRollNumbers();
+        if (existing == null) {
+            result.setFailed(true);
+            result.addError("Could not read existing roll numbers");
+            return result;
+        }
+        Set<String> taken = new HashSet<>();
+        for (String rollNo : existing) {
+            taken.add(rollNoKey(rollNo));
+        }
+        Set<String> imported = new HashSet<>();
+
+        List<Student> students = new ArrayList<>();
+        try (CsvReader reader = CsvReader.open(filePath)) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                result.setFailed(true);
+                result.addError("The file is empty");
+                return result;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(columnKey(header.get(i)), i);
+            }
+            for (String required : new String[]{"name", "rollno", "department", "semester"}) {
+                if (!columns.containsKey(required)) {
+                    result.setFailed(true);
+                    result.addError("Missing column: " + required.replace("rollno", "roll_no"));
+                    return result;
+                }
+            }
+            Integer classColumn = columns.containsKey("classname") ? columns.get("classname") : columns.get("class");
+
+            List<String> row;
+            while ((row = reader.readRecord()) != null) {
+                if (row.size() == 1 && row.get(0).isBlank()) {
+                    continue; // Blank line
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+                int line = reader.getRecordLine();
+
+                Student student = new Student();
+                student.setName(cell(row, columns.get("name")));
+                student.setRollNo(cell(row, columns.get("rollno")));
+                student.setDepartment(cell(row, columns.get("department")));
+                String className = classColumn == null ? "" : cell(row, classColumn);
+                student.setClassName(className.isEmpty() ? "A" : className);
+                String semester = cell(row, columns.get("semester"));
+                try {
+                    student.setSemester(Integer.parseInt(semester));
+                } catch (NumberFormatException e) {
+                    result.addError(line, "Invalid semester: " + semester);
+                    continue;
+                }
+
+                String error = validateStudentFields(student);
+                if (error == null) {
+                    String key = rollNoKey(student.getRollNo());
+                    if (taken.contains(key)) {
+                        error = "Roll number already exists: " + student.getRollNo();
+                    } else if (!imported.add(key)) {
+                        error = "Roll number repeats an earlier row: " + student.getRollNo();
+                    }
+                }
+                if (error != null) {
+                    result.addError(line, error);
+                    continue;
+                }
+                students.add(student);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading student import file: " + e.getMessage());
+            result.setFailed(true);
+            result.addError("Could not read the file: " + e.getMessage());
+            return result;
+        }
+
+        int added = studentDAO.addStudents(students);
+        if (added < 0) {
+            result.setFailed(true);
+            result.addError("Database error while adding the students; none were imported");
+            return result;
+        }
+        result.setImported(added);
+        return result;
+    }
+
+    private static String columnKey(String header) {
+        return header.trim().replace(" ", "").replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String rollNoKey(String rollNo) {
+        return rollNo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String cell(List<String> row, int column) {
+        return column < row.size() ? row.get(column).trim() : "";
+    }
+
     /**
      * Delete attendance for a subject and date
      */
@@ -173,6 +785,24 @@ public class AttendanceService {
      * Validate student data
      */
     public String validateStudent(Student student, boolean isUpdate) {
+        String error = validateStudentFields(student);
+        if (error != null) {
+            return error;
+        }
+        
+        // Check for duplicate roll number
+        int excludeId = isUpdate ? student.getStudentId() : 0;
+        if (studentDAO.isRollNoExists(student.getRollNo(), excludeId)) {
+            return "Roll number already exists";
+        }
+        
+        return null; // No validation errors
+    }
+
+    /**
+     * Validate the fields of a student on their own, without the database
+     */
+    private String validateStudentFields(Student student) {
         if (student.getName() == null || student.getName().trim().isEmpty()) {
             return "Student name is required";
         }
@@ -188,11 +818,11 @@ public class AttendanceService {
         if (student.getSemester() < 1 || student.getSemester() > 8) {
             return "Semester must be between 1 and 8";
         }
-        
-        // Check for duplicate roll number
-        int excludeId = isUpdate ? student.getStudentId() : 0;
-        if (studentDAO.isRollNoExists(student.getRollNo(), excludeId)) {
-            return "Roll number already exists";
+
+        if (student.getName().length() > 100 || student.getRollNo().length() > 50
+                || student.getDepartment().length() > 100
+                || (student.getClassName() != null && student.getClassName().length() > 50)) {
+            return "Name and department are limited to 100 characters, roll number and class to 50";
         }
         
         return null; // No validation errors
@@ -223,6 +853,61 @@ public class AttendanceService {
         return null; // No validation errors
     }
 
+    /**
+     * Validate term data
+     */
+    public String validateTerm(Term term) {
+        if (term.getName() == null || term.getName().trim().isEmpty()) {
+            return "Term name is required";
+        }
+
+        if (term.getStartDate() == null || term.getEndDate() == null) {
+            return "Term start and end dates are required";
+        }
+
+        if (term.getEndDate().isBefore(term.getStartDate())) {
+            return "Term end date must not be before its start date";
+        }
+
+        if (termDAO.getTermByName(term.getName()) != null) {
+            return "Term name already exists";
+        }
+
+        if (termDAO.overlapsOtherTerm(term.getStartDate(), term.getEndDate(), term.getTermId())) {
+            return "Term overlaps an existing term";
+        }
+
+        return null; // No validation errors
+    }
+
+    /**
+     * Validate that a term can be archived: it has ended and is not archived yet
+     */
+    public String validateTermArchive(Term term) {
+        if (term.isArchived()) {
+            return "Term " + term.getName() + " is already archived";
+        }
+
+        if (!term.getEndDate().isBefore(LocalDate.now())) {
+            return "Term " + term.getName() + " has not ended yet";
+        }
+
+        return null; // No validation errors
+    }
+
+    /**
+     * Validate that attendance can be marked on a date: it is not in an archived term
+     */
+    public String validateAttendanceDate(LocalDate date) {
+        Term term = termDAO.getTermContaining(date);
+        if (term != null && term.isArchived()) {
+            return "Attendance for " + date + " belongs to the archived term " + term.getName()
+                    + " and can no longer be changed";
+        }
+
+        return null; // No validation errors
+    }
+
     /**
      * Validate attendance status
      */
@@ -231,8 +916,10 @@ public class AttendanceService {
             return "Attendance status is required";
         }
         
-        if (!status.equals("Present") && !status.equals("Absent")) {
-            return "Attendance status must be either 'Present' or 'Absent'";
+        try {
+            AttendanceStatus.fromLabel(status.trim());
+        } catch (IllegalArgumentException e) {
+            return "Attendance status must be one of " + AttendanceStatus.labels();
         }
         
         return null; // No validation errors
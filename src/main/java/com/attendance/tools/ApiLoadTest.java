@@ -0,0 +1,314 @@
+package com.attendance.tools;
+
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.dao.StudentDAO;
+import com.attendance.dao.SubjectDAO;
+import com.attendance.db.DatabaseConnection;
+import com.attendance.diagnostics.LatencyHistogram;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.Student;
+import com.attendance.model.Subject;
+import com.attendance.server.JsonReader;
+import com.attendance.service.AttendanceService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator comparing the HTTP API server with direct JDBC access.
+ *
+ * Simulates concurrent clients, each on a virtual thread, running a mix of the
+ * operations a teacher's client performs: opening a student report, listing a
+ * semester's subjects, loading a day's attendance for a subject and saving
+ * attendance. In http mode the requests go to a running API server (Main --server);
+ * in direct mode the same operations call AttendanceService and the DAOs in this
+ * process, the way the Swing client does. Both report requests per second and
+ * latency percentiles per operation.
+ *
+ * Example:
+ *   java -cp attendance-management-system-1.0.0-jar-with-dependencies.jar \
+ *        com.attendance.tools.ApiLoadTest --mode http --url http://localhost:8080/api --clients 200
+ */
+public class ApiLoadTest {
+    private static final int MARKED_STUDENTS = 30;
+    private static final int DATE_SPAN_DAYS = 60;
+
+    /**
+     * Operations in the client mix
+     */
+    enum Operation {
+        STUDENT_REPORT, LIST_SUBJECTS, LOAD_ATTENDANCE, MARK_ATTENDANCE
+    }
+
+    // Parameters
+    private String mode = "http";
+    private String baseUrl = "http://localhost:8080/api";
+    private int clients = 50;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private double writeRatio = 0.1;
+    private LocalDate lastDate = LocalDate.now();
+    private long seed = 42L;
+
+    private final Map<Operation, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<Operation, LongAdder> errors = new LinkedHashMap<>();
+    private volatile boolean measuring;
+
+    private List<Integer> studentIds;
+    private List<Integer> subjectIds;
+    private HttpClient httpClient;
+    private AttendanceService service;
+    private AttendanceDAO attendanceDAO;
+    private SubjectDAO subjectDAO;
+
+    public ApiLoadTest() {
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new LatencyHistogram());
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        ApiLoadTest test = new ApiLoadTest();
+        try {
+            test.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            test.run();
+            System.exit(0);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error running load test: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: ApiLoadTest [options]");
+        System.err.println("  --mode http|direct       through the API server or straight to the database (default http)");
+        System.err.println("  --url URL                API base URL for http mode (default http://localhost:8080/api)");
+        System.err.println("  --clients N              concurrent clients (default 50)");
+        System.err.println("  --duration N             measured seconds (default 30)");
+        System.err.println("  --warmup N               unmeasured seconds before that (default 5)");
+        System.err.println("  --write-ratio R          share of operations that save attendance (default 0.1)");
+        System.err.println("  --last-date yyyy-MM-dd   attendance dates are drawn from the 60 days up to this (default today)");
+        System.err.println("  --seed N                 random seed (default 42)");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--mode": mode = value; break;
+                    case "--url": baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value; break;
+                    case "--clients": clients = Integer.parseInt(value); break;
+                    case "--duration": durationSeconds = Integer.parseInt(value); break;
+                    case "--warmup": warmupSeconds = Integer.parseInt(value); break;
+                    case "--write-ratio": writeRatio = Double.parseDouble(value); break;
+                    case "--last-date": lastDate = LocalDate.parse(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (!mode.equals("http") && !mode.equals("direct")) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        if (clients <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || writeRatio < 0 || writeRatio > 1) {
+            throw new IllegalArgumentException("--clients and --duration must be positive, --write-ratio between 0 and 1");
+        }
+    }
+
+    void run() throws IOException, InterruptedException {
+        if (mode.equals("http")) {
+            httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            studentIds = idsFrom(get("/students"), "studentId");
+            subjectIds = idsFrom(get("/subjects"), "subjectId");
+        } else {
+            attendanceDAO = new AttendanceDAO();
+            subjectDAO = new SubjectDAO();
+            service = new AttendanceService(attendanceDAO, new StudentDAO(), subjectDAO);
+            studentIds = new ArrayList<>();
+            for (Student student : service.getAllStudents()) {
+                studentIds.add(student.getStudentId());
+            }
+            subjectIds = new ArrayList<>();
+            for (Subject subject : service.getAllSubjects()) {
+                subjectIds.add(subject.getSubjectId());
+            }
+        }
+        if (studentIds.isEmpty() || subjectIds.isEmpty()) {
+            throw new IOException("The database has no students or subjects to test with");
+        }
+        System.out.printf("%s mode: %d clients, %d s warm-up + %d s measured, %.0f%% writes, %d students, %d subjects%s%n",
+                mode, clients, warmupSeconds, durationSeconds, writeRatio * 100, studentIds.size(), subjectIds.size(),
+                mode.equals("direct") ? ", " + DatabaseConnection.getInstance().getPoolSize() + " pooled connections" : "");
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + durationSeconds * 1_000_000_000L;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                SplittableRandom random = new SplittableRandom(seed + c);
+                executor.execute(() -> client(random, end));
+            }
+            Thread.sleep(Math.max(0, (measureFrom - System.nanoTime()) / 1_000_000));
+            measuring = true;
+        }
+        printResults();
+    }
+
+    /**
+     * One simulated client: random operations back to back until the end time
+     */
+    private void client(SplittableRandom random, long end) {
+        while (System.nanoTime() < end) {
+            Operation op = pick(random);
+            long begin = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(op, random);
+            } catch (IOException | RuntimeException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (measuring && System.nanoTime() < end) {
+                latencies.get(op).record(System.nanoTime() - begin);
+                if (!ok) {
+                    errors.get(op).increment();
+                }
+            }
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        double r = random.nextDouble();
+        if (r < writeRatio) {
+            return Operation.MARK_ATTENDANCE;
+        }
+        double read = (r - writeRatio) / (1 - writeRatio);
+        return read < 0.4 ? Operation.STUDENT_REPORT : read < 0.6 ? Operation.LIST_SUBJECTS : Operation.LOAD_ATTENDANCE;
+    }
+
+    private boolean execute(Operation op, SplittableRandom random) throws IOException, InterruptedException {
+        int studentId = studentIds.get(random.nextInt(studentIds.size()));
+        int subjectId = subjectIds.get(random.nextInt(subjectIds.size()));
+        int semester = 1 + random.nextInt(8);
+        LocalDate date = lastDate.minusDays(random.nextInt(DATE_SPAN_DAYS));
+        boolean http = httpClient != null;
+        switch (op) {
+            case STUDENT_REPORT:
+                return http ? send(request("/reports/student/" + studentId).GET())
+                        : service.getStudentAttendanceReport(studentId) != null;
+            case LIST_SUBJECTS:
+                return http ? send(request("/subjects?semester=" + semester).GET())
+                        : subjectDAO.getSubjectsBySemester(semester) != null;
+            case LOAD_ATTENDANCE:
+                return http ? send(request("/attendance?subjectId=" + subjectId + "&date=" + date).GET())
+                        : attendanceDAO.getAttendanceBySubjectAndDate(subjectId, date) != null;
+            default: {
+                AttendanceRoster records = new AttendanceRoster(MARKED_STUDENTS);
+                for (int i = 0; i < MARKED_STUDENTS; i++) {
+                    int marked = studentIds.get(random.nextInt(studentIds.size()));
+                    if (records.indexOf(marked) < 0) {
+                        records.add(marked, random.nextInt(10) < 8 ? AttendanceRoster.PRESENT : AttendanceRoster.ABSENT);
+                    }
+                }
+                if (!http) {
+                    return service.markAttendance(subjectId, date, records);
+                }
+                StringBuilder body = new StringBuilder("{\"subjectId\":").append(subjectId)
+                        .append(",\"date\":\"").append(date).append("\",\"records\":{");
+                for (int i = 0; i < records.size(); i++) {
+                    body.append(i == 0 ? "" : ",").append('"').append(records.getStudentId(i)).append("\":\"")
+                        .append(AttendanceRoster.statusName(records.getStatus(i))).append('"');
+                }
+                body.append("}}");
+                return send(request("/attendance")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+            }
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private boolean send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode() < 400;
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static List<Integer> idsFrom(String json, String member) {
+        List<Integer> ids = new ArrayList<>();
+        for (Object item : (List<?>) JsonReader.parse(json)) {
+            ids.add(((Long) ((Map<?, ?>) item).get(member)).intValue());
+        }
+        return ids;
+    }
+
+    private void printResults() {
+        System.out.println();
+        System.out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "Max ms");
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Operation op : Operation.values()) {
+            LatencyHistogram h = latencies.get(op);
+            long count = h.getCount();
+            long failed = errors.get(op).sum();
+            totalRequests += count;
+            totalErrors += failed;
+            System.out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", op, count, failed,
+                    count / (double) durationSeconds, h.getPercentileNanos(50) / 1e6, h.getPercentileNanos(90) / 1e6,
+                    h.getPercentileNanos(99) / 1e6, h.getMaxNanos() / 1e6);
+        }
+        System.out.printf("%nTotal: %d requests, %.1f req/s, %d errors%n",
+                totalRequests, totalRequests / (double) durationSeconds, totalErrors);
+    }
+}
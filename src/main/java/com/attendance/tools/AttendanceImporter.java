@@ -0,0 +1,548 @@
+package com.attendance.tools;
+
+import com.attendance.dao.AttendanceImportWriter;
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.AttendanceStatus;
+import com.attendance.model.Student;
+import com.attendance.model.Subject;
+import com.attendance.model.Term;
+import com.attendance.service.AttendanceService;
+import com.attendance.util.ByteKeyIndex;
+import com.attendance.util.MappedCsvReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Headless import of attendance sheets exported to CSV, e.g. a whole term kept in
+ * spreadsheets or another system.
+ *
+ * The file needs a header row with Roll No, Subject Code, Date (yyyy-MM-dd) and
+ * Status (a label such as Present or On Duty, or its code) columns, in any order and
+ * within its first 10 lines, so the application's own date range exports can be
+ * imported again. A row that already exists for the student, subject and date gets
+ * the imported status.
+ *
+ * The file is memory-mapped and parsed on the calling thread without decoding
+ * fields into Strings: roll numbers, subject codes and statuses are resolved
+ * through in-memory indexes loaded once. Parsed rows go in batches through a small
+ * bounded queue to a writer thread that upserts each batch in one transaction, so
+ * parsing overlaps with the database work. Rows that cannot be imported are written
+ * to a reject file with their line number and reason.
+ *
+ * After every committed batch the writer saves a checkpoint next to the input. If
+ * the import stops, running the same command again continues after the last
+ * committed batch; --restart starts over.
+ *
+ * Example:
+ *   java -jar attendance-management-system-1.0.0-jar-with-dependencies.jar --import-attendance \
+ *        --file term1_attendance.csv
+ */
+public class AttendanceImporter {
+    private static final int QUEUE_DEPTH = 4;
+    private static final int HEADER_SEARCH_LINES = 10;
+    private static final long PROGRESS_NANOS = 2_000_000_000L;
+
+    private static final byte[] UNKNOWN_STUDENT = reason("Unknown roll number");
+    private static final byte[] UNKNOWN_SUBJECT = reason("Unknown subject code");
+    private static final byte[] INVALID_DATE = reason("Invalid date");
+    private static final byte[] INVALID_STATUS = reason("Invalid status");
+    private static final byte[] ARCHIVED_DATE = reason("Date is in an archived term");
+
+    // Parameters
+    private Path inputFile;
+    private Path rejectFile;
+    private Path checkpointFile;
+    private int batchSize = 5000;
+    private boolean restart;
+
+    // Lookups loaded before parsing
+    private ByteKeyIndex studentIndex;
+    private ByteKeyIndex subjectIndex;
+    private ByteKeyIndex statusIndex;
+    private long[] archivedFrom;
+    private long[] archivedTo;
+
+    // Columns of the input
+    private int rollColumn;
+    private int subjectColumn;
+    private int dateColumn;
+    private int statusColumn;
+
+    private final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+    private final BlockingQueue<Batch> full = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+    private volatile Exception failure;
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        AttendanceImporter importer = new AttendanceImporter();
+        try {
+            importer.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            boolean ok = importer.run();
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(ok ? 0 : 1);
+        } catch (IOException | SQLException | InterruptedException e) {
+            System.err.println("Error importing attendance: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main --import-attendance --file FILE [options]");
+        System.err.println("  --file FILE                    CSV with Roll No, Subject Code, Date and Status columns");
+        System.err.println("  --rejects FILE                 rows that could not be imported (default FILE.rejects.csv)");
+        System.err.println("  --checkpoint FILE              restart point (default FILE.checkpoint)");
+        System.err.println("  --batch N                      rows per transaction (default 5000)");
+        System.err.println("  --restart                      ignore an existing checkpoint and start over");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--restart")) {
+                restart = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--file": inputFile = Path.of(value); break;
+                    case "--rejects": rejectFile = Path.of(value); break;
+                    case "--checkpoint": checkpointFile = Path.of(value); break;
+                    case "--batch":
+                        batchSize = Integer.parseInt(value);
+                        if (batchSize <= 0) {
+                            throw new IllegalArgumentException("--batch must be positive");
+                        }
+                        break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (inputFile == null) {
+            throw new IllegalArgumentException("--file is required");
+        }
+        if (rejectFile == null) {
+            rejectFile = Path.of(inputFile + ".rejects.csv");
+        }
+        if (checkpointFile == null) {
+            checkpointFile = Path.of(inputFile + ".checkpoint");
+        }
+    }
+
+    /**
+     * Import the file, returning false if the import stopped before the end
+     */
+    boolean run() throws IOException, SQLException, InterruptedException {
+        if (!Files.isRegularFile(inputFile)) {
+            System.err.println("No such file: " + inputFile);
+            return false;
+        }
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.fileSize = Files.size(inputFile);
+        checkpoint.lastModified = Files.getLastModifiedTime(inputFile).toMillis();
+        boolean resuming = !restart && Files.exists(checkpointFile);
+        if (resuming) {
+            Checkpoint saved = Checkpoint.read(checkpointFile);
+            if (saved.fileSize != checkpoint.fileSize || saved.lastModified != checkpoint.lastModified) {
+                System.err.println(inputFile + " changed since the checkpoint in " + checkpointFile
+                        + "; use --restart to import it from the beginning");
+                return false;
+            }
+            checkpoint = saved;
+            System.out.printf("Resuming at line %d: %d rows read, %d imported, %d rejected so far%n",
+                    checkpoint.line, checkpoint.rowsRead, checkpoint.imported, checkpoint.rejected);
+        }
+
+        long start = System.nanoTime();
+        loadIndexes();
+        System.out.printf("Loaded %d students, %d subjects and %d archived terms in %d ms%n",
+                studentIndex.size(), subjectIndex.size(), archivedFrom.length, (System.nanoTime() - start) / 1_000_000);
+
+        try (MappedCsvReader reader = new MappedCsvReader(inputFile);
+             FileChannel rejects = FileChannel.open(rejectFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             AttendanceImportWriter writer = new AttendanceImportWriter()) {
+
+            byte[] header = findHeader(reader);
+            if (header == null) {
+                System.err.println("No header row with Roll No, Subject Code, Date and Status columns in the first "
+                        + HEADER_SEARCH_LINES + " lines of " + inputFile);
+                return false;
+            }
+            if (resuming) {
+                reader.seek(checkpoint.offset, checkpoint.line);
+                rejects.truncate(checkpoint.rejectBytes);
+                rejects.position(checkpoint.rejectBytes);
+            } else {
+                rejects.truncate(0);
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                line.write("Line,Error,".getBytes(StandardCharsets.UTF_8));
+                line.write(header);
+                line.write('\n');
+                rejects.write(ByteBuffer.wrap(line.toByteArray()));
+                checkpoint.rejectBytes = rejects.position();
+                checkpoint.offset = reader.getRecordEnd();
+                checkpoint.line = reader.getNextLine();
+            }
+
+            for (int i = 0; i < QUEUE_DEPTH; i++) {
+                free.add(new Batch(batchSize));
+            }
+            long resumedRows = checkpoint.rowsRead;
+            Checkpoint progress = checkpoint;
+            Thread writerThread = new Thread(() -> writeBatches(writer, rejects, progress, reader.getFileSize()),
+                    "attendance-import-writer");
+            writerThread.start();
+            try {
+                parse(reader);
+            } finally {
+                full.put(Batch.END);
+                writerThread.join();
+            }
+
+            long elapsed = System.nanoTime() - start;
+            if (failure != null) {
+                System.err.println("Import stopped: "
+                        + (failure.getMessage() != null ? failure.getMessage() : failure));
+                System.err.printf("Rows before line %d are imported; run the same command again to continue%n",
+                        checkpoint.line);
+                return false;
+            }
+            System.out.printf("%nImported %d of %d rows, %d rejected; this run took %.1f s (%.0f rows/s)%n",
+                    checkpoint.imported, checkpoint.rowsRead, checkpoint.rejected, elapsed / 1e9,
+                    (checkpoint.rowsRead - resumedRows) / (elapsed / 1e9));
+        }
+
+        Files.deleteIfExists(checkpointFile);
+        if (checkpoint.rejected == 0) {
+            Files.deleteIfExists(rejectFile);
+        } else {
+            System.out.println("Rejected rows were written to " + rejectFile);
+        }
+        return true;
+    }
+
+    /**
+     * Load roll numbers, subject codes, statuses and archived terms with one query each
+     */
+    private void loadIndexes() {
+        AttendanceService service = new AttendanceService();
+        List<Student> students = service.getAllStudents();
+        studentIndex = new ByteKeyIndex(students.size(), false);
+        for (Student student : students) {
+            studentIndex.put(student.getRollNo(), student.getStudentId());
+        }
+        List<Subject> subjects = service.getAllSubjects();
+        subjectIndex = new ByteKeyIndex(subjects.size(), false);
+        for (Subject subject : subjects) {
+            subjectIndex.put(subject.getSubjectCode(), subject.getSubjectId());
+        }
+        AttendanceStatus[] statuses = AttendanceStatus.values();
+        statusIndex = new ByteKeyIndex(statuses.length * 2, true);
+        for (AttendanceStatus status : statuses) {
+            statusIndex.put(status.getLabel(), status.getCode());
+            statusIndex.put(String.valueOf(status.getCode()), status.getCode());
+        }
+
+        List<Term> archived = new ArrayList<>();
+        for (Term term : service.getAllTerms()) {
+            if (term.isArchived()) {
+                archived.add(term);
+            }
+        }
+        archivedFrom = new long[archived.size()];
+        archivedTo = new long[archived.size()];
+        for (int i = 0; i < archived.size(); i++) {
+            archivedFrom[i] = archived.get(i).getStartDate().toEpochDay();
+            archivedTo[i] = archived.get(i).getEndDate().toEpochDay();
+        }
+    }
+
+    /**
+     * Find the header row among the first lines and remember its columns
+     * @return the header row's bytes for the reject file, or null if there is none
+     */
+    private byte[] findHeader(MappedCsvReader reader) throws IOException {
+        while (reader.nextRecord() && reader.getRecordLine() <= HEADER_SEARCH_LINES) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < reader.getFieldCount(); i++) {
+                columns.putIfAbsent(columnKey(reader.getString(i)), i);
+            }
+            if (columns.containsKey("rollno") && columns.containsKey("subjectcode")
+                    && columns.containsKey("date") && columns.containsKey("status")) {
+                rollColumn = columns.get("rollno");
+                subjectColumn = columns.get("subjectcode");
+                dateColumn = columns.get("date");
+                statusColumn = columns.get("status");
+                ByteArrayOutputStream header = new ByteArrayOutputStream();
+                reader.copyRecord(header);
+                return header.toByteArray();
+            }
+        }
+        return null;
+    }
+
+    private static String columnKey(String header) {
+        return header.trim().replace(" ", "").replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Producer: parse records into batches and hand full ones to the writer
+     */
+    private void parse(MappedCsvReader reader) throws IOException, InterruptedException {
+        Batch batch = free.take();
+        while (failure == null && reader.nextRecord()) {
+            if (!reader.isBlankRecord()) {
+                parseRow(reader, batch);
+            }
+            batch.endOffset = reader.getRecordEnd();
+            batch.nextLine = reader.getNextLine();
+            if (batch.rowsRead == batchSize) {
+                full.put(batch);
+                batch = free.take();
+            }
+        }
+        if (batch.rowsRead > 0) {
+            full.put(batch);
+        }
+    }
+
+    private void parseRow(MappedCsvReader reader, Batch batch) throws IOException {
+        batch.rowsRead++;
+        int studentId = reader.lookup(rollColumn, studentIndex);
+        if (studentId == ByteKeyIndex.MISSING) {
+            batch.reject(reader, UNKNOWN_STUDENT);
+            return;
+        }
+        int subjectId = reader.lookup(subjectColumn, subjectIndex);
+        if (subjectId == ByteKeyIndex.MISSING) {
+            batch.reject(reader, UNKNOWN_SUBJECT);
+            return;
+        }
+        long day = reader.parseDate(dateColumn);
+        if (day == Long.MIN_VALUE) {
+            batch.reject(reader, INVALID_DATE);
+            return;
+        }
+        int status = reader.lookup(statusColumn, statusIndex);
+        if (status == ByteKeyIndex.MISSING) {
+            batch.reject(reader, INVALID_STATUS);
+            return;
+        }
+        for (int i = 0; i < archivedFrom.length; i++) {
+            if (day >= archivedFrom[i] && day <= archivedTo[i]) {
+                batch.reject(reader, ARCHIVED_DATE);
+                return;
+            }
+        }
+        int n = batch.count++;
+        batch.studentIds[n] = studentId;
+        batch.subjectIds[n] = subjectId;
+        batch.epochDays[n] = day;
+        batch.statuses[n] = (byte) status;
+    }
+
+    /**
+     * Consumer: upsert each batch, append its rejects and save the checkpoint.
+     * After a failure the remaining batches are drained unwritten, so the producer
+     * never blocks.
+     */
+    private void writeBatches(AttendanceImportWriter writer, FileChannel rejects, Checkpoint checkpoint,
+                              long fileSize) {
+        long lastProgress = System.nanoTime();
+        OutputStream rejectOut = Channels.newOutputStream(rejects);
+        try {
+            while (true) {
+                Batch batch = full.take();
+                if (batch == Batch.END) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        writer.write(batch.studentIds, batch.subjectIds, batch.epochDays, batch.statuses, batch.count);
+                        if (batch.rejected > 0) {
+                            batch.rejects.writeTo(rejectOut);
+                            rejects.force(false);
+                        }
+                        checkpoint.offset = batch.endOffset;
+                        checkpoint.line = batch.nextLine;
+                        checkpoint.rowsRead += batch.rowsRead;
+                        checkpoint.imported += batch.count;
+                        checkpoint.rejected += batch.rejected;
+                        checkpoint.rejectBytes = rejects.position();
+                        checkpoint.write(checkpointFile);
+                    } catch (SQLException | IOException | RuntimeException e) {
+                        // Any failure, so the parser is released and the last checkpoint stands
+                        failure = e;
+                    }
+                    if (System.nanoTime() - lastProgress > PROGRESS_NANOS) {
+                        lastProgress = System.nanoTime();
+                        System.out.printf("  %d rows (%.1f%%), %d imported, %d rejected%n", checkpoint.rowsRead,
+                                checkpoint.offset * 100.0 / Math.max(fileSize, 1), checkpoint.imported,
+                                checkpoint.rejected);
+                    }
+                }
+                batch.clear();
+                free.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        }
+    }
+
+    private static byte[] reason(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parsed rows of one transaction, as parallel arrays reused from batch to batch
+     */
+    private static final class Batch {
+        static final Batch END = new Batch(0);
+
+        final int[] studentIds;
+        final int[] subjectIds;
+        final long[] epochDays;
+        final byte[] statuses;
+        final ByteArrayOutputStream rejects = new ByteArrayOutputStream();
+        int count;
+        int rowsRead;
+        int rejected;
+        // Where the input continues after this batch
+        long endOffset;
+        long nextLine;
+
+        Batch(int size) {
+            studentIds = new int[size];
+            subjectIds = new int[size];
+            epochDays = new long[size];
+            statuses = new byte[size];
+        }
+
+        /**
+         * Add the current record to the reject file contents: line, reason, original row
+         */
+        void reject(MappedCsvReader reader, byte[] reason) throws IOException {
+            rejected++;
+            rejects.write(Long.toString(reader.getRecordLine()).getBytes(StandardCharsets.US_ASCII));
+            rejects.write(',');
+            rejects.write(reason);
+            rejects.write(',');
+            reader.copyRecord(rejects);
+            rejects.write('\n');
+        }
+
+        void clear() {
+            count = 0;
+            rowsRead = 0;
+            rejected = 0;
+            rejects.reset();
+        }
+    }
+
+    /**
+     * How far an import got, saved after every committed batch. The input's size and
+     * modification time tell whether a checkpoint belongs to the file being imported.
+     */
+    static final class Checkpoint {
+        long fileSize;
+        long lastModified;
+        long offset;
+        long line;
+        long rowsRead;
+        long imported;
+        long rejected;
+        long rejectBytes;
+
+        static Checkpoint read(Path file) throws IOException {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            Checkpoint checkpoint = new Checkpoint();
+            try {
+                checkpoint.fileSize = Long.parseLong(properties.getProperty("file.size"));
+                checkpoint.lastModified = Long.parseLong(properties.getProperty("file.modified"));
+                checkpoint.offset = Long.parseLong(properties.getProperty("offset"));
+                checkpoint.line = Long.parseLong(properties.getProperty("line"));
+                checkpoint.rowsRead = Long.parseLong(properties.getProperty("rows.read"));
+                checkpoint.imported = Long.parseLong(properties.getProperty("rows.imported"));
+                checkpoint.rejected = Long.parseLong(properties.getProperty("rows.rejected"));
+                checkpoint.rejectBytes = Long.parseLong(properties.getProperty("rejects.bytes"));
+            } catch (NumberFormatException e) {
+                throw new IOException("Unreadable checkpoint " + file + "; use --restart", e);
+            }
+            return checkpoint;
+        }
+
+        /**
+         * Write to a temporary file, flush it to disk and move it over the previous
+         * checkpoint, so a crash leaves either the old or the new checkpoint
+         */
+        void write(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("file.size", Long.toString(fileSize));
+            properties.setProperty("file.modified", Long.toString(lastModified));
+            properties.setProperty("offset", Long.toString(offset));
+            properties.setProperty("line", Long.toString(line));
+            properties.setProperty("rows.read", Long.toString(rowsRead));
+            properties.setProperty("rows.imported", Long.toString(imported));
+            properties.setProperty("rows.rejected", Long.toString(rejected));
+            properties.setProperty("rejects.bytes", Long.toString(rejectBytes));
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                properties.store(Channels.newOutputStream(channel), "Attendance import checkpoint");
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // The rename itself is only durable once the directory is flushed
+            try (FileChannel dir = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException e) {
+                // Not every platform can open a directory
+            }
+        }
+    }
+}
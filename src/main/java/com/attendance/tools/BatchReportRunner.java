@@ -0,0 +1,275 @@
+package com.attendance.tools;
+
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.ReportResult;
+import com.attendance.model.Student;
+import com.attendance.model.Subject;
+import com.attendance.service.AttendanceService;
+import com.attendance.util.CsvExporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Headless bulk report run, e.g. for a nightly job.
+ *
+ * Generates a CSV report for every student and every subject, the overall summary and
+ * a date range export through AttendanceService and CsvExporter, the same code paths
+ * the Reports panel uses. Each report runs on its own virtual thread; a semaphore
+ * bounds how many run at once to the database connection pool size, so the workers
+ * share the pooled connections instead of opening their own.
+ *
+ * Output layout:
+ *   DIR/students/ROLLNO.csv, DIR/subjects/CODE.csv, DIR/overall_summary.csv,
+ *   DIR/attendance_FROM_to_TO.csv
+ *
+ * Example:
+ *   java -jar attendance-management-system-1.0.0-jar-with-dependencies.jar --batch --out reports/nightly
+ */
+public class BatchReportRunner {
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * Report kinds that can be selected with --reports
+     */
+    enum Kind {
+        STUDENT, SUBJECT, OVERALL, RANGE
+    }
+
+    // Parameters
+    private Path outputDir = Path.of("reports", LocalDate.now().toString());
+    private Set<Kind> kinds = EnumSet.allOf(Kind.class);
+    private LocalDate toDate = LocalDate.now();
+    private LocalDate fromDate = toDate.minusDays(30);
+    private int concurrency;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final LongAdder failures = new LongAdder();
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        BatchReportRunner runner = new BatchReportRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            boolean ok = runner.run();
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(ok ? 0 : 1);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error running batch reports: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main --batch [options]");
+        System.err.println("  --out DIR                      output directory (default reports/<today>)");
+        System.err.println("  --reports student,subject,overall,range   reports to generate (default all)");
+        System.err.println("  --from yyyy-MM-dd              date range export start (default 30 days ago)");
+        System.err.println("  --to yyyy-MM-dd                date range export end (default today)");
+        System.err.println("  --concurrency N                reports generated at once (default db.pool.size)");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--out": outputDir = Path.of(value); break;
+                    case "--reports": kinds = parseKinds(value); break;
+                    case "--from": fromDate = LocalDate.parse(value); break;
+                    case "--to": toDate = LocalDate.parse(value); break;
+                    case "--concurrency":
+                        concurrency = Integer.parseInt(value);
+                        if (concurrency <= 0) {
+                            throw new IllegalArgumentException("--concurrency must be positive");
+                        }
+                        break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("--from must not be after --to");
+        }
+    }
+
+    private static Set<Kind> parseKinds(String value) {
+        Set<Kind> result = EnumSet.noneOf(Kind.class);
+        for (String name : value.split(",")) {
+            try {
+                result.add(Kind.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown report: " + name.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generate all selected reports, returning false if any failed
+     */
+    boolean run() throws IOException, InterruptedException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        int workers = concurrency > 0 ? concurrency : db.getPoolSize();
+        AttendanceService service = new AttendanceService();
+
+        long start = System.nanoTime();
+        List<Student> students = kinds.contains(Kind.STUDENT) ? service.getAllStudents() : List.of();
+        List<Subject> subjects = kinds.contains(Kind.SUBJECT) ? service.getAllSubjects() : List.of();
+        Files.createDirectories(outputDir);
+        if (!students.isEmpty()) {
+            Files.createDirectories(outputDir.resolve("students"));
+        }
+        if (!subjects.isEmpty()) {
+            Files.createDirectories(outputDir.resolve("subjects"));
+        }
+        int total = students.size() + subjects.size()
+                + (kinds.contains(Kind.OVERALL) ? 1 : 0) + (kinds.contains(Kind.RANGE) ? 1 : 0);
+        System.out.printf("Generating %d reports into %s with %d workers (%s)%n",
+                total, outputDir.toAbsolutePath(), workers, db.getDialect());
+
+        List<KindStats> stats = new ArrayList<>();
+        Semaphore permits = new Semaphore(workers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // The single long-running reports first so they overlap with the per-entity ones
+            if (kinds.contains(Kind.RANGE)) {
+                KindStats range = new KindStats("Date range");
+                stats.add(range);
+                String path = outputDir.resolve("attendance_" + fromDate + "_to_" + toDate + ".csv").toString();
+                submit(executor, permits, range, total,
+                        () -> service.exportAttendanceByDateRange(path, fromDate, toDate, null));
+            }
+            if (kinds.contains(Kind.OVERALL)) {
+                KindStats overall = new KindStats("Overall summary");
+                stats.add(overall);
+                String path = outputDir.resolve("overall_summary.csv").toString();
+                submit(executor, permits, overall, total,
+                        () -> export(path, service.generateOverallSummary()));
+            }
+            if (!subjects.isEmpty()) {
+                KindStats subjectStats = new KindStats("Subject");
+                stats.add(subjectStats);
+                for (Subject subject : subjects) {
+                    String path = outputDir.resolve("subjects")
+                            .resolve(CsvExporter.fileName(subject.getSubjectCode(), subject.getSubjectId())).toString();
+                    submit(executor, permits, subjectStats, total,
+                            () -> export(path, service.generateSubjectReport(subject)));
+                }
+            }
+            if (!students.isEmpty()) {
+                KindStats studentStats = new KindStats("Student");
+                stats.add(studentStats);
+                for (Student student : students) {
+                    String path = outputDir.resolve("students")
+                            .resolve(CsvExporter.fileName(student.getRollNo(), student.getStudentId())).toString();
+                    submit(executor, permits, studentStats, total,
+                            () -> export(path, service.generateStudentReport(student)));
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.printf("%-16s %8s %8s %12s %12s %10s%n", "Report", "Files", "Failed", "Rows", "Busy (s)", "Files/s");
+        for (KindStats s : stats) {
+            double busySeconds = s.busyNanos.sum() / 1e9;
+            System.out.printf("%-16s %8d %8d %12d %12.1f %10.1f%n", s.name, s.files.sum(), s.failed.sum(),
+                    s.rows.sum(), busySeconds, s.files.sum() / (elapsed / 1e9));
+        }
+        System.out.printf("%nTotal: %d reports in %.1f s (%.1f reports/s), %d failed%n",
+                completed.get(), elapsed / 1e9, completed.get() / (elapsed / 1e9), failures.sum());
+        return failures.sum() == 0;
+    }
+
+    /**
+     * Run one report on a virtual thread once a worker permit is free.
+     * The supplier returns the rows written, or -1 on failure.
+     */
+    private void submit(ExecutorService executor, Semaphore permits, KindStats stats, int total,
+                        Supplier<Long> report) {
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long begin = System.nanoTime();
+            long rows;
+            try {
+                rows = report.get();
+            } catch (RuntimeException e) {
+                System.err.println("Error generating " + stats.name.toLowerCase(Locale.ROOT) + " report: " + e);
+                rows = -1;
+            } finally {
+                permits.release();
+            }
+            stats.busyNanos.add(System.nanoTime() - begin);
+            if (rows < 0) {
+                stats.failed.increment();
+                failures.increment();
+            } else {
+                stats.files.increment();
+                stats.rows.add(rows);
+            }
+            long done = completed.incrementAndGet();
+            if (done % PROGRESS_INTERVAL == 0) {
+                System.out.printf("  %d / %d reports%n", done, total);
+            }
+        });
+    }
+
+    private static long export(String path, ReportResult<?> report) {
+        return CsvExporter.exportReport(path, report) ? report.getRows().size() : -1;
+    }
+
+    /**
+     * Counters of one report kind
+     */
+    private static final class KindStats {
+        final String name;
+        final LongAdder files = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+
+        KindStats(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,695 @@
+package com.attendance.tools;
+
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.AttendanceStatus;
+import com.attendance.util.CsvWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Command line tool that generates institution-scale synthetic data for load testing.
+ *
+ * Students are spread over departments, semesters (1-8) and classes; every department
+ * offers a fixed number of subjects per semester and each student attends the subjects
+ * of their own department and semester on the teaching days those subjects meet.
+ * Absences follow a per-student propensity with a chronic-absentee tail and multi-day
+ * absence streaks. The same seed always produces the same data.
+ *
+ * Output formats:
+ *   sql  - students.sql, subjects.sql, attendance.sql with multi-row INSERTs, plus load.sql
+ *   csv  - students.csv, subjects.csv, attendance.csv for LOAD DATA, plus load.sql
+ *   jdbc - inserted directly through the database configured in config.properties
+ *
+ * Example:
+ *   java -cp attendance-management-system-1.0.0-jar-with-dependencies.jar \
+ *        com.attendance.tools.DatasetGenerator --students 40000 --days 180 --format csv --out data
+ */
+public class DatasetGenerator {
+    private static final String[][] KNOWN_DEPARTMENTS = {
+            {"CS", "Computer Science"},
+            {"EC", "Electronics & Communication"},
+            {"ME", "Mechanical Engineering"},
+            {"CE", "Civil Engineering"},
+            {"EE", "Electrical Engineering"},
+            {"IT", "Information Technology"},
+            {"CH", "Chemical Engineering"},
+            {"BT", "Biotechnology"},
+            {"AE", "Aerospace Engineering"},
+            {"PE", "Production Engineering"}
+    };
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Aditya", "Akash", "Amit", "Ananya", "Arjun", "Aryan", "Ayush", "Deepak", "Dev",
+            "Divya", "Harsh", "Ishaan", "Karan", "Kavya", "Krishna", "Meera", "Naina", "Pooja", "Priya",
+            "Rahul", "Rajesh", "Riya", "Rohan", "Sneha", "Sanjay", "Shweta", "Tanvi", "Varun", "Vikram",
+            "Anjali", "Bhavya", "Chetan", "Dhruv", "Gaurav", "Komal", "Lakshmi", "Manish", "Neha", "Nikhil"
+    };
+    private static final String[] LAST_NAMES = {
+            "Kumar", "Singh", "Sharma", "Patel", "Reddy", "Verma", "Gupta", "Mehta", "Rao", "Joshi",
+            "Nair", "Desai", "Kapoor", "Malhotra", "Iyer", "Menon", "Bhat", "Pillai", "Shah", "Krishnan",
+            "Saxena", "Agarwal", "Shetty", "Kulkarni", "Pandey", "Mishra", "Jain", "Choudhary", "Bansal", "Tiwari"
+    };
+    private static final String[] COURSE_TOPICS = {
+            "Mathematics", "Fundamentals", "Design", "Systems", "Analysis", "Laboratory",
+            "Theory", "Applications", "Methods", "Project"
+    };
+
+    private static final int SEMESTERS = 8;
+    // Share of a student's absences that are whole days off; the rest are single skipped classes
+    private static final double DAY_ABSENCE_SHARE = 0.7;
+    private static final int PROGRESS_INTERVAL = 5_000_000;
+    // Status codes as written to the files
+    private static final String PRESENT = Byte.toString(AttendanceStatus.PRESENT.getCode());
+    private static final String ABSENT = Byte.toString(AttendanceStatus.ABSENT.getCode());
+
+    // Parameters
+    private int studentCount = 5000;
+    private int departmentCount = 5;
+    private int classesPerSemester = 2;
+    private int subjectsPerSemester = 6;
+    private int teachingDays = 120;
+    private int meetingsPerWeek = 3;
+    private LocalDate startDate = LocalDate.of(2025, 7, 1);
+    private double absenceRate = 0.12;
+    private double chronicShare = 0.05;
+    private double chronicRate = 0.45;
+    private double streakContinuation = 0.35;
+    private long seed = 42L;
+    private String format = "csv";
+    private Path outputDir = Path.of("generated-data");
+    private int rowsPerInsert = 1000;
+    private boolean replace;
+
+    // Derived model
+    private String[] departmentCodes;
+    private String[] departmentNames;
+    private LocalDate[] days;
+    private int[] studentDepartment;
+    private int[] studentSemester;
+    private double[] studentAbsenceRate;
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        DatasetGenerator generator = new DatasetGenerator();
+        try {
+            generator.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            generator.generate();
+        } catch (IOException | SQLException e) {
+            System.err.println("Error generating dataset: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: DatasetGenerator [options]");
+        System.err.println("  --students N                total students (default 5000)");
+        System.err.println("  --departments N             departments (default 5)");
+        System.err.println("  --classes N                 classes per department and semester (default 2)");
+        System.err.println("  --subjects-per-semester N   subjects per department and semester (default 6)");
+        System.err.println("  --days N                    teaching days, weekdays only (default 120)");
+        System.err.println("  --meetings-per-week N       classes per subject per week, 1-5 (default 3)");
+        System.err.println("  --start yyyy-MM-dd          first calendar day (default 2025-07-01)");
+        System.err.println("  --absence-rate R            mean absence rate of regular students (default 0.12)");
+        System.err.println("  --chronic-share R           share of chronically absent students (default 0.05)");
+        System.err.println("  --chronic-rate R            absence rate of chronic absentees (default 0.45)");
+        System.err.println("  --streak R                  chance a day off continues the next day (default 0.35)");
+        System.err.println("  --seed N                    random seed (default 42)");
+        System.err.println("  --format sql|csv|jdbc       output format (default csv)");
+        System.err.println("  --out DIR                   output directory for sql/csv (default generated-data)");
+        System.err.println("  --rows-per-insert N         rows per multi-row INSERT (default 1000)");
+        System.err.println("  --replace                   jdbc only: delete existing students, subjects and attendance");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--replace")) {
+                replace = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--students": studentCount = positive(option, Integer.parseInt(value)); break;
+                    case "--departments": departmentCount = positive(option, Integer.parseInt(value)); break;
+                    case "--classes": classesPerSemester = positive(option, Integer.parseInt(value)); break;
+                    case "--subjects-per-semester": subjectsPerSemester = positive(option, Integer.parseInt(value)); break;
+                    case "--days": teachingDays = positive(option, Integer.parseInt(value)); break;
+                    case "--meetings-per-week": meetingsPerWeek = positive(option, Integer.parseInt(value)); break;
+                    case "--start": startDate = LocalDate.parse(value); break;
+                    case "--absence-rate": absenceRate = probability(option, Double.parseDouble(value)); break;
+                    case "--chronic-share": chronicShare = probability(option, Double.parseDouble(value)); break;
+                    case "--chronic-rate": chronicRate = probability(option, Double.parseDouble(value)); break;
+                    case "--streak": streakContinuation = probability(option, Double.parseDouble(value)); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--format": format = value.toLowerCase(Locale.ROOT); break;
+                    case "--out": outputDir = Path.of(value); break;
+                    case "--rows-per-insert": rowsPerInsert = positive(option, Integer.parseInt(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (meetingsPerWeek > 5) {
+            throw new IllegalArgumentException("--meetings-per-week must be between 1 and 5");
+        }
+        if (!format.equals("sql") && !format.equals("csv") && !format.equals("jdbc")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    private static int positive(String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        return value;
+    }
+
+    private static double probability(String option, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException(option + " must be between 0 and 1");
+        }
+        return value;
+    }
+
+    /**
+     * Build the model and write every table through the selected sink
+     */
+    void generate() throws IOException, SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        buildModel(random);
+
+        long estimate = (long) studentCount * subjectsPerSemester * teachingDays * meetingsPerWeek / 5;
+        System.out.printf("Generating %,d students, %,d subjects, ~%,d attendance rows as %s%n",
+                studentCount, subjectCount(), estimate, format);
+
+        long started = System.nanoTime();
+        long rows;
+        try (DatasetSink sink = openSink()) {
+            writeSubjects(sink);
+            writeStudents(sink, random);
+            rows = writeAttendance(sink, random);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Wrote %,d attendance rows in %.1f s (%,.0f rows/s)%n", rows, seconds, rows / seconds);
+    }
+
+    private DatasetSink openSink() throws IOException, SQLException {
+        switch (format) {
+            case "sql":
+                return new SqlFileSink(outputDir, rowsPerInsert);
+            case "jdbc":
+                return new JdbcSink(rowsPerInsert, replace);
+            default:
+                return new CsvFileSink(outputDir);
+        }
+    }
+
+    private int subjectCount() {
+        return departmentCount * SEMESTERS * subjectsPerSemester;
+    }
+
+    private void buildModel(SplittableRandom random) {
+        departmentCodes = new String[departmentCount];
+        departmentNames = new String[departmentCount];
+        for (int d = 0; d < departmentCount; d++) {
+            if (d < KNOWN_DEPARTMENTS.length) {
+                departmentCodes[d] = KNOWN_DEPARTMENTS[d][0];
+                departmentNames[d] = KNOWN_DEPARTMENTS[d][1];
+            } else {
+                departmentCodes[d] = "D" + (d + 1);
+                departmentNames[d] = "Department " + (d + 1);
+            }
+        }
+
+        days = new LocalDate[teachingDays];
+        LocalDate day = startDate;
+        for (int i = 0; i < teachingDays; day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days[i++] = day;
+            }
+        }
+
+        studentDepartment = new int[studentCount];
+        studentSemester = new int[studentCount];
+        studentAbsenceRate = new double[studentCount];
+        for (int s = 0; s < studentCount; s++) {
+            // Round-robin over (department, semester) groups keeps group sizes even
+            int group = s % (departmentCount * SEMESTERS);
+            studentDepartment[s] = group / SEMESTERS;
+            studentSemester[s] = group % SEMESTERS + 1;
+            studentAbsenceRate[s] = random.nextDouble() < chronicShare
+                    ? chronicRate
+                    : Math.min(1.0, absenceRate * (0.25 + 1.5 * random.nextDouble()));
+        }
+    }
+
+    private void writeSubjects(DatasetSink sink) throws IOException, SQLException {
+        int id = 1;
+        for (int d = 0; d < departmentCount; d++) {
+            for (int semester = 1; semester <= SEMESTERS; semester++) {
+                for (int j = 0; j < subjectsPerSemester; j++) {
+                    String code = departmentCodes[d] + semester + String.format("%02d", j + 1);
+                    String name = departmentNames[d] + " " + COURSE_TOPICS[j % COURSE_TOPICS.length]
+                            + " " + semester + "." + (j + 1);
+                    sink.subject(id++, code, name, semester);
+                }
+            }
+        }
+    }
+
+    private void writeStudents(DatasetSink sink, SplittableRandom random) throws IOException, SQLException {
+        int[] sequence = new int[departmentCount];
+        for (int s = 0; s < studentCount; s++) {
+            int d = studentDepartment[s];
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String rollNo = departmentCodes[d] + String.format("%06d", ++sequence[d]);
+            // Classes split each (department, semester) group further
+            int groupIndex = s / (departmentCount * SEMESTERS);
+            String className = classLabel(groupIndex % classesPerSemester);
+            sink.student(s + 1, name, rollNo, departmentNames[d], studentSemester[s], className);
+        }
+    }
+
+    private static String classLabel(int index) {
+        return index < 26 ? String.valueOf((char) ('A' + index)) : "C" + (index + 1);
+    }
+
+    /**
+     * Day-major generation so rows arrive in the order a real register would be filled
+     */
+    private long writeAttendance(DatasetSink sink, SplittableRandom random) throws IOException, SQLException {
+        boolean[] absentYesterday = new boolean[studentCount];
+        long rows = 0;
+        long nextProgress = PROGRESS_INTERVAL;
+
+        for (int dayIndex = 0; dayIndex < days.length; dayIndex++) {
+            int weekday = days[dayIndex].getDayOfWeek().getValue() - 1;
+            for (int s = 0; s < studentCount; s++) {
+                double rate = studentAbsenceRate[s];
+                double dayOff = absentYesterday[s]
+                        ? Math.max(streakContinuation, rate * DAY_ABSENCE_SHARE)
+                        : rate * DAY_ABSENCE_SHARE;
+                boolean absentToday = random.nextDouble() < dayOff;
+                absentYesterday[s] = absentToday;
+
+                int firstSubject = (studentDepartment[s] * SEMESTERS + studentSemester[s] - 1) * subjectsPerSemester;
+                for (int j = 0; j < subjectsPerSemester; j++) {
+                    // Each subject meets on meetingsPerWeek of the five weekdays, staggered per subject
+                    if ((weekday + j) % 5 >= meetingsPerWeek) {
+                        continue;
+                    }
+                    boolean present = !absentToday && random.nextDouble() >= rate * (1 - DAY_ABSENCE_SHARE);
+                    sink.attendance(s, firstSubject + j, dayIndex, present);
+                    rows++;
+                }
+            }
+            if (rows >= nextProgress) {
+                System.out.printf("  %,d rows (%s)%n", rows, days[dayIndex]);
+                nextProgress = rows + PROGRESS_INTERVAL;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Destination for generated rows. Student, subject and day arguments to
+     * attendance() are zero-based indexes; ids are index + 1.
+     */
+    private interface DatasetSink extends AutoCloseable {
+        void subject(int subjectId, String code, String name, int semester) throws IOException, SQLException;
+
+        void student(int studentId, String name, String rollNo, String department, int semester,
+                     String className) throws IOException, SQLException;
+
+        void attendance(int studentIndex, int subjectIndex, int dayIndex, boolean present) throws IOException, SQLException;
+
+        @Override
+        void close() throws IOException, SQLException;
+    }
+
+    /**
+     * Pre-rendered text fragments for the attendance hot loop, so each row is
+     * four buffer appends and no formatting
+     */
+    private final class RowFragments {
+        final String[] student;
+        final String[] subject;
+        final String[] day;
+        final String present;
+        final String absent;
+
+        RowFragments(String studentFormat, String subjectFormat, String dayFormat, String present, String absent) {
+            student = new String[studentCount];
+            for (int i = 0; i < studentCount; i++) {
+                student[i] = String.format(studentFormat, i + 1);
+            }
+            subject = new String[subjectCount()];
+            for (int i = 0; i < subject.length; i++) {
+                subject[i] = String.format(subjectFormat, i + 1);
+            }
+            day = new String[days.length];
+            for (int i = 0; i < days.length; i++) {
+                day[i] = String.format(dayFormat, days[i]);
+            }
+            this.present = present;
+            this.absent = absent;
+        }
+    }
+
+    /**
+     * Plain CSV files for LOAD DATA plus a load.sql driver script
+     */
+    private final class CsvFileSink implements DatasetSink {
+        private final CsvWriter students;
+        private final CsvWriter subjects;
+        private final CsvWriter attendance;
+        private final RowFragments fragments;
+        private final Path dir;
+
+        CsvFileSink(Path dir) throws IOException {
+            this.dir = dir;
+            Files.createDirectories(dir);
+            students = CsvWriter.open(dir.resolve("students.csv").toString());
+            subjects = CsvWriter.open(dir.resolve("subjects.csv").toString());
+            attendance = CsvWriter.open(dir.resolve("attendance.csv").toString());
+            fragments = new RowFragments("%d,", "%d,", "%s,", PRESENT + "\n", ABSENT + "\n");
+        }
+
+        @Override
+        public void subject(int subjectId, String code, String name, int semester) throws IOException {
+            subjects.cell(subjectId).cell(code).cell(name).cell(semester).endRow();
+        }
+
+        @Override
+        public void student(int studentId, String name, String rollNo, String department, int semester,
+                            String className) throws IOException {
+            students.cell(studentId).cell(name).cell(rollNo).cell(department).cell(semester).cell(className).endRow();
+        }
+
+        @Override
+        public void attendance(int studentIndex, int subjectIndex, int dayIndex, boolean present) throws IOException {
+            attendance.raw(fragments.student[studentIndex])
+                      .raw(fragments.subject[subjectIndex])
+                      .raw(fragments.day[dayIndex])
+                      .raw(present ? fragments.present : fragments.absent);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Closes all three writers even if writing the script fails
+            try (attendance; students; subjects) {
+                writeLoadScript(dir,
+                        "LOAD DATA LOCAL INFILE 'subjects.csv' INTO TABLE subjects\n" +
+                        "  FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n'\n" +
+                        "  (subject_id, subject_code, subject_name, semester);\n" +
+                        "LOAD DATA LOCAL INFILE 'students.csv' INTO TABLE students\n" +
+                        "  FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n'\n" +
+                        "  (student_id, name, roll_no, department, semester, class_name);\n" +
+                        "LOAD DATA LOCAL INFILE 'attendance.csv' INTO TABLE attendance\n" +
+                        "  FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n'\n" +
+                        "  (student_id, subject_id, date, status);\n");
+            }
+        }
+    }
+
+    /**
+     * Multi-row INSERT scripts plus a load.sql driver script
+     */
+    private final class SqlFileSink implements DatasetSink {
+        private final CsvWriter students;
+        private final CsvWriter subjects;
+        private final CsvWriter attendance;
+        private final RowFragments fragments;
+        private final Path dir;
+        private final int rowsPerInsert;
+        private int studentRows;
+        private int subjectRows;
+        private int attendanceRows;
+
+        SqlFileSink(Path dir, int rowsPerInsert) throws IOException {
+            this.dir = dir;
+            this.rowsPerInsert = rowsPerInsert;
+            Files.createDirectories(dir);
+            students = CsvWriter.open(dir.resolve("students.sql").toString());
+            subjects = CsvWriter.open(dir.resolve("subjects.sql").toString());
+            attendance = CsvWriter.open(dir.resolve("attendance.sql").toString());
+            fragments = new RowFragments("(%d,", "%d,'", "%s',", PRESENT + ")", ABSENT + ")");
+        }
+
+        @Override
+        public void subject(int subjectId, String code, String name, int semester) throws IOException {
+            nextRow(subjects, subjectRows++,
+                    "INSERT INTO subjects (subject_id, subject_code, subject_name, semester) VALUES\n");
+            subjects.raw("(").raw(Integer.toString(subjectId)).raw(",").raw(sqlString(code)).raw(",")
+                    .raw(sqlString(name)).raw(",").raw(Integer.toString(semester)).raw(")");
+        }
+
+        @Override
+        public void student(int studentId, String name, String rollNo, String department, int semester,
+                            String className) throws IOException {
+            nextRow(students, studentRows++,
+                    "INSERT INTO students (student_id, name, roll_no, department, semester, class_name) VALUES\n");
+            students.raw("(").raw(Integer.toString(studentId)).raw(",").raw(sqlString(name)).raw(",")
+                    .raw(sqlString(rollNo)).raw(",").raw(sqlString(department)).raw(",")
+                    .raw(Integer.toString(semester)).raw(",").raw(sqlString(className)).raw(")");
+        }
+
+        @Override
+        public void attendance(int studentIndex, int subjectIndex, int dayIndex, boolean present) throws IOException {
+            nextRow(attendance, attendanceRows++,
+                    "INSERT INTO attendance (student_id, subject_id, date, status) VALUES\n");
+            attendance.raw(fragments.student[studentIndex])
+                      .raw(fragments.subject[subjectIndex])
+                      .raw(fragments.day[dayIndex])
+                      .raw(present ? fragments.present : fragments.absent);
+        }
+
+        /**
+         * Start a new INSERT every rowsPerInsert rows, otherwise continue the VALUES list
+         */
+        private void nextRow(CsvWriter writer, int index, String insert) throws IOException {
+            if (index % rowsPerInsert == 0) {
+                if (index > 0) {
+                    writer.line(";");
+                }
+                writer.raw(insert);
+            } else {
+                writer.line(",");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (attendance; students; subjects) {
+                for (CsvWriter writer : new CsvWriter[] {attendance, students, subjects}) {
+                    writer.line(";");
+                }
+                writeLoadScript(dir, "SOURCE subjects.sql\nSOURCE students.sql\nSOURCE attendance.sql\n");
+            }
+        }
+    }
+
+    private static String sqlString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    /**
+     * Write load.sql: disables per-row checks, loads the files in one transaction, then restores them
+     */
+    private void writeLoadScript(Path dir, String loadStatements) throws IOException {
+        try (CsvWriter script = CsvWriter.open(dir.resolve("load.sql").toString())) {
+            script.line("-- Generated by DatasetGenerator (seed " + seed + ")");
+            script.line("-- Load into an empty schema from attendance_db.sql, running the mysql client from this directory:");
+            script.line("--   mysql --local-infile=1 -u root -p attendance_db < load.sql");
+            script.line("SET FOREIGN_KEY_CHECKS = 0;");
+            script.line("SET UNIQUE_CHECKS = 0;");
+            script.line("SET autocommit = 0;");
+            script.raw(loadStatements);
+            script.line("COMMIT;");
+            script.line("SET UNIQUE_CHECKS = 1;");
+            script.line("SET FOREIGN_KEY_CHECKS = 1;");
+        }
+    }
+
+    /**
+     * Inserts straight into the configured database with multi-row prepared
+     * INSERTs, committing in chunks
+     */
+    private final class JdbcSink implements DatasetSink {
+        private static final int ROWS_PER_COMMIT = 100_000;
+
+        private final Connection conn;
+        private final Date[] sqlDays;
+        private final PreparedStatement subjectInsert;
+        private final PreparedStatement studentInsert;
+        private final PreparedStatement attendanceInsert;
+        // Rows waiting for the next multi-row INSERT
+        private final int[] pendingStudent;
+        private final int[] pendingSubject;
+        private final int[] pendingDay;
+        private final boolean[] pendingPresent;
+        private int pending;
+        private int sinceCommit;
+        private boolean parentsWritten;
+
+        JdbcSink(int rowsPerInsert, boolean replace) throws SQLException {
+            conn = DatabaseConnection.getInstance().openDedicatedConnection();
+            try {
+                conn.setAutoCommit(false);
+                prepareTables(replace);
+                subjectInsert = conn.prepareStatement(
+                        "INSERT INTO subjects (subject_id, subject_code, subject_name, semester) VALUES (?, ?, ?, ?)");
+                studentInsert = conn.prepareStatement(
+                        "INSERT INTO students (student_id, name, roll_no, department, semester, class_name) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)");
+                attendanceInsert = conn.prepareStatement(multiRowAttendanceInsert(rowsPerInsert));
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+            sqlDays = new Date[days.length];
+            for (int i = 0; i < days.length; i++) {
+                sqlDays[i] = Date.valueOf(days[i]);
+            }
+            pendingStudent = new int[rowsPerInsert];
+            pendingSubject = new int[rowsPerInsert];
+            pendingDay = new int[rowsPerInsert];
+            pendingPresent = new boolean[rowsPerInsert];
+        }
+
+        private void prepareTables(boolean replace) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                if (replace) {
+                    stmt.executeUpdate("DELETE FROM attendance");
+                    stmt.executeUpdate("DELETE FROM students");
+                    stmt.executeUpdate("DELETE FROM subjects");
+                    conn.commit();
+                    return;
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT (SELECT COUNT(*) FROM students) + (SELECT COUNT(*) FROM subjects)")) {
+                    if (rs.next() && rs.getLong(1) > 0) {
+                        throw new SQLException("Target database already has students or subjects; use --replace");
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void subject(int subjectId, String code, String name, int semester) throws SQLException {
+            subjectInsert.setInt(1, subjectId);
+            subjectInsert.setString(2, code);
+            subjectInsert.setString(3, name);
+            subjectInsert.setInt(4, semester);
+            subjectInsert.addBatch();
+        }
+
+        @Override
+        public void student(int studentId, String name, String rollNo, String department, int semester,
+                            String className) throws SQLException {
+            studentInsert.setInt(1, studentId);
+            studentInsert.setString(2, name);
+            studentInsert.setString(3, rollNo);
+            studentInsert.setString(4, department);
+            studentInsert.setInt(5, semester);
+            studentInsert.setString(6, className);
+            studentInsert.addBatch();
+        }
+
+        @Override
+        public void attendance(int studentIndex, int subjectIndex, int dayIndex, boolean present) throws SQLException {
+            pendingStudent[pending] = studentIndex;
+            pendingSubject[pending] = subjectIndex;
+            pendingDay[pending] = dayIndex;
+            pendingPresent[pending] = present;
+            if (++pending == pendingStudent.length) {
+                flushAttendance(attendanceInsert);
+            }
+        }
+
+        private void writeParents() throws SQLException {
+            if (!parentsWritten) {
+                // Parents must be in place before attendance rows for the foreign keys
+                subjectInsert.executeBatch();
+                studentInsert.executeBatch();
+                parentsWritten = true;
+            }
+        }
+
+        private void flushAttendance(PreparedStatement insert) throws SQLException {
+            writeParents();
+            for (int i = 0, p = 1; i < pending; i++) {
+                insert.setInt(p++, pendingStudent[i] + 1);
+                insert.setInt(p++, pendingSubject[i] + 1);
+                insert.setDate(p++, sqlDays[pendingDay[i]]);
+                insert.setByte(p++, pendingPresent[i] ? AttendanceStatus.PRESENT.getCode() : AttendanceStatus.ABSENT.getCode());
+            }
+            insert.executeUpdate();
+            sinceCommit += pending;
+            pending = 0;
+            if (sinceCommit >= ROWS_PER_COMMIT) {
+                conn.commit();
+                sinceCommit = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                writeParents();
+                if (pending > 0) {
+                    try (PreparedStatement tail = conn.prepareStatement(multiRowAttendanceInsert(pending))) {
+                        flushAttendance(tail);
+                    }
+                }
+                conn.commit();
+            } finally {
+                subjectInsert.close();
+                studentInsert.close();
+                attendanceInsert.close();
+                conn.close();
+            }
+        }
+    }
+
+    private static String multiRowAttendanceInsert(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO attendance (student_id, subject_id, date, status) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+}
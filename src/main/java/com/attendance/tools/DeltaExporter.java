@@ -0,0 +1,243 @@
+package com.attendance.tools;
+
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.ExportWatermark;
+import com.attendance.service.AttendanceService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+/**
+ * Headless incremental export of attendance for downstream systems, e.g. from a
+ * scheduled job. Each run writes one CSV file with only the attendance rows created
+ * or changed since the previous run, instead of a full dump.
+ *
+ * Rows are read through idx_updated in (updated_at, attendance_id) order, after the
+ * high-water mark saved by the previous run in a checkpoint file; the first run
+ * exports everything. Rows changed in the last --lag seconds are left for the next
+ * run, so a transaction that commits late with an earlier change time is not
+ * skipped.
+ *
+ * The file is written under a hidden name, flushed to disk and renamed, and only
+ * then is the new high-water mark saved, the same way. A crash therefore never
+ * loses rows: at worst the next run exports some rows again, which consumers
+ * recognise by Attendance ID and Updated At. Deleted rows and rows moved to the
+ * archive of a closed term do not appear in the export.
+ *
+ * Example:
+ *   java -jar attendance-management-system-1.0.0-jar-with-dependencies.jar --export-changes \
+ *        --dir exports/attendance
+ */
+public class DeltaExporter {
+    private static final String FILE_PREFIX = "attendance_changes_";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final long PROGRESS_NANOS = 2_000_000_000L;
+
+    // Parameters
+    private Path outputDir;
+    private Path checkpointFile;
+    private int lagSeconds = 30;
+    private boolean gzip;
+    private boolean restart;
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        DeltaExporter exporter = new DeltaExporter();
+        try {
+            exporter.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        boolean ok;
+        try {
+            ok = exporter.run();
+        } catch (IOException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            ok = false;
+        }
+        DatabaseConnection.getInstance().closeConnection();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main --export-changes --dir DIR [options]");
+        System.err.println("  --dir DIR                      directory for the export files");
+        System.err.println("  --checkpoint FILE              high-water mark of the last run");
+        System.err.println("                                 (default DIR/attendance_changes.checkpoint)");
+        System.err.println("  --lag SECONDS                  leave changes younger than this for the next run (default 30)");
+        System.err.println("  --gzip                         write gzip-compressed .csv.gz files");
+        System.err.println("  --restart                      ignore the checkpoint and export everything");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--gzip")) {
+                gzip = true;
+                continue;
+            }
+            if (option.equals("--restart")) {
+                restart = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--dir": outputDir = Path.of(value); break;
+                    case "--checkpoint": checkpointFile = Path.of(value); break;
+                    case "--lag": lagSeconds = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (outputDir == null) {
+            throw new IllegalArgumentException("--dir is required");
+        }
+        if (lagSeconds < 0) {
+            throw new IllegalArgumentException("--lag must not be negative");
+        }
+        if (checkpointFile == null) {
+            checkpointFile = outputDir.resolve("attendance_changes.checkpoint");
+        }
+    }
+
+    /**
+     * Export the changes since the checkpoint, returning false if the export failed
+     */
+    boolean run() throws IOException {
+        Files.createDirectories(outputDir);
+        ExportWatermark watermark = new ExportWatermark();
+        if (!restart && Files.exists(checkpointFile)) {
+            watermark = readCheckpoint(checkpointFile);
+        }
+
+        AttendanceService service = new AttendanceService();
+        LocalDateTime now = service.getDatabaseTime();
+        if (now == null) {
+            return false;
+        }
+        LocalDateTime until = now.minusSeconds(lagSeconds);
+        System.out.println("Exporting attendance changed after " + watermark + " and before " + until);
+
+        String fileName = FILE_PREFIX + FILE_TIME.format(until) + (gzip ? ".csv.gz" : ".csv");
+        Path file = outputDir.resolve(fileName);
+        if (Files.exists(file)) {
+            System.err.println(file + " already exists");
+            return false;
+        }
+        // Hidden while incomplete, so consumers picking up attendance_changes_* files skip it
+        Path temp = outputDir.resolve("." + fileName);
+        long started = System.nanoTime();
+        long[] lastReport = {started};
+        long rows = service.exportAttendanceChanges(temp.toString(), watermark, until, rowsWritten -> {
+            long time = System.nanoTime();
+            if (time - lastReport[0] >= PROGRESS_NANOS) {
+                lastReport[0] = time;
+                System.out.println("  " + rowsWritten + " rows");
+            }
+            return true;
+        });
+        if (rows < 0) {
+            System.err.println("Export failed; the checkpoint is unchanged");
+            return false;
+        }
+        if (rows == 0) {
+            Files.deleteIfExists(temp);
+            System.out.println("No changes to export");
+            return true;
+        }
+
+        // The rows must be on disk under their final name before the checkpoint moves past them
+        force(temp);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(outputDir);
+        writeCheckpoint(checkpointFile, watermark, fileName, rows);
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Exported %d rows to %s in %.1f s; next run continues after %s%n",
+                rows, file, seconds, watermark);
+        return true;
+    }
+
+    private static ExportWatermark readCheckpoint(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        String updatedAt = properties.getProperty("updated.at");
+        String attendanceId = properties.getProperty("attendance.id");
+        if (updatedAt == null || attendanceId == null) {
+            throw new IOException("Unreadable checkpoint " + file + "; use --restart");
+        }
+        try {
+            return new ExportWatermark(LocalDateTime.parse(updatedAt), Integer.parseInt(attendanceId));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IOException("Unreadable checkpoint " + file + "; use --restart", e);
+        }
+    }
+
+    /**
+     * Write to a temporary file, flush it to disk and move it over the previous
+     * checkpoint, so a crash leaves either the old or the new checkpoint
+     */
+    private static void writeCheckpoint(Path file, ExportWatermark watermark, String fileName, long rows)
+            throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("updated.at", watermark.getUpdatedAt().toString());
+        properties.setProperty("attendance.id", Integer.toString(watermark.getAttendanceId()));
+        properties.setProperty("last.file", fileName);
+        properties.setProperty("last.rows", Long.toString(rows));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            properties.store(Channels.newOutputStream(channel), "Attendance change export checkpoint");
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flush a directory's entries, so a rename survives a crash. Not every platform
+     * can open a directory; there the rename is left to the file system.
+     */
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on this platform
+        }
+    }
+}
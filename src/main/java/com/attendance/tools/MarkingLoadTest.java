@@ -0,0 +1,430 @@
+package com.attendance.tools;
+
+import com.attendance.dao.AttendanceDAO;
+import com.attendance.dao.StudentDAO;
+import com.attendance.db.DatabaseConnection;
+import com.attendance.diagnostics.DaoMetrics;
+import com.attendance.diagnostics.Diagnostics;
+import com.attendance.diagnostics.LatencyHistogram;
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceSheet;
+import com.attendance.model.AttendanceSheet.SaveResult;
+import com.attendance.model.Student;
+import com.attendance.model.Subject;
+import com.attendance.service.AttendanceService;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for concurrent attendance marking, e.g. 200 teachers pressing Save at 9:05.
+ *
+ * Each simulated session repeatedly does what AttendancePanel does: load the roster
+ * of a subject (the students of its semester plus the attendance sheet already saved
+ * for the date) and save a full roster. In merge mode the save is checked against the
+ * loaded sheet (AttendanceService.saveAttendance) and may be rejected as a conflict;
+ * in overwrite mode it replaces the class (as markAttendance does). Subjects and dates
+ * come from a small hot set so sessions collide. All sessions start together.
+ *
+ * Reported afterwards:
+ *   - throughput and latency percentiles of roster loads and saves, and how many
+ *     saves were saved, rejected as conflicts or failed
+ *   - deadlocks, lock timeouts and constraint violations, counted by SQLState from
+ *     the instrumented JDBC connections (the DAOs themselves only log them)
+ *   - lost updates, found by replaying the successful saves of every (subject, date)
+ *     in version order and comparing the result with what is stored:
+ *       reused   two successful saves got the same version, i.e. were not serialized
+ *       unsafe   a merged save changed a student someone else had changed since it loaded
+ *       lost     stored status differs from the replay, i.e. an acknowledged write is gone
+ *       missing  roster students without a stored row although a save succeeded
+ *
+ * Runs against the database configured in config.properties (embedded or MySQL).
+ *
+ * Example:
+ *   java -cp attendance-management-system-1.0.0-jar-with-dependencies.jar \
+ *        com.attendance.tools.MarkingLoadTest --sessions 200 --saves 10 --subjects 5 --dates 3
+ */
+public class MarkingLoadTest {
+    private static final String[] DEADLOCK_STATES = {"40001", "40P01"};
+    private static final String[] LOCK_TIMEOUT_STATES = {"HYT00", "41000", "55P03"};
+
+    // Parameters
+    private int sessions = 200;
+    private int savesPerSession = 10;
+    private int hotSubjects = 5;
+    private int hotDates = 3;
+    private LocalDate firstDate = LocalDate.now().plusDays(1);
+    private double absenceRate = 0.2;
+    private long seed = 42L;
+    private boolean keepData;
+    private boolean overwrite;
+
+    private final AttendanceService service = new AttendanceService();
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+    private final LongAdder savesConflicted = new LongAdder();
+    private final LongAdder savesFailed = new LongAdder();
+    private final Map<String, List<Save>> successfulSaves = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        MarkingLoadTest test = new MarkingLoadTest();
+        try {
+            test.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            boolean clean = test.run();
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(clean ? 0 : 1);
+        } catch (InterruptedException e) {
+            System.err.println("Load test interrupted");
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: MarkingLoadTest [options]");
+        System.err.println("  --sessions N         concurrent teacher sessions (default 200)");
+        System.err.println("  --saves N            saves per session (default 10)");
+        System.err.println("  --subjects N         hot subjects the sessions pick from (default 5)");
+        System.err.println("  --dates N            hot dates the sessions pick from (default 3)");
+        System.err.println("  --first-date DATE    first hot date, yyyy-MM-dd (default tomorrow, so existing data is untouched)");
+        System.err.println("  --absence-rate R     share of students marked absent per save (default 0.2)");
+        System.err.println("  --seed N             random seed (default 42)");
+        System.err.println("  --mode merge|overwrite   save against the loaded sheet, or overwrite the class (default merge)");
+        System.err.println("  --keep-data          keep the rows written; by default rosters that were empty before the run are deleted again");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--keep-data")) {
+                keepData = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--sessions": sessions = positive(option, Integer.parseInt(value)); break;
+                    case "--saves": savesPerSession = positive(option, Integer.parseInt(value)); break;
+                    case "--subjects": hotSubjects = positive(option, Integer.parseInt(value)); break;
+                    case "--dates": hotDates = positive(option, Integer.parseInt(value)); break;
+                    case "--first-date": firstDate = LocalDate.parse(value); break;
+                    case "--absence-rate": absenceRate = Double.parseDouble(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--mode":
+                        if (!value.equals("merge") && !value.equals("overwrite")) {
+                            throw new IllegalArgumentException("--mode must be merge or overwrite");
+                        }
+                        overwrite = value.equals("overwrite");
+                        break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+    }
+
+    private static int positive(String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        return value;
+    }
+
+    /**
+     * Run the sessions and verify the result, returning false if any anomaly was found
+     */
+    boolean run() throws InterruptedException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        // The SQLState counts come from the instrumented connections
+        Diagnostics.configure(db);
+        DaoMetrics metrics = DaoMetrics.getInstance();
+        metrics.setEnabled(true);
+        metrics.setSlowQueryLog(null);
+
+        List<Subject> subjects = pickHotSubjects(service.getAllSubjects());
+        if (subjects.isEmpty()) {
+            System.err.println("No subjects with students found; generate data with DatasetGenerator first");
+            return false;
+        }
+        Map<Integer, List<Student>> rosters = new HashMap<>();
+        for (Subject subject : subjects) {
+            rosters.put(subject.getSubjectId(), studentDAO.getStudentsBySemester(subject.getSemester()));
+        }
+        System.out.printf("%d sessions x %d saves on %d subjects x %d dates from %s (%s, %d pooled connections)%n",
+                sessions, savesPerSession, subjects.size(), hotDates, firstDate, db.getDialect(), db.getPoolSize());
+
+        // Starting point of the replay. Only rosters that start out empty are cleaned up
+        // afterwards, so real data is never deleted.
+        Map<String, Map<Integer, String>> initial = new HashMap<>();
+        List<String> emptyBefore = new ArrayList<>();
+        for (Subject subject : subjects) {
+            for (int d = 0; d < hotDates; d++) {
+                LocalDate date = firstDate.plusDays(d);
+                Map<Integer, String> stored = storedStatuses(subject.getSubjectId(), date);
+                initial.put(key(subject.getSubjectId(), date), stored);
+                if (stored.isEmpty()) {
+                    emptyBefore.add(key(subject.getSubjectId(), date));
+                }
+            }
+        }
+
+        Map<String, Long> errorsBefore = metrics.getErrorsBySqlState();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < sessions; s++) {
+                SplittableRandom random = new SplittableRandom(seed + s);
+                executor.execute(() -> session(random, subjects, startSignal));
+            }
+            start = System.nanoTime();
+            startSignal.countDown();
+        }
+        long elapsed = System.nanoTime() - start;
+        Map<String, Long> errors = delta(errorsBefore, metrics.getErrorsBySqlState());
+
+        printLatencies(elapsed);
+        long deadlocks = count(errors, DEADLOCK_STATES);
+        long lockTimeouts = count(errors, LOCK_TIMEOUT_STATES);
+        long constraintViolations = errors.entrySet().stream()
+                .filter(e -> e.getKey().startsWith("23")).mapToLong(Map.Entry::getValue).sum();
+        System.out.printf("%nDatabase errors by SQLState: %s%n", errors.isEmpty() ? "none" : errors);
+        System.out.printf("  deadlocks %d, lock timeouts %d, constraint violations %d%n",
+                deadlocks, lockTimeouts, constraintViolations);
+
+        Verification v = verify(rosters, initial);
+        System.out.printf("%nVerified %d (subject, date) rosters: %d reused versions, %d unsafe merges, "
+                + "%d lost updates, %d missing rows%n", v.keys, v.reused, v.unsafe, v.lost, v.missingRows);
+        if (!keepData) {
+            for (String key : emptyBefore) {
+                attendanceDAO.deleteAttendanceBySubjectAndDate(subjectOf(key), dateOf(key));
+            }
+        }
+        return deadlocks + lockTimeouts + constraintViolations + v.reused + v.unsafe + v.lost + v.missingRows == 0
+                && savesFailed.sum() == 0;
+    }
+
+    /**
+     * The first subjects, in list order, whose semester has students
+     */
+    private List<Subject> pickHotSubjects(List<Subject> all) {
+        List<Subject> hot = new ArrayList<>();
+        for (Subject subject : all) {
+            if (hot.size() == hotSubjects) {
+                break;
+            }
+            if (!studentDAO.getStudentsBySemester(subject.getSemester()).isEmpty()) {
+                hot.add(subject);
+            }
+        }
+        return hot;
+    }
+
+    /**
+     * One teacher: load a roster, mark everyone, save; repeat
+     */
+    private void session(SplittableRandom random, List<Subject> subjects, CountDownLatch startSignal) {
+        try {
+            startSignal.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < savesPerSession; i++) {
+            Subject subject = subjects.get(random.nextInt(subjects.size()));
+            LocalDate date = firstDate.plusDays(random.nextInt(hotDates));
+
+            long begin = System.nanoTime();
+            List<Student> roster = studentDAO.getStudentsBySemester(subject.getSemester());
+            AttendanceSheet sheet = service.loadAttendanceSheet(subject.getSubjectId(), date);
+            loadLatency.record(System.nanoTime() - begin);
+
+            AttendanceRoster marks = new AttendanceRoster(roster.size());
+            for (Student student : roster) {
+                marks.add(student.getStudentId(),
+                        random.nextDouble() < absenceRate ? AttendanceRoster.ABSENT : AttendanceRoster.PRESENT);
+            }
+
+            // The save replaces the sheet's statuses and version on success
+            AttendanceRoster baseline = sheet.getStatuses();
+            begin = System.nanoTime();
+            SaveResult result = overwrite
+                    ? service.overwriteAttendance(sheet, marks)
+                    : service.saveAttendance(sheet, marks);
+            saveLatency.record(System.nanoTime() - begin);
+            if (result == SaveResult.SAVED) {
+                List<Save> saves = successfulSaves.computeIfAbsent(key(subject.getSubjectId(), date),
+                        k -> new ArrayList<>());
+                synchronized (saves) {
+                    saves.add(new Save(marks, overwrite ? null : baseline, sheet.getVersion()));
+                }
+            } else if (result == SaveResult.CONFLICT) {
+                savesConflicted.increment();
+            } else {
+                savesFailed.increment();
+            }
+        }
+    }
+
+    /**
+     * Replay the successful saves of each class in version order and compare with the database
+     */
+    private Verification verify(Map<Integer, List<Student>> rosters, Map<String, Map<Integer, String>> initial) {
+        Verification v = new Verification();
+        for (Map.Entry<String, List<Save>> entry : successfulSaves.entrySet()) {
+            int subjectId = subjectOf(entry.getKey());
+            LocalDate date = dateOf(entry.getKey());
+            List<Save> saves = new ArrayList<>(entry.getValue());
+            saves.sort(Comparator.comparingLong(save -> save.version));
+            v.keys++;
+
+            Map<Integer, String> expected = new HashMap<>(initial.get(entry.getKey()));
+            long previousVersion = Long.MIN_VALUE;
+            for (Save save : saves) {
+                if (save.version == previousVersion) {
+                    v.reused++;
+                }
+                previousVersion = save.version;
+                for (int i = 0; i < save.marks.size(); i++) {
+                    int studentId = save.marks.getStudentId(i);
+                    String wanted = AttendanceRoster.statusName(save.marks.getStatus(i));
+                    if (save.baseline != null) {
+                        String loaded = AttendanceRoster.statusName(save.baseline.statusOf(studentId));
+                        if (wanted.equals(loaded)) {
+                            continue;
+                        }
+                        String before = expected.get(studentId);
+                        if (!wanted.equals(before) && !Objects.equals(before, loaded)) {
+                            v.unsafe++;
+                        }
+                    }
+                    expected.put(studentId, wanted);
+                }
+            }
+
+            Map<Integer, String> stored = storedStatuses(subjectId, date);
+            for (Student student : rosters.get(subjectId)) {
+                String want = expected.get(student.getStudentId());
+                String have = stored.get(student.getStudentId());
+                if (want != null && have == null) {
+                    v.missingRows++;
+                } else if (!Objects.equals(want, have)) {
+                    v.lost++;
+                }
+            }
+        }
+        return v;
+    }
+
+    private Map<Integer, String> storedStatuses(int subjectId, LocalDate date) {
+        Map<Integer, String> stored = new HashMap<>();
+        for (AttendanceRecord record : attendanceDAO.getAttendanceBySubjectAndDate(subjectId, date)) {
+            stored.put(record.getStudentId(), record.getStatus().getLabel());
+        }
+        return stored;
+    }
+
+    private void printLatencies(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long saves = saveLatency.getCount();
+        System.out.printf("%nFinished in %.1f s: %d saves (%.1f saves/s), %d rejected as conflicts, %d failed%n",
+                seconds, saves, saves / seconds, savesConflicted.sum(), savesFailed.sum());
+        System.out.printf("%-14s %9s %9s %9s %9s %9s%n", "Step", "Count", "p50 ms", "p90 ms", "p99 ms", "Max ms");
+        printLatency("Load roster", loadLatency);
+        printLatency("Save", saveLatency);
+    }
+
+    private static void printLatency(String name, LatencyHistogram h) {
+        System.out.printf("%-14s %9d %9.2f %9.2f %9.2f %9.2f%n", name, h.getCount(),
+                h.getPercentileNanos(50) / 1e6, h.getPercentileNanos(90) / 1e6,
+                h.getPercentileNanos(99) / 1e6, h.getMaxNanos() / 1e6);
+    }
+
+    private static Map<String, Long> delta(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        after.forEach((state, count) -> {
+            long d = count - before.getOrDefault(state, 0L);
+            if (d > 0) {
+                result.put(state, d);
+            }
+        });
+        return result;
+    }
+
+    private static long count(Map<String, Long> errors, String[] states) {
+        long total = 0;
+        for (String state : states) {
+            total += errors.getOrDefault(state, 0L);
+        }
+        return total;
+    }
+
+    private static String key(int subjectId, LocalDate date) {
+        return subjectId + "@" + date;
+    }
+
+    private static int subjectOf(String key) {
+        return Integer.parseInt(key.substring(0, key.indexOf('@')));
+    }
+
+    private static LocalDate dateOf(String key) {
+        return LocalDate.parse(key.substring(key.indexOf('@') + 1));
+    }
+
+    /**
+     * A save that reported success: the marks sent, the sheet it was based on
+     * (null when overwriting) and the version it was given
+     */
+    private static final class Save {
+        final AttendanceRoster marks;
+        final AttendanceRoster baseline;
+        final long version;
+
+        Save(AttendanceRoster marks, AttendanceRoster baseline, long version) {
+            this.marks = marks;
+            this.baseline = baseline;
+            this.version = version;
+        }
+    }
+
+    private static final class Verification {
+        long keys;
+        long reused;
+        long unsafe;
+        long lost;
+        long missingRows;
+    }
+}
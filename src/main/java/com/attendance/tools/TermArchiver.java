@@ -0,0 +1,175 @@
+package com.attendance.tools;
+
+import com.attendance.db.DatabaseConnection;
+import com.attendance.model.Term;
+import com.attendance.service.AttendanceService;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Headless management of academic terms, e.g. for an end-of-term job.
+ *
+ * Archiving a term moves its attendance from the attendance table to
+ * attendance_archive in one transaction, so daily marking and current-term reports
+ * only touch open terms. Archived attendance stays readable through the archived
+ * date range export.
+ *
+ * Examples:
+ *   java -jar attendance-management-system-1.0.0-jar-with-dependencies.jar --terms --list
+ *   java -jar ... --terms --add "2025 Odd Semester" --from 2025-07-01 --to 2025-12-31
+ *   java -jar ... --terms --archive "2025 Odd Semester" --export archive/2025_odd.csv.gz
+ */
+public class TermArchiver {
+    enum Action {
+        LIST, ADD, ARCHIVE
+    }
+
+    // Parameters
+    private Action action;
+    private String name;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String exportPath;
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            printUsage();
+            return;
+        }
+        TermArchiver archiver = new TermArchiver();
+        try {
+            archiver.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        boolean ok = archiver.run();
+        DatabaseConnection.getInstance().closeConnection();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main --terms <action>");
+        System.err.println("  --list                         list terms and their archive state");
+        System.err.println("  --add NAME --from yyyy-MM-dd --to yyyy-MM-dd   add a term");
+        System.err.println("  --archive NAME [--export FILE] move a finished term's attendance to the archive,");
+        System.err.println("                                 optionally exporting it (FILE.csv.gz is compressed)");
+    }
+
+    /**
+     * Parse command line options, throwing IllegalArgumentException on bad input
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--list")) {
+                setAction(Action.LIST);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--add": setAction(Action.ADD); name = value.trim(); break;
+                    case "--archive": setAction(Action.ARCHIVE); name = value.trim(); break;
+                    case "--from": fromDate = LocalDate.parse(value); break;
+                    case "--to": toDate = LocalDate.parse(value); break;
+                    case "--export": exportPath = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("One of --list, --add or --archive is required");
+        }
+        if (action == Action.ADD && (fromDate == null || toDate == null)) {
+            throw new IllegalArgumentException("--add needs --from and --to");
+        }
+        if (action != Action.ADD && (fromDate != null || toDate != null)) {
+            throw new IllegalArgumentException("--from and --to are only used with --add");
+        }
+        if (action != Action.ARCHIVE && exportPath != null) {
+            throw new IllegalArgumentException("--export is only used with --archive");
+        }
+    }
+
+    private void setAction(Action next) {
+        if (action != null) {
+            throw new IllegalArgumentException("Only one of --list, --add or --archive can be given");
+        }
+        action = next;
+    }
+
+    /**
+     * Run the selected action, returning false if it failed
+     */
+    boolean run() {
+        AttendanceService service = new AttendanceService();
+        switch (action) {
+            case LIST: return list(service);
+            case ADD: return add(service);
+            default: return archive(service);
+        }
+    }
+
+    private boolean list(AttendanceService service) {
+        List<Term> terms = service.getAllTerms();
+        System.out.printf("%-24s %-12s %-12s %-20s %12s%n", "Term", "From", "To", "Archived", "Rows");
+        for (Term term : terms) {
+            System.out.printf("%-24s %-12s %-12s %-20s %12s%n", term.getName(), term.getStartDate(),
+                    term.getEndDate(), term.isArchived() ? term.getArchivedAt().withNano(0) : "-",
+                    term.isArchived() ? term.getArchivedRows() : "-");
+        }
+        return true;
+    }
+
+    private boolean add(AttendanceService service) {
+        Term term = new Term(name, fromDate, toDate);
+        String error = service.validateTerm(term);
+        if (error != null) {
+            System.err.println(error);
+            return false;
+        }
+        if (!service.addTerm(term)) {
+            System.err.println("Failed to add term " + name);
+            return false;
+        }
+        System.out.println("Added " + term);
+        return true;
+    }
+
+    private boolean archive(AttendanceService service) {
+        Term term = service.getTermByName(name);
+        if (term == null) {
+            System.err.println("No term named " + name);
+            return false;
+        }
+        String error = service.validateTermArchive(term);
+        if (error != null) {
+            System.err.println(error);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        long rows = service.archiveTerm(term, exportPath);
+        if (rows < 0) {
+            System.err.println("Failed to archive or export " + term);
+            return false;
+        }
+        System.out.printf("Archived %d attendance records of %s in %.1f s%n",
+                rows, term, (System.nanoTime() - start) / 1e9);
+        if (exportPath != null) {
+            System.out.println("Exported to " + exportPath);
+        }
+        return true;
+    }
+}
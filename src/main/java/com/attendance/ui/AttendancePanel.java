@@ -8,9 +8,7 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultCellEditor;
@@ -27,9 +25,12 @@ import javax.swing.ListSelectionModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 
-import com.attendance.dao.AttendanceDAO;
 import com.attendance.dao.StudentDAO;
 import com.attendance.dao.SubjectDAO;
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceSheet;
+import com.attendance.model.AttendanceSheet.SaveResult;
+import com.attendance.model.AttendanceStatus;
 import com.attendance.model.Student;
 import com.attendance.model.Subject;
 import com.attendance.service.AttendanceService;
@@ -45,14 +46,14 @@ public class AttendancePanel extends JPanel {
     private DefaultTableModel tableModel;
     private StudentDAO studentDAO;
     private SubjectDAO subjectDAO;
-    private AttendanceDAO attendanceDAO;
     private AttendanceService attendanceService;
     private JLabel statusLabel;
+    /** Class shown in the table as loaded, the baseline for detecting concurrent edits */
+    private AttendanceSheet loadedSheet;
 
     public AttendancePanel() {
         studentDAO = new StudentDAO();
         subjectDAO = new SubjectDAO();
-        attendanceDAO = new AttendanceDAO();
         attendanceService = new AttendanceService();
         initializeComponents();
     }
@@ -113,7 +114,7 @@ public class AttendancePanel extends JPanel {
             @Override
             public Class<?> getColumnClass(int columnIndex) {
                 if (columnIndex == 4) {
-                    return String.class;
+                    return AttendanceStatus.class;
                 }
                 return super.getColumnClass(columnIndex);
             }
@@ -125,21 +126,14 @@ public class AttendancePanel extends JPanel {
         attendanceTable.getTableHeader().setReorderingAllowed(false);
         
         // Set up combo box for attendance column
-        JComboBox<String> attendanceCombo = new JComboBox<>(new String[]{"Present", "Absent"});
+        JComboBox<AttendanceStatus> attendanceCombo = new JComboBox<>(AttendanceStatus.values());
         // Color items in the dropdown as well
         attendanceCombo.setRenderer(new DefaultListCellRenderer() {
             @Override
             public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
                 Component c = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
                 if (value != null) {
-                    String v = value.toString();
-                    if ("Present".equalsIgnoreCase(v)) {
-                        setForeground(new Color(0, 128, 0)); // green
-                    } else if ("Absent".equalsIgnoreCase(v)) {
-                        setForeground(Color.RED);
-                    } else {
-                        setForeground(list.getForeground());
-                    }
+                    setForeground(statusColor(value, list.getForeground()));
                 }
                 return c;
             }
@@ -164,10 +158,10 @@ public class AttendancePanel extends JPanel {
     bottomPanel.setBackground(lightBlue);
         
         JButton markAllPresentButton = new JButton("Mark All Present");
-        markAllPresentButton.addActionListener(e -> markAllAttendance("Present"));
+        markAllPresentButton.addActionListener(e -> markAllAttendance(AttendanceStatus.PRESENT));
         
         JButton markAllAbsentButton = new JButton("Mark All Absent");
-        markAllAbsentButton.addActionListener(e -> markAllAttendance("Absent"));
+        markAllAbsentButton.addActionListener(e -> markAllAttendance(AttendanceStatus.ABSENT));
         
         JButton saveButton = new JButton("Save Attendance");
         saveButton.addActionListener(e -> saveAttendance());
@@ -187,7 +181,27 @@ public class AttendancePanel extends JPanel {
     }
 
     /**
-     * Renderer to color attendance status cells: Present=Green, Absent=Red
+     * Color of a status: green when it counts as present (orange when late), red when absent,
+     * blue when excused
+     */
+    private static Color statusColor(Object value, Color fallback) {
+        if (!(value instanceof AttendanceStatus)) {
+            return fallback;
+        }
+        switch ((AttendanceStatus) value) {
+            case ABSENT:
+                return Color.RED;
+            case LATE:
+                return new Color(204, 102, 0); // orange
+            case EXCUSED:
+                return new Color(0, 70, 160); // blue
+            default:
+                return new Color(0, 128, 0); // green
+        }
+    }
+
+    /**
+     * Renderer to color attendance status cells with statusColor
      */
     private static class AttendanceStatusRenderer extends DefaultTableCellRenderer {
         @Override
@@ -198,18 +212,7 @@ public class AttendancePanel extends JPanel {
             if (!isSelected) {
                 c.setBackground(Color.WHITE);
             }
-            if (value != null) {
-                String v = value.toString();
-                if ("Present".equalsIgnoreCase(v)) {
-                    c.setForeground(new Color(0, 128, 0)); // green
-                } else if ("Absent".equalsIgnoreCase(v)) {
-                    c.setForeground(Color.RED);
-                } else {
-                    c.setForeground(table.getForeground());
-                }
-            } else {
-                c.setForeground(table.getForeground());
-            }
+            c.setForeground(statusColor(value, table.getForeground()));
             return c;
         }
     }
@@ -244,6 +247,12 @@ public class AttendancePanel extends JPanel {
                 .atZone(ZoneId.systemDefault())
                 .toLocalDate();
 
+        String dateError = attendanceService.validateAttendanceDate(selectedDate);
+        if (dateError != null) {
+            JOptionPane.showMessageDialog(this, dateError, "Archived Term", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
         // Get all students
         List<Student> students = studentDAO.getAllStudents();
         
@@ -253,18 +262,15 @@ public class AttendancePanel extends JPanel {
         }
 
         // Check if attendance already exists for this date and subject
-        var existingRecords = attendanceDAO.getAttendanceBySubjectAndDate(
-                selectedSubject.getSubjectId(), selectedDate);
-        
-        Map<Integer, String> existingAttendance = new HashMap<>();
-        for (var record : existingRecords) {
-            existingAttendance.put(record.getStudentId(), record.getStatus());
-        }
+        loadedSheet = attendanceService.loadAttendanceSheet(selectedSubject.getSubjectId(), selectedDate);
+        AttendanceRoster existingAttendance = loadedSheet.getStatuses();
 
         // Populate table
         tableModel.setRowCount(0);
         for (Student student : students) {
-            String status = existingAttendance.getOrDefault(student.getStudentId(), "Present");
+            byte stored = existingAttendance.statusOf(student.getStudentId());
+            AttendanceStatus status = stored != AttendanceRoster.UNMARKED
+                    ? AttendanceStatus.fromCode(stored) : AttendanceStatus.PRESENT;
             Object[] row = {
                 student.getStudentId(),
                 student.getRollNo(),
@@ -282,7 +288,7 @@ public class AttendancePanel extends JPanel {
         }
     }
 
-    private void markAllAttendance(String status) {
+    private void markAllAttendance(AttendanceStatus status) {
         for (int i = 0; i < tableModel.getRowCount(); i++) {
             tableModel.setValueAt(status, i, 4);
         }
@@ -310,19 +316,50 @@ public class AttendancePanel extends JPanel {
                 .atZone(ZoneId.systemDefault())
                 .toLocalDate();
 
+        String dateError = attendanceService.validateAttendanceDate(selectedDate);
+        if (dateError != null) {
+            JOptionPane.showMessageDialog(this, dateError, "Archived Term", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
         // Collect attendance data
-        Map<Integer, String> attendanceData = new HashMap<>();
+        AttendanceRoster attendanceData = new AttendanceRoster(tableModel.getRowCount());
         for (int i = 0; i < tableModel.getRowCount(); i++) {
             int studentId = (Integer) tableModel.getValueAt(i, 0);
-            String status = (String) tableModel.getValueAt(i, 4);
-            attendanceData.put(studentId, status);
+            AttendanceStatus status = (AttendanceStatus) tableModel.getValueAt(i, 4);
+            attendanceData.add(studentId, status.getCode());
         }
 
-        // Save using service
-        boolean success = attendanceService.markAttendance(
-                selectedSubject.getSubjectId(), selectedDate, attendanceData);
+        // Save using service, checked against the attendance as it was loaded
+        AttendanceSheet sheet = loadedSheet;
+        if (sheet == null || sheet.getSubjectId() != selectedSubject.getSubjectId()
+                || !sheet.getDate().equals(selectedDate)) {
+            // Subject or date changed after loading: compare with what is stored now
+            sheet = attendanceService.loadAttendanceSheet(selectedSubject.getSubjectId(), selectedDate);
+        }
+        SaveResult result = attendanceService.saveAttendance(sheet, attendanceData);
+
+        if (result == SaveResult.CONFLICT) {
+            Object[] options = {"Overwrite", "Reload", "Cancel"};
+            int choice = JOptionPane.showOptionDialog(this,
+                    "Someone else changed the attendance of some of these students after you loaded it.\n"
+                    + "Overwrite their changes with yours, or reload the class and discard your changes?",
+                    "Attendance Changed",
+                    JOptionPane.YES_NO_CANCEL_OPTION,
+                    JOptionPane.WARNING_MESSAGE,
+                    null, options, options[1]);
+            if (choice == 0) {
+                result = attendanceService.overwriteAttendance(sheet, attendanceData);
+            } else {
+                if (choice == 1) {
+                    loadStudentsForAttendance();
+                }
+                return;
+            }
+        }
 
-        if (success) {
+        if (result == SaveResult.SAVED) {
+            loadedSheet = sheet;
             JOptionPane.showMessageDialog(this, 
                     "Attendance saved successfully!", 
                     "Success", 
@@ -338,6 +375,7 @@ public class AttendancePanel extends JPanel {
 
     private void clearTable() {
         tableModel.setRowCount(0);
+        loadedSheet = null;
         statusLabel.setText("Select date and subject, then click 'Load Students'");
     }
 }
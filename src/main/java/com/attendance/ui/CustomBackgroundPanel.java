@@ -21,6 +21,8 @@ import java.util.Random;
 import javax.swing.JPanel;
 import javax.swing.Timer;
 
+import com.attendance.diagnostics.BackgroundFrameEvent;
+
 /**
  * Custom panel with animated gradient background, floating particles, and wave effects
  * This only changes visual appearance - no content modifications
@@ -147,6 +149,8 @@ public class CustomBackgroundPanel extends JPanel {
 
     @Override
     protected void paintComponent(Graphics g) {
+        BackgroundFrameEvent frameEvent = new BackgroundFrameEvent();
+        frameEvent.begin();
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g.create();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -176,6 +180,14 @@ public class CustomBackgroundPanel extends JPanel {
         drawRipples(g2d);
         
         g2d.dispose();
+
+        if (frameEvent.shouldCommit()) {
+            frameEvent.width = width;
+            frameEvent.height = height;
+            frameEvent.particles = particles.size();
+            frameEvent.ripples = ripples.size();
+            frameEvent.commit();
+        }
     }
 
     private void drawAnimatedGradient(Graphics2D g2d, int width, int height) {
@@ -0,0 +1,229 @@
+package com.attendance.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Frame;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+
+import com.attendance.diagnostics.DaoMetrics;
+import com.attendance.diagnostics.EdtWatchdog;
+import com.attendance.diagnostics.MethodStats;
+import com.attendance.diagnostics.SlowQuery;
+import com.attendance.diagnostics.StallSite;
+
+/**
+ * Live view of DAO query statistics: per-method latency percentiles, rows and
+ * errors, errors by SQLState, and the most recent slow queries; plus the EDT
+ * stall watchdog's call sites ranked by total stall time
+ */
+public class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MILLIS = 1000;
+
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+    private final EdtWatchdog watchdog = EdtWatchdog.getInstance();
+    private DefaultTableModel tableModel;
+    private JTextArea slowQueryArea;
+    private DefaultTableModel stallTableModel;
+    private JTable stallTable;
+    private JTextArea stallStackArea;
+    private JLabel stallSummaryLabel;
+    private List<StallSite> stallSites = List.of();
+    private JLabel summaryLabel;
+    private Timer refreshTimer;
+
+    public DiagnosticsDialog(Frame parent) {
+        super(parent, "Diagnostics", false);
+        initializeComponents();
+        refresh();
+    }
+
+    private void initializeComponents() {
+        setSize(1000, 600);
+        setLocationRelativeTo(getParent());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout(5, 5));
+
+        summaryLabel = new JLabel();
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(8, 10, 0, 10));
+        add(summaryLabel, BorderLayout.NORTH);
+
+        String[] columns = {"DAO Method", "Calls", "Rows", "Errors", "p50 (ms)", "p99 (ms)", "Max (ms)", "Total (ms)"};
+        tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.getColumnModel().getColumn(0).setPreferredWidth(300);
+
+        slowQueryArea = new JTextArea();
+        slowQueryArea.setEditable(false);
+        slowQueryArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(table), new JScrollPane(slowQueryArea));
+        splitPane.setResizeWeight(0.65);
+        splitPane.setBorder(BorderFactory.createEmptyBorder(5, 10, 0, 10));
+
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.addTab("DAO Queries", splitPane);
+        tabbedPane.addTab("EDT Stalls", createStallPanel());
+        add(tabbedPane, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            watchdog.reset();
+            refresh();
+        });
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(resetButton);
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+        buttonPanel.setPreferredSize(new Dimension(0, 40));
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        refreshTimer.start();
+    }
+
+    private JPanel createStallPanel() {
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        stallSummaryLabel = new JLabel();
+        stallSummaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 0, 10));
+        panel.add(stallSummaryLabel, BorderLayout.NORTH);
+
+        String[] columns = {"Call Site", "Stalls", "Total (ms)", "Max (ms)", "JDBC", "Last UI Action"};
+        stallTableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        stallTable = new JTable(stallTableModel);
+        stallTable.getColumnModel().getColumn(0).setPreferredWidth(320);
+        stallTable.getColumnModel().getColumn(5).setPreferredWidth(260);
+        stallTable.getSelectionModel().addListSelectionListener(e -> showSelectedStack());
+
+        stallStackArea = new JTextArea();
+        stallStackArea.setEditable(false);
+        stallStackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(stallTable), new JScrollPane(stallStackArea));
+        splitPane.setResizeWeight(0.5);
+        splitPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        panel.add(splitPane, BorderLayout.CENTER);
+        return panel;
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    private void refresh() {
+        List<MethodStats> stats = metrics.snapshot();
+        tableModel.setRowCount(0);
+        for (MethodStats s : stats) {
+            tableModel.addRow(new Object[] {
+                    s.getMethod(),
+                    s.getCalls(),
+                    s.getRows(),
+                    s.getErrors(),
+                    millis(s.getP50Nanos()),
+                    millis(s.getP99Nanos()),
+                    millis(s.getMaxNanos()),
+                    millis(s.getTotalNanos())
+            });
+        }
+
+        Map<String, Long> errors = metrics.getErrorsBySqlState();
+        String status = metrics.isEnabled() ? "" : "  (instrumentation disabled in config.properties)";
+        summaryLabel.setText("Slow-query threshold: " + metrics.getSlowQueryThresholdMillis() + " ms"
+                + "    Errors by SQLState: " + (errors.isEmpty() ? "none" : errors.toString()) + status);
+
+        StringBuilder sb = new StringBuilder("Recent slow queries (newest first)");
+        if (metrics.getSlowQueryLog() != null) {
+            sb.append(", also written to ").append(metrics.getSlowQueryLog().toAbsolutePath());
+        }
+        sb.append('\n');
+        for (SlowQuery query : metrics.getRecentSlowQueries()) {
+            sb.append(query).append('\n');
+        }
+        if (!sb.toString().equals(slowQueryArea.getText())) {
+            slowQueryArea.setText(sb.toString());
+            slowQueryArea.setCaretPosition(0);
+        }
+
+        refreshStalls();
+    }
+
+    private void refreshStalls() {
+        if (!watchdog.isInstalled()) {
+            stallSummaryLabel.setText("EDT watchdog is off; set diagnostics.edtWatchdog=true in config.properties and restart");
+        } else {
+            stallSummaryLabel.setText("Dispatches busier than " + watchdog.getStallThresholdMillis()
+                    + " ms, ranked by total stall time"
+                    + (watchdog.getStallLog() != null ? ", also written to " + watchdog.getStallLog().toAbsolutePath() : ""));
+        }
+
+        // Keep the selected call site selected across refreshes
+        String selected = stallTable.getSelectedRow() >= 0
+                ? stallSites.get(stallTable.getSelectedRow()).getCallSite() : null;
+        stallSites = watchdog.getStallSites();
+        stallTableModel.setRowCount(0);
+        int selectedRow = -1;
+        for (StallSite site : stallSites) {
+            if (site.getCallSite().equals(selected)) {
+                selectedRow = stallTableModel.getRowCount();
+            }
+            stallTableModel.addRow(new Object[] {
+                    site.getCallSite(),
+                    site.getStalls(),
+                    millis(site.getTotalNanos()),
+                    millis(site.getMaxNanos()),
+                    site.isJdbc() ? "Yes" : "",
+                    site.getLastAction()
+            });
+        }
+        if (selectedRow >= 0) {
+            stallTable.setRowSelectionInterval(selectedRow, selectedRow);
+        }
+        showSelectedStack();
+    }
+
+    private void showSelectedStack() {
+        int row = stallTable.getSelectedRow();
+        String text = row >= 0 && row < stallSites.size()
+                ? "Last stall: " + stallSites.get(row).getLastAction() + "\n" + stallSites.get(row).getLastStack()
+                : "Select a call site to see the EDT stack of its most recent stall";
+        if (!text.equals(stallStackArea.getText())) {
+            stallStackArea.setText(text);
+            stallStackArea.setCaretPosition(0);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
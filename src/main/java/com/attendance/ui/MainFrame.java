@@ -3,6 +3,7 @@ package com.attendance.ui;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
@@ -10,9 +11,12 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.RenderingHints;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
@@ -20,16 +24,24 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.attendance.db.DatabaseConnection;
+import com.attendance.model.StudentImportResult;
+import com.attendance.service.AttendanceService;
 
 /**
  * Main application frame with menu bar and panel switching
  */
 public class MainFrame extends JFrame {
+    private static final int MAX_IMPORT_ERRORS_SHOWN = 500;
+
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private JLabel statusLabel;
@@ -103,6 +115,9 @@ public class MainFrame extends JFrame {
         JMenuItem manageStudentsItem = new JMenuItem("Manage Students");
         manageStudentsItem.addActionListener(e -> showPanel("students"));
         studentsMenu.add(manageStudentsItem);
+        JMenuItem importStudentsItem = new JMenuItem("Import Students from CSV...");
+        importStudentsItem.addActionListener(e -> importStudents());
+        studentsMenu.add(importStudentsItem);
         menuBar.add(studentsMenu);
         
         // Subjects menu
@@ -128,6 +143,9 @@ public class MainFrame extends JFrame {
         
         // Help menu
         JMenu helpMenu = createStyledMenu("Help", menuFont);
+        JMenuItem diagnosticsItem = new JMenuItem("Diagnostics");
+        diagnosticsItem.addActionListener(e -> new DiagnosticsDialog(this).setVisible(true));
+        helpMenu.add(diagnosticsItem);
         JMenuItem aboutItem = new JMenuItem("About");
         aboutItem.addActionListener(e -> showAboutDialog());
         helpMenu.add(aboutItem);
@@ -295,6 +313,81 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Add students from a CSV file chosen by the user, in the background, then
+     * show how many were imported and why any rows were rejected
+     */
+    private void importStudents() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Students");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String filePath = fileChooser.getSelectedFile().getAbsolutePath();
+
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        statusLabel.setText("Importing students from " + fileChooser.getSelectedFile().getName() + "...");
+        new SwingWorker<StudentImportResult, Void>() {
+            @Override
+            protected StudentImportResult doInBackground() {
+                return new AttendanceService().importStudents(filePath);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                StudentImportResult result;
+                try {
+                    result = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    System.err.println("Error importing students: " + e.getCause());
+                    e.getCause().printStackTrace();
+                    statusLabel.setText("Student import failed");
+                    JOptionPane.showMessageDialog(MainFrame.this,
+                            "Failed to import students.",
+                            "Import Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showImportResult(result);
+            }
+        }.execute();
+    }
+
+    private void showImportResult(StudentImportResult result) {
+        String summary = result.isFailed()
+                ? "No students were imported."
+                : result.getImported() + " of " + result.getRowsRead() + " students imported.";
+        statusLabel.setText(summary);
+        if (result.getImported() > 0) {
+            studentPanel.refreshData();
+        }
+
+        if (result.getErrors().isEmpty()) {
+            JOptionPane.showMessageDialog(this, summary, "Import Students", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder errors = new StringBuilder();
+        List<String> messages = result.getErrors();
+        for (int i = 0; i < Math.min(messages.size(), MAX_IMPORT_ERRORS_SHOWN); i++) {
+            errors.append(messages.get(i)).append('\n');
+        }
+        if (messages.size() > MAX_IMPORT_ERRORS_SHOWN) {
+            errors.append("... and ").append(messages.size() - MAX_IMPORT_ERRORS_SHOWN).append(" more");
+        }
+        JTextArea errorArea = new JTextArea(errors.toString(), 12, 60);
+        errorArea.setEditable(false);
+        JPanel message = new JPanel(new BorderLayout(5, 5));
+        message.add(new JLabel(summary + (result.isFailed() ? "" : " Rejected rows:")), BorderLayout.NORTH);
+        message.add(new JScrollPane(errorArea), BorderLayout.CENTER);
+        JOptionPane.showMessageDialog(this, message, "Import Students",
+                result.isFailed() ? JOptionPane.ERROR_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
     private void checkDatabaseConnection() {
         DatabaseConnection dbConnection = DatabaseConnection.getInstance();
         if (dbConnection.testConnection()) {
@@ -2,47 +2,75 @@ package com.attendance.ui;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.GridLayout;
 import java.io.File;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
+import javax.swing.ProgressMonitor;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 
 import com.attendance.dao.StudentDAO;
 import com.attendance.dao.SubjectDAO;
+import com.attendance.model.AtRiskRow;
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.OverallSummaryRow;
+import com.attendance.model.ReportResult;
 import com.attendance.model.Student;
+import com.attendance.model.StudentReportRow;
 import com.attendance.model.Subject;
+import com.attendance.model.SubjectReportRow;
 import com.attendance.service.AttendanceService;
 import com.attendance.util.CsvExporter;
+import com.toedter.calendar.JDateChooser;
 
 /**
  * Panel for viewing attendance reports and generating statistics
  */
 public class ReportPanel extends JPanel {
+    private static final int DATE_RANGE_PREVIEW_ROWS = 500;
+    private static final int DEFAULT_AT_RISK_STREAK = 3;
+
     private JComboBox<String> reportTypeComboBox;
     private JComboBox<Student> studentComboBox;
     private JComboBox<Subject> subjectComboBox;
+    private JDateChooser fromDateChooser;
+    private JDateChooser toDateChooser;
+    private JCheckBox archivedCheckBox;
+    private JSpinner streakSpinner;
     private JTable reportTable;
     private DefaultTableModel tableModel;
     private StudentDAO studentDAO;
     private SubjectDAO subjectDAO;
     private AttendanceService attendanceService;
     private JLabel summaryLabel;
+    private ReportResult<?> currentReport;
 
     public ReportPanel() {
         studentDAO = new StudentDAO();
@@ -78,7 +106,10 @@ public class ReportPanel extends JPanel {
         reportTypePanel.add(new JLabel("Report Type:"));
         reportTypeComboBox = new JComboBox<>(new String[]{
                 "Student Attendance Report",
-                "Subject Attendance Report"
+                "Subject Attendance Report",
+                "Overall Summary",
+                "At-Risk Students",
+                "Date Range Export"
         });
         reportTypeComboBox.addActionListener(e -> updateFilterVisibility());
         reportTypePanel.add(reportTypeComboBox);
@@ -99,8 +130,37 @@ public class ReportPanel extends JPanel {
         subjectPanel.add(new JLabel("Select Subject:"));
         subjectComboBox = new JComboBox<>();
         subjectComboBox.setPreferredSize(new Dimension(300, 25));
+        subjectPanel.add(subjectComboBox);
         topPanel.add(subjectPanel);
 
+        // Date range selection panel
+        JPanel dateRangePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        dateRangePanel.setBackground(lightBlue);
+        dateRangePanel.add(new JLabel("From:"));
+        fromDateChooser = new JDateChooser();
+        fromDateChooser.setDate(java.util.Date.from(LocalDate.now().withDayOfMonth(1)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        fromDateChooser.setPreferredSize(new Dimension(150, 25));
+        dateRangePanel.add(fromDateChooser);
+        dateRangePanel.add(new JLabel("To:"));
+        toDateChooser = new JDateChooser();
+        toDateChooser.setDate(new java.util.Date());
+        toDateChooser.setPreferredSize(new Dimension(150, 25));
+        dateRangePanel.add(toDateChooser);
+        // Archived terms are read from attendance_archive, not the current attendance table
+        archivedCheckBox = new JCheckBox("Archived terms");
+        archivedCheckBox.setBackground(lightBlue);
+        dateRangePanel.add(archivedCheckBox);
+        topPanel.add(dateRangePanel);
+
+        // At-risk threshold panel
+        JPanel streakPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        streakPanel.setBackground(lightBlue);
+        streakPanel.add(new JLabel("Consecutive Absences (min):"));
+        streakSpinner = new JSpinner(new SpinnerNumberModel(DEFAULT_AT_RISK_STREAK, 1, 365, 1));
+        streakPanel.add(streakSpinner);
+        topPanel.add(streakPanel);
+
         // Buttons panel
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         buttonsPanel.setBackground(lightBlue);
@@ -111,6 +171,10 @@ public class ReportPanel extends JPanel {
         JButton exportButton = new JButton("Export to CSV");
         exportButton.addActionListener(e -> exportReport());
         buttonsPanel.add(exportButton);
+
+        JButton bulkExportButton = new JButton("Bulk Export (ZIP)...");
+        bulkExportButton.addActionListener(e -> exportReportArchive());
+        buttonsPanel.add(bulkExportButton);
         
         topPanel.add(buttonsPanel);
 
@@ -157,6 +221,11 @@ public class ReportPanel extends JPanel {
             // Disabled auto-generation of default subjects
             // subjectDAO.ensureDefaultSubjects();
         loadSubjects();
+
+        // Streaks follow every save, so a shown at-risk list is brought up to date
+        if (currentReport != null && currentReport.getType() == ReportResult.Type.AT_RISK) {
+            generateAtRiskReport(currentReport.getEntityId());
+        }
     }
 
     private void loadStudents() {
@@ -179,6 +248,10 @@ public class ReportPanel extends JPanel {
         String reportType = (String) reportTypeComboBox.getSelectedItem();
         studentComboBox.setEnabled("Student Attendance Report".equals(reportType));
         subjectComboBox.setEnabled("Subject Attendance Report".equals(reportType));
+        fromDateChooser.setEnabled("Date Range Export".equals(reportType));
+        toDateChooser.setEnabled("Date Range Export".equals(reportType));
+        archivedCheckBox.setEnabled("Date Range Export".equals(reportType));
+        streakSpinner.setEnabled("At-Risk Students".equals(reportType));
     }
 
     private void generateReport() {
@@ -188,6 +261,12 @@ public class ReportPanel extends JPanel {
             generateStudentReport();
         } else if ("Subject Attendance Report".equals(reportType)) {
             generateSubjectReport();
+        } else if ("Overall Summary".equals(reportType)) {
+            generateOverallSummary();
+        } else if ("At-Risk Students".equals(reportType)) {
+            generateAtRiskReport((Integer) streakSpinner.getValue());
+        } else if ("Date Range Export".equals(reportType)) {
+            generateDateRangeReport();
         }
     }
 
@@ -198,107 +277,328 @@ public class ReportPanel extends JPanel {
             return;
         }
 
+        currentReport = attendanceService.generateStudentReport(selectedStudent);
+        renderReport(currentReport);
+
+        if (currentReport.getRows().isEmpty()) {
+            JOptionPane.showMessageDialog(this, 
+                    "No attendance records found for this student.", 
+                    "No Data", 
+                    JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    private void generateSubjectReport() {
+        Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
+        if (selectedSubject == null) {
+            JOptionPane.showMessageDialog(this, "Please select a subject.", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        currentReport = attendanceService.generateSubjectReport(selectedSubject);
+        renderReport(currentReport);
+
+        if (currentReport.getRows().isEmpty()) {
+            JOptionPane.showMessageDialog(this, 
+                    "No attendance records found for this subject.", 
+                    "No Data", 
+                    JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    private void generateOverallSummary() {
+        currentReport = attendanceService.generateOverallSummary();
+        renderReport(currentReport);
+
+        if (currentReport.getRows().isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "No students found.",
+                    "No Data",
+                    JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    /**
+     * Build the at-risk list off the EDT; the first one loads all attendance into memory
+     */
+    private void generateAtRiskReport(int minConsecutive) {
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        summaryLabel.setText("Finding students with " + minConsecutive + " or more consecutive absences...");
+        new SwingWorker<ReportResult<AtRiskRow>, Void>() {
+            @Override
+            protected ReportResult<AtRiskRow> doInBackground() {
+                return attendanceService.generateAtRiskReport(minConsecutive);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    currentReport = get();
+                    renderReport(currentReport);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    System.err.println("Error generating at-risk report: " + e.getCause());
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Failed to generate the at-risk report.",
+                            "Report Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Fill the table and summary from a generated report
+     */
+    @SuppressWarnings("unchecked")
+    private void renderReport(ReportResult<?> report) {
+        switch (report.getType()) {
+            case STUDENT:
+                renderStudentReport(report, (List<StudentReportRow>) report.getRows());
+                break;
+            case SUBJECT:
+                renderSubjectReport(report, (List<SubjectReportRow>) report.getRows());
+                break;
+            case OVERALL:
+                renderOverallSummary((List<OverallSummaryRow>) report.getRows());
+                break;
+            case AT_RISK:
+                renderAtRiskReport(report, (List<AtRiskRow>) report.getRows());
+                break;
+        }
+    }
+
+    private void renderStudentReport(ReportResult<?> report, List<StudentReportRow> reportData) {
         // Update table column headers for student report
         String[] columnNames = {"Subject Code", "Subject Name", "Total", "Present", "Absent", "Percentage"};
         tableModel.setColumnIdentifiers(columnNames);
         tableModel.setRowCount(0);
 
-        List<Map<String, Object>> reportData = attendanceService.getStudentAttendanceReport(selectedStudent.getStudentId());
-        
         int totalClasses = 0;
         int totalPresent = 0;
         int totalAbsent = 0;
         
-        for (Map<String, Object> row : reportData) {
+        for (StudentReportRow row : reportData) {
             Object[] tableRow = {
-                row.get("subjectCode"),
-                row.get("subjectName"),
-                row.get("total"),
-                row.get("present"),
-                row.get("absent"),
-                String.format("%.2f%%", row.get("percentage"))
+                row.getSubjectCode(),
+                row.getSubjectName(),
+                row.getTotal(),
+                row.getPresent(),
+                row.getAbsent(),
+                String.format("%.2f%%", row.getPercentage())
             };
             tableModel.addRow(tableRow);
             
-            totalClasses += (Integer) row.get("total");
-            totalPresent += (Integer) row.get("present");
-            totalAbsent += (Integer) row.get("absent");
+            totalClasses += row.getTotal();
+            totalPresent += row.getPresent();
+            totalAbsent += row.getAbsent();
         }
 
         if (reportData.isEmpty()) {
-            JOptionPane.showMessageDialog(this, 
-                    "No attendance records found for this student.", 
-                    "No Data", 
-                    JOptionPane.INFORMATION_MESSAGE);
             summaryLabel.setText("No attendance data available");
         } else {
             double overallPercentage = totalClasses > 0 ? (totalPresent * 100.0 / totalClasses) : 0;
             summaryLabel.setText(String.format(
                 "Student: %s (%s) | Total Classes: %d | Present: %d | Absent: %d | Overall Attendance: %.2f%%",
-                selectedStudent.getName(), selectedStudent.getRollNo(), 
+                report.getName(), report.getCode(), 
                 totalClasses, totalPresent, totalAbsent, overallPercentage
             ));
         }
     }
 
-    private void generateSubjectReport() {
-        Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
-        if (selectedSubject == null) {
-            JOptionPane.showMessageDialog(this, "Please select a subject.", "No Selection", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
+    private void renderSubjectReport(ReportResult<?> report, List<SubjectReportRow> reportData) {
         // Update table column headers for subject report
         String[] columnNames = {"Roll No", "Student Name", "Department", "Total", "Present", "Absent", "Percentage"};
         tableModel.setColumnIdentifiers(columnNames);
         tableModel.setRowCount(0);
 
-        List<Map<String, Object>> reportData = attendanceService.getSubjectAttendanceReport(selectedSubject.getSubjectId());
-        
         int totalStudents = reportData.size();
         int studentsAbove75 = 0;
         
-        for (Map<String, Object> row : reportData) {
+        for (SubjectReportRow row : reportData) {
             Object[] tableRow = {
-                row.get("rollNo"),
-                row.get("studentName"),
-                row.get("department"),
-                row.get("total"),
-                row.get("present"),
-                row.get("absent"),
-                String.format("%.2f%%", row.get("percentage"))
+                row.getRollNo(),
+                row.getStudentName(),
+                row.getDepartment(),
+                row.getTotal(),
+                row.getPresent(),
+                row.getAbsent(),
+                String.format("%.2f%%", row.getPercentage())
             };
             tableModel.addRow(tableRow);
             
-            double percentage = (Double) row.get("percentage");
-            if (percentage >= 75.0) {
+            if (row.getPercentage() >= 75.0) {
                 studentsAbove75++;
             }
         }
 
         if (reportData.isEmpty()) {
-            JOptionPane.showMessageDialog(this, 
-                    "No attendance records found for this subject.", 
-                    "No Data", 
-                    JOptionPane.INFORMATION_MESSAGE);
             summaryLabel.setText("No attendance data available");
         } else {
             summaryLabel.setText(String.format(
                 "Subject: %s (%s) | Total Students: %d | Students with ≥75%% Attendance: %d",
-                selectedSubject.getSubjectName(), selectedSubject.getSubjectCode(),
+                report.getName(), report.getCode(),
                 totalStudents, studentsAbove75
             ));
         }
     }
 
+    private void renderOverallSummary(List<OverallSummaryRow> summaryData) {
+        String[] columnNames = {"Roll No", "Student Name", "Department", "Semester", "Total", "Present", "Absent", "Percentage"};
+        tableModel.setColumnIdentifiers(columnNames);
+        tableModel.setRowCount(0);
+
+        int totalClasses = 0;
+        int totalPresent = 0;
+        int studentsAbove75 = 0;
+
+        for (OverallSummaryRow row : summaryData) {
+            Object[] tableRow = {
+                row.getRollNo(),
+                row.getStudentName(),
+                row.getDepartment(),
+                row.getSemester(),
+                row.getTotal(),
+                row.getPresent(),
+                row.getAbsent(),
+                String.format("%.2f%%", row.getPercentage())
+            };
+            tableModel.addRow(tableRow);
+
+            totalClasses += row.getTotal();
+            totalPresent += row.getPresent();
+            if (row.getPercentage() >= 75.0) {
+                studentsAbove75++;
+            }
+        }
+
+        if (summaryData.isEmpty()) {
+            summaryLabel.setText("No attendance data available");
+        } else {
+            double overallPercentage = totalClasses > 0 ? (totalPresent * 100.0 / totalClasses) : 0;
+            summaryLabel.setText(String.format(
+                "Total Students: %d | Students with ≥75%% Attendance: %d | Institution Attendance: %.2f%%",
+                summaryData.size(), studentsAbove75, overallPercentage
+            ));
+        }
+    }
+
+    private void renderAtRiskReport(ReportResult<?> report, List<AtRiskRow> rows) {
+        String[] columnNames = {"Roll No", "Student Name", "Department", "Subject", "Consecutive Absences", "Last Absent"};
+        tableModel.setColumnIdentifiers(columnNames);
+        tableModel.setRowCount(0);
+
+        Set<Integer> students = new HashSet<>();
+        for (AtRiskRow row : rows) {
+            Object[] tableRow = {
+                row.getRollNo(),
+                row.getStudentName(),
+                row.getDepartment(),
+                row.isAllSubjects() ? row.getSubjectName() : row.getSubjectCode() + " - " + row.getSubjectName(),
+                row.getConsecutiveAbsences(),
+                row.getLastAbsentDate()
+            };
+            tableModel.addRow(tableRow);
+            students.add(row.getStudentId());
+        }
+
+        if (rows.isEmpty()) {
+            summaryLabel.setText(String.format("No student has %d or more consecutive absences", report.getEntityId()));
+        } else {
+            summaryLabel.setText(String.format(
+                "Students at Risk: %d | Streaks of %d or more: %d | Longest: %d",
+                students.size(), report.getEntityId(), rows.size(), rows.get(0).getConsecutiveAbsences()
+            ));
+        }
+    }
+
+    private void generateDateRangeReport() {
+        LocalDate[] range = getSelectedDateRange();
+        if (range == null) {
+            return;
+        }
+
+        // Date range exports always stream fresh data, nothing to keep
+        currentReport = null;
+
+        String[] columnNames = {"Date", "Roll No", "Student Name", "Subject Code", "Subject Name", "Status"};
+        tableModel.setColumnIdentifiers(columnNames);
+        tableModel.setRowCount(0);
+
+        boolean archived = archivedCheckBox.isSelected();
+        long totalRecords = attendanceService.countAttendanceByDateRange(range[0], range[1], archived);
+        if (totalRecords == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "No attendance records found in this date range.",
+                    "No Data",
+                    JOptionPane.INFORMATION_MESSAGE);
+            summaryLabel.setText("No attendance data available");
+            return;
+        }
+
+        // Only a preview is loaded; the export streams the full range to disk
+        List<AttendanceRecord> preview = attendanceService.getAttendanceByDateRange(
+                range[0], range[1], DATE_RANGE_PREVIEW_ROWS, archived);
+        for (AttendanceRecord record : preview) {
+            Object[] tableRow = {
+                record.getDate(),
+                record.getRollNo(),
+                record.getStudentName(),
+                record.getSubjectCode(),
+                record.getSubjectName(),
+                record.getStatus()
+            };
+            tableModel.addRow(tableRow);
+        }
+
+        summaryLabel.setText(String.format(
+            "Date Range: %s to %s%s | Records: %d | Showing first %d (export writes all records)",
+            range[0], range[1], archived ? " (archived terms)" : "", totalRecords, preview.size()
+        ));
+    }
+
+    /**
+     * Read and validate the selected date range
+     */
+    private LocalDate[] getSelectedDateRange() {
+        if (fromDateChooser.getDate() == null || toDateChooser.getDate() == null) {
+            JOptionPane.showMessageDialog(this, "Please select both dates.", "No Date", JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+        LocalDate startDate = fromDateChooser.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        LocalDate endDate = toDateChooser.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        if (startDate.isAfter(endDate)) {
+            JOptionPane.showMessageDialog(this, "'From' date must not be after 'To' date.",
+                    "Invalid Range", JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+        return new LocalDate[]{startDate, endDate};
+    }
+
     private void exportReport() {
-        if (tableModel.getRowCount() == 0) {
+        String selectedType = (String) reportTypeComboBox.getSelectedItem();
+        if ("Date Range Export".equals(selectedType)) {
+            exportDateRangeReport();
+            return;
+        }
+
+        if (currentReport == null || tableModel.getRowCount() == 0) {
             JOptionPane.showMessageDialog(this, 
                     "No data to export. Please generate a report first.", 
                     "No Data", 
                     JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (!isSelected(currentReport)) {
+            JOptionPane.showMessageDialog(this,
+                    "The report shown is not the one selected. Please generate the selected report first.",
+                    "Report Changed",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Export Report");
@@ -315,28 +615,13 @@ public class ReportPanel extends JPanel {
                 filePath += ".csv";
             }
 
-            String reportType = (String) reportTypeComboBox.getSelectedItem();
-            boolean success = false;
-
-            if ("Student Attendance Report".equals(reportType)) {
-                Student selectedStudent = (Student) studentComboBox.getSelectedItem();
-                if (selectedStudent != null) {
-                    List<Map<String, Object>> reportData = attendanceService.getStudentAttendanceReport(selectedStudent.getStudentId());
-                    success = CsvExporter.exportStudentReport(filePath, 
-                            selectedStudent.getName(), 
-                            selectedStudent.getRollNo(), 
-                            reportData);
-                }
-            } else if ("Subject Attendance Report".equals(reportType)) {
-                Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
-                if (selectedSubject != null) {
-                    List<Map<String, Object>> reportData = attendanceService.getSubjectAttendanceReport(selectedSubject.getSubjectId());
-                    success = CsvExporter.exportSubjectReport(filePath, 
-                            selectedSubject.getSubjectCode(), 
-                            selectedSubject.getSubjectName(), 
-                            reportData);
-                }
+            // Write the rows already on screen; regenerate only if data changed since then
+            ReportResult<?> report = attendanceService.ensureCurrent(currentReport);
+            if (report != currentReport) {
+                currentReport = report;
+                renderReport(report);
             }
+            boolean success = CsvExporter.exportReport(filePath, report);
 
             if (success) {
                 JOptionPane.showMessageDialog(this, 
@@ -351,4 +636,242 @@ public class ReportPanel extends JPanel {
             }
         }
     }
+
+    /**
+     * Whether the report is the one the report options currently select
+     */
+    private boolean isSelected(ReportResult<?> report) {
+        String reportType = (String) reportTypeComboBox.getSelectedItem();
+        switch (report.getType()) {
+            case STUDENT:
+                Student student = (Student) studentComboBox.getSelectedItem();
+                return "Student Attendance Report".equals(reportType)
+                        && student != null && student.getStudentId() == report.getEntityId();
+            case SUBJECT:
+                Subject subject = (Subject) subjectComboBox.getSelectedItem();
+                return "Subject Attendance Report".equals(reportType)
+                        && subject != null && subject.getSubjectId() == report.getEntityId();
+            case OVERALL:
+                return "Overall Summary".equals(reportType);
+            case AT_RISK:
+                return "At-Risk Students".equals(reportType)
+                        && (Integer) streakSpinner.getValue() == report.getEntityId();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Stream the selected date range to a CSV file on a background thread,
+     * with a cancellable progress dialog
+     */
+    private void exportDateRangeReport() {
+        LocalDate[] range = getSelectedDateRange();
+        if (range == null) {
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Attendance Records");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
+        fileChooser.setSelectedFile(new File("attendance_" + range[0] + "_to_" + range[1] + ".csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        String selectedPath = fileChooser.getSelectedFile().getAbsolutePath();
+        String filePath = selectedPath.toLowerCase().endsWith(".csv") ? selectedPath : selectedPath + ".csv";
+
+        boolean archived = archivedCheckBox.isSelected();
+        long totalRecords = attendanceService.countAttendanceByDateRange(range[0], range[1], archived);
+        int progressMax = (int) Math.min(Math.max(totalRecords, 1), Integer.MAX_VALUE);
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting attendance records...",
+                "Preparing export", 0, progressMax);
+        monitor.setMillisToDecideToPopup(200);
+
+        SwingWorker<Long, Long> worker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() {
+                return attendanceService.exportAttendanceByDateRange(filePath, range[0], range[1], archived, rowsWritten -> {
+                    publish(rowsWritten);
+                    return !monitor.isCanceled();
+                });
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                long rowsWritten = chunks.get(chunks.size() - 1);
+                monitor.setProgress((int) Math.min(rowsWritten, progressMax));
+                monitor.setNote(rowsWritten + " of " + totalRecords + " records written");
+            }
+
+            @Override
+            protected void done() {
+                boolean cancelled = monitor.isCanceled();
+                monitor.close();
+                long rows = -1;
+                try {
+                    rows = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+
+                if (rows >= 0) {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            rows + " records exported successfully to:\n" + filePath,
+                            "Export Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else if (cancelled) {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Export cancelled.",
+                            "Export Cancelled",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Failed to export report.",
+                            "Export Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+    /**
+     * Export the student reports of everyone in a class, department or semester,
+     * optionally with subject reports, into one ZIP file on a background thread
+     */
+    private void exportReportArchive() {
+        List<Student> allStudents = studentDAO.getAllStudents();
+        JComboBox<String> scopeComboBox = new JComboBox<>(new String[]{
+                "All Students", "Class", "Department", "Semester", "No Students"
+        });
+        JComboBox<String> valueComboBox = new JComboBox<>();
+        JCheckBox subjectsCheckBox = new JCheckBox("Include subject reports");
+        scopeComboBox.addActionListener(e -> {
+            String scope = (String) scopeComboBox.getSelectedItem();
+            Set<String> values = new TreeSet<>();
+            for (Student student : allStudents) {
+                if ("Class".equals(scope)) {
+                    values.add(student.getClassName());
+                } else if ("Department".equals(scope)) {
+                    values.add(student.getDepartment());
+                }
+            }
+            valueComboBox.removeAllItems();
+            if ("Semester".equals(scope)) {
+                allStudents.stream().mapToInt(Student::getSemester).distinct().sorted()
+                        .forEach(semester -> valueComboBox.addItem(String.valueOf(semester)));
+            } else {
+                values.forEach(valueComboBox::addItem);
+            }
+            valueComboBox.setEnabled(valueComboBox.getItemCount() > 0);
+        });
+        scopeComboBox.setSelectedIndex(0);
+
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        optionsPanel.add(new JLabel("Students:"));
+        optionsPanel.add(scopeComboBox);
+        optionsPanel.add(new JLabel("Value:"));
+        optionsPanel.add(valueComboBox);
+        optionsPanel.add(subjectsCheckBox);
+        if (JOptionPane.showConfirmDialog(this, optionsPanel, "Bulk Export",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        String scope = (String) scopeComboBox.getSelectedItem();
+        String value = (String) valueComboBox.getSelectedItem();
+        if (!"All Students".equals(scope) && !"No Students".equals(scope) && value == null) {
+            JOptionPane.showMessageDialog(this, "Please select a " + scope.toLowerCase() + ".",
+                    "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        List<Student> students;
+        if ("Class".equals(scope)) {
+            students = studentDAO.getStudentsByClass(value);
+        } else if ("Department".equals(scope)) {
+            students = studentDAO.getStudentsByDepartment(value);
+        } else if ("Semester".equals(scope)) {
+            students = studentDAO.getStudentsBySemester(Integer.parseInt(value));
+        } else if ("No Students".equals(scope)) {
+            students = new ArrayList<>();
+        } else {
+            students = allStudents;
+        }
+        List<Subject> subjects = new ArrayList<>();
+        if (subjectsCheckBox.isSelected()) {
+            // A semester's export carries that semester's subjects, any other scope all of them
+            subjects = "Semester".equals(scope)
+                    ? subjectDAO.getSubjectsBySemester(Integer.parseInt(value))
+                    : subjectDAO.getAllSubjects();
+        }
+        int total = students.size() + subjects.size();
+        if (total == 0) {
+            JOptionPane.showMessageDialog(this, "No reports to export.", "No Data", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Reports");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("ZIP Files", "zip"));
+        fileChooser.setSelectedFile(new File("attendance_reports.zip"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        String selectedPath = fileChooser.getSelectedFile().getAbsolutePath();
+        String filePath = selectedPath.toLowerCase().endsWith(".zip") ? selectedPath : selectedPath + ".zip";
+        List<Subject> subjectsToExport = subjects;
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting reports...",
+                "Preparing export", 0, total);
+        monitor.setMillisToDecideToPopup(200);
+
+        SwingWorker<Long, Long> worker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() {
+                return attendanceService.exportReportArchive(filePath, students, subjectsToExport, reportsWritten -> {
+                    publish(reportsWritten);
+                    return !monitor.isCanceled();
+                });
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                long reportsWritten = chunks.get(chunks.size() - 1);
+                monitor.setProgress((int) reportsWritten);
+                monitor.setNote(reportsWritten + " of " + total + " reports written");
+            }
+
+            @Override
+            protected void done() {
+                boolean cancelled = monitor.isCanceled();
+                monitor.close();
+                long reports = -1;
+                try {
+                    reports = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+
+                if (reports >= 0) {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            reports + " reports exported successfully to:\n" + filePath,
+                            "Export Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else if (cancelled) {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Export cancelled.",
+                            "Export Cancelled",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Failed to export reports.",
+                            "Export Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
 }
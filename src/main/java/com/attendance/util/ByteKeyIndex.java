@@ -0,0 +1,157 @@
+package com.attendance.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Read-only lookup from a text key to an int id that is queried with the UTF-8
+ * bytes of a buffer region, so a key read from a file is matched without being
+ * decoded into a String. ASCII letters match regardless of case and leading and
+ * trailing blanks are ignored; with ignoreSeparators, spaces and underscores
+ * inside the key are ignored as well ("On Duty" matches "ON_DUTY").
+ *
+ * Open addressing with linear probing over parallel arrays. Filled once with put,
+ * then safe to query from any thread.
+ */
+public final class ByteKeyIndex {
+    public static final int MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final boolean ignoreSeparators;
+    private final byte[][] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    public ByteKeyIndex(int expected, boolean ignoreSeparators) {
+        this.ignoreSeparators = ignoreSeparators;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new byte[capacity][];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Add a key; a key that is already present keeps its first id
+     * @throws IllegalStateException when more keys are added than the index was sized for
+     */
+    public void put(String key, int value) {
+        if (size >= keys.length * LOAD_FACTOR) {
+            throw new IllegalStateException("Index is full");
+        }
+        byte[] folded = fold(key.getBytes(StandardCharsets.UTF_8));
+        if (folded.length == 0) {
+            return;
+        }
+        int slot = hash(folded, 0, folded.length) & mask;
+        while (keys[slot] != null) {
+            if (equalsFolded(keys[slot], folded, 0, folded.length)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = folded;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Id of the key in buffer[offset, offset + length), or MISSING
+     */
+    public int get(ByteBuffer buffer, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && isBlank(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isBlank(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return MISSING;
+        }
+
+        int h = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (!skip(b)) {
+                h = (h ^ lower(b)) * 0x01000193;
+            }
+        }
+        int slot = mix(h) & mask;
+        while (keys[slot] != null) {
+            if (matches(keys[slot], buffer, start, end)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+        int k = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (skip(b)) {
+                continue;
+            }
+            if (k == key.length || key[k++] != lower(b)) {
+                return false;
+            }
+        }
+        return k == key.length;
+    }
+
+    private byte[] fold(byte[] raw) {
+        int start = 0;
+        int end = raw.length;
+        while (start < end && isBlank(raw[start])) {
+            start++;
+        }
+        while (end > start && isBlank(raw[end - 1])) {
+            end--;
+        }
+        byte[] folded = new byte[end - start];
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            if (!skip(raw[i])) {
+                folded[n++] = lower(raw[i]);
+            }
+        }
+        return n == folded.length ? folded : Arrays.copyOf(folded, n);
+    }
+
+    private static int hash(byte[] folded, int start, int end) {
+        int h = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ folded[i]) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private static boolean equalsFolded(byte[] a, byte[] b, int start, int end) {
+        return Arrays.equals(a, 0, a.length, b, start, end);
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private boolean skip(byte b) {
+        return ignoreSeparators && (b == ' ' || b == '_');
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
@@ -1,164 +1,333 @@
 package com.attendance.util;
 
-import java.io.FileWriter;
+import com.attendance.diagnostics.CsvExportEvent;
+import com.attendance.model.AtRiskRow;
+import com.attendance.model.AttendanceRecord;
+import com.attendance.model.ExportWatermark;
+import com.attendance.model.OverallSummaryRow;
+import com.attendance.model.ReportResult;
+import com.attendance.model.StudentReportRow;
+import com.attendance.model.SubjectReportRow;
+
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Utility class for exporting data to CSV format
+ * Utility class for exporting data to CSV format.
+ * Files are written as UTF-8 through {@link CsvWriter}; the write* methods
+ * render onto any writer so callers can target other channels. Every file
+ * export is recorded as a CsvExport flight recorder event.
  */
 public class CsvExporter {
-    
+
+    /**
+     * Export a previously generated report to CSV, using the layout for its type
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean exportReport(String filePath, ReportResult<?> report) {
+        switch (report.getType()) {
+            case STUDENT:
+                return exportStudentReport(filePath, report.getName(), report.getCode(),
+                        (List<StudentReportRow>) report.getRows());
+            case SUBJECT:
+                return exportSubjectReport(filePath, report.getCode(), report.getName(),
+                        (List<SubjectReportRow>) report.getRows());
+            case OVERALL:
+                return exportOverallSummary(filePath, (List<OverallSummaryRow>) report.getRows());
+            case AT_RISK:
+                return exportAtRiskReport(filePath, report.getEntityId(), (List<AtRiskRow>) report.getRows());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Write a previously generated report, using the layout for its type
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeReport(CsvWriter writer, ReportResult<?> report) throws IOException {
+        switch (report.getType()) {
+            case STUDENT:
+                writeStudentReport(writer, report.getName(), report.getCode(), (List<StudentReportRow>) report.getRows());
+                break;
+            case SUBJECT:
+                writeSubjectReport(writer, report.getCode(), report.getName(), (List<SubjectReportRow>) report.getRows());
+                break;
+            case OVERALL:
+                writeOverallSummary(writer, (List<OverallSummaryRow>) report.getRows());
+                break;
+            case AT_RISK:
+                writeAtRiskReport(writer, report.getEntityId(), (List<AtRiskRow>) report.getRows());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown report type: " + report.getType());
+        }
+    }
+
+    /**
+     * File name for the report of one student or subject, from its roll number or
+     * subject code; the id keeps names unique after unsafe characters are replaced
+     */
+    public static String fileName(String code, int id) {
+        String safe = code == null ? "" : code.replaceAll("[^A-Za-z0-9._-]", "_");
+        return (safe.isEmpty() ? String.valueOf(id) : safe + "_" + id) + ".csv";
+    }
+
     /**
      * Export student attendance report to CSV
      */
-    public static boolean exportStudentReport(String filePath, String studentName, String rollNo, 
-                                               List<Map<String, Object>> reportData) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write header
-            writer.append("Student Attendance Report\n");
-            writer.append("Student Name: ").append(studentName).append("\n");
-            writer.append("Roll Number: ").append(rollNo).append("\n");
-            writer.append("Generated On: ").append(LocalDate.now().toString()).append("\n\n");
-            
-            // Write column headers
-            writer.append("Subject Code,Subject Name,Total Classes,Present,Absent,Percentage\n");
-            
-            // Write data rows
-            for (Map<String, Object> row : reportData) {
-                writer.append(escapeSpecialCharacters(row.get("subjectCode").toString())).append(",");
-                writer.append(escapeSpecialCharacters(row.get("subjectName").toString())).append(",");
-                writer.append(row.get("total").toString()).append(",");
-                writer.append(row.get("present").toString()).append(",");
-                writer.append(row.get("absent").toString()).append(",");
-                writer.append(String.format("%.2f", row.get("percentage"))).append("%\n");
-            }
-            
-            writer.flush();
+    public static boolean exportStudentReport(String filePath, String studentName, String rollNo,
+                                               List<StudentReportRow> reportData) {
+        CsvExportEvent event = CsvExportEvent.start("Student Report", filePath);
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeStudentReport(writer, studentName, rollNo, reportData);
+            event.setOutput(reportData.size(), writer.getBytesWritten());
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting student report to CSV: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            event.complete();
+        }
+    }
+
+    /**
+     * Write a student attendance report
+     */
+    public static void writeStudentReport(CsvWriter writer, String studentName, String rollNo,
+                                          List<StudentReportRow> reportData) throws IOException {
+        // Write header
+        writer.line("Student Attendance Report");
+        writer.raw("Student Name: ").line(studentName);
+        writer.raw("Roll Number: ").line(rollNo);
+        writeGeneratedOn(writer);
+
+        // Write column headers
+        writer.line("Subject Code,Subject Name,Total Classes,Present,Absent,Percentage");
+
+        // Write data rows
+        for (StudentReportRow row : reportData) {
+            writer.cell(row.getSubjectCode())
+                  .cell(row.getSubjectName())
+                  .cell(row.getTotal())
+                  .cell(row.getPresent())
+                  .cell(row.getAbsent())
+                  .percentCell(row.getPercentage())
+                  .endRow();
         }
     }
-    
+
     /**
      * Export subject attendance report to CSV
      */
-    public static boolean exportSubjectReport(String filePath, String subjectCode, String subjectName, 
-                                               List<Map<String, Object>> reportData) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write header
-            writer.append("Subject Attendance Report\n");
-            writer.append("Subject: ").append(subjectCode).append(" - ").append(subjectName).append("\n");
-            writer.append("Generated On: ").append(LocalDate.now().toString()).append("\n\n");
-            
-            // Write column headers
-            writer.append("Roll No,Student Name,Department,Total Classes,Present,Absent,Percentage\n");
-            
-            // Write data rows
-            for (Map<String, Object> row : reportData) {
-                writer.append(escapeSpecialCharacters(row.get("rollNo").toString())).append(",");
-                writer.append(escapeSpecialCharacters(row.get("studentName").toString())).append(",");
-                writer.append(escapeSpecialCharacters(row.get("department").toString())).append(",");
-                writer.append(row.get("total").toString()).append(",");
-                writer.append(row.get("present").toString()).append(",");
-                writer.append(row.get("absent").toString()).append(",");
-                writer.append(String.format("%.2f", row.get("percentage"))).append("%\n");
-            }
-            
-            writer.flush();
+    public static boolean exportSubjectReport(String filePath, String subjectCode, String subjectName,
+                                               List<SubjectReportRow> reportData) {
+        CsvExportEvent event = CsvExportEvent.start("Subject Report", filePath);
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeSubjectReport(writer, subjectCode, subjectName, reportData);
+            event.setOutput(reportData.size(), writer.getBytesWritten());
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting subject report to CSV: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            event.complete();
         }
     }
-    
+
+    /**
+     * Write a subject attendance report
+     */
+    public static void writeSubjectReport(CsvWriter writer, String subjectCode, String subjectName,
+                                          List<SubjectReportRow> reportData) throws IOException {
+        // Write header
+        writer.line("Subject Attendance Report");
+        writer.raw("Subject: ").raw(subjectCode).raw(" - ").line(subjectName);
+        writeGeneratedOn(writer);
+
+        // Write column headers
+        writer.line("Roll No,Student Name,Department,Total Classes,Present,Absent,Percentage");
+
+        // Write data rows
+        for (SubjectReportRow row : reportData) {
+            writer.cell(row.getRollNo())
+                  .cell(row.getStudentName())
+                  .cell(row.getDepartment())
+                  .cell(row.getTotal())
+                  .cell(row.getPresent())
+                  .cell(row.getAbsent())
+                  .percentCell(row.getPercentage())
+                  .endRow();
+        }
+    }
+
     /**
      * Export attendance records by date range to CSV
      */
     public static boolean exportAttendanceByDateRange(String filePath, LocalDate startDate, LocalDate endDate,
-                                                       List<Object[]> reportData) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write header
-            writer.append("Attendance Records Report\n");
-            writer.append("Date Range: ").append(startDate.toString()).append(" to ").append(endDate.toString()).append("\n");
-            writer.append("Generated On: ").append(LocalDate.now().toString()).append("\n\n");
-            
-            // Write column headers
-            writer.append("Date,Roll No,Student Name,Subject Code,Subject Name,Status\n");
-            
+                                                       List<AttendanceRecord> records) {
+        CsvExportEvent event = CsvExportEvent.start("Date Range", filePath);
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeDateRangeHeader(writer, startDate, endDate);
+
             // Write data rows
-            for (Object[] row : reportData) {
-                writer.append(row[0].toString()).append(","); // date
-                writer.append(escapeSpecialCharacters(row[1].toString())).append(","); // rollNo
-                writer.append(escapeSpecialCharacters(row[2].toString())).append(","); // studentName
-                writer.append(escapeSpecialCharacters(row[3].toString())).append(","); // subjectCode
-                writer.append(escapeSpecialCharacters(row[4].toString())).append(","); // subjectName
-                writer.append(row[5].toString()).append("\n"); // status
+            for (AttendanceRecord record : records) {
+                writeDateRangeRow(writer, record);
             }
-            
-            writer.flush();
+            event.setOutput(records.size(), writer.getBytesWritten());
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting attendance records to CSV: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            event.complete();
         }
     }
-    
+
+    /**
+     * Write the title block and column headers of a date range export
+     */
+    public static void writeDateRangeHeader(CsvWriter writer, LocalDate startDate, LocalDate endDate) throws IOException {
+        writer.line("Attendance Records Report");
+        writer.raw("Date Range: ").raw(startDate.toString()).raw(" to ").line(endDate.toString());
+        writeGeneratedOn(writer);
+        writer.line("Date,Roll No,Student Name,Subject Code,Subject Name,Status");
+    }
+
+    /**
+     * Write one streamed attendance record as a date range export row
+     */
+    public static void writeDateRangeRow(CsvWriter writer, AttendanceRecord record) throws IOException {
+        writer.cell(record.getDate())
+              .cell(record.getRollNo())
+              .cell(record.getStudentName())
+              .cell(record.getSubjectCode())
+              .cell(record.getSubjectName())
+              .cell(record.getStatus().getLabel())
+              .endRow();
+    }
+
+    /**
+     * Write the title block and column headers of an incremental export of the rows
+     * changed since one watermark. The first six columns are those of a date range
+     * export, so the file can be imported like one.
+     */
+    public static void writeChangesHeader(CsvWriter writer, ExportWatermark since, LocalDateTime until)
+            throws IOException {
+        writer.line("Attendance Changes Report");
+        writer.raw("Changed After: ").raw(since.toString()).raw(" Before: ").line(until.toString());
+        writeGeneratedOn(writer);
+        writer.line("Date,Roll No,Student Name,Subject Code,Subject Name,Status,Attendance ID,Updated At");
+    }
+
+    /**
+     * Write one streamed changed record as an incremental export row
+     */
+    public static void writeChangesRow(CsvWriter writer, AttendanceRecord record) throws IOException {
+        writer.cell(record.getDate())
+              .cell(record.getRollNo())
+              .cell(record.getStudentName())
+              .cell(record.getSubjectCode())
+              .cell(record.getSubjectName())
+              .cell(record.getStatus().getLabel())
+              .cell(record.getAttendanceId())
+              .cell(record.getUpdatedAt().toString())
+              .endRow();
+    }
+
     /**
      * Export overall attendance summary to CSV
      */
-    public static boolean exportOverallSummary(String filePath, List<Object[]> summaryData) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write header
-            writer.append("Overall Attendance Summary\n");
-            writer.append("Generated On: ").append(LocalDate.now().toString()).append("\n\n");
-            
-            // Write column headers
-            writer.append("Roll No,Student Name,Department,Semester,Total Classes,Present,Absent,Percentage\n");
-            
-            // Write data rows
-            for (Object[] row : summaryData) {
-                writer.append(escapeSpecialCharacters(row[0].toString())).append(","); // rollNo
-                writer.append(escapeSpecialCharacters(row[1].toString())).append(","); // studentName
-                writer.append(escapeSpecialCharacters(row[2].toString())).append(","); // department
-                writer.append(row[3].toString()).append(","); // semester
-                writer.append(row[4].toString()).append(","); // total
-                writer.append(row[5].toString()).append(","); // present
-                writer.append(row[6].toString()).append(","); // absent
-                writer.append(String.format("%.2f", row[7])).append("%\n"); // percentage
-            }
-            
-            writer.flush();
+    public static boolean exportOverallSummary(String filePath, List<OverallSummaryRow> summaryData) {
+        CsvExportEvent event = CsvExportEvent.start("Overall Summary", filePath);
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeOverallSummary(writer, summaryData);
+            event.setOutput(summaryData.size(), writer.getBytesWritten());
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting overall summary to CSV: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            event.complete();
+        }
+    }
+
+    /**
+     * Write an overall attendance summary
+     */
+    public static void writeOverallSummary(CsvWriter writer, List<OverallSummaryRow> summaryData) throws IOException {
+        // Write header
+        writer.line("Overall Attendance Summary");
+        writeGeneratedOn(writer);
+
+        // Write column headers
+        writer.line("Roll No,Student Name,Department,Semester,Total Classes,Present,Absent,Percentage");
+
+        // Write data rows
+        for (OverallSummaryRow row : summaryData) {
+            writer.cell(row.getRollNo())
+                  .cell(row.getStudentName())
+                  .cell(row.getDepartment())
+                  .cell(row.getSemester())
+                  .cell(row.getTotal())
+                  .cell(row.getPresent())
+                  .cell(row.getAbsent())
+                  .percentCell(row.getPercentage())
+                  .endRow();
         }
     }
-    
+
     /**
-     * Escape special characters in CSV values
+     * Export the at-risk students report to CSV
      */
-    private static String escapeSpecialCharacters(String data) {
-        if (data == null) {
-            return "";
+    public static boolean exportAtRiskReport(String filePath, int minConsecutive, List<AtRiskRow> rows) {
+        CsvExportEvent event = CsvExportEvent.start("At-Risk Students", filePath);
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeAtRiskReport(writer, minConsecutive, rows);
+            event.setOutput(rows.size(), writer.getBytesWritten());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error exporting at-risk report to CSV: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            event.complete();
         }
-        
-        String escapedData = data.replaceAll("\\R", " ");
-        if (data.contains(",") || data.contains("\"") || data.contains("'")) {
-            data = data.replace("\"", "\"\"");
-            escapedData = "\"" + data + "\"";
+    }
+
+    /**
+     * Write the at-risk students report
+     */
+    public static void writeAtRiskReport(CsvWriter writer, int minConsecutive, List<AtRiskRow> rows) throws IOException {
+        // Write header
+        writer.line("At-Risk Students");
+        writer.raw("Minimum Consecutive Absences: ").line(String.valueOf(minConsecutive));
+        writeGeneratedOn(writer);
+
+        // Write column headers
+        writer.line("Roll No,Student Name,Department,Subject Code,Subject Name,Consecutive Absences,Last Absent");
+
+        // Write data rows
+        for (AtRiskRow row : rows) {
+            writer.cell(row.getRollNo())
+                  .cell(row.getStudentName())
+                  .cell(row.getDepartment())
+                  .cell(row.getSubjectCode())
+                  .cell(row.getSubjectName())
+                  .cell(row.getConsecutiveAbsences())
+                  .cell(row.getLastAbsentDate())
+                  .endRow();
         }
-        return escapedData;
+    }
+
+    private static void writeGeneratedOn(CsvWriter writer) throws IOException {
+        writer.raw("Generated On: ").line(LocalDate.now().toString());
+        writer.endRow();
     }
 }
@@ -0,0 +1,137 @@
+package com.attendance.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader, one record at a time, so files of any size are read in
+ * constant memory. Understands the quoting CsvWriter produces: quoted cells may
+ * contain commas, line breaks and doubled quotes. A UTF-8 byte order mark, as
+ * spreadsheet programs write, is skipped.
+ */
+public class CsvReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+    private final StringBuilder cell = new StringBuilder();
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+        this.buf = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Open a reader on a UTF-8 file
+     */
+    public static CsvReader open(String filePath) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8);
+        return new CsvReader(reader);
+    }
+
+    /**
+     * Read the next record
+     * @return the record's cells, or null at the end of the input
+     */
+    public List<String> readRecord() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') {
+                pos++;
+            }
+        }
+        if (peek() < 0) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> cells = new ArrayList<>();
+        cell.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            int c = next();
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted cell starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        pos++;
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r' && peek() == '\n') {
+                    pos++;
+                }
+                if (c >= 0) {
+                    line++;
+                }
+                cells.add(cell.toString());
+                return cells;
+            } else {
+                cell.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Line of the input the last record started on, counting from 1
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+    private int next() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buf, 0, buf.length);
+        if (n <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
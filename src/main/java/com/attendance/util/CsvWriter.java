@@ -0,0 +1,346 @@
+package com.attendance.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffered CSV writer on top of an NIO channel.
+ * Characters are encoded to UTF-8 straight into a large byte buffer, so cells
+ * never go through intermediate Strings, regexes or Formatter calls.
+ */
+public class CsvWriter implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+    // Below this the hundredths are exact enough in a double to round directly
+    private static final double FIXED2_FAST_LIMIT = 1e7;
+    private static final double FIXED2_TIE_MARGIN = 1e-4;
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final byte[] buf;
+    private final ByteBuffer view;
+    private int pos;
+    private long bytesWritten;
+    private boolean rowStarted;
+
+    public CsvWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        // Never smaller than the widest single put (a formatted long)
+        this.buf = new byte[Math.max(bufferSize, 64)];
+        this.view = ByteBuffer.wrap(buf);
+    }
+
+    /**
+     * Open a writer that creates or truncates the given file
+     */
+    public static CsvWriter open(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new CsvWriter(channel);
+    }
+
+    /**
+     * Open a writer that creates or truncates the given file and gzip-compresses what is written
+     */
+    public static CsvWriter openCompressed(String filePath) throws IOException {
+        OutputStream out = Files.newOutputStream(Path.of(filePath));
+        try {
+            return new CsvWriter(Channels.newChannel(new GZIPOutputStream(out, DEFAULT_BUFFER_SIZE)));
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write a raw line (no escaping) followed by a newline, e.g. report headers
+     */
+    public CsvWriter line(String text) throws IOException {
+        writeChars(text);
+        return endRow();
+    }
+
+    /**
+     * Write raw text without escaping or separators
+     */
+    public CsvWriter raw(String text) throws IOException {
+        writeChars(text);
+        return this;
+    }
+
+    /**
+     * Write a text cell, quoting and escaping it when needed
+     */
+    public CsvWriter cell(String value) throws IOException {
+        separator();
+        writeEscaped(value);
+        return this;
+    }
+
+    /**
+     * Write an integer cell
+     */
+    public CsvWriter cell(long value) throws IOException {
+        separator();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Write a date cell in ISO-8601 format (yyyy-MM-dd)
+     */
+    public CsvWriter cell(LocalDate date) throws IOException {
+        separator();
+        if (date != null) {
+            writeDate(date);
+        }
+        return this;
+    }
+
+    /**
+     * Write a percentage cell with two decimals and a trailing '%', e.g. 87.50%
+     */
+    public CsvWriter percentCell(double percentage) throws IOException {
+        separator();
+        writeFixed2(percentage);
+        ensure(1);
+        buf[pos++] = '%';
+        return this;
+    }
+
+    /**
+     * Terminate the current row
+     */
+    public CsvWriter endRow() throws IOException {
+        ensure(1);
+        buf[pos++] = '\n';
+        rowStarted = false;
+        return this;
+    }
+
+    /**
+     * Total number of bytes handed to the channel so far, plus anything still buffered
+     */
+    public long getBytesWritten() {
+        return bytesWritten + pos;
+    }
+
+    /**
+     * Push buffered bytes to the channel
+     */
+    public void flush() throws IOException {
+        view.clear().limit(pos);
+        while (view.hasRemaining()) {
+            bytesWritten += channel.write(view);
+        }
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            ensure(1);
+            buf[pos++] = ',';
+        }
+        rowStarted = true;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Single scan to decide whether quoting is needed, then one encoding pass.
+     * Line breaks are folded into spaces; values containing a comma, double
+     * quote or apostrophe are wrapped in quotes with embedded quotes doubled.
+     */
+    private void writeEscaped(String data) throws IOException {
+        if (data == null) {
+            return;
+        }
+        int length = data.length();
+        boolean quote = false;
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c == ',' || c == '"' || c == '\'') {
+                quote = true;
+                break;
+            }
+        }
+
+        if (quote) {
+            ensure(1);
+            buf[pos++] = '"';
+        }
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c == '"') {
+                ensure(2);
+                buf[pos++] = '"';
+                buf[pos++] = '"';
+            } else if (c == '\r') {
+                // Collapse CRLF into a single space, like the \R pattern did
+                if (i + 1 < length && data.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                ensure(1);
+                buf[pos++] = ' ';
+            } else if (c == '\n' || c == '\u000B' || c == '\f' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                ensure(1);
+                buf[pos++] = ' ';
+            } else {
+                i = putChar(data, i, c);
+            }
+        }
+        if (quote) {
+            ensure(1);
+            buf[pos++] = '"';
+        }
+    }
+
+    private void writeChars(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0, length = text.length(); i < length; i++) {
+            i = putChar(text, i, text.charAt(i));
+        }
+    }
+
+    /**
+     * Encode one UTF-16 unit (or surrogate pair) as UTF-8, returning the index of the last char consumed
+     */
+    private int putChar(String s, int i, char c) throws IOException {
+        ensure(4);
+        if (c < 0x80) {
+            buf[pos++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            buf[pos++] = (byte) (0xF0 | (cp >> 18));
+            buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            buf[pos++] = '?';
+        } else {
+            buf[pos++] = (byte) (0xE0 | (c >> 12));
+            buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeChars(Long.toString(value));
+                return;
+            }
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits were emitted least significant first
+        for (int lo = start, hi = pos - 1; lo < hi; lo++, hi--) {
+            byte tmp = buf[lo];
+            buf[lo] = buf[hi];
+            buf[hi] = tmp;
+        }
+    }
+
+    /**
+     * Fixed-point rendering equivalent to String.format(Locale.ROOT, "%.2f") for report
+     * percentages. Like Formatter, rounds the shortest decimal form of the value half up
+     * (1.005 gives 1.01) and keeps the sign of negative values that round to zero.
+     */
+    private void writeFixed2(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeChars(Double.toString(value));
+            return;
+        }
+        double magnitude = Math.abs(value);
+        if (magnitude >= FIXED2_FAST_LIMIT) {
+            writeChars(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        double scaled = magnitude * 100.0;
+        long hundredths = Math.round(scaled);
+        // Near a tie the binary product can fall on either side; decide on the decimal form
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) < FIXED2_TIE_MARGIN) {
+            hundredths = BigDecimal.valueOf(magnitude).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            ensure(1);
+            buf[pos++] = '-';
+        }
+        writeLong(hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        ensure(3);
+        buf[pos++] = '.';
+        buf[pos++] = DIGIT_TENS[fraction];
+        buf[pos++] = DIGIT_ONES[fraction];
+    }
+
+    private void writeDate(LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeChars(date.toString());
+            return;
+        }
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        ensure(10);
+        buf[pos++] = DIGIT_TENS[year / 100];
+        buf[pos++] = DIGIT_ONES[year / 100];
+        buf[pos++] = DIGIT_TENS[year % 100];
+        buf[pos++] = DIGIT_ONES[year % 100];
+        buf[pos++] = '-';
+        buf[pos++] = DIGIT_TENS[month];
+        buf[pos++] = DIGIT_ONES[month];
+        buf[pos++] = '-';
+        buf[pos++] = DIGIT_TENS[day];
+        buf[pos++] = DIGIT_ONES[day];
+    }
+}
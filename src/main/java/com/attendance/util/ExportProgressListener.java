@@ -0,0 +1,15 @@
+package com.attendance.util;
+
+/**
+ * Receives progress updates from long-running exports and can cancel them
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    /**
+     * Called periodically while rows are written
+     * @param rowsWritten number of data rows written so far
+     * @return true to continue, false to cancel the export
+     */
+    boolean onProgress(long rowsWritten);
+}
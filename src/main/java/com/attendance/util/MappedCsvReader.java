@@ -0,0 +1,341 @@
+package com.attendance.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * CSV reader for very large files that memory-maps the file and splits records
+ * into fields by byte offsets. Fields are never copied or decoded: callers parse
+ * numbers and dates straight from the mapped bytes and look keys up with a
+ * ByteKeyIndex, so reading a row allocates nothing.
+ *
+ * The file is mapped in windows of up to 256 MB, so files of any size can be read;
+ * a single record must fit in one window. Quoted fields may contain commas and
+ * line breaks; their doubled quotes are left as they are, which is fine for the
+ * ids, codes, dates and statuses this is used for.
+ *
+ * Offsets returned by getRecordEnd can be passed to seek to continue reading
+ * after that record later, e.g. from a checkpoint.
+ */
+public class MappedCsvReader implements Closeable {
+    private static final long WINDOW_SIZE = 256L << 20;
+    private static final int MAX_FIELDS = 64;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+
+    // File offset and line number of the next record
+    private long position;
+    private long line = 1;
+
+    // Current record; field bounds are offsets into the window
+    private long recordStart;
+    private long recordEnd;
+    private long recordLine;
+    private int fieldCount;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private byte[] copyBuffer = new byte[256];
+
+    public MappedCsvReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        map(0);
+        // A UTF-8 byte order mark, as spreadsheet programs write
+        if (windowLimit >= 3 && window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB
+                && window.get(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Continue reading at a file offset previously returned by getRecordEnd,
+     * which is on the given line
+     */
+    public void seek(long offset, long lineNumber) throws IOException {
+        if (offset < 0 || offset > fileSize) {
+            throw new IOException("Offset " + offset + " is outside the file");
+        }
+        position = offset;
+        line = lineNumber;
+    }
+
+    /**
+     * Move to the next record
+     * @return false at the end of the file
+     */
+    public boolean nextRecord() throws IOException {
+        if (position >= fileSize) {
+            return false;
+        }
+        if (position < windowStart || position >= windowStart + windowLimit) {
+            map(position);
+        }
+        while (!scan()) {
+            if (windowStart + windowLimit >= fileSize) {
+                throw new IOException("Unterminated quoted field on line " + line);
+            }
+            if (position == windowStart) {
+                throw new IOException("Record on line " + line + " is longer than " + (WINDOW_SIZE >> 20) + " MB");
+            }
+            map(position);
+        }
+        return true;
+    }
+
+    /**
+     * Split the record at position into fields, returning false if it runs past the
+     * end of the window before the end of the file
+     */
+    private boolean scan() {
+        int p = (int) (position - windowStart);
+        boolean atEof = windowStart + windowLimit >= fileSize;
+        int fields = 0;
+        long newlines = 0;
+        while (true) {
+            // One field starts at p
+            int start;
+            int end;
+            if (p < windowLimit && window.get(p) == '"') {
+                start = ++p;
+                while (true) {
+                    if (p >= windowLimit) {
+                        return false;
+                    }
+                    byte b = window.get(p);
+                    if (b == '"') {
+                        if (p + 1 < windowLimit && window.get(p + 1) == '"') {
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= windowLimit && !atEof) {
+                            return false;
+                        }
+                        break;
+                    }
+                    if (b == '\n') {
+                        newlines++;
+                    }
+                    p++;
+                }
+                end = p++;
+                // Anything between the closing quote and the separator is ignored
+                while (p < windowLimit && window.get(p) != ',' && window.get(p) != '\n' && window.get(p) != '\r') {
+                    p++;
+                }
+            } else {
+                start = p;
+                while (p < windowLimit && window.get(p) != ',' && window.get(p) != '\n' && window.get(p) != '\r') {
+                    p++;
+                }
+                end = p;
+            }
+            if (p >= windowLimit && !atEof) {
+                return false;
+            }
+            if (fields < MAX_FIELDS) {
+                fieldStarts[fields] = start;
+                fieldEnds[fields] = end;
+            }
+            fields++;
+
+            if (p >= windowLimit) {
+                recordEnd = windowStart + p;
+                break;
+            }
+            byte separator = window.get(p++);
+            if (separator == ',') {
+                continue;
+            }
+            if (separator == '\r' && p < windowLimit && window.get(p) == '\n') {
+                p++;
+            } else if (separator == '\r' && p >= windowLimit && !atEof) {
+                return false;
+            }
+            recordEnd = windowStart + p;
+            break;
+        }
+        recordStart = position;
+        recordLine = line;
+        fieldCount = Math.min(fields, MAX_FIELDS);
+        position = recordEnd;
+        line += 1 + newlines;
+        return true;
+    }
+
+    private void map(long offset) throws IOException {
+        long length = Math.min(WINDOW_SIZE, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        windowStart = offset;
+        windowLimit = (int) length;
+    }
+
+    /**
+     * File offset just after the current record and its line break
+     */
+    public long getRecordEnd() {
+        return recordEnd;
+    }
+
+    /**
+     * Line the current record starts on, counting from 1
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Line the next record starts on
+     */
+    public long getNextLine() {
+        return line;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Whether the record is an empty line
+     */
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && fieldStarts[0] == fieldEnds[0];
+    }
+
+    /**
+     * Look a field up in an index
+     * @return the id, or ByteKeyIndex.MISSING when the field is absent or unknown
+     */
+    public int lookup(int field, ByteKeyIndex index) {
+        if (field >= fieldCount) {
+            return ByteKeyIndex.MISSING;
+        }
+        return index.get(window, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    /**
+     * A field as a non-negative int, ignoring surrounding blanks
+     * @return the value, or -1 when the field is absent, empty or not a number
+     */
+    public int parseInt(int field) {
+        if (field >= fieldCount) {
+            return -1;
+        }
+        int p = skipBlanks(fieldStarts[field], fieldEnds[field]);
+        int end = trimBlanks(p, fieldEnds[field]);
+        if (p == end || end - p > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (; p < end; p++) {
+            int digit = window.get(p) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * A yyyy-MM-dd field as an epoch day, ignoring surrounding blanks
+     * @return the epoch day, or Long.MIN_VALUE when the field is absent or not a valid date
+     */
+    public long parseDate(int field) {
+        if (field >= fieldCount) {
+            return Long.MIN_VALUE;
+        }
+        int p = skipBlanks(fieldStarts[field], fieldEnds[field]);
+        int end = trimBlanks(p, fieldEnds[field]);
+        if (end - p != 10 || window.get(p + 4) != '-' || window.get(p + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(p, 4);
+        int month = digits(p + 5, 2);
+        int day = digits(p + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * A field decoded as a String, for headers and messages rather than data rows
+     */
+    public String getString(int field) {
+        if (field >= fieldCount) {
+            return "";
+        }
+        int length = fieldEnds[field] - fieldStarts[field];
+        byte[] bytes = new byte[length];
+        window.get(fieldStarts[field], bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the current record's bytes as they are in the file, without its line break
+     */
+    public void copyRecord(OutputStream out) throws IOException {
+        int start = (int) (recordStart - windowStart);
+        int end = (int) (recordEnd - windowStart);
+        while (end > start && (window.get(end - 1) == '\n' || window.get(end - 1) == '\r')) {
+            end--;
+        }
+        int length = end - start;
+        if (copyBuffer.length < length) {
+            copyBuffer = new byte[Math.max(length, copyBuffer.length * 2)];
+        }
+        window.get(start, copyBuffer, 0, length);
+        out.write(copyBuffer, 0, length);
+    }
+
+    private int digits(int p, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = window.get(p + i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int skipBlanks(int p, int end) {
+        while (p < end && (window.get(p) == ' ' || window.get(p) == '\t')) {
+            p++;
+        }
+        return p;
+    }
+
+    private int trimBlanks(int start, int end) {
+        while (end > start && (window.get(end - 1) == ' ' || window.get(end - 1) == '\t')) {
+            end--;
+        }
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.attendance.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Set semantics of AttendanceBitmap and the switch between array and bitmap chunks at 4096 values
+ */
+class AttendanceBitmapTest {
+    private static final int ARRAY_MAX = 4096;
+
+    /**
+     * Every other value of chunk 1, starting at 65536
+     */
+    private static AttendanceBitmap chunkWith(int count) {
+        AttendanceBitmap bitmap = new AttendanceBitmap();
+        for (int i = 0; i < count; i++) {
+            bitmap.add(65536 + 2 * i);
+        }
+        return bitmap;
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void basicSetOperations() {
+        AttendanceBitmap bitmap = AttendanceBitmap.of(5, 1, 70000, 5, 3);
+        assertArrayEquals(new int[] {1, 3, 5, 70000}, bitmap.toArray());
+        assertEquals(4, bitmap.cardinality());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        bitmap.remove(70000);
+        bitmap.remove(99);
+        assertArrayEquals(new int[] {1, 3, 5}, bitmap.toArray());
+        assertFalse(bitmap.isEmpty());
+        assertTrue(new AttendanceBitmap().isEmpty());
+    }
+
+    @Test
+    void chunkBecomesABitmapAbove4096Values() {
+        AttendanceBitmap bitmap = chunkWith(ARRAY_MAX);
+        assertEquals(0, bitmap.bitmapChunks());
+        bitmap.add(65536 + 2 * ARRAY_MAX);
+        assertEquals(1, bitmap.bitmapChunks());
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+        // Adding a value already present changes nothing
+        bitmap.add(65536);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+    }
+
+    @Test
+    void chunkBecomesAnArrayAgainAt4096Values() {
+        AttendanceBitmap bitmap = chunkWith(ARRAY_MAX + 1);
+        bitmap.remove(65536);
+        assertEquals(0, bitmap.bitmapChunks());
+        assertEquals(ARRAY_MAX, bitmap.cardinality());
+        assertFalse(bitmap.contains(65536));
+        assertTrue(bitmap.contains(65538));
+        bitmap.add(65536);
+        assertEquals(1, bitmap.bitmapChunks());
+    }
+
+    @Test
+    void emptiedChunksAreDropped() {
+        AttendanceBitmap bitmap = AttendanceBitmap.of(10, 65536 + 10);
+        bitmap.remove(10);
+        bitmap.remove(65536 + 10);
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void operationResultsPickTheSmallerContainer() {
+        AttendanceBitmap evens = chunkWith(ARRAY_MAX + 100);
+        AttendanceBitmap odds = new AttendanceBitmap();
+        for (int i = 0; i < ARRAY_MAX + 100; i++) {
+            odds.add(65537 + 2 * i);
+        }
+        // Two dense chunks with nothing in common
+        AttendanceBitmap none = evens.and(odds);
+        assertTrue(none.isEmpty());
+        // Dense and dense sharing few values
+        AttendanceBitmap few = evens.and(chunkWith(10));
+        assertEquals(10, few.cardinality());
+        assertEquals(0, few.bitmapChunks());
+        // Two sparse chunks whose union is dense
+        AttendanceBitmap low = chunkWith(3000);
+        AttendanceBitmap high = new AttendanceBitmap();
+        for (int i = 0; i < 3000; i++) {
+            high.add(65537 + 2 * i);
+        }
+        AttendanceBitmap union = low.or(high);
+        assertEquals(6000, union.cardinality());
+        assertEquals(1, union.bitmapChunks());
+        // Removing most of a dense chunk leaves a sparse one
+        AttendanceBitmap rest = evens.andNot(chunkWith(ARRAY_MAX + 90));
+        assertEquals(10, rest.cardinality());
+        assertEquals(0, rest.bitmapChunks());
+        assertEquals(few.cardinality(), evens.andCardinality(chunkWith(10)));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        AttendanceBitmap bitmap = chunkWith(ARRAY_MAX + 1);
+        AttendanceBitmap copy = bitmap.copy();
+        copy.remove(65536);
+        assertTrue(bitmap.contains(65536));
+        assertEquals(bitmap.cardinality() - 1, copy.cardinality());
+    }
+
+    @Test
+    void matchesATreeSetAcrossThresholds() {
+        Random random = new Random(11);
+        AttendanceBitmap a = new AttendanceBitmap();
+        AttendanceBitmap b = new AttendanceBitmap();
+        TreeSet<Integer> expectedA = new TreeSet<>();
+        TreeSet<Integer> expectedB = new TreeSet<>();
+        for (int round = 0; round < 60_000; round++) {
+            // Chunk 0 stays near the threshold, chunk 2 is sparse
+            int value = random.nextBoolean() ? random.nextInt(9000) : 131072 + random.nextInt(500);
+            boolean toA = random.nextBoolean();
+            AttendanceBitmap bitmap = toA ? a : b;
+            TreeSet<Integer> expected = toA ? expectedA : expectedB;
+            if (random.nextInt(10) < 6) {
+                bitmap.add(value);
+                expected.add(value);
+            } else {
+                bitmap.remove(value);
+                expected.remove(value);
+            }
+            if (round % 5000 == 0) {
+                assertArrayEquals(toArray(expectedA), a.toArray());
+            }
+        }
+        assertArrayEquals(toArray(expectedA), a.toArray());
+        assertArrayEquals(toArray(expectedB), b.toArray());
+
+        TreeSet<Integer> and = new TreeSet<>(expectedA);
+        and.retainAll(expectedB);
+        TreeSet<Integer> or = new TreeSet<>(expectedA);
+        or.addAll(expectedB);
+        TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+        andNot.removeAll(expectedB);
+        assertArrayEquals(toArray(and), a.and(b).toArray());
+        assertArrayEquals(toArray(or), a.or(b).toArray());
+        assertArrayEquals(toArray(andNot), a.andNot(b).toArray());
+        assertEquals(and.size(), a.andCardinality(b));
+        assertEquals(a.and(b), b.and(a));
+    }
+}
@@ -0,0 +1,130 @@
+package com.attendance.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open addressing, growth and delta counting of CounterMap
+ */
+class CounterMapTest {
+
+    @Test
+    void missingKeysCountZero() {
+        CounterMap map = new CounterMap(0);
+        assertEquals(0, map.total(42));
+        assertEquals(0, map.present(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void deltasAccumulate() {
+        CounterMap map = new CounterMap(4);
+        map.add(7, 1, 1);
+        map.add(7, 1, 0);
+        map.add(7, -1, -1);
+        assertEquals(1, map.total(7));
+        assertEquals(0, map.present(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void keysDroppingToZeroStay() {
+        CounterMap map = new CounterMap(4);
+        map.add(3, 2, 1);
+        map.add(3, -2, -1);
+        assertEquals(0, map.total(3));
+        assertEquals(1, map.size());
+        assertArrayEquals(new long[] {0, 0}, map.sum());
+    }
+
+    @Test
+    void pairKeysKeepStudentAndSubjectApart() {
+        assertNotEquals(CounterMap.key(1, 2), CounterMap.key(2, 1));
+        assertEquals((5L << 32) | 7, CounterMap.key(5, 7));
+        CounterMap map = new CounterMap(4);
+        map.add(CounterMap.key(1, 2), 3, 2);
+        map.add(CounterMap.key(2, 1), 5, 1);
+        assertEquals(3, map.total(CounterMap.key(1, 2)));
+        assertEquals(1, map.present(CounterMap.key(2, 1)));
+    }
+
+    @Test
+    void growsAndKeepsEveryEntry() {
+        // Starts at 16 slots and doubles several times, with a delta landing on the
+        // very add that triggers each resize
+        CounterMap map = new CounterMap(0);
+        long before = map.sizeInBytes();
+        for (int i = 0; i < 10_000; i++) {
+            map.add(CounterMap.key(i, i % 17), i % 5 + 1, i % 3);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            long key = CounterMap.key(i, i % 17);
+            assertEquals(i % 5 + 1, map.total(key), "total of " + i);
+            assertEquals(i % 3, map.present(key), "present of " + i);
+        }
+        assertEquals(0, map.total(CounterMap.key(10_000, 0)));
+        assertTrue(map.sizeInBytes() > before);
+    }
+
+    @Test
+    void collidingKeysProbeToFreeSlots() {
+        // Keys spaced by the table size share low bits; linear probing must keep them apart
+        CounterMap map = new CounterMap(8);
+        for (long k = 0; k < 40; k++) {
+            map.add(k << 20, 1, (int) (k & 1));
+        }
+        for (long k = 0; k < 40; k++) {
+            assertEquals(1, map.total(k << 20));
+            assertEquals((int) (k & 1), map.present(k << 20));
+        }
+        assertArrayEquals(new long[] {40, 20}, map.sum());
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        CounterMap map = new CounterMap(0);
+        for (int i = 0; i < 100; i++) {
+            map.add(i, 1, 1);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.total(5));
+        map.add(5, 2, 1);
+        assertEquals(2, map.total(5));
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomDeltas() {
+        Random random = new Random(7);
+        CounterMap map = new CounterMap(16);
+        Map<Long, int[]> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = CounterMap.key(random.nextInt(3000), random.nextInt(40));
+            int total = random.nextInt(3) - 1;
+            int present = random.nextInt(3) - 1;
+            map.add(key, total, present);
+            int[] counts = expected.computeIfAbsent(key, k -> new int[2]);
+            counts[0] += total;
+            counts[1] += present;
+        }
+        assertEquals(expected.size(), map.size());
+        long total = 0;
+        long present = 0;
+        for (Map.Entry<Long, int[]> entry : expected.entrySet()) {
+            assertEquals(entry.getValue()[0], map.total(entry.getKey()));
+            assertEquals(entry.getValue()[1], map.present(entry.getKey()));
+            total += entry.getValue()[0];
+            present += entry.getValue()[1];
+        }
+        assertArrayEquals(new long[] {total, present}, map.sum());
+    }
+}
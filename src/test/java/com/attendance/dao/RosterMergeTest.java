@@ -0,0 +1,132 @@
+package com.attendance.dao;
+
+import com.attendance.model.AttendanceRoster;
+import com.attendance.model.AttendanceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Three-way merge of a class save against the loaded baseline and the stored rows
+ */
+class RosterMergeTest {
+    private static final byte P = AttendanceStatus.PRESENT.getCode();
+    private static final byte A = AttendanceStatus.ABSENT.getCode();
+    private static final byte L = AttendanceStatus.LATE.getCode();
+    private static final byte U = AttendanceRoster.UNMARKED;
+
+    /**
+     * Roster from alternating student ids and statuses
+     */
+    private static AttendanceRoster roster(int... idsAndStatuses) {
+        AttendanceRoster roster = new AttendanceRoster();
+        for (int i = 0; i < idsAndStatuses.length; i += 2) {
+            roster.add(idsAndStatuses[i], (byte) idsAndStatuses[i + 1]);
+        }
+        return roster;
+    }
+
+    /**
+     * Student ids of the marks at the given indexes
+     */
+    private static int[] students(AttendanceRoster marks, int[] indexes, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = marks.getStudentId(indexes[i]);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static void assertWrites(RosterMerge merge, AttendanceRoster marks, int[] updated, int[] inserted) {
+        assertFalse(merge.conflict);
+        assertArrayEquals(updated, students(marks, merge.updates, merge.updateCount), "updated students");
+        assertArrayEquals(inserted, students(marks, merge.inserts, merge.insertCount), "inserted students");
+    }
+
+    @Test
+    void unchangedSheetWritesNothing() {
+        AttendanceRoster baseline = roster(1, P, 2, A);
+        AttendanceRoster marks = roster(1, P, 2, A);
+        assertWrites(RosterMerge.of(marks, baseline, baseline.copy(), false), marks, new int[0], new int[0]);
+    }
+
+    @Test
+    void changedAndNewStudentsAreWritten() {
+        AttendanceRoster baseline = roster(1, P, 2, A);
+        AttendanceRoster marks = roster(1, A, 2, A, 3, L);
+        assertWrites(RosterMerge.of(marks, baseline, baseline.copy(), false), marks, new int[] {1}, new int[] {3});
+    }
+
+    @Test
+    void concurrentChangeToAnotherStudentIsKept() {
+        AttendanceRoster baseline = roster(1, P, 2, P);
+        // Someone else marked student 2 absent after this sheet was loaded
+        AttendanceRoster current = roster(1, P, 2, A);
+        AttendanceRoster marks = roster(1, L, 2, P);
+        // Student 2 still holds the baseline on this sheet, so the other change is not overwritten
+        assertWrites(RosterMerge.of(marks, baseline, current, false), marks, new int[] {1}, new int[0]);
+    }
+
+    @Test
+    void concurrentChangeToTheSameStudentConflicts() {
+        AttendanceRoster baseline = roster(1, P, 2, P);
+        AttendanceRoster current = roster(1, A, 2, P);
+        AttendanceRoster marks = roster(1, L, 2, P);
+        assertTrue(RosterMerge.of(marks, baseline, current, false).conflict);
+    }
+
+    @Test
+    void sameConcurrentChangeIsNoConflict() {
+        AttendanceRoster baseline = roster(1, P);
+        AttendanceRoster current = roster(1, A);
+        AttendanceRoster marks = roster(1, A);
+        assertWrites(RosterMerge.of(marks, baseline, current, false), marks, new int[0], new int[0]);
+    }
+
+    @Test
+    void rowDeletedByOthersConflicts() {
+        AttendanceRoster baseline = roster(1, P, 2, P);
+        AttendanceRoster current = roster(2, P);
+        AttendanceRoster marks = roster(1, A, 2, P);
+        assertTrue(RosterMerge.of(marks, baseline, current, false).conflict);
+    }
+
+    @Test
+    void rowInsertedByOthersConflicts() {
+        AttendanceRoster baseline = roster(1, P);
+        AttendanceRoster current = roster(1, P, 2, A);
+        AttendanceRoster marks = roster(1, P, 2, P);
+        assertTrue(RosterMerge.of(marks, baseline, current, false).conflict);
+    }
+
+    @Test
+    void overwriteIgnoresTheBaseline() {
+        AttendanceRoster baseline = roster(1, P, 2, P);
+        AttendanceRoster current = roster(1, A, 3, P);
+        AttendanceRoster marks = roster(1, L, 2, P, 3, P);
+        // 1 changed by others is overwritten, 2 was deleted and comes back, 3 already holds the mark
+        assertWrites(RosterMerge.of(marks, baseline, current, true), marks, new int[] {1}, new int[] {2});
+    }
+
+    @Test
+    void unmarkedStudentsAreSkipped() {
+        AttendanceRoster baseline = roster(1, P);
+        AttendanceRoster current = roster(1, A);
+        AttendanceRoster marks = roster(1, U, 2, U);
+        assertWrites(RosterMerge.of(marks, baseline, current, false), marks, new int[0], new int[0]);
+        assertWrites(RosterMerge.of(marks, baseline, current, true), marks, new int[0], new int[0]);
+    }
+
+    @Test
+    void marksInAnyOrder() {
+        AttendanceRoster baseline = roster(1, P, 5, P, 9, P);
+        AttendanceRoster current = roster(1, P, 5, P, 9, P);
+        AttendanceRoster marks = roster(9, A, 7, P, 1, P, 5, L);
+        assertWrites(RosterMerge.of(marks, baseline, current, false), marks, new int[] {5, 9}, new int[] {7});
+    }
+}
@@ -0,0 +1,107 @@
+package com.attendance.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JsonReader on well-formed request bodies and on malformed or hostile ones, which
+ * must fail with IllegalArgumentException and nothing else
+ */
+class JsonReaderTest {
+
+    private static void assertRejected(String json) {
+        assertThrows(IllegalArgumentException.class, () -> JsonReader.parse(json), json);
+    }
+
+    private static String nested(int depth) {
+        return "[".repeat(depth) + "]".repeat(depth);
+    }
+
+    @Test
+    void parsesObjectsInOrder() {
+        Map<String, Object> body = JsonReader.parseObject(
+                " {\"date\": \"2024-03-01\", \"subjectId\": 7, \"rate\": -1.5e2,"
+                        + " \"marks\": [true, false, null], \"empty\": {}, \"none\": []} ");
+        assertEquals(List.of("date", "subjectId", "rate", "marks", "empty", "none"), List.copyOf(body.keySet()));
+        assertEquals("2024-03-01", body.get("date"));
+        assertEquals(7L, body.get("subjectId"));
+        assertEquals(-150.0, body.get("rate"));
+        assertEquals(Arrays.asList(true, false, null), body.get("marks"));
+        assertTrue(((Map<?, ?>) body.get("empty")).isEmpty());
+        assertTrue(((List<?>) body.get("none")).isEmpty());
+    }
+
+    @Test
+    void parsesStringEscapes() {
+        assertEquals("a\"b\\c/d\b\f\n\r\t", JsonReader.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\""));
+        assertEquals("\u00e9\u20ac", JsonReader.parse("\"\\u00e9\\u20AC\""));
+        assertNull(JsonReader.parse("null"));
+        assertEquals(Long.MIN_VALUE, JsonReader.parse(Long.toString(Long.MIN_VALUE)));
+    }
+
+    @Test
+    void acceptsNestingUpToTheLimit() {
+        Object value = JsonReader.parse(nested(64));
+        for (int i = 1; i < 64; i++) {
+            value = ((List<?>) value).get(0);
+        }
+        assertTrue(((List<?>) value).isEmpty());
+        assertRejected(nested(65));
+        assertRejected("{\"a\":".repeat(65) + "1" + "}".repeat(65));
+    }
+
+    @Test
+    void rejectsDeepNestingWithoutOverflowingTheStack() {
+        // Unclosed as well, so nothing after the limit is ever read
+        assertRejected("[".repeat(1_000_000));
+        assertRejected("{\"a\":[".repeat(200_000));
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        for (String json : new String[] {
+                "", "   ", "{", "[", "[1,", "{\"a\"", "{\"a\":", "{\"a\":1", "\"open", "\"esc\\", "tru", "nul", "-"}) {
+            assertRejected(json);
+        }
+    }
+
+    @Test
+    void rejectsBadEscapes() {
+        for (String json : new String[] {
+                "\"\\x\"", "\"\\u12\"", "\"\\u12g4\"", "\"\\u+123\"", "\"\\u-123\"", "\"\\u 123\""}) {
+            assertRejected(json);
+        }
+    }
+
+    @Test
+    void rejectsBadNumbers() {
+        for (String json : new String[] {
+                "1.2.3", "--1", "1-", "1e", "+1", "0x10", "99999999999999999999", "[1e5e5]"}) {
+            assertRejected(json);
+        }
+    }
+
+    @Test
+    void rejectsMissingSeparatorsAndTrailingContent() {
+        for (String json : new String[] {
+                "{\"a\" 1}", "{\"a\":1 \"b\":2}", "[1 2]", "{a:1}", "{\"a\":1,}", "[1,]", "[1]]", "{} {}", "truex",
+                "'single'", "]"}) {
+            assertRejected(json);
+        }
+    }
+
+    @Test
+    void parseObjectRejectsOtherValues() {
+        for (String json : new String[] {"[]", "\"text\"", "1", "null"}) {
+            assertThrows(IllegalArgumentException.class, () -> JsonReader.parseObject(json), json);
+        }
+    }
+}
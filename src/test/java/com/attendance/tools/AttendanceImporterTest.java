@@ -0,0 +1,149 @@
+package com.attendance.tools;
+
+import com.attendance.util.MappedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The importer's checkpoint file and resuming a mapped read from the position it records
+ */
+class AttendanceImporterTest {
+    /** A byte order mark, CRLF and LF line breaks, a blank line and a quoted line break */
+    private static final String CSV = "\uFEFFRoll No,Subject Code,Date,Status\r\n"
+            + "CS001,CS101,2024-03-01,Present\r\n"
+            + "CS002,CS101,2024-03-01,Absent\n"
+            + "\n"
+            + "\"CS003\",\"CS\n101\",2024-03-01,Late\n"
+            + "CS004,CS101,2024-03-01,Excused\n"
+            + "CS005,CS102,2024-03-02,Present";
+
+    @TempDir
+    Path dir;
+
+    private Path writeCsv() throws IOException {
+        Path file = dir.resolve("attendance.csv");
+        Files.write(file, CSV.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static AttendanceImporter.Checkpoint sample() {
+        AttendanceImporter.Checkpoint checkpoint = new AttendanceImporter.Checkpoint();
+        checkpoint.fileSize = 1L << 33;
+        checkpoint.lastModified = 1_709_251_200_000L;
+        checkpoint.offset = 5_000_000_123L;
+        checkpoint.line = 41_000_001;
+        checkpoint.rowsRead = 41_000_000;
+        checkpoint.imported = 40_999_990;
+        checkpoint.rejected = 10;
+        checkpoint.rejectBytes = 731;
+        return checkpoint;
+    }
+
+    /**
+     * Each remaining record as "line:first field", reading from the reader's position
+     */
+    private static List<String> readRest(MappedCsvReader reader) throws IOException {
+        List<String> records = new ArrayList<>();
+        while (reader.nextRecord()) {
+            records.add(reader.getRecordLine() + ":" + reader.getString(0));
+        }
+        return records;
+    }
+
+    @Test
+    void checkpointRoundTrips() throws IOException {
+        Path file = dir.resolve("import.checkpoint");
+        sample().write(file);
+        AttendanceImporter.Checkpoint read = AttendanceImporter.Checkpoint.read(file);
+        AttendanceImporter.Checkpoint expected = sample();
+        assertEquals(expected.fileSize, read.fileSize);
+        assertEquals(expected.lastModified, read.lastModified);
+        assertEquals(expected.offset, read.offset);
+        assertEquals(expected.line, read.line);
+        assertEquals(expected.rowsRead, read.rowsRead);
+        assertEquals(expected.imported, read.imported);
+        assertEquals(expected.rejected, read.rejected);
+        assertEquals(expected.rejectBytes, read.rejectBytes);
+        assertFalse(Files.exists(dir.resolve("import.checkpoint.tmp")));
+    }
+
+    @Test
+    void leftoverTemporaryFileIsOverwritten() throws IOException {
+        Path file = dir.resolve("import.checkpoint");
+        // What a crash between writing and renaming leaves behind
+        Files.writeString(dir.resolve("import.checkpoint.tmp"), "offset=99999999999999\nline=");
+        sample().write(file);
+        assertEquals(sample().offset, AttendanceImporter.Checkpoint.read(file).offset);
+    }
+
+    @Test
+    void partialCheckpointAsksForRestart() throws IOException {
+        Path file = dir.resolve("import.checkpoint");
+        sample().write(file);
+        String full = Files.readString(file, StandardCharsets.ISO_8859_1);
+        String[] partial = {
+                "",
+                full.substring(0, full.indexOf("rows.read")),
+                full.substring(0, full.lastIndexOf('=') + 1),
+                full.replaceFirst("offset=\\d+", "offset=12x"),
+        };
+        for (String content : partial) {
+            Files.writeString(file, content, StandardCharsets.ISO_8859_1);
+            IOException e = assertThrows(IOException.class, () -> AttendanceImporter.Checkpoint.read(file), content);
+            assertTrue(e.getMessage().contains("--restart"), e.getMessage());
+        }
+    }
+
+    @Test
+    void resumesAfterEveryRecord() throws IOException {
+        Path file = writeCsv();
+        List<String> all;
+        List<long[]> positions = new ArrayList<>();
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            all = new ArrayList<>();
+            while (reader.nextRecord()) {
+                all.add(reader.getRecordLine() + ":" + reader.getString(0));
+                positions.add(new long[] {reader.getRecordEnd(), reader.getNextLine()});
+            }
+        }
+        assertEquals(List.of("1:Roll No", "2:CS001", "3:CS002", "4:", "5:CS003", "7:CS004", "8:CS005"), all);
+
+        for (int i = 0; i < positions.size(); i++) {
+            // The position goes through a checkpoint file as the importer saves it
+            AttendanceImporter.Checkpoint checkpoint = new AttendanceImporter.Checkpoint();
+            checkpoint.offset = positions.get(i)[0];
+            checkpoint.line = positions.get(i)[1];
+            Path checkpointFile = dir.resolve("import.checkpoint");
+            checkpoint.write(checkpointFile);
+            AttendanceImporter.Checkpoint saved = AttendanceImporter.Checkpoint.read(checkpointFile);
+
+            try (MappedCsvReader reader = new MappedCsvReader(file)) {
+                reader.seek(saved.offset, saved.line);
+                assertEquals(all.subList(i + 1, all.size()), readRest(reader), "after record " + i);
+            }
+        }
+    }
+
+    @Test
+    void refusesToSeekOutsideTheFile() throws IOException {
+        Path file = writeCsv();
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            assertThrows(IOException.class, () -> reader.seek(reader.getFileSize() + 1, 1));
+            assertThrows(IOException.class, () -> reader.seek(-1, 1));
+            reader.seek(reader.getFileSize(), 9);
+            assertFalse(reader.nextRecord());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.attendance.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Number, date and quoting output of CsvWriter against the String based formatting it replaced
+ */
+class CsvWriterTest {
+
+    private static String write(CsvWriterAction action) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // A tiny buffer so values are also split across flushes
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(out), 16)) {
+            action.write(writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface CsvWriterAction {
+        void write(CsvWriter writer) throws IOException;
+    }
+
+    private static String percent(double value) throws IOException {
+        return write(writer -> writer.percentCell(value));
+    }
+
+    @Test
+    void percentagesHaveTwoDecimals() throws IOException {
+        assertEquals("0.00%", percent(0));
+        assertEquals("87.50%", percent(87.5));
+        assertEquals("100.00%", percent(100));
+        assertEquals("66.67%", percent(200.0 / 3));
+        assertEquals("33.33%", percent(100.0 / 3));
+    }
+
+    @Test
+    void percentagesRoundHalfUpOnTheDecimalValue() throws IOException {
+        // value * 100 lands just below the tie in binary for all of these
+        assertEquals("1.01%", percent(1.005));
+        assertEquals("2.68%", percent(2.675));
+        assertEquals("0.13%", percent(0.125));
+        assertEquals("100.00%", percent(99.995));
+    }
+
+    @Test
+    void negativeValuesKeepTheirSign() throws IOException {
+        assertEquals("-12.35%", percent(-12.345));
+        assertEquals("-0.00%", percent(-0.001));
+        assertEquals("-0.00%", percent(-0.0));
+    }
+
+    @Test
+    void specialAndLargeValues() throws IOException {
+        assertEquals("NaN%", percent(Double.NaN));
+        assertEquals("Infinity%", percent(Double.POSITIVE_INFINITY));
+        assertEquals("100000000000000000000.00%", percent(1e20));
+        assertEquals("12345678.91%", percent(12345678.905));
+    }
+
+    @Test
+    void percentagesMatchStringFormat() throws IOException {
+        Random random = new Random(42);
+        StringBuilder expected = new StringBuilder();
+        double[] values = new double[20_000];
+        for (int i = 0; i < values.length; i++) {
+            switch (i % 4) {
+                case 0: values[i] = random.nextDouble() * 100; break;
+                case 1: values[i] = random.nextInt(100_000) / 1000.0; break;
+                case 2: values[i] = random.nextInt(1000) * 100.0 / (1 + random.nextInt(1000)); break;
+                default: values[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12)); break;
+            }
+            expected.append(String.format(Locale.ROOT, "%.2f%%", values[i])).append('\n');
+        }
+        assertEquals(expected.toString(), write(writer -> {
+            for (double value : values) {
+                writer.percentCell(value).endRow();
+            }
+        }));
+    }
+
+    @Test
+    void longCells() throws IOException {
+        assertEquals("0,7,-42,9223372036854775807,-9223372036854775808\n", write(writer -> writer
+                .cell(0).cell(7).cell(-42).cell(Long.MAX_VALUE).cell(Long.MIN_VALUE).endRow()));
+    }
+
+    @Test
+    void dateCells() throws IOException {
+        assertEquals("2024-03-09,,0999-12-31\n", write(writer -> writer
+                .cell(LocalDate.of(2024, 3, 9)).cell((LocalDate) null).cell(LocalDate.of(999, 12, 31)).endRow()));
+    }
+
+    @Test
+    void textCellsAreQuotedWhenNeeded() throws IOException {
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"O'Neil\",,Zoë\n", write(writer -> writer
+                .cell("plain").cell("a,b").cell("say \"hi\"").cell("O'Neil").cell((String) null).cell("Zoë")
+                .endRow()));
+    }
+
+    @Test
+    void lineBreaksInTextBecomeSpaces() throws IOException {
+        assertEquals("two lines,a b,x y\n", write(writer -> writer
+                .cell("two\nlines").cell("a\r\nb").cell("x\u2028y").endRow()));
+    }
+}